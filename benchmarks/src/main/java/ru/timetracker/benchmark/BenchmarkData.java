@@ -0,0 +1,130 @@
+package ru.timetracker.benchmark;
+
+import ru.timetracker.model.Task;
+import ru.timetracker.model.TimeEntry;
+import ru.timetracker.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Генератор реалистичных данных для бенчмарков: пользователь с набором задач и рабочими днями, разбитыми на сессии трекинга с
+ * перерывами. Генерация детерминирована (фиксированный seed), чтобы результаты разных релизов были сопоставимы.
+ */
+public final class BenchmarkData {
+    /**
+     * ID пользователя, для которого генерируются данные
+     */
+    public static final long USER_ID = 1L;
+
+    private static final long SEED = 20250714L;
+    private static final String[] TITLES = {"Code review", "Backend API", "Database migration", "Meeting", "Documentation",
+            "Bug fixing", "Release preparation", "Support"};
+
+    private final User user;
+    private final List<Task> tasks;
+    private final List<TimeEntry> entries;
+    private final LocalDateTime periodStart;
+    private final LocalDateTime periodEnd;
+
+    private BenchmarkData(User user, List<Task> tasks, List<TimeEntry> entries, LocalDateTime periodStart, LocalDateTime periodEnd) {
+        this.user = user;
+        this.tasks = tasks;
+        this.entries = entries;
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+    }
+
+    /**
+     * Генерирует данные за неделю: пять рабочих дней с 09:00, сессии от 5 до 90 минут и перерывы от 0 до 30 минут
+     * @param taskCount      Количество задач пользователя
+     * @param entriesPerWeek Количество записей времени за неделю
+     * @return Сгенерированные данные
+     */
+    public static BenchmarkData generate(int taskCount, int entriesPerWeek) {
+        Random random = new Random(SEED);
+        LocalDate monday = LocalDate.of(2025, 7, 14);
+        LocalDateTime createdAt = monday.minusDays(30)
+                .atStartOfDay();
+
+        User user = new User();
+        user.setId(USER_ID);
+        user.setName("Benchmark User");
+        user.setEmail("benchmark@example.com");
+        user.setCreatedAt(createdAt);
+
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task();
+            task.setId((long) i + 1);
+            task.setTitle("Task #" + (i + 1) + " " + TITLES[i % TITLES.length]);
+            task.setDescription("Generated task for benchmarks");
+            task.setCreatedAt(createdAt.plusHours(i));
+            task.setActive(random.nextInt(10) > 0);
+            task.setUser(user);
+            tasks.add(task);
+        }
+
+        List<TimeEntry> entries = new ArrayList<>(entriesPerWeek);
+        int perDay = Math.max(1, entriesPerWeek / 5);
+        long entryId = 1;
+        for (int day = 0; day < 5 && entries.size() < entriesPerWeek; day++) {
+            LocalDateTime cursor = monday.plusDays(day)
+                    .atTime(9, 0);
+            for (int i = 0; i < perDay && entries.size() < entriesPerWeek; i++) {
+                cursor = cursor.plusMinutes(random.nextInt(31));
+                LocalDateTime end = cursor.plusMinutes(5 + random.nextInt(86));
+                TimeEntry entry = new TimeEntry();
+                entry.setId(entryId++);
+                entry.setUser(user);
+                entry.setTask(tasks.get(random.nextInt(taskCount)));
+                entry.setStartTime(cursor);
+                entry.setEndTime(end);
+                entry.setCreatedAt(cursor);
+                entries.add(entry);
+                cursor = end;
+            }
+        }
+
+        return new BenchmarkData(user, tasks, entries, monday.atStartOfDay(), monday.plusDays(7)
+                .atStartOfDay());
+    }
+
+    /**
+     * @return Пользователь-владелец данных
+     */
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * @return Задачи пользователя
+     */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * @return Записи времени, отсортированные по времени начала
+     */
+    public List<TimeEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return Начало периода данных
+     */
+    public LocalDateTime getPeriodStart() {
+        return periodStart;
+    }
+
+    /**
+     * @return Конец периода данных
+     */
+    public LocalDateTime getPeriodEnd() {
+        return periodEnd;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.timetracker.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Точка входа бенчмарков. Принимает стандартные аргументы JMH, но по умолчанию сохраняет результаты в JSON
+ * ({@code jmh-result.json} в текущем каталоге), чтобы их можно было сравнивать между релизами. Формат и файл переопределяются
+ * аргументами {@code -rf} и {@code -rff}.
+ */
+public final class BenchmarkRunner {
+    /**
+     * Файл результатов по умолчанию
+     */
+    public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Запускает бенчмарки
+     * @param args аргументы командной строки JMH (например, имя бенчмарка в виде регулярного выражения)
+     * @throws CommandLineOptionException при некорректных аргументах
+     * @throws RunnerException            при ошибке выполнения бенчмарков
+     * @throws IOException                 при ошибке вывода справки
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldList()) {
+            new Runner(commandLine).list();
+            return;
+        }
+        Options options = new OptionsBuilder().parent(commandLine)
+                .resultFormat(commandLine.getResultFormat()
+                        .orElse(ResultFormatType.JSON))
+                .result(commandLine.getResult()
+                        .orElse(DEFAULT_RESULT_FILE))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,48 @@
+package ru.timetracker.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.timetracker.util.DurationFormatter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк форматирования продолжительности в строку {@code HH:MM} ({@link DurationFormatter}), вызываемого для каждой строки
+ * статистики.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DurationFormatterBenchmark {
+
+    private long totalSeconds;
+    private Duration duration;
+
+    /**
+     * Задает продолжительность рабочего дня с минутами и секундами.
+     */
+    @Setup
+    public void setUp() {
+        totalSeconds = 8 * 3600 + 37 * 60 + 12;
+        duration = Duration.ofSeconds(totalSeconds);
+    }
+
+    /**
+     * @return Отформатированное количество секунд
+     */
+    @Benchmark
+    public String formatSeconds() {
+        return DurationFormatter.formatSeconds(totalSeconds);
+    }
+
+    /**
+     * @return Отформатированная продолжительность
+     */
+    @Benchmark
+    public String formatDuration() {
+        return DurationFormatter.format(duration);
+    }
+}
@@ -0,0 +1,92 @@
+package ru.timetracker.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.timetracker.dto.mapper.TaskMapperImpl;
+import ru.timetracker.dto.mapper.TimeEntryMapperImpl;
+import ru.timetracker.dto.task.TaskDTO;
+import ru.timetracker.dto.timeentry.TimeEntryDTO;
+import ru.timetracker.dto.timeentry.TimeIntervalDTO;
+import ru.timetracker.service.TimeEntryService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк JSON-сериализации списков DTO, возвращаемых REST API. {@link ObjectMapper} настраивается так же, как в Spring MVC
+ * ({@link Jackson2ObjectMapperBuilder}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    /**
+     * Количество элементов в сериализуемых списках
+     */
+    @Param({"100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<TimeEntryDTO> timeEntries;
+    private List<TaskDTO> tasks;
+    private List<TimeIntervalDTO> intervals;
+
+    /**
+     * Готовит списки DTO из сгенерированных данных.
+     */
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .build();
+        BenchmarkData data = BenchmarkData.generate(size, size);
+        TimeEntryMapperImpl timeEntryMapper = new TimeEntryMapperImpl();
+        TaskMapperImpl taskMapper = new TaskMapperImpl();
+        timeEntries = data.getEntries()
+                .stream()
+                .map(timeEntryMapper::toDTO)
+                .toList();
+        tasks = data.getTasks()
+                .stream()
+                .map(taskMapper::toDTO)
+                .toList();
+        intervals = TimeEntryService.builder()
+                .timeEntryRepository(StubRepositories.timeEntryRepository(data))
+                .userRepository(StubRepositories.userRepository(data))
+                .timeEntryMapper(timeEntryMapper)
+                .build()
+                .getUserTimeIntervals(BenchmarkData.USER_ID, data.getPeriodStart(), data.getPeriodEnd());
+    }
+
+    /**
+     * @return JSON списка записей времени
+     * @throws JsonProcessingException при ошибке сериализации
+     */
+    @Benchmark
+    public byte[] timeEntries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(timeEntries);
+    }
+
+    /**
+     * @return JSON списка задач
+     * @throws JsonProcessingException при ошибке сериализации
+     */
+    @Benchmark
+    public byte[] tasks() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    /**
+     * @return JSON списка временных интервалов
+     * @throws JsonProcessingException при ошибке сериализации
+     */
+    @Benchmark
+    public byte[] timeIntervals() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(intervals);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.timetracker.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.timetracker.dto.mapper.TaskMapper;
+import ru.timetracker.dto.mapper.TaskMapperImpl;
+import ru.timetracker.dto.mapper.TimeEntryMapper;
+import ru.timetracker.dto.mapper.TimeEntryMapperImpl;
+import ru.timetracker.model.Task;
+import ru.timetracker.model.TimeEntry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк преобразования сущностей в DTO сгенерированными MapStruct-мапперами {@link TimeEntryMapper} и {@link TaskMapper}.
+ * Результат - среднее время преобразования всего списка.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    /**
+     * Количество сущностей в списке
+     */
+    @Param({"100", "1000"})
+    public int size;
+
+    private final TimeEntryMapper timeEntryMapper = new TimeEntryMapperImpl();
+    private final TaskMapper taskMapper = new TaskMapperImpl();
+    private BenchmarkData data;
+
+    /**
+     * Генерирует задачи и записи времени.
+     */
+    @Setup
+    public void setUp() {
+        data = BenchmarkData.generate(size, size);
+    }
+
+    /**
+     * Преобразует все записи времени в DTO
+     * @param blackhole приемник результатов
+     */
+    @Benchmark
+    public void timeEntryToDTO(Blackhole blackhole) {
+        for (TimeEntry entry : data.getEntries()) {
+            blackhole.consume(timeEntryMapper.toDTO(entry));
+        }
+    }
+
+    /**
+     * Преобразует все задачи в DTO
+     * @param blackhole приемник результатов
+     */
+    @Benchmark
+    public void taskToDTO(Blackhole blackhole) {
+        for (Task task : data.getTasks()) {
+            blackhole.consume(taskMapper.toDTO(task));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.timetracker.benchmark;
+
+import ru.timetracker.repository.TimeEntryRepository;
+import ru.timetracker.repository.UserRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+
+/**
+ * Заглушки репозиториев, возвращающие заранее сгенерированные данные без обращения к БД. Позволяют измерять только вычисления
+ * сервиса. Любой метод, не используемый бенчмарками, выбрасывает {@link UnsupportedOperationException}.
+ */
+final class StubRepositories {
+
+    private StubRepositories() {
+    }
+
+    static UserRepository userRepository(BenchmarkData data) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.of(data.getUser());
+                    case "toString" -> "StubUserRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static TimeEntryRepository timeEntryRepository(BenchmarkData data) {
+        return (TimeEntryRepository) Proxy.newProxyInstance(TimeEntryRepository.class.getClassLoader(),
+                new Class<?>[]{TimeEntryRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByUserAndStartTimeBetweenOrderByStartTime" -> data.getEntries();
+                    case "toString" -> "StubTimeEntryRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,51 @@
+package ru.timetracker.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.timetracker.dto.mapper.TimeEntryMapperImpl;
+import ru.timetracker.dto.timeentry.TimeIntervalDTO;
+import ru.timetracker.service.TimeEntryService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк построения временных интервалов {@link TimeEntryService#getUserTimeIntervals} на недельных данных без обращения к БД.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeEntryServiceBenchmark {
+
+    /**
+     * Количество записей времени за неделю
+     */
+    @Param({"50", "500", "5000"})
+    public int entriesPerWeek;
+
+    private TimeEntryService timeEntryService;
+    private BenchmarkData data;
+
+    /**
+     * Создает сервис поверх заглушек репозиториев и генерирует данные.
+     */
+    @Setup
+    public void setUp() {
+        data = BenchmarkData.generate(25, entriesPerWeek);
+        timeEntryService = TimeEntryService.builder()
+                .timeEntryRepository(StubRepositories.timeEntryRepository(data))
+                .userRepository(StubRepositories.userRepository(data))
+                .timeEntryMapper(new TimeEntryMapperImpl())
+                .build();
+    }
+
+    /**
+     * @return Интервалы работы и неактивности за неделю
+     */
+    @Benchmark
+    public List<TimeIntervalDTO> getUserTimeIntervals() {
+        return timeEntryService.getUserTimeIntervals(BenchmarkData.USER_ID, data.getPeriodStart(), data.getPeriodEnd());
+    }
+}
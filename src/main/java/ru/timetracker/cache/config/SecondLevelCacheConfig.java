@@ -0,0 +1,124 @@
+package ru.timetracker.cache.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Конфигурация кэша второго уровня Hibernate для редко изменяемых сущностей {@link ru.timetracker.model.User} и
+ * {@link ru.timetracker.model.Task}, а также кэша запросов задач.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Создает регионы JCache (Caffeine) с ограниченным размером и настраиваемым вытеснением</li>
+ *   <li>Передает менеджер кэшей в Hibernate вместо конфигурации по умолчанию</li>
+ *   <li>Включает кэш запросов и сбор статистики по регионам</li>
+ * </ul>
+ * @see SecondLevelCacheProperties Настройки регионов
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+    /**
+     * Регион кэша пользователей
+     */
+    public static final String USER_REGION = "users";
+
+    /**
+     * Регион кэша задач
+     */
+    public static final String TASK_REGION = "tasks";
+
+    /**
+     * Регион кэша результатов запросов задач
+     */
+    public static final String TASK_QUERY_REGION = "task-queries";
+
+    /**
+     * Регион результатов запросов без явно указанного региона (создается Hibernate при включенном кэше запросов)
+     */
+    public static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+
+    /**
+     * Регион временных меток обновления таблиц (используется кэшем запросов Hibernate)
+     */
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    private static final Logger logger = LogManager.getLogger(SecondLevelCacheConfig.class);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public SecondLevelCacheConfig() {
+    }
+
+    /**
+     * Создает менеджер JCache с преднастроенными регионами кэша второго уровня
+     * @param properties настройки регионов
+     * @return менеджер кэшей
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Собственный URI изолирует регионы от других контекстов Spring в той же JVM (например, в тестах)
+        URI uri = URI.create("timetracker:second-level-cache:" + UUID.randomUUID());
+        CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+
+        createRegion(cacheManager, USER_REGION, properties.getUsers(), properties.isStatisticsEnabled());
+        createRegion(cacheManager, TASK_REGION, properties.getTasks(), properties.isStatisticsEnabled());
+        createRegion(cacheManager, TASK_QUERY_REGION, properties.getTaskQueries(), properties.isStatisticsEnabled());
+        createRegion(cacheManager, DEFAULT_QUERY_RESULTS_REGION, properties.getTaskQueries(), properties.isStatisticsEnabled());
+        // Метки обновления не должны вытесняться раньше результатов запросов, иначе кэш запросов вернет устаревшие данные
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, new SecondLevelCacheProperties.Region(), properties.isStatisticsEnabled());
+        return cacheManager;
+    }
+
+    /**
+     * Включает кэш второго уровня и кэш запросов в Hibernate
+     * @param cacheManager менеджер кэшей с регионами
+     * @param properties   настройки регионов
+     * @return кастомайзер свойств Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager cacheManager, SecondLevelCacheProperties properties) {
+        return (Map<String, Object> hibernateProperties) -> {
+            hibernateProperties.put("hibernate.cache.use_second_level_cache", properties.isEnabled());
+            hibernateProperties.put("hibernate.cache.use_query_cache", properties.isEnabled());
+            hibernateProperties.put("hibernate.cache.region.factory_class", "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            hibernateProperties.put("hibernate.generate_statistics", properties.isStatisticsEnabled());
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, SecondLevelCacheProperties.Region region,
+            boolean statisticsEnabled) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaxEntries()));
+        if (region.getExpireAfterWrite() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite()
+                    .toNanos()));
+        }
+        if (region.getExpireAfterAccess() != null) {
+            configuration.setExpireAfterAccess(OptionalLong.of(region.getExpireAfterAccess()
+                    .toNanos()));
+        }
+        configuration.setStatisticsEnabled(statisticsEnabled);
+        cacheManager.createCache(name, configuration);
+        logger.info("Created second-level cache region '{}' (maxEntries: {}, expireAfterWrite: {}, expireAfterAccess: {})", name,
+                region.getMaxEntries(), region.getExpireAfterWrite(), region.getExpireAfterAccess());
+    }
+}
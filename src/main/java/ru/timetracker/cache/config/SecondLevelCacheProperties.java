@@ -0,0 +1,84 @@
+package ru.timetracker.cache.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша второго уровня Hibernate. Задаются в {@code application.properties} с префиксом {@code timetracker.cache}.
+ * <p>Для каждого региона настраиваются:
+ * <ul>
+ *   <li>Максимальное количество элементов (вытеснение по размеру)</li>
+ *   <li>Время жизни после записи и после последнего обращения (вытеснение по времени)</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.cache")
+public class SecondLevelCacheProperties {
+    /**
+     * Включен ли кэш второго уровня и кэш запросов
+     * @return true если кэш включен
+     */
+    private boolean enabled = true;
+
+    /**
+     * Собирать ли статистику Hibernate и регионов кэша
+     * @return true если статистика включена
+     */
+    private boolean statisticsEnabled = true;
+
+    /**
+     * Настройки региона пользователей
+     * @return Настройки региона
+     */
+    private Region users = new Region();
+
+    /**
+     * Настройки региона задач
+     * @return Настройки региона
+     */
+    private Region tasks = new Region();
+
+    /**
+     * Настройки региона результатов запросов задач
+     * @return Настройки региона
+     */
+    private Region taskQueries = new Region();
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public SecondLevelCacheProperties() {
+    }
+
+    /**
+     * Настройки отдельного региона кэша.
+     */
+    @Data
+    public static class Region {
+        /**
+         * Максимальное количество элементов в регионе
+         * @return Количество элементов
+         */
+        private long maxEntries = 10_000;
+
+        /**
+         * Время жизни элемента после записи (null - без ограничения)
+         * @return Время жизни
+         */
+        private Duration expireAfterWrite;
+
+        /**
+         * Время жизни элемента после последнего обращения (null - без ограничения)
+         * @return Время жизни
+         */
+        private Duration expireAfterAccess;
+
+        /**
+         * Конструктор по умолчанию, необходимый для Javadoc.
+         */
+        public Region() {
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package ru.timetracker.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.Data;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.timetracker.dto.activity.ActiveUsersDTO;
+import ru.timetracker.dto.activity.DaysWorkedDTO;
+import ru.timetracker.dto.activity.StreakDTO;
+import ru.timetracker.dto.activity.TeamDaysDTO;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.service.ActivityService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Контроллер статистики активности по дням. Базовый путь: /api/v1
+ * <p>Поддерживаемые операции:
+ * <ul>
+ *   <li>Количество дней с трекингом пользователя за период</li>
+ *   <li>Самая длинная и текущая серии дней с трекингом</li>
+ *   <li>Общие дни с трекингом у всех участников команды</li>
+ *   <li>Приблизительное количество различных активных пользователей за период</li>
+ * </ul>
+ * @see ActivityService Сервис статистики активности
+ */
+@Data
+@RestController
+@RequestMapping("/api/v1")
+@Tag(name = "Activity", description = "API for days-worked counts and activity streaks backed by per-user day bitmaps")
+public class ActivityController {
+    private static final Logger logger = LogManager.getLogger(ActivityController.class);
+    private final ActivityService activityService;
+
+    /**
+     * Создает контроллер статистики активности.
+     * @param activityService сервис статистики активности
+     */
+    public ActivityController(ActivityService activityService) {
+        this.activityService = activityService;
+    }
+
+    /**
+     * Получает количество дней с трекингом за период
+     * @param userId ID пользователя (обязательный)
+     * @param from   Первый день периода (необязательный, по умолчанию начало текущего квартала)
+     * @param to     Последний день периода (необязательный, по умолчанию сегодня)
+     * @return Количество дней со статусом 200 или ошибки 400/404/500
+     */
+    @Operation(summary = "Get days worked", description = "Returns the number of days with tracked time in the period")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Days worked retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = DaysWorkedDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date parameters"),
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @GetMapping("/users/{userId}/activity/days-worked")
+    public ResponseEntity<DaysWorkedDTO> getDaysWorked(@Parameter(description = "User ID", required = true) @PathVariable Long userId,
+            @Parameter(description = "First day (ISO 8601 format)", example = "2025-07-01") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (ISO 8601 format)", example = "2025-09-30") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        logger.debug("Getting days worked for user {} (from: {}, to: {})", userId, from, to);
+
+        try {
+            return ResponseEntity.ok(activityService.getDaysWorked(userId, from, to));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid days worked request for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to get days worked for user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Получает самую длинную и текущую серии дней с трекингом за период
+     * @param userId ID пользователя (обязательный)
+     * @param from   Первый день периода (необязательный, по умолчанию начало текущего квартала)
+     * @param to     Последний день периода (необязательный, по умолчанию сегодня)
+     * @return Серии дней со статусом 200 или ошибки 400/404/500
+     */
+    @Operation(summary = "Get activity streaks", description = "Returns the longest and the current run of consecutive days with tracked time")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Streaks retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = StreakDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date parameters"),
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @GetMapping("/users/{userId}/activity/streaks")
+    public ResponseEntity<StreakDTO> getStreaks(@Parameter(description = "User ID", required = true) @PathVariable Long userId,
+            @Parameter(description = "First day (ISO 8601 format)", example = "2025-07-01") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (ISO 8601 format)", example = "2025-09-30") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        logger.debug("Getting activity streaks for user {} (from: {}, to: {})", userId, from, to);
+
+        try {
+            return ResponseEntity.ok(activityService.getStreaks(userId, from, to));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid streak request for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to get activity streaks for user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Получает дни, в которые трекинг был у всех участников команды
+     * @param userIds ID участников команды (обязательный)
+     * @param from    Первый день периода (необязательный, по умолчанию начало текущего квартала)
+     * @param to      Последний день периода (необязательный, по умолчанию сегодня)
+     * @return Общие дни со статусом 200 или ошибки 400/404/500
+     */
+    @Operation(summary = "Get team common days", description = "Returns the days on which every listed user tracked time")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Common days retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TeamDaysDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid team or date parameters"),
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @GetMapping("/activity/team-days")
+    public ResponseEntity<TeamDaysDTO> getTeamDays(
+            @Parameter(description = "IDs of team members", required = true, example = "1,2,3") @RequestParam List<Long> userIds,
+            @Parameter(description = "First day (ISO 8601 format)", example = "2025-07-01") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (ISO 8601 format)", example = "2025-09-30") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        logger.debug("Getting common days for team {} (from: {}, to: {})", userIds, from, to);
+
+        try {
+            return ResponseEntity.ok(activityService.getTeamDays(userIds, from, to));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid team days request for {}: {}", userIds, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to get common days for team {}: {}", userIds, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Получает приблизительное количество различных пользователей, начинавших трекинг в периоде
+     * @param from        Первый день периода (необязательный, по умолчанию начало текущего квартала)
+     * @param to          Последний день периода (необязательный, по умолчанию сегодня)
+     * @param granularity Разбиение периода: DAY или MONTH (необязательный)
+     * @return Оценка количества пользователей со статусом 200 или ошибки 400/500
+     */
+    @Operation(summary = "Get distinct active users",
+            description = "Returns the approximate number of distinct users who started tracking in the period, estimated from daily "
+                    + "HyperLogLog sketches, optionally broken down by day or month")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Active users estimated successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ActiveUsersDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date or granularity parameters"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @GetMapping("/activity/active-users")
+    public ResponseEntity<ActiveUsersDTO> getActiveUsers(
+            @Parameter(description = "First day (ISO 8601 format)", example = "2025-01-01") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (ISO 8601 format)", example = "2025-12-31") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Breakdown of the period", example = "MONTH") @RequestParam(required = false)
+            ActiveUsersDTO.Granularity granularity) {
+
+        logger.debug("Estimating active users (from: {}, to: {}, granularity: {})", from, to, granularity);
+
+        try {
+            return ResponseEntity.ok(activityService.getActiveUsers(from, to, granularity));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid active users request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to estimate active users: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.timetracker.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.Data;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.timetracker.dto.cache.CacheRegionStatisticsDTO;
+import ru.timetracker.service.CacheStatisticsService;
+
+import java.util.List;
+
+/**
+ * Административный контроллер кэша второго уровня. Базовый путь: /api/v1/admin/cache
+ * <p>Поддерживаемые операции:
+ * <ul>
+ *   <li>Получение статистики по регионам кэша</li>
+ *   <li>Очистка всех регионов кэша</li>
+ * </ul>
+ * @see CacheStatisticsService Сервис статистики кэша
+ */
+@Data
+@RestController
+@RequestMapping("/api/v1/admin/cache")
+@Tag(name = "Cache Administration", description = "API for inspecting and evicting the Hibernate second-level cache")
+public class CacheAdminController {
+    private static final Logger logger = LogManager.getLogger(CacheAdminController.class);
+    private final CacheStatisticsService cacheStatisticsService;
+
+    /**
+     * Создает административный контроллер кэша.
+     * @param cacheStatisticsService сервис статистики кэша
+     */
+    public CacheAdminController(CacheStatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    /**
+     * Получает статистику по регионам кэша второго уровня
+     * @return список статистики по регионам со статусом 200 OK или 500 при ошибке
+     */
+    @Operation(summary = "Get cache statistics", description = "Returns hit/miss/put statistics for second-level cache regions")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = CacheRegionStatisticsDTO.class, type = "array"))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @GetMapping("/statistics")
+    public ResponseEntity<List<CacheRegionStatisticsDTO>> getStatistics() {
+        try {
+            return ResponseEntity.ok(cacheStatisticsService.getRegionStatistics());
+        } catch (Exception e) {
+            logger.error("Failed to collect cache statistics: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Очищает все регионы кэша второго уровня
+     * @return статус 204 No Content при успехе или 500 при ошибке
+     */
+    @Operation(summary = "Evict cache", description = "Evicts all second-level cache regions")
+    @ApiResponses(value = {@ApiResponse(responseCode = "204", description = "Cache evicted successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @DeleteMapping
+    public ResponseEntity<Void> evictAll() {
+        logger.warn("Evicting all second-level cache regions");
+
+        try {
+            cacheStatisticsService.evictAll();
+            return ResponseEntity.noContent()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to evict cache: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package ru.timetracker.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.Data;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.timetracker.dto.idle.AutoStopDTO;
+import ru.timetracker.dto.idle.IdlePolicyDTO;
+import ru.timetracker.dto.task.TaskDTO;
+import ru.timetracker.dto.user.UserDTO;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.service.IdlePolicyService;
+import ru.timetracker.sql.SqlBudget;
+
+import java.util.List;
+
+/**
+ * Контроллер ограничений длительности записей времени. Базовый путь: /api/v1/users/{userId}
+ * <p>Поддерживаемые операции:
+ * <ul>
+ *   <li>Установка ограничения длительности записей пользователя</li>
+ *   <li>Установка ограничения длительности записей по задаче</li>
+ *   <li>Получение автоматических остановок записей для уведомления клиента</li>
+ * </ul>
+ * @see IdlePolicyService Сервис ограничений длительности записей
+ */
+@Data
+@RestController
+@RequestMapping("/api/v1/users/{userId}")
+@Tag(name = "Idle policy", description = "API for maximum time entry durations and auto-stop notifications")
+public class IdlePolicyController {
+    private static final Logger logger = LogManager.getLogger(IdlePolicyController.class);
+    private final IdlePolicyService idlePolicyService;
+
+    /**
+     * Создает контроллер ограничений длительности записей.
+     * @param idlePolicyService сервис ограничений длительности записей
+     */
+    public IdlePolicyController(IdlePolicyService idlePolicyService) {
+        this.idlePolicyService = idlePolicyService;
+    }
+
+    /**
+     * Устанавливает ограничение длительности записей пользователя
+     * @param userId ID пользователя (обязательный)
+     * @param policy Ограничение (валидируется; null в поле снимает ограничение)
+     * @return Обновленный пользователь со статусом 200 или ошибки 400/404/500
+     */
+    @Operation(summary = "Set user idle policy", description = "Sets the maximum duration after which the user's time entries are auto-stopped")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Policy updated successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @PutMapping("/idle-policy")
+    public ResponseEntity<UserDTO> updateUserPolicy(@Parameter(description = "User ID", required = true) @PathVariable Long userId,
+            @Parameter(description = "Maximum entry duration", required = true) @RequestBody @Valid IdlePolicyDTO policy) {
+
+        logger.info("Updating idle policy of user {}: {}", userId, policy);
+
+        try {
+            return ResponseEntity.ok(idlePolicyService.updateUserPolicy(userId, policy));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to update idle policy of user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Устанавливает ограничение длительности записей по задаче
+     * @param userId ID пользователя-владельца (обязательный)
+     * @param taskId ID задачи (обязательный)
+     * @param policy Ограничение (валидируется; null в поле снимает ограничение)
+     * @return Обновленная задача со статусом 200 или ошибки 400/404/500
+     */
+    @Operation(summary = "Set task idle policy",
+            description = "Sets the maximum duration after which time entries of the task are auto-stopped; overrides the user policy")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Policy updated successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @PutMapping("/tasks/{taskId}/idle-policy")
+    public ResponseEntity<TaskDTO> updateTaskPolicy(@Parameter(description = "User ID", required = true) @PathVariable Long userId,
+            @Parameter(description = "Task ID", required = true) @PathVariable Long taskId,
+            @Parameter(description = "Maximum entry duration", required = true) @RequestBody @Valid IdlePolicyDTO policy) {
+
+        logger.info("Updating idle policy of task {} for user {}: {}", taskId, userId, policy);
+
+        try {
+            return ResponseEntity.ok(idlePolicyService.updateTaskPolicy(userId, taskId, policy));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to update idle policy of task {} for user {}: {}", taskId, userId, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Получает автоматические остановки записей пользователя после указанного события
+     * @param userId       ID пользователя (обязательный)
+     * @param afterEventId ID последней полученной остановки (необязательный)
+     * @param limit        Максимальное количество остановок (по умолчанию 100)
+     * @return Список остановок со статусом 200 или ошибки 400/500
+     */
+    @Operation(summary = "Get auto-stops", description = "Returns time entries stopped automatically after the given event, oldest first")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Auto-stops retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = AutoStopDTO.class, type = "array"))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @GetMapping("/time-entries/auto-stops")
+    @SqlBudget(1)
+    public ResponseEntity<List<AutoStopDTO>> getAutoStops(@Parameter(description = "User ID", required = true) @PathVariable Long userId,
+            @Parameter(description = "Event ID of the last auto-stop already seen", example = "0") @RequestParam(required = false)
+            Long afterEventId,
+            @Parameter(description = "Maximum number of auto-stops", example = "100") @RequestParam(defaultValue = "100") int limit) {
+
+        logger.debug("Getting auto-stops for user {} after event {}", userId, afterEventId);
+
+        try {
+            return ResponseEntity.ok(idlePolicyService.getAutoStops(userId, afterEventId, limit));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid auto-stops request for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to get auto-stops for user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package ru.timetracker.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.Data;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.timetracker.dto.jfr.JfrRecordingDTO;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.service.JfrRecordingService;
+import ru.timetracker.sql.SqlBudget;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Контроллер записи JDK Flight Recorder по запросу. Базовый путь: /api/v1/admin/jfr/recording
+ * <p>Поддерживаемые операции:
+ * <ul>
+ *   <li>Старт ограниченной записи с выборкой аллокаций, блокировок и событиями трекинга, отчетов и задач по расписанию</li>
+ *   <li>Состояние, остановка и удаление записи</li>
+ *   <li>Скачивание записи в формате .jfr (для JDK Mission Control или {@code jfr print})</li>
+ * </ul>
+ * @see JfrRecordingService Сервис записи JFR
+ */
+@Data
+@RestController
+@RequestMapping("/api/v1/admin/jfr/recording")
+@Tag(name = "JFR", description = "Admin API for on-demand JDK Flight Recorder recordings")
+public class JfrAdminController {
+    private static final Logger logger = LogManager.getLogger(JfrAdminController.class);
+    private final JfrRecordingService jfrRecordingService;
+
+    /**
+     * Создает контроллер записи JFR.
+     * @param jfrRecordingService сервис записи JFR
+     */
+    public JfrAdminController(JfrRecordingService jfrRecordingService) {
+        this.jfrRecordingService = jfrRecordingService;
+    }
+
+    /**
+     * Начинает запись JFR
+     * @param duration Длительность записи (необязательный, например 5m или PT5M)
+     * @return Начатая запись со статусом 201 или ошибки 400/404/409/500
+     */
+    @Operation(summary = "Start JFR recording",
+            description = "Starts a bounded JDK Flight Recorder recording that stops automatically after the duration")
+    @ApiResponses(value = {@ApiResponse(responseCode = "201", description = "Recording started successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = JfrRecordingDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid duration"),
+            @ApiResponse(responseCode = "404", description = "JFR recording is disabled"),
+            @ApiResponse(responseCode = "409", description = "Recording is already running"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(0)
+    @PostMapping
+    public ResponseEntity<JfrRecordingDTO> startRecording(
+            @Parameter(description = "Recording duration", example = "5m") @RequestParam(required = false) String duration) {
+        try {
+            JfrRecordingDTO recording = jfrRecordingService.startRecording(duration != null ? DurationStyle.detectAndParse(duration) : null);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(recording);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid JFR recording request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .build();
+        } catch (IllegalStateException e) {
+            logger.warn("JFR recording not started: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to start JFR recording: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Получает состояние записи JFR
+     * @return Запись со статусом 200 или ошибки 404/500
+     */
+    @Operation(summary = "Get JFR recording", description = "Returns the state and size of the current recording")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Recording retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = JfrRecordingDTO.class))),
+            @ApiResponse(responseCode = "404", description = "No recording or JFR recording is disabled"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(0)
+    @GetMapping
+    public ResponseEntity<JfrRecordingDTO> getRecording() {
+        try {
+            return ResponseEntity.ok(jfrRecordingService.getRecording());
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to get JFR recording: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Останавливает запись JFR; данные остаются доступны для скачивания
+     * @return Остановленная запись со статусом 200 или ошибки 404/500
+     */
+    @Operation(summary = "Stop JFR recording", description = "Stops the current recording and keeps its data for download")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Recording stopped successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = JfrRecordingDTO.class))),
+            @ApiResponse(responseCode = "404", description = "No recording or JFR recording is disabled"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(0)
+    @PostMapping("/stop")
+    public ResponseEntity<JfrRecordingDTO> stopRecording() {
+        try {
+            return ResponseEntity.ok(jfrRecordingService.stopRecording());
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to stop JFR recording: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Скачивает запись JFR. Идущая запись продолжается, в файл попадают данные на момент запроса
+     * @return Файл записи со статусом 200 или ошибки 404/500
+     */
+    @Operation(summary = "Download JFR recording", description = "Downloads the recorded data as a .jfr file")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Recording downloaded successfully",
+            content = @Content(mediaType = "application/octet-stream")),
+            @ApiResponse(responseCode = "404", description = "No recording or JFR recording is disabled"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(0)
+    @GetMapping("/file")
+    public ResponseEntity<Resource> downloadRecording() {
+        try {
+            Path file = jfrRecordingService.dumpRecording();
+            // Временный файл удаляется при закрытии потока после передачи ответа
+            InputStreamResource resource = new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .contentLength(Files.size(file))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(file.getFileName()
+                                    .toString())
+                            .build()
+                            .toString())
+                    .body(resource);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to download JFR recording: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Удаляет запись JFR и ее данные
+     * @return статус 204 No Content при успехе или ошибки 404/500
+     */
+    @Operation(summary = "Delete JFR recording", description = "Closes the current recording and discards its data")
+    @ApiResponses(value = {@ApiResponse(responseCode = "204", description = "Recording deleted successfully"),
+            @ApiResponse(responseCode = "404", description = "No recording or JFR recording is disabled"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @DeleteMapping
+    public ResponseEntity<Void> deleteRecording() {
+        try {
+            jfrRecordingService.deleteRecording();
+            return ResponseEntity.noContent()
+                    .build();
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to delete JFR recording: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+}
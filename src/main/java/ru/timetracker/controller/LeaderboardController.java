@@ -0,0 +1,76 @@
+package ru.timetracker.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.Data;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.timetracker.dto.leaderboard.WeeklyLeaderboardDTO;
+import ru.timetracker.service.LeaderboardService;
+import ru.timetracker.sql.SqlBudget;
+
+/**
+ * Контроллер рейтинга пользователей по отработанному времени. Базовый путь: /api/v1/leaderboard
+ * <p>Поддерживаемые операции:
+ * <ul>
+ *   <li>Первые места рейтинга текущей недели</li>
+ * </ul>
+ * @see LeaderboardService Сервис рейтинга
+ */
+@Data
+@RestController
+@RequestMapping("/api/v1/leaderboard")
+@Tag(name = "Leaderboard", description = "API for the in-memory ranking of users by hours tracked this week")
+public class LeaderboardController {
+    private static final Logger logger = LogManager.getLogger(LeaderboardController.class);
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * Создает контроллер рейтинга.
+     * @param leaderboardService сервис рейтинга
+     */
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    /**
+     * Получает первые места рейтинга текущей недели
+     * @param limit Количество мест (необязательный, по умолчанию 10, не более {@value LeaderboardService#MAX_LIMIT})
+     * @return Рейтинг недели со статусом 200 или ошибки 400/500
+     */
+    @Operation(summary = "Get weekly leaderboard",
+            description = "Returns the users with the most tracked time since Monday, served from memory without database queries")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Leaderboard retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = WeeklyLeaderboardDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(0)
+    @GetMapping("/weekly")
+    public ResponseEntity<WeeklyLeaderboardDTO> getWeeklyLeaderboard(
+            @Parameter(description = "Number of places (1-100)", example = "10") @RequestParam(defaultValue = "10") int limit) {
+
+        logger.debug("Getting weekly leaderboard (limit: {})", limit);
+
+        try {
+            return ResponseEntity.ok(leaderboardService.getWeeklyLeaderboard(limit));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid weekly leaderboard request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to get weekly leaderboard: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+}
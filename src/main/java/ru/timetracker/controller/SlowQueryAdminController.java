@@ -0,0 +1,107 @@
+package ru.timetracker.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.Data;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.timetracker.dto.sql.SlowQueryDTO;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.service.SlowQueryService;
+import ru.timetracker.sql.SqlBudget;
+
+import java.util.List;
+
+/**
+ * Отладочный контроллер журнала медленных SQL-запросов. Базовый путь: /api/v1/admin/slow-queries
+ * <p>Поддерживаемые операции:
+ * <ul>
+ *   <li>Получение последних медленных запросов с параметрами, количеством строк, вызывающим методом и планом выполнения</li>
+ *   <li>Очистка журнала</li>
+ * </ul>
+ * @see SlowQueryService Сервис медленных запросов
+ */
+@Data
+@RestController
+@RequestMapping("/api/v1/admin/slow-queries")
+@Tag(name = "Slow queries", description = "Debug API for inspecting recent slow SQL statements")
+public class SlowQueryAdminController {
+    private static final Logger logger = LogManager.getLogger(SlowQueryAdminController.class);
+    private final SlowQueryService slowQueryService;
+
+    /**
+     * Создает отладочный контроллер медленных запросов.
+     * @param slowQueryService сервис медленных запросов
+     */
+    public SlowQueryAdminController(SlowQueryService slowQueryService) {
+        this.slowQueryService = slowQueryService;
+    }
+
+    /**
+     * Получает последние медленные запросы
+     * @param limit Количество запросов (необязательный, по умолчанию 50, не более {@value SlowQueryService#MAX_LIMIT})
+     * @return Запросы со статусом 200 или ошибки 400/404/500
+     */
+    @Operation(summary = "Get recent slow queries",
+            description = "Returns the most recent SQL statements slower than the threshold, newest first, with parameters, rows, "
+                    + "calling method and optional execution plan")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Slow queries retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = SlowQueryDTO.class, type = "array"))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit"),
+            @ApiResponse(responseCode = "404", description = "Slow query log is disabled"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(0)
+    @GetMapping
+    public ResponseEntity<List<SlowQueryDTO>> getRecentSlowQueries(
+            @Parameter(description = "Number of queries (1-200)", example = "50") @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(slowQueryService.getRecentSlowQueries(limit));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid slow queries request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to get slow queries: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Очищает журнал медленных запросов
+     * @return статус 204 No Content при успехе или ошибки 404/500
+     */
+    @Operation(summary = "Clear slow query log", description = "Removes all recorded slow queries and cached execution plans")
+    @ApiResponses(value = {@ApiResponse(responseCode = "204", description = "Slow query log cleared successfully"),
+            @ApiResponse(responseCode = "404", description = "Slow query log is disabled"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        try {
+            slowQueryService.clear();
+            return ResponseEntity.noContent()
+                    .build();
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to clear slow query log: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+}
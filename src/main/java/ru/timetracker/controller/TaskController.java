@@ -4,14 +4,17 @@ import jakarta.validation.Valid;
 import lombok.Data;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.timetracker.dto.task.TaskCreateDTO;
 import ru.timetracker.dto.task.TaskDTO;
+import ru.timetracker.dto.task.TaskSuggestionDTO;
 import ru.timetracker.dto.task.TaskUpdateDTO;
 import ru.timetracker.exception.ResourceNotFoundException;
 import ru.timetracker.service.TaskService;
+import ru.timetracker.sql.SqlBudget;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -29,6 +32,7 @@ import java.util.List;
  * <ul>
  *   <li>Получение списка задач (с фильтрацией по статусу)</li>
  *   <li>Получение конкретной задачи</li>
+ *   <li>Поиск задач по префиксу названия (автодополнение)</li>
  *   <li>Создание новой задачи</li>
  *   <li>Обновление задачи</li>
  *   <li>Изменение статуса задачи (активная/неактивная)</li>
@@ -63,6 +67,7 @@ public class TaskController {
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Tasks retrieved successfully",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class, type = "array"))),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(1)
     @GetMapping
     public ResponseEntity<List<TaskDTO>> getUserTasks(
             @Parameter(description = "ID of the user whose tasks to retrieve", required = true) @PathVariable Long userId,
@@ -82,6 +87,49 @@ public class TaskController {
         }
     }
 
+    /**
+     * Ищет задачи пользователя по префиксу названия для автодополнения
+     * @param userId          ID пользователя (обязательный)
+     * @param prefix          префикс названия задачи (без учета регистра)
+     * @param limit           максимальное количество результатов (по умолчанию 10, не более 50)
+     * @param includeInactive включать ли неактивные задачи (по умолчанию false)
+     * @return список подсказок со статусом 200 OK или 400/404/500 при ошибках
+     */
+    @Operation(summary = "Search tasks by title prefix",
+            description = "Returns top matching tasks by title prefix, ordered by the most recent tracked time")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskSuggestionDTO.class, type = "array"))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit"),
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskSuggestionDTO>> searchTasks(
+            @Parameter(description = "ID of the user whose tasks to search", required = true) @PathVariable Long userId,
+            @Parameter(description = "Title prefix (case-insensitive)", example = "раз") @RequestParam(defaultValue = "") String prefix,
+            @Parameter(description = "Maximum number of suggestions", example = "10") @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Whether to include inactive tasks", example = "false") @RequestParam(defaultValue = "false")
+            boolean includeInactive) {
+
+        logger.debug("Searching tasks for user {} by prefix '{}' (limit: {})", userId, prefix, limit);
+
+        try {
+            List<TaskSuggestionDTO> suggestions = taskService.searchTasksByTitle(userId, prefix, limit, includeInactive);
+            return ResponseEntity.ok(suggestions);
+        } catch (ResourceNotFoundException e) {
+            logger.warn("Task search failed - user not found: {}", userId);
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid task search request for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error searching tasks for user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
     /**
      * Получает конкретную задачу пользователя
      * @param userId ID пользователя-владельца (обязательный)
@@ -93,6 +141,7 @@ public class TaskController {
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class))),
             @ApiResponse(responseCode = "404", description = "Task not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(1)
     @GetMapping("/{taskId}")
     public ResponseEntity<TaskDTO> getTask(
             @Parameter(description = "ID of the user who owns the task", required = true) @PathVariable Long userId,
@@ -147,13 +196,14 @@ public class TaskController {
      * @param userId        ID пользователя-владельца (обязательный)
      * @param taskId        ID обновляемой задачи (обязательный)
      * @param taskUpdateDTO новые данные задачи (валидируются)
-     * @return обновленная задача со статусом 200 OK или 400/404/500 при ошибках
+     * @return обновленная задача со статусом 200 OK или 400/404/409/500 при ошибках
      */
     @Operation(summary = "Update task", description = "Updates an existing task for a user")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Task updated successfully",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input data"),
             @ApiResponse(responseCode = "404", description = "Task or user not found"),
+            @ApiResponse(responseCode = "409", description = "Task was concurrently modified, retry the request"),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
     @PutMapping("/{taskId}")
     public ResponseEntity<TaskDTO> updateTask(
@@ -167,6 +217,10 @@ public class TaskController {
             TaskDTO updatedTask = taskService.updateTask(taskId, userId, taskUpdateDTO);
             logger.info("Task {} updated successfully. New status: {}", taskId, updatedTask.isActive());
             return ResponseEntity.ok(updatedTask);
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Concurrent update of task {} for user {}: {}", taskId, userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .build();
         } catch (Exception e) {
             logger.error("Error updating task {} for user {}: {}", taskId, userId, e.getMessage(), e);
             return ResponseEntity.internalServerError()
@@ -178,12 +232,13 @@ public class TaskController {
      * Переключает статус задачи (активная/неактивная)
      * @param userId ID пользователя-владельца (обязательный)
      * @param taskId ID задачи (обязательный)
-     * @return задача с новым статусом и статусом 200 OK или 404/500 при ошибках
+     * @return задача с новым статусом и статусом 200 OK или 404/409/500 при ошибках
      */
     @Operation(summary = "Toggle task status", description = "Toggles the active/inactive status of a task")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Task status toggled successfully",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class))),
             @ApiResponse(responseCode = "404", description = "Task or user not found"),
+            @ApiResponse(responseCode = "409", description = "Task was concurrently modified, retry the request"),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
     @PatchMapping("/{taskId}/toggle-status")
     public ResponseEntity<TaskDTO> toggleTaskStatus(
@@ -196,6 +251,10 @@ public class TaskController {
             TaskDTO toggledTask = taskService.toggleTaskStatus(taskId, userId);
             logger.info("Task {} status toggled successfully. New status: {}", taskId, toggledTask.isActive());
             return ResponseEntity.ok(toggledTask);
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Concurrent status toggle of task {} for user {}: {}", taskId, userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .build();
         } catch (Exception e) {
             logger.error("Error toggling status for task {} for user {}: {}", taskId, userId, e.getMessage(), e);
             return ResponseEntity.internalServerError()
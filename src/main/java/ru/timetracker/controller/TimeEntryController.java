@@ -11,17 +11,23 @@ import jakarta.validation.Valid;
 import lombok.Data;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.timetracker.dto.task.TaskDurationDTO;
+import ru.timetracker.dto.timeentry.SessionStatsDTO;
 import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
 import ru.timetracker.dto.timeentry.TimeEntryDTO;
 import ru.timetracker.dto.timeentry.TimeIntervalDTO;
 import ru.timetracker.dto.timeentry.TotalWorkDurationDTO;
+import ru.timetracker.exception.ResourceNotFoundException;
 import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.sql.SqlBudget;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -35,6 +41,7 @@ import java.util.List;
  *   <li>Аналитика времени по задачам</li>
  *   <li>Получение временных интервалов</li>
  *   <li>Расчет общего времени работы</li>
+ *   <li>Квантили длительности сессий</li>
  * </ul>
  * @see TimeEntryService Сервис для работы с записями времени
  * @see TimeEntryDTO Основная DTO для записей времени
@@ -59,14 +66,16 @@ public class TimeEntryController {
      * Начинает новую запись времени для задачи пользователя
      * @param userId ID пользователя (обязательный)
      * @param dto    Данные для старта трекинга (обязательный, валидируется)
-     * @return Созданная запись времени со статусом 201 или ошибки 400/404/500
+     * @return Созданная запись времени со статусом 201 или ошибки 400/404/409/500
      */
     @Operation(summary = "Start time tracking", description = "Creates a new time entry for specified task with start time")
     @ApiResponses(value = {@ApiResponse(responseCode = "201", description = "Time entry created successfully",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = TimeEntryDTO.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input data"),
             @ApiResponse(responseCode = "404", description = "User or task not found"),
+            @ApiResponse(responseCode = "409", description = "Concurrent start or stop of the same user, retry the request"),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(4)
     @PostMapping("/start")
     public ResponseEntity<TimeEntryDTO> startTimeEntry(
             @Parameter(description = "ID пользователя", required = true) @PathVariable Long userId,
@@ -80,6 +89,10 @@ public class TimeEntryController {
                     createdEntry.getStartTime());
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(createdEntry);
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            logger.warn("Concurrent start of time entry for user {} rejected: {}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .build();
         } catch (Exception e) {
             logger.error("Failed to start time entry for user {}. Error: {}", userId, e.getMessage(), e);
             return ResponseEntity.internalServerError()
@@ -98,6 +111,7 @@ public class TimeEntryController {
             @ApiResponse(responseCode = "404", description = "Active time entry not found"),
             @ApiResponse(responseCode = "409", description = "Time entry already stopped"),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(3)
     @PostMapping("/stop")
     public ResponseEntity<TimeEntryDTO> stopTimeEntry(
             @Parameter(description = "ID пользователя", required = true) @PathVariable Long userId) {
@@ -107,6 +121,10 @@ public class TimeEntryController {
             TimeEntryDTO timeEntry = timeEntryService.stopTimeEntry(userId);
             logger.info("Successfully stopped time entry for userID: {}. Duration: {} minutes", userId, timeEntry.getDuration());
             return ResponseEntity.ok(timeEntry);
+        } catch (ConcurrencyFailureException e) {
+            logger.warn("Concurrent stop of time entry for user {} rejected: {}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .build();
         } catch (Exception e) {
             logger.error("Error stopping time entry for userID: {}. Error: {}", userId, e.getMessage(), e);
             return ResponseEntity.internalServerError()
@@ -126,6 +144,7 @@ public class TimeEntryController {
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = TimeEntryDTO.class, type = "array"))),
             @ApiResponse(responseCode = "400", description = "Invalid date parameters"),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(2)
     @GetMapping
     public ResponseEntity<List<TimeEntryDTO>> getTimeEntries(@Parameter(description = "User ID", required = true) @PathVariable Long userId,
             @Parameter(description = "Start date (ISO 8601 format)", example = "2023-01-01T00:00:00") @RequestParam(required = false)
@@ -158,6 +177,7 @@ public class TimeEntryController {
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDurationDTO.class, type = "array"))),
             @ApiResponse(responseCode = "400", description = "Invalid date parameters"),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(2)
     @GetMapping("/task-durations")
     public ResponseEntity<List<TaskDurationDTO>> getUserTaskDurations(
             @Parameter(description = "User ID", required = true) @PathVariable Long userId,
@@ -191,6 +211,7 @@ public class TimeEntryController {
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = TimeIntervalDTO.class, type = "array"))),
             @ApiResponse(responseCode = "400", description = "Invalid date parameters"),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(2)
     @GetMapping("/time-intervals")
     public ResponseEntity<List<TimeIntervalDTO>> getUserTimeIntervals(
             @Parameter(description = "User ID", required = true) @PathVariable Long userId,
@@ -224,6 +245,7 @@ public class TimeEntryController {
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = TotalWorkDurationDTO.class))),
             @ApiResponse(responseCode = "400", description = "Invalid date parameters"),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(1)
     @GetMapping("/total-work-duration")
     public ResponseEntity<TotalWorkDurationDTO> getTotalWorkDuration(
             @Parameter(description = "User ID", required = true) @PathVariable Long userId,
@@ -245,6 +267,49 @@ public class TimeEntryController {
         }
     }
 
+    /**
+     * Получает медиану, p90 и p99 длительности сессий пользователя, его задачи или команды за период
+     * @param userId      ID пользователя (обязательный)
+     * @param taskId      ID задачи пользователя (необязательный)
+     * @param teamUserIds ID остальных участников команды (необязательный)
+     * @param from        Первый день периода (необязательный, по умолчанию за 29 дней до окончания)
+     * @param to          Последний день периода (необязательный, по умолчанию сегодня)
+     * @return Квантили длительности сессий со статусом 200 или ошибки 400/404/500
+     */
+    @Operation(summary = "Get session length percentiles",
+            description = "Returns approximate median, p90 and p99 length of completed time entries merged from per-day digests")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Session statistics retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = SessionStatsDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters"),
+            @ApiResponse(responseCode = "404", description = "User or task not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @GetMapping("/session-stats")
+    public ResponseEntity<SessionStatsDTO> getSessionStats(@Parameter(description = "User ID", required = true) @PathVariable Long userId,
+            @Parameter(description = "Task ID") @RequestParam(required = false) Long taskId,
+            @Parameter(description = "Other team member IDs") @RequestParam(required = false) List<Long> teamUserIds,
+            @Parameter(description = "First day (ISO 8601 format)", example = "2025-07-01") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (ISO 8601 format)", example = "2025-07-31") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        logger.debug("Getting session stats for user {} (task: {}, team: {}, from: {}, to: {})", userId, taskId, teamUserIds, from, to);
+
+        try {
+            return ResponseEntity.ok(timeEntryService.getSessionStats(userId, taskId, teamUserIds, from, to));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid session stats request for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to get session stats for user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
     /**
      * Удаляет все данные трекинга пользователя
      * @param userId ID пользователя (обязательный)
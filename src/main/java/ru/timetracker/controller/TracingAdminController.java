@@ -0,0 +1,107 @@
+package ru.timetracker.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.Data;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.timetracker.dto.tracing.TraceDTO;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.service.TracingService;
+import ru.timetracker.sql.SqlBudget;
+import ru.timetracker.tracing.TracingFilter;
+
+import java.util.List;
+
+/**
+ * Отладочный контроллер трасс запросов. Базовый путь: /api/v1/admin/traces
+ * <p>Поддерживаемые операции:
+ * <ul>
+ *   <li>Получение самых долгих из последних трасс с участками контроллера, сервисов, мапперов, репозиториев и SQL-запросами</li>
+ *   <li>Очистка сохраненных трасс</li>
+ * </ul>
+ * @see TracingService Сервис трасс
+ */
+@Data
+@RestController
+@RequestMapping(TracingFilter.TRACES_PATH)
+@Tag(name = "Tracing", description = "Debug API for inspecting the slowest recent request traces")
+public class TracingAdminController {
+    private static final Logger logger = LogManager.getLogger(TracingAdminController.class);
+    private final TracingService tracingService;
+
+    /**
+     * Создает отладочный контроллер трасс.
+     * @param tracingService сервис трасс
+     */
+    public TracingAdminController(TracingService tracingService) {
+        this.tracingService = tracingService;
+    }
+
+    /**
+     * Получает самые долгие из последних трасс
+     * @param limit Количество трасс (необязательный, по умолчанию 10, не более {@value TracingService#MAX_LIMIT})
+     * @return Трассы со статусом 200 или ошибки 400/404/500
+     */
+    @Operation(summary = "Get slowest traces",
+            description = "Returns the slowest of the recent request traces with controller, service, mapper, repository spans and SQL")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Traces retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TraceDTO.class, type = "array"))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit"),
+            @ApiResponse(responseCode = "404", description = "In-memory trace exporter is disabled"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(0)
+    @GetMapping("/slowest")
+    public ResponseEntity<List<TraceDTO>> getSlowestTraces(
+            @Parameter(description = "Number of traces (1-100)", example = "10") @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(tracingService.getSlowestTraces(limit));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid slowest traces request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to get slowest traces: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Удаляет сохраненные трассы
+     * @return статус 204 No Content при успехе или ошибки 404/500
+     */
+    @Operation(summary = "Clear traces", description = "Removes all traces kept by the in-memory exporter")
+    @ApiResponses(value = {@ApiResponse(responseCode = "204", description = "Traces cleared successfully"),
+            @ApiResponse(responseCode = "404", description = "In-memory trace exporter is disabled"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        try {
+            tracingService.clear();
+            return ResponseEntity.noContent()
+                    .build();
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to clear traces: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+}
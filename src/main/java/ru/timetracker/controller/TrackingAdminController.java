@@ -0,0 +1,130 @@
+package ru.timetracker.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.Data;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.timetracker.dto.tracking.TrackingReplayResultDTO;
+import ru.timetracker.dto.tracking.TrackingStateDTO;
+import ru.timetracker.tracking.TimeEntryRebuilder;
+import ru.timetracker.tracking.TrackingReplayService;
+
+/**
+ * Административный контроллер журнала трекинга. Базовый путь: /api/v1/admin/tracking
+ * <p>Поддерживаемые операции:
+ * <ul>
+ *   <li>Получение состояния трекинга пользователя по журналу</li>
+ *   <li>Перестроение данных по журналу для всех пользователей или одного пользователя</li>
+ * </ul>
+ * @see TrackingReplayService Сервис воспроизведения журнала
+ */
+@Data
+@RestController
+@RequestMapping("/api/v1/admin/tracking")
+@Tag(name = "Tracking Log Administration", description = "API for inspecting the tracking event log and rebuilding data from it")
+public class TrackingAdminController {
+    private static final Logger logger = LogManager.getLogger(TrackingAdminController.class);
+    private final TrackingReplayService trackingReplayService;
+
+    /**
+     * Создает административный контроллер журнала трекинга.
+     * @param trackingReplayService сервис воспроизведения журнала
+     */
+    public TrackingAdminController(TrackingReplayService trackingReplayService) {
+        this.trackingReplayService = trackingReplayService;
+    }
+
+    /**
+     * Получает состояние трекинга пользователя, вычисленное по снимку и событиям после него
+     * @param userId ID пользователя
+     * @return состояние трекинга со статусом 200 OK или 500 при ошибке
+     */
+    @Operation(summary = "Get tracking state", description = "Returns the user's tracking state folded from the latest snapshot and newer events")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "State retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TrackingStateDTO.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @GetMapping("/users/{userId}/state")
+    public ResponseEntity<TrackingStateDTO> getState(@Parameter(description = "ID of the user", required = true) @PathVariable Long userId) {
+        try {
+            return ResponseEntity.ok(trackingReplayService.getState(userId));
+        } catch (Exception e) {
+            logger.error("Failed to load tracking state of user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Перестраивает данные всех пользователей по журналу
+     * @param target имя цели перестроения ({@code time-entries} или {@code snapshots})
+     * @return итоги перестроения со статусом 200 OK, 400 для неизвестной цели или 500 при ошибке
+     */
+    @Operation(summary = "Rebuild from log", description = "Replays the event log of every user in parallel into the given target. "
+            + "time-entries repairs the primary time_entries table, snapshots rebuilds the state snapshots")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Rebuilt successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TrackingReplayResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown replay target"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @PostMapping("/rebuild")
+    public ResponseEntity<TrackingReplayResultDTO> rebuildAll(
+            @Parameter(description = "Replay target: time-entries or snapshots") @RequestParam(defaultValue = TimeEntryRebuilder.NAME)
+            String target) {
+        logger.warn("Rebuilding '{}' for all users", target);
+
+        try {
+            return ResponseEntity.ok(trackingReplayService.replayAll(target));
+        } catch (IllegalArgumentException e) {
+            logger.warn(e.getMessage());
+            return ResponseEntity.badRequest()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to rebuild '{}': {}", target, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+
+    /**
+     * Перестраивает данные одного пользователя по журналу
+     * @param userId ID пользователя
+     * @param target имя цели перестроения ({@code time-entries} или {@code snapshots})
+     * @return итоги перестроения со статусом 200 OK, 400 для неизвестной цели или 500 при ошибке
+     */
+    @Operation(summary = "Rebuild user from log", description = "Replays the event log of one user into the given target")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Rebuilt successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TrackingReplayResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown replay target"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @PostMapping("/users/{userId}/rebuild")
+    public ResponseEntity<TrackingReplayResultDTO> rebuildUser(
+            @Parameter(description = "ID of the user", required = true) @PathVariable Long userId,
+            @Parameter(description = "Replay target: time-entries or snapshots") @RequestParam(defaultValue = TimeEntryRebuilder.NAME)
+            String target) {
+        logger.warn("Rebuilding '{}' for user {}", target, userId);
+
+        try {
+            return ResponseEntity.ok(trackingReplayService.replayUser(target, userId));
+        } catch (IllegalArgumentException e) {
+            logger.warn(e.getMessage());
+            return ResponseEntity.badRequest()
+                    .build();
+        } catch (Exception e) {
+            logger.error("Failed to rebuild '{}' for user {}: {}", target, userId, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .build();
+        }
+    }
+}
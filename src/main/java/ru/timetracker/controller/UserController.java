@@ -11,6 +11,7 @@ import ru.timetracker.dto.user.UserCreateDTO;
 import ru.timetracker.dto.user.UserDTO;
 import ru.timetracker.dto.user.UserUpdateDTO;
 import ru.timetracker.service.UserService;
+import ru.timetracker.sql.SqlBudget;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -60,6 +61,7 @@ public class UserController {
     @Operation(summary = "Get all users", description = "Retrieves a list of all registered users")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved list of users",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserDTO.class)))
+    @SqlBudget(1)
     @GetMapping
     public ResponseEntity<List<UserDTO>> getAllUsers() {
         logger.info("Request to get all users");
@@ -84,6 +86,7 @@ public class UserController {
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "User found",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserDTO.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @SqlBudget(1)
     @GetMapping("/{id}")
     public ResponseEntity<UserDTO> getUser(
             @Parameter(description = "ID of the user to be retrieved", required = true) @PathVariable Long id) {
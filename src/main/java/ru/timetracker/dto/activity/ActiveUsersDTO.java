@@ -0,0 +1,78 @@
+package ru.timetracker.dto.activity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO приблизительного количества различных пользователей, начинавших трекинг в периоде.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class ActiveUsersDTO {
+    /**
+     * Первый день периода
+     * @return Дата начала
+     */
+    private LocalDate from;
+
+    /**
+     * Последний день периода
+     * @return Дата окончания
+     */
+    private LocalDate to;
+
+    /**
+     * Оценка количества различных пользователей за весь период
+     * @return Количество пользователей
+     */
+    private long distinctUsers;
+
+    /**
+     * Относительная стандартная ошибка оценки
+     * @return Доля от оценки
+     */
+    private double relativeStandardError;
+
+    /**
+     * Нижняя граница интервала, содержащего точное значение с вероятностью около 95% (две стандартные ошибки)
+     * @return Количество пользователей
+     */
+    private long lowerBound;
+
+    /**
+     * Верхняя граница интервала, содержащего точное значение с вероятностью около 95% (две стандартные ошибки)
+     * @return Количество пользователей
+     */
+    private long upperBound;
+
+    /**
+     * Разбиение периода (null, если не запрошено)
+     * @return Разбиение
+     */
+    private Granularity granularity;
+
+    /**
+     * Оценки по дням или месяцам периода (пустой список, если разбиение не запрошено)
+     * @return Оценки по частям периода
+     */
+    private List<ActiveUsersPeriodDTO> periods;
+
+    /**
+     * Разбиение периода на части
+     */
+    public enum Granularity {
+        /**
+         * По дням
+         */
+        DAY,
+        /**
+         * По календарным месяцам (первый и последний месяцы ограничены периодом)
+         */
+        MONTH
+    }
+}
@@ -0,0 +1,33 @@
+package ru.timetracker.dto.activity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * DTO приблизительного количества различных активных пользователей за день или месяц.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class ActiveUsersPeriodDTO {
+    /**
+     * Первый день части периода
+     * @return Дата начала
+     */
+    private LocalDate from;
+
+    /**
+     * Последний день части периода
+     * @return Дата окончания
+     */
+    private LocalDate to;
+
+    /**
+     * Оценка количества различных пользователей
+     * @return Количество пользователей
+     */
+    private long distinctUsers;
+}
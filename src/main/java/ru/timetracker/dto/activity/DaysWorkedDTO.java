@@ -0,0 +1,45 @@
+package ru.timetracker.dto.activity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * DTO количества дней с трекингом за период.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class DaysWorkedDTO {
+    /**
+     * ID пользователя
+     * @return ID пользователя
+     */
+    private Long userId;
+
+    /**
+     * Первый день периода
+     * @return Дата начала
+     */
+    private LocalDate from;
+
+    /**
+     * Последний день периода
+     * @return Дата окончания
+     */
+    private LocalDate to;
+
+    /**
+     * Количество дней с трекингом
+     * @return Число дней
+     */
+    private int daysWorked;
+
+    /**
+     * Количество календарных дней в периоде
+     * @return Число дней
+     */
+    private int calendarDays;
+}
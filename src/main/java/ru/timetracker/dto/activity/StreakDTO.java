@@ -0,0 +1,45 @@
+package ru.timetracker.dto.activity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * DTO серий подряд идущих дней с трекингом.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class StreakDTO {
+    /**
+     * ID пользователя
+     * @return ID пользователя
+     */
+    private Long userId;
+
+    /**
+     * Длина самой длинной серии в периоде
+     * @return Число дней
+     */
+    private int longestStreak;
+
+    /**
+     * Первый день самой длинной серии (null, если дней с трекингом нет)
+     * @return Дата начала серии
+     */
+    private LocalDate longestStreakStart;
+
+    /**
+     * Последний день самой длинной серии (null, если дней с трекингом нет)
+     * @return Дата окончания серии
+     */
+    private LocalDate longestStreakEnd;
+
+    /**
+     * Длина текущей серии, заканчивающейся последним днем периода (или предыдущим днем, если в последний день трекинга еще не было)
+     * @return Число дней
+     */
+    private int currentStreak;
+}
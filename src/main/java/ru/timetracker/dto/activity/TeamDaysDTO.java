@@ -0,0 +1,46 @@
+package ru.timetracker.dto.activity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO дней, в которые трекинг был у всех участников команды.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class TeamDaysDTO {
+    /**
+     * ID участников команды
+     * @return Список ID пользователей
+     */
+    private List<Long> userIds;
+
+    /**
+     * Первый день периода
+     * @return Дата начала
+     */
+    private LocalDate from;
+
+    /**
+     * Последний день периода
+     * @return Дата окончания
+     */
+    private LocalDate to;
+
+    /**
+     * Количество общих дней
+     * @return Число дней
+     */
+    private int dayCount;
+
+    /**
+     * Общие дни по возрастанию
+     * @return Список дат
+     */
+    private List<LocalDate> days;
+}
@@ -0,0 +1,55 @@
+package ru.timetracker.dto.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * DTO со статистикой региона кэша второго уровня Hibernate. Используется для мониторинга эффективности кэша во время работы приложения.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class CacheRegionStatisticsDTO {
+    /**
+     * Название региона кэша
+     * @return Название региона
+     */
+    private String region;
+
+    /**
+     * Количество попаданий в кэш
+     * @return Число попаданий
+     */
+    private long hitCount;
+
+    /**
+     * Количество промахов кэша
+     * @return Число промахов
+     */
+    private long missCount;
+
+    /**
+     * Количество помещений элементов в кэш
+     * @return Число помещений
+     */
+    private long putCount;
+
+    /**
+     * Количество элементов в памяти (-1, если провайдер кэша не предоставляет значение)
+     * @return Число элементов
+     */
+    private long elementCount;
+
+    /**
+     * Доля попаданий среди всех обращений к региону
+     * @return Значение от 0 до 1
+     */
+    private double hitRatio;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public CacheRegionStatisticsDTO() {
+    }
+}
@@ -0,0 +1,51 @@
+package ru.timetracker.dto.idle;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO автоматической остановки записи времени: по сроку автозавершения или по ограничению длительности.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class AutoStopDTO {
+    /**
+     * ID события в журнале трекинга; передается как {@code afterEventId}, чтобы получить только новые остановки
+     * @return ID события
+     */
+    private Long eventId;
+
+    /**
+     * ID остановленной записи
+     * @return ID записи
+     */
+    private Long entryId;
+
+    /**
+     * ID задачи записи
+     * @return ID задачи
+     */
+    private Long taskId;
+
+    /**
+     * Время начала записи
+     * @return Время начала
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * Время окончания, установленное при остановке
+     * @return Время окончания
+     */
+    private LocalDateTime endTime;
+
+    /**
+     * Время остановки
+     * @return Время записи события
+     */
+    private LocalDateTime stoppedAt;
+}
@@ -0,0 +1,27 @@
+package ru.timetracker.dto.idle;
+
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * DTO ограничения длительности записи времени пользователя или задачи. Запись, превысившая ограничение, останавливается автоматически.
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class IdlePolicyDTO {
+    /**
+     * Максимальная длительность записи в минутах
+     * @return Длительность в минутах или null, чтобы снять ограничение
+     */
+    @Positive
+    private Integer maxEntryMinutes;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public IdlePolicyDTO() {
+    }
+}
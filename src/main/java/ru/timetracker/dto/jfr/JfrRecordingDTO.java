@@ -0,0 +1,64 @@
+package ru.timetracker.dto.jfr;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * DTO записи JDK Flight Recorder по запросу.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class JfrRecordingDTO {
+    /**
+     * ID записи в JVM
+     * @return ID записи
+     */
+    private long id;
+
+    /**
+     * Состояние записи: RUNNING или STOPPED
+     * @return Состояние
+     */
+    private String state;
+
+    /**
+     * Имя набора настроек JFR
+     * @return Набор настроек
+     */
+    private String settings;
+
+    /**
+     * Время начала записи
+     * @return Время начала
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * Время остановки записи (null, пока запись идет)
+     * @return Время остановки
+     */
+    private LocalDateTime stopTime;
+
+    /**
+     * Длительность, по истечении которой запись останавливается автоматически
+     * @return Длительность
+     */
+    private Duration duration;
+
+    /**
+     * Максимальный размер записи на диске в байтах
+     * @return Размер в байтах
+     */
+    private long maxSizeBytes;
+
+    /**
+     * Текущий размер записанных данных в байтах
+     * @return Размер в байтах
+     */
+    private long sizeBytes;
+}
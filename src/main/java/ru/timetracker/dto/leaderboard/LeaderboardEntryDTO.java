@@ -0,0 +1,37 @@
+package ru.timetracker.dto.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * DTO позиции пользователя в недельном рейтинге по отработанному времени.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    /**
+     * Место в рейтинге, начиная с 1
+     * @return Место
+     */
+    private int rank;
+
+    /**
+     * ID пользователя
+     * @return ID пользователя
+     */
+    private Long userId;
+
+    /**
+     * Отработанное время недели в секундах
+     * @return Количество секунд
+     */
+    private long totalSeconds;
+
+    /**
+     * Отработанное время недели в формате HH:MM
+     * @return Отформатированная длительность
+     */
+    private String totalDuration;
+}
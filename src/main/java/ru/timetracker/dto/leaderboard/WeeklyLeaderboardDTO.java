@@ -0,0 +1,28 @@
+package ru.timetracker.dto.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO рейтинга пользователей по отработанному времени текущей недели.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class WeeklyLeaderboardDTO {
+    /**
+     * Понедельник текущей недели
+     * @return Первый день недели
+     */
+    private LocalDate weekStart;
+
+    /**
+     * Первые места рейтинга в порядке убывания отработанного времени
+     * @return Позиции пользователей
+     */
+    private List<LeaderboardEntryDTO> entries;
+}
@@ -39,6 +39,8 @@ public interface TaskMapper {
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "timeEntries", ignore = true)
     @Mapping(target = "active", ignore = true)
+    @Mapping(target = "maxEntryMinutes", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Task toEntity(TaskCreateDTO taskCreateDTO);
 
     /**
@@ -49,5 +51,7 @@ public interface TaskMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "timeEntries", ignore = true)
+    @Mapping(target = "maxEntryMinutes", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntity(TaskUpdateDTO taskUpdateDTO, @MappingTarget Task task);
 }
@@ -34,6 +34,7 @@ public interface UserMapper {
     @Mapping(target = "tasks", ignore = true)
     @Mapping(target = "timeEntries", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "maxEntryMinutes", ignore = true)
     User toEntity(UserCreateDTO userCreateDTO);
 
     /**
@@ -45,5 +46,6 @@ public interface UserMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "tasks", ignore = true)
     @Mapping(target = "timeEntries", ignore = true)
+    @Mapping(target = "maxEntryMinutes", ignore = true)
     void updateEntity(UserUpdateDTO userUpdateDTO, @MappingTarget User user);
 }
@@ -0,0 +1,70 @@
+package ru.timetracker.dto.sql;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO записи журнала медленных SQL-запросов.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class SlowQueryDTO {
+    /**
+     * Время выполнения запроса
+     * @return Время записи в журнал
+     */
+    private LocalDateTime recordedAt;
+
+    /**
+     * Текст запроса
+     * @return Текст запроса
+     */
+    private String sql;
+
+    /**
+     * Параметры запроса в порядке позиций (строки скрыты, если не включено полное сохранение параметров)
+     * @return Параметры запроса
+     */
+    private List<String> parameters;
+
+    /**
+     * Длительность выполнения в миллисекундах
+     * @return Длительность
+     */
+    private long durationMillis;
+
+    /**
+     * Количество наборов параметров пакетного выполнения (0 - не пакет)
+     * @return Размер пакета
+     */
+    private int batchSize;
+
+    /**
+     * Количество прочитанных или измененных строк (-1 - неизвестно)
+     * @return Количество строк
+     */
+    private long rows;
+
+    /**
+     * Метод приложения, выполнивший запрос
+     * @return Класс, метод и строка
+     */
+    private String caller;
+
+    /**
+     * Снимок плана выполнения (null, если снимок отключен или не поддерживается для запроса)
+     * @return План выполнения
+     */
+    private String plan;
+
+    /**
+     * Ошибка выполнения запроса
+     * @return Описание ошибки или null
+     */
+    private String error;
+}
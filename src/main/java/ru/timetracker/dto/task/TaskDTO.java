@@ -52,6 +52,12 @@ public class TaskDTO {
      */
     private boolean active;
 
+    /**
+     * Максимальная длительность записи времени по задаче в минутах (null - действует ограничение пользователя)
+     * @return Длительность в минутах или null
+     */
+    private Integer maxEntryMinutes;
+
     /**
      * Конструктор по умолчанию, необходимый для Javadoc.
      */
@@ -0,0 +1,51 @@
+package ru.timetracker.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO подсказки для автодополнения названия задачи. Используется при поиске задач пользователя по префиксу названия.
+ * <p>Содержит:
+ * <ul>
+ *   <li>Идентификатор и название задачи</li>
+ *   <li>Статус активности задачи</li>
+ *   <li>Время последнего старта трекинга по задаче</li>
+ * </ul>
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class TaskSuggestionDTO {
+    /**
+     * Идентификатор задачи
+     * @return ID задачи
+     */
+    private Long taskId;
+
+    /**
+     * Название задачи
+     * @return Название задачи
+     */
+    private String title;
+
+    /**
+     * Статус активности задачи
+     * @return true если задача активна
+     */
+    private boolean active;
+
+    /**
+     * Время последнего старта трекинга по задаче
+     * @return Дата и время или null, если по задаче еще не было трекинга
+     */
+    private LocalDateTime lastTrackedAt;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public TaskSuggestionDTO() {
+    }
+}
@@ -0,0 +1,71 @@
+package ru.timetracker.dto.timeentry;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO квантилей длительности сессий (завершенных записей времени) пользователя, задачи или команды за период. Квантили оцениваются
+ * по скетчам t-digest, поэтому при большом количестве сессий являются приближенными.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class SessionStatsDTO {
+    /**
+     * ID пользователей, сессии которых учтены
+     * @return Список ID пользователей
+     */
+    private List<Long> userIds;
+
+    /**
+     * ID задачи (null - все задачи)
+     * @return ID задачи
+     */
+    private Long taskId;
+
+    /**
+     * Первый день периода (по дате начала сессии)
+     * @return Дата начала
+     */
+    private LocalDate from;
+
+    /**
+     * Последний день периода (по дате начала сессии)
+     * @return Дата окончания
+     */
+    private LocalDate to;
+
+    /**
+     * Количество сессий
+     * @return Количество
+     */
+    private long sessionCount;
+
+    /**
+     * Медиана длительности в секундах (null, если сессий нет)
+     * @return Длительность в секундах
+     */
+    private Long medianSeconds;
+
+    /**
+     * 90-й процентиль длительности в секундах (null, если сессий нет)
+     * @return Длительность в секундах
+     */
+    private Long p90Seconds;
+
+    /**
+     * 99-й процентиль длительности в секундах (null, если сессий нет)
+     * @return Длительность в секундах
+     */
+    private Long p99Seconds;
+
+    /**
+     * Наибольшая длительность в секундах (null, если сессий нет)
+     * @return Длительность в секундах
+     */
+    private Long maxSeconds;
+}
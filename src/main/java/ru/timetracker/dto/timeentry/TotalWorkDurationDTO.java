@@ -32,6 +32,12 @@ public class TotalWorkDurationDTO {
      */
     private int days;
 
+    /**
+     * Количество дней периода, в которые был трекинг
+     * @return Число рабочих дней
+     */
+    private int workedDays;
+
     /**
      * Начало анализируемого периода
      * @return Дата и время начала
@@ -0,0 +1,69 @@
+package ru.timetracker.dto.tracing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * DTO участка трассы.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class SpanDTO {
+    /**
+     * ID участка
+     * @return ID участка
+     */
+    private String spanId;
+
+    /**
+     * ID родительского участка (null для корневого)
+     * @return ID родителя
+     */
+    private String parentId;
+
+    /**
+     * Название участка
+     * @return Название
+     */
+    private String name;
+
+    /**
+     * Вид участка: HTTP, CONTROLLER, SERVICE, MAPPER или REPOSITORY
+     * @return Вид участка
+     */
+    private String kind;
+
+    /**
+     * Смещение начала участка от начала трассы в миллисекундах
+     * @return Смещение
+     */
+    private double offsetMillis;
+
+    /**
+     * Длительность участка в миллисекундах
+     * @return Длительность
+     */
+    private double durationMillis;
+
+    /**
+     * Собственное время участка без вложенных участков в миллисекундах
+     * @return Собственное время
+     */
+    private double selfMillis;
+
+    /**
+     * Атрибуты участка, включая SQL-запросы ({@code db.statements}, {@code db.statement.count}, {@code db.time.ms})
+     * @return Атрибуты
+     */
+    private Map<String, Object> attributes;
+
+    /**
+     * Ошибка, которой завершился участок (null при успехе)
+     * @return Класс и сообщение исключения
+     */
+    private String error;
+}
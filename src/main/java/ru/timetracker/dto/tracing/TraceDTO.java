@@ -0,0 +1,64 @@
+package ru.timetracker.dto.tracing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO трассы запроса с участками от контроллера до SQL.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class TraceDTO {
+    /**
+     * ID трассы
+     * @return ID трассы
+     */
+    private String traceId;
+
+    /**
+     * Название трассы (метод и шаблон пути запроса)
+     * @return Название
+     */
+    private String name;
+
+    /**
+     * Время начала трассы
+     * @return Время начала
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * Длительность трассы в миллисекундах
+     * @return Длительность
+     */
+    private double durationMillis;
+
+    /**
+     * Количество SQL-запросов во всех участках
+     * @return Количество запросов
+     */
+    private int sqlStatementCount;
+
+    /**
+     * Суммарное время SQL-запросов в миллисекундах
+     * @return Время запросов
+     */
+    private long sqlTimeMillis;
+
+    /**
+     * Количество участков, не записанных из-за ограничения размера трассы
+     * @return Количество участков
+     */
+    private int droppedSpans;
+
+    /**
+     * Участки в порядке открытия; первый - корневой
+     * @return Участки трассы
+     */
+    private List<SpanDTO> spans;
+}
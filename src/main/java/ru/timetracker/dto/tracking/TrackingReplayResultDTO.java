@@ -0,0 +1,43 @@
+package ru.timetracker.dto.tracking;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * DTO результата перестроения данных по журналу трекинга.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class TrackingReplayResultDTO {
+    /**
+     * Имя цели перестроения
+     * @return Имя цели
+     */
+    private String target;
+
+    /**
+     * Количество перестроенных пользователей
+     * @return Количество пользователей
+     */
+    private int users;
+
+    /**
+     * Количество воспроизведенных событий
+     * @return Количество событий
+     */
+    private long events;
+
+    /**
+     * Количество записанных строк
+     * @return Количество строк
+     */
+    private long rows;
+
+    /**
+     * Длительность перестроения в миллисекундах
+     * @return Длительность
+     */
+    private long durationMillis;
+}
@@ -0,0 +1,64 @@
+package ru.timetracker.dto.tracking;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO состояния трекинга пользователя, вычисленного по журналу событий.
+ * <p>Содержит активную запись и итоги по завершенным записям.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class TrackingStateDTO {
+    /**
+     * ID пользователя
+     * @return ID пользователя
+     */
+    private Long userId;
+
+    /**
+     * ID последнего учтенного события
+     * @return ID события
+     */
+    private Long lastEventId;
+
+    /**
+     * ID активной записи времени
+     * @return ID записи или null
+     */
+    private Long activeEntryId;
+
+    /**
+     * ID задачи активной записи
+     * @return ID задачи или null
+     */
+    private Long activeTaskId;
+
+    /**
+     * Время начала активной записи
+     * @return Время начала или null
+     */
+    private LocalDateTime activeStartTime;
+
+    /**
+     * Количество завершенных записей
+     * @return Количество записей
+     */
+    private long completedEntries;
+
+    /**
+     * Суммарная продолжительность завершенных записей
+     * @return Продолжительность в формате HH:mm
+     */
+    private String trackedDuration;
+
+    /**
+     * Суммарная продолжительность завершенных записей в секундах
+     * @return Продолжительность в секундах
+     */
+    private long trackedSeconds;
+}
@@ -39,6 +39,12 @@ public class UserDTO {
      */
     private LocalDateTime createdAt;
 
+    /**
+     * Максимальная длительность записи времени в минутах (null - действует общее ограничение)
+     * @return Длительность в минутах или null
+     */
+    private Integer maxEntryMinutes;
+
     /**
      * Конструктор по умолчанию, необходимый для Javadoc.
      */
@@ -0,0 +1,31 @@
+package ru.timetracker.etag;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Отмечает метод, изменяющий данные пользователя: после его завершения версия данных пользователя в {@link UserDataVersions}
+ * увеличивается, и ранее выданные ETag для путей {@code /api/v1/users/{userId}} перестают совпадать.
+ * <p>Версия увеличивается после фиксации транзакции и при исключении тоже: лишнее увеличение приводит лишь к повторной загрузке
+ * данных клиентом, пропущенное - к устаревшему ответу 304.
+ * @see UserDataChangeInterceptor Увеличение версии
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ChangesUserData {
+    /**
+     * Имя параметра метода с ID пользователя
+     * @return Имя параметра
+     */
+    String value() default "userId";
+
+    /**
+     * Изменяет ли метод данные всех пользователей (например, очистка по сроку хранения); имя параметра тогда не используется
+     * @return true если увеличиваются версии всех пользователей
+     */
+    boolean allUsers() default false;
+}
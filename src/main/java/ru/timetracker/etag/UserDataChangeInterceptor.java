@@ -0,0 +1,67 @@
+package ru.timetracker.etag;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Увеличение версии данных пользователя после методов, отмеченных {@link ChangesUserData}.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Находит ID пользователя по имени параметра из аннотации (позиция параметра запоминается для метода)</li>
+ *   <li>После завершения метода увеличивает версию пользователя или всех пользователей в {@link UserDataVersions}; если метод вызван
+ *   внутри открытой транзакции, версия увеличивается после ее фиксации</li>
+ * </ul>
+ */
+public class UserDataChangeInterceptor implements MethodInterceptor {
+    private static final int ALL_USERS = -1;
+
+    private final ObjectProvider<UserDataVersions> versions;
+    private final ConcurrentMap<Method, Integer> userIdParameters = new ConcurrentHashMap<>();
+
+    /**
+     * Создает перехватчик изменений данных пользователя.
+     * @param versions версии данных пользователей (разрешаются при первом вызове, чтобы не создавать их при сборке прокси)
+     */
+    public UserDataChangeInterceptor(ObjectProvider<UserDataVersions> versions) {
+        this.versions = versions;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        int index = userIdParameters.computeIfAbsent(invocation.getMethod(), UserDataChangeInterceptor::userIdParameter);
+        try {
+            return invocation.proceed();
+        } finally {
+            // Увеличивается и при исключении: часть изменений могла быть зафиксирована, а лишнее увеличение безопасно
+            if (index == ALL_USERS) {
+                versions.getObject()
+                        .bumpAll();
+            } else if (invocation.getArguments()[index] instanceof Long userId) {
+                versions.getObject()
+                        .bump(userId);
+            }
+        }
+    }
+
+    private static int userIdParameter(Method method) {
+        ChangesUserData annotation = method.getAnnotation(ChangesUserData.class);
+        if (annotation.allUsers()) {
+            return ALL_USERS;
+        }
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].getName()
+                    .equals(annotation.value())) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Method " + method.getDeclaringClass()
+                .getSimpleName() + "." + method.getName() + " has no parameter '" + annotation.value() + "' with the user ID");
+    }
+}
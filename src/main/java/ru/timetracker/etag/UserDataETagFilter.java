@@ -0,0 +1,195 @@
+package ru.timetracker.etag;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.timetracker.etag.config.UserDataETagProperties;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Enumeration;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Условные GET-запросы к данным пользователя: ответы путей {@code /api/v1/users/{userId}} получают ETag по версии данных
+ * пользователя, а запрос с совпадающим {@code If-None-Match} получает 304 Not Modified без вызова контроллера и запросов к БД.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Читает версию из {@link UserDataVersions} до обработки запроса, поэтому ETag никогда не новее данных ответа</li>
+ *   <li>Для ответов по нескольким пользователям (ID участников в параметре {@value #TEAM_USER_IDS}) строит ETag по общей версии всех
+ *   пользователей запроса; запрос с некорректными ID выполняется без ETag</li>
+ *   <li>Добавляет слабый ETag и {@code Cache-Control: private, no-cache} только к успешным ответам (2xx)</li>
+ *   <li>Сравнивает {@code If-None-Match} слабым сравнением; {@code *} не поддерживается - такой запрос выполняется полностью</li>
+ *   <li>Включает в ETag номер интервала {@code refresh-interval}: ответы, зависящие от текущего времени (длительность открытой
+ *   записи, периоды по умолчанию), устаревают не дольше интервала</li>
+ *   <li>Учитывает запросы в метрике {@value #REQUESTS} с тегом {@code result}: {@code not-modified} или {@code full}</li>
+ * </ul>
+ * @see UserDataETagProperties Настройки условных запросов
+ */
+public class UserDataETagFilter extends OncePerRequestFilter {
+    /**
+     * Имя счетчика условных запросов к данным пользователя
+     */
+    public static final String REQUESTS = "timetracker.etag.requests";
+
+    /**
+     * Параметр запроса с ID остальных пользователей, от данных которых зависит ответ
+     */
+    public static final String TEAM_USER_IDS = "teamUserIds";
+
+    private static final Pattern USER_PATH = Pattern.compile("^/api/v1/users/(\\d{1,18})(?:/.*)?$");
+
+    private final UserDataVersions versions;
+    private final UserDataETagProperties properties;
+    private final Counter notModified;
+    private final Counter full;
+
+    /**
+     * Создает фильтр условных запросов.
+     * @param versions   версии данных пользователей
+     * @param properties настройки условных запросов
+     * @param registry   реестр метрик
+     */
+    public UserDataETagFilter(UserDataVersions versions, UserDataETagProperties properties, MeterRegistry registry) {
+        this.versions = versions;
+        this.properties = properties;
+        this.notModified = requests(registry, "not-modified");
+        this.full = requests(registry, "full");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Matcher matcher = USER_PATH.matcher(request.getRequestURI()
+                .substring(request.getContextPath()
+                        .length()));
+        if (!matcher.matches()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Set<Long> userIds = userIds(Long.valueOf(matcher.group(1)), request.getParameterValues(TEAM_USER_IDS));
+        if (userIds == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String eTag = eTag(userIds);
+        if (matches(request.getHeaders(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+            return;
+        }
+        full.increment();
+        ETagResponse eTagResponse = new ETagResponse(response, eTag);
+        filterChain.doFilter(request, eTagResponse);
+        eTagResponse.addETag();
+    }
+
+    private String eTag(Set<Long> userIds) {
+        long interval = Math.max(1, properties.getRefreshInterval()
+                .toMillis());
+        String version = userIds.size() == 1 ? versions.current(userIds.iterator()
+                .next()) : versions.current(userIds);
+        return "W/\"" + version + "-" + Long.toString(System.currentTimeMillis() / interval, Character.MAX_RADIX) + "\"";
+    }
+
+    // Пользователь пути и участники команды; null, если ID участников некорректны (ответ 400 не кэшируется)
+    private static Set<Long> userIds(Long userId, String[] teamUserIds) {
+        Set<Long> userIds = new TreeSet<>();
+        userIds.add(userId);
+        if (teamUserIds == null) {
+            return userIds;
+        }
+        for (String value : teamUserIds) {
+            for (String id : value.split(",")) {
+                try {
+                    userIds.add(Long.valueOf(id.trim()));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return userIds;
+    }
+
+    private static boolean matches(Enumeration<String> ifNoneMatch, String eTag) {
+        String opaque = opaque(eTag);
+        while (ifNoneMatch.hasMoreElements()) {
+            for (String candidate : ifNoneMatch.nextElement()
+                    .split(",")) {
+                if (opaque(candidate.trim()).equals(opaque)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Слабое сравнение игнорирует признак W/
+    private static String opaque(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder(REQUESTS)
+                .description("Conditional GET requests to user data by whether they were answered with 304 Not Modified")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    // Добавляет ETag перед записью тела, когда статус ответа уже известен, чтобы ответы с ошибкой не получали ETag
+    private static final class ETagResponse extends HttpServletResponseWrapper {
+        private final String eTag;
+        private boolean decided;
+
+        private ETagResponse(HttpServletResponse response, String eTag) {
+            super(response);
+            this.eTag = eTag;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addETag();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addETag();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addETag();
+            super.flushBuffer();
+        }
+
+        private void addETag() {
+            if (decided) {
+                return;
+            }
+            decided = true;
+            if (!isCommitted() && getStatus() >= 200 && getStatus() < 300) {
+                setHeader(HttpHeaders.ETAG, eTag);
+                setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+            }
+        }
+    }
+}
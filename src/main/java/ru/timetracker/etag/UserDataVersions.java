@@ -0,0 +1,106 @@
+package ru.timetracker.etag;
+
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.timetracker.event.TimeEntryEvent;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Монотонно растущие версии данных пользователей, по которым строятся ETag ответов {@code /api/v1/users/{userId}}.
+ * <p>Особенности:
+ * <ul>
+ *   <li>Версия пользователя увеличивается после фиксации транзакции метода с {@link ChangesUserData} и по событиям
+ *   {@link TimeEntryEvent} (в том числе после отложенной записи трекинга и автозавершения)</li>
+ *   <li>Изменение данных всех пользователей увеличивает общее поколение, входящее в версию каждого пользователя</li>
+ *   <li>Версии хранятся в памяти экземпляра и начинаются заново после перезапуска; метка запуска в версии исключает совпадение с
+ *   ETag, выданными до перезапуска</li>
+ * </ul>
+ * <p>Версия не уменьшается и не отстает от зафиксированных изменений: ответ, построенный после чтения версии, содержит данные не
+ * старее этой версии.
+ */
+public class UserDataVersions {
+    private final String instance = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public UserDataVersions() {
+    }
+
+    /**
+     * Текущая версия данных пользователя
+     * @param userId ID пользователя
+     * @return Версия из метки запуска, поколения и счетчика изменений пользователя
+     */
+    public String current(Long userId) {
+        // Поколение читается до счетчика: изменение между чтениями дает более старую версию, а не более новую
+        long currentGeneration = generation.get();
+        AtomicLong version = versions.get(userId);
+        return instance + "-" + currentGeneration + "-" + (version != null ? version.get() : 0);
+    }
+
+    /**
+     * Общая версия данных нескольких пользователей (например, участников команды). Счетчики изменений только растут, поэтому их сумма
+     * для одного и того же набора пользователей меняется при любом изменении данных любого из них
+     * @param userIds ID пользователей
+     * @return Версия из метки запуска, поколения и суммы счетчиков изменений пользователей
+     */
+    public String current(Collection<Long> userIds) {
+        long currentGeneration = generation.get();
+        long sum = 0;
+        for (Long userId : userIds) {
+            AtomicLong version = versions.get(userId);
+            sum += version != null ? version.get() : 0;
+        }
+        return instance + "-" + currentGeneration + "-" + sum;
+    }
+
+    /**
+     * Увеличивает версию пользователя после фиксации текущей транзакции
+     * @param userId ID пользователя
+     */
+    public void bump(Long userId) {
+        afterCommit(() -> increment(userId));
+    }
+
+    /**
+     * Увеличивает версии всех пользователей после фиксации текущей транзакции
+     */
+    public void bumpAll() {
+        afterCommit(generation::incrementAndGet);
+    }
+
+    /**
+     * Увеличивает версию пользователя по событию записи времени
+     * @param event Событие записи времени
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeEntryEvent(TimeEntryEvent event) {
+        increment(event.getUserId());
+    }
+
+    private void increment(Long userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong())
+                .incrementAndGet();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.timetracker.etag.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import ru.timetracker.etag.ChangesUserData;
+import ru.timetracker.etag.UserDataChangeInterceptor;
+import ru.timetracker.etag.UserDataETagFilter;
+import ru.timetracker.etag.UserDataVersions;
+
+/**
+ * Конфигурация условных GET-запросов к данным пользователя.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Подключает настройки {@link UserDataETagProperties} и создает версии данных пользователей</li>
+ *   <li>Регистрирует советник для методов с {@link ChangesUserData}. Советник выполняется после JFR, но до повторов и транзакции:
+ *   версия увеличивается после фиксации изменений, один раз на все попытки</li>
+ *   <li>Регистрирует фильтр ETag для путей API</li>
+ * </ul>
+ */
+@Configuration
+@EnableConfigurationProperties(UserDataETagProperties.class)
+@ConditionalOnProperty(prefix = "timetracker.etag", name = "enabled", matchIfMissing = true)
+public class UserDataETagConfig {
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public UserDataETagConfig() {
+    }
+
+    /**
+     * Создает версии данных пользователей
+     * @return версии данных пользователей
+     */
+    @Bean
+    public UserDataVersions userDataVersions() {
+        return new UserDataVersions();
+    }
+
+    /**
+     * Создает советник увеличения версии для методов с {@link ChangesUserData}
+     * @param versions версии данных пользователей
+     * @return советник изменений данных пользователя
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor userDataChangeAdvisor(ObjectProvider<UserDataVersions> versions) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(ChangesUserData.class),
+                new UserDataChangeInterceptor(versions));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+        return advisor;
+    }
+
+    /**
+     * Регистрирует фильтр ETag для путей API
+     * @param versions   версии данных пользователей
+     * @param properties настройки условных запросов
+     * @param registry   реестр метрик
+     * @return регистрация фильтра
+     */
+    @Bean
+    public FilterRegistrationBean<UserDataETagFilter> userDataETagFilter(UserDataVersions versions, UserDataETagProperties properties,
+            MeterRegistry registry) {
+        FilterRegistrationBean<UserDataETagFilter> registration = new FilterRegistrationBean<>(
+                new UserDataETagFilter(versions, properties, registry));
+        registration.addUrlPatterns("/api/*");
+        // После фильтров бюджета SQL и трассировки: ответ 304 попадает в трассу и проверку бюджета
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
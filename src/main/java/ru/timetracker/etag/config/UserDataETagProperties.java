@@ -0,0 +1,38 @@
+package ru.timetracker.etag.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки условных GET-запросов к данным пользователя. Задаются в {@code application.properties} с префиксом
+ * {@code timetracker.etag}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Включение ETag и ответов 304 Not Modified</li>
+ *   <li>Интервал, после которого ETag меняется без изменения данных</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.etag")
+public class UserDataETagProperties {
+    /**
+     * Включены ли ETag для путей {@code /api/v1/users/{userId}}
+     * @return true если ETag включены
+     */
+    private boolean enabled = true;
+
+    /**
+     * Интервал, после которого ETag меняется без изменения данных: ответы, зависящие от текущего времени (длительность открытой записи,
+     * текущие день и неделя), устаревают не дольше интервала
+     * @return Интервал обновления ETag
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public UserDataETagProperties() {
+    }
+}
@@ -0,0 +1,72 @@
+package ru.timetracker.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие жизненного цикла записи времени. Публикуется {@link ru.timetracker.service.TimeEntryService} при старте, остановке и автозавершении
+ * трекинга, чтобы журнал трекинга и in-memory структуры (индексы, счетчики) обновлялись без прямой зависимости сервиса от них.
+ * <p>Слушатели, меняющие внутреннее состояние, должны подписываться через {@code @TransactionalEventListener}, чтобы не учитывать
+ * откатившиеся транзакции.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class TimeEntryEvent {
+    /**
+     * Тип события
+     * @return Тип события
+     */
+    private final Type type;
+
+    /**
+     * ID записи времени
+     * @return ID записи
+     */
+    private final Long entryId;
+
+    /**
+     * ID пользователя-владельца записи
+     * @return ID пользователя
+     */
+    private final Long userId;
+
+    /**
+     * ID задачи, к которой относится запись
+     * @return ID задачи
+     */
+    private final Long taskId;
+
+    /**
+     * Время начала записи
+     * @return Время начала
+     */
+    private final LocalDateTime startTime;
+
+    /**
+     * Время окончания записи (null для события старта)
+     * @return Время окончания или null
+     */
+    private final LocalDateTime endTime;
+
+    /**
+     * Тип события записи времени.
+     */
+    public enum Type {
+        /**
+         * Трекинг начат
+         */
+        STARTED,
+        /**
+         * Трекинг остановлен пользователем
+         */
+        STOPPED,
+        /**
+         * Запись завершена автоматически по расписанию
+         */
+        AUTO_COMPLETED
+    }
+}
@@ -0,0 +1,52 @@
+package ru.timetracker.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Событие сброса данных трекинга пользователя. Публикуется, когда записи времени пользователя (или всех пользователей) удалены или
+ * перестроены в обход {@link TimeEntryEvent}: при очистке данных трекинга, удалении задач и пользователей, очистке по сроку хранения и
+ * перестроении таблицы записей по журналу. In-memory структуры, построенные по записям времени (сегменты вне кучи, индексы, рейтинг,
+ * скетчи), сбрасывают или пересчитывают по нему данные пользователя без прямой зависимости сервисов от них.
+ * <p>Слушатели подписываются через {@code @TransactionalEventListener}: данные сбрасываются после фиксации изменения и не сбрасываются
+ * при его откате.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class UserTrackingDataInvalidatedEvent {
+    private static final UserTrackingDataInvalidatedEvent ALL_USERS = new UserTrackingDataInvalidatedEvent(null);
+
+    /**
+     * ID пользователя, данные которого изменены (null, если изменены данные всех пользователей)
+     * @return ID пользователя или null
+     */
+    private final Long userId;
+
+    /**
+     * Создает событие сброса данных одного пользователя
+     * @param userId ID пользователя
+     * @return Событие
+     */
+    public static UserTrackingDataInvalidatedEvent ofUser(Long userId) {
+        return new UserTrackingDataInvalidatedEvent(userId);
+    }
+
+    /**
+     * Создает событие сброса данных всех пользователей
+     * @return Событие
+     */
+    public static UserTrackingDataInvalidatedEvent ofAllUsers() {
+        return ALL_USERS;
+    }
+
+    /**
+     * Изменены ли данные всех пользователей
+     * @return true, если событие относится ко всем пользователям
+     */
+    public boolean isAllUsers() {
+        return userId == null;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.timetracker.exception;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Исключение, выбрасываемое при превышении бюджета SQL-запросов endpoint в строгом режиме проверки. Используется в тестах, чтобы
+ * регрессии вида N+1 приводили к падению теста.
+ * <p>Особенности:
+ * <ul>
+ *   <li>Логирует ошибку с фактическим количеством запросов и бюджетом</li>
+ *   <li>Содержит endpoint, бюджет и фактическое количество запросов</li>
+ * </ul>
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+    private static final Logger logger = LogManager.getLogger(SqlBudgetExceededException.class);
+
+    private final String endpoint;
+    private final int budget;
+    private final int actual;
+
+    /**
+     * Создает исключение о превышении бюджета
+     * @param endpoint Endpoint (метод и шаблон пути)
+     * @param budget   Объявленный бюджет запросов
+     * @param actual   Фактическое количество запросов
+     */
+    public SqlBudgetExceededException(String endpoint, int budget, int actual) {
+        super("SQL budget exceeded for " + endpoint + ": " + actual + " statements, budget " + budget);
+        this.endpoint = endpoint;
+        this.budget = budget;
+        this.actual = actual;
+        logger.error("SQL budget exceeded for {}: {} statements, budget {}", endpoint, actual, budget);
+    }
+
+    /**
+     * Возвращает endpoint, превысивший бюджет
+     * @return Метод и шаблон пути
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Возвращает объявленный бюджет
+     * @return Бюджет запросов
+     */
+    public int getBudget() {
+        return budget;
+    }
+
+    /**
+     * Возвращает фактическое количество запросов
+     * @return Количество запросов
+     */
+    public int getActual() {
+        return actual;
+    }
+}
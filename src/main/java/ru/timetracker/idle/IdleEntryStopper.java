@@ -0,0 +1,187 @@
+package ru.timetracker.idle;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.timetracker.dto.timeentry.TimeEntryDTO;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.idle.config.IdlePolicyProperties;
+import ru.timetracker.metrics.SchedulerMetrics;
+import ru.timetracker.repository.TaskRepository;
+import ru.timetracker.repository.TimeEntryRepository;
+import ru.timetracker.repository.UserRepository;
+import ru.timetracker.writebehind.WriteBehindTracker;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Остановка забытых записей времени по ограничению длительности.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Ограничение записи берется из задачи, затем из пользователя, затем из {@code timetracker.idle.default-max-duration}</li>
+ *   <li>Кандидаты ищутся диапазонным сканированием индекса незавершенных записей по времени начала: загружаются только записи,
+ *   начатые раньше, чем допускает наименьшее из действующих ограничений</li>
+ *   <li>Просроченные записи завершаются пакетным обновлением временем начала плюс ограничение</li>
+ *   <li>Каждая остановка публикуется как событие {@code AUTO_COMPLETED} и записывается в журнал трекинга, откуда ее получают клиенты</li>
+ * </ul>
+ * @see IdlePolicyProperties Настройки остановки
+ */
+@Component
+public class IdleEntryStopper {
+    private static final Logger logger = LogManager.getLogger(IdleEntryStopper.class);
+    private static final String JOB_NAME = "idle-entry-stop";
+    private static final String UPDATE_SQL =
+            "UPDATE time_entries SET end_time = ?, active_user_id = NULL, version = version + 1 WHERE id = ? AND end_time IS NULL";
+    private static final LocalDateTime SCAN_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TimeEntryRepository timeEntryRepository;
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WriteBehindTracker writeBehindTracker;
+    private final SchedulerMetrics schedulerMetrics;
+    private final IdlePolicyProperties properties;
+
+    /**
+     * Создает остановку забытых записей.
+     * @param timeEntryRepository репозиторий записей времени (поиск кандидатов)
+     * @param userRepository      репозиторий пользователей (наименьшее ограничение пользователей)
+     * @param taskRepository      репозиторий задач (наименьшее ограничение задач)
+     * @param jdbcTemplate        JDBC-шаблон для пакетного завершения записей
+     * @param eventPublisher      публикатор событий записей времени
+     * @param writeBehindTracker  отложенная запись трекинга (в этом режиме записи завершаются через журнал)
+     * @param schedulerMetrics    метрики задач по расписанию
+     * @param properties          настройки остановки
+     */
+    public IdleEntryStopper(TimeEntryRepository timeEntryRepository, UserRepository userRepository, TaskRepository taskRepository,
+            JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher, WriteBehindTracker writeBehindTracker,
+            SchedulerMetrics schedulerMetrics, IdlePolicyProperties properties) {
+        this.timeEntryRepository = timeEntryRepository;
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.writeBehindTracker = writeBehindTracker;
+        this.schedulerMetrics = schedulerMetrics;
+        this.properties = properties;
+    }
+
+    /**
+     * Останавливает записи, превысившие ограничение длительности, с интервалом {@code timetracker.idle.check-interval}.
+     */
+    @Scheduled(fixedDelayString = "${timetracker.idle.check-interval:PT1M}", initialDelayString = "${timetracker.idle.check-interval:PT1M}")
+    @Transactional
+    public void stopIdleEntries() {
+        schedulerMetrics.recordRun(JOB_NAME, () -> {
+            int stopped = stopExpiredEntries(LocalDateTime.now());
+            if (stopped > 0) {
+                logger.info("Stopped {} idle time entries", stopped);
+            }
+            schedulerMetrics.recordRows(JOB_NAME, "stopped-time-entries", stopped);
+        });
+    }
+
+    private int stopExpiredEntries(LocalDateTime now) {
+        Duration minLimit = Stream.of(properties.getDefaultMaxDuration(), minutes(userRepository.findMinMaxEntryMinutes()),
+                        minutes(taskRepository.findMinMaxEntryMinutes()))
+                .filter(Objects::nonNull)
+                .min(Duration::compareTo)
+                .orElse(null);
+        if (minLimit == null) {
+            return 0;
+        }
+        writeBehindTracker.drain();
+
+        LocalDateTime startedBefore = now.minus(minLimit);
+        LocalDateTime startedAfter = SCAN_START;
+        long afterId = 0;
+        int stopped = 0;
+        while (true) {
+            List<Object[]> candidates = timeEntryRepository.findOpenEntriesStartedBetween(startedAfter, afterId, startedBefore,
+                    Limit.of(properties.getBatchSize()));
+            List<ExpiredEntry> expired = new ArrayList<>();
+            for (Object[] row : candidates) {
+                LocalDateTime startTime = (LocalDateTime) row[3];
+                Duration limit = limitOf((Integer) row[5], (Integer) row[4]);
+                if (limit != null && !startTime.plus(limit)
+                        .isAfter(now)) {
+                    expired.add(new ExpiredEntry((Long) row[0], (Long) row[1], (Long) row[2], startTime, startTime.plus(limit)));
+                }
+                startedAfter = startTime;
+                afterId = (Long) row[0];
+            }
+            stopped += stop(expired);
+            // Следующий пакет продолжает сканирование после последней записи, поэтому записи с большим ограничением не мешают остальным
+            if (candidates.size() < properties.getBatchSize()) {
+                return stopped;
+            }
+        }
+    }
+
+    private int stop(List<ExpiredEntry> expired) {
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        if (writeBehindTracker.isEnabled()) {
+            int stopped = 0;
+            for (ExpiredEntry entry : expired) {
+                TimeEntryDTO completed = writeBehindTracker.stopEntry(entry.userId(), entry.entryId(), TimeEntryEvent.Type.AUTO_COMPLETED,
+                        entry.endTime());
+                if (completed != null) {
+                    stopped++;
+                }
+            }
+            return stopped;
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, expired, expired.size(), (ps, entry) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(entry.endTime()));
+            ps.setLong(2, entry.entryId());
+        });
+        int stopped = 0;
+        for (int i = 0; i < expired.size(); i++) {
+            // Запись, остановленная пользователем после выборки, не обновляется и события не получает
+            if (counts[0][i] == 0) {
+                continue;
+            }
+            ExpiredEntry entry = expired.get(i);
+            logger.debug("Idle time entry {} of user {} stopped at {}", entry.entryId(), entry.userId(), entry.endTime());
+            eventPublisher.publishEvent(new TimeEntryEvent(TimeEntryEvent.Type.AUTO_COMPLETED, entry.entryId(), entry.userId(),
+                    entry.taskId(), entry.startTime(), entry.endTime()));
+            stopped++;
+        }
+        return stopped;
+    }
+
+    private Duration limitOf(Integer taskMinutes, Integer userMinutes) {
+        if (taskMinutes != null) {
+            return minutes(taskMinutes);
+        }
+        if (userMinutes != null) {
+            return minutes(userMinutes);
+        }
+        return properties.getDefaultMaxDuration();
+    }
+
+    private static Duration minutes(Integer minutes) {
+        return minutes != null ? Duration.ofMinutes(minutes) : null;
+    }
+
+    /**
+     * Запись, превысившая ограничение длительности.
+     */
+    private record ExpiredEntry(Long entryId, Long userId, Long taskId, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+}
@@ -0,0 +1,18 @@
+package ru.timetracker.idle.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация остановки забытых записей времени. Подключает настройки {@link IdlePolicyProperties}.
+ * @see ru.timetracker.idle.IdleEntryStopper Остановка забытых записей
+ */
+@Configuration
+@EnableConfigurationProperties(IdlePolicyProperties.class)
+public class IdlePolicyConfig {
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public IdlePolicyConfig() {
+    }
+}
@@ -0,0 +1,42 @@
+package ru.timetracker.idle.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки остановки забытых записей времени. Задаются в {@code application.properties} с префиксом {@code timetracker.idle}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Общее ограничение длительности записи для пользователей и задач без собственного ограничения</li>
+ *   <li>Интервал проверки и количество записей, обрабатываемых за один запрос</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.idle")
+public class IdlePolicyProperties {
+    /**
+     * Общее ограничение длительности записи (null - останавливаются только записи пользователей и задач с собственным ограничением)
+     * @return Длительность или null
+     */
+    private Duration defaultMaxDuration;
+
+    /**
+     * Интервал проверки незавершенных записей
+     * @return Интервал
+     */
+    private Duration checkInterval = Duration.ofMinutes(1);
+
+    /**
+     * Количество записей-кандидатов, загружаемых и останавливаемых за один пакет
+     * @return Размер пакета
+     */
+    private int batchSize = 500;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public IdlePolicyProperties() {
+    }
+}
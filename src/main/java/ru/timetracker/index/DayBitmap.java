@@ -0,0 +1,157 @@
+package ru.timetracker.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Битовая карта дней с трекингом одного пользователя: один бит на календарный день, начиная с первого дня с трекингом. Год активности
+ * занимает около 46 байт, поэтому карты всех пользователей помещаются в памяти целиком.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Отметка дня или диапазона дней</li>
+ *   <li>Подсчет отмеченных дней в периоде</li>
+ *   <li>Поиск самой длинной и текущей серии подряд идущих дней</li>
+ *   <li>Выборка дней периода для пересечения карт нескольких пользователей</li>
+ * </ul>
+ * <p>Потокобезопасна: все операции синхронизированы на экземпляре.
+ */
+public final class DayBitmap {
+    private BitSet bits = new BitSet();
+    private long baseDay = Long.MIN_VALUE;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public DayBitmap() {
+    }
+
+    /**
+     * Отмечает дни с {@code from} по {@code to} включительно
+     * @param from первый день
+     * @param to   последний день
+     */
+    public synchronized void markRange(LocalDate from, LocalDate to) {
+        long first = from.toEpochDay();
+        long last = Math.max(first, to.toEpochDay());
+        if (baseDay == Long.MIN_VALUE) {
+            baseDay = first;
+        } else if (first < baseDay) {
+            // Отметка раньше первого дня бывает только при загрузке не по порядку: сдвигаем карту целиком
+            BitSet shifted = new BitSet();
+            int shift = (int) (baseDay - first);
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                shifted.set(i + shift);
+            }
+            bits = shifted;
+            baseDay = first;
+        }
+        bits.set(index(first), index(last) + 1);
+    }
+
+    /**
+     * Подсчитывает отмеченные дни в периоде
+     * @param from первый день периода
+     * @param to   последний день периода
+     * @return Количество дней с трекингом
+     */
+    public synchronized int count(LocalDate from, LocalDate to) {
+        int[] range = clip(from, to);
+        return range == null ? 0 : bits.get(range[0], range[1])
+                .cardinality();
+    }
+
+    /**
+     * Находит самую длинную серию подряд идущих дней в периоде; при равной длине выбирается более ранняя серия
+     * @param from первый день периода
+     * @param to   последний день периода
+     * @return Массив [длина серии, первый день серии (epoch day)] или [0, 0], если дней нет
+     */
+    public synchronized long[] longestStreak(LocalDate from, LocalDate to) {
+        long[] result = {0, 0};
+        int[] range = clip(from, to);
+        if (range == null) {
+            return result;
+        }
+        for (int start = bits.nextSetBit(range[0]); start >= 0 && start < range[1]; ) {
+            int end = Math.min(bits.nextClearBit(start), range[1]);
+            if (end - start > result[0]) {
+                result[0] = end - start;
+                result[1] = baseDay + start;
+            }
+            start = bits.nextSetBit(end);
+        }
+        return result;
+    }
+
+    /**
+     * Длина серии подряд идущих дней, заканчивающейся днем {@code day}
+     * @param day последний день серии
+     * @return Количество дней или 0, если день не отмечен
+     */
+    public synchronized int streakEndingAt(LocalDate day) {
+        if (baseDay == Long.MIN_VALUE || day.toEpochDay() < baseDay) {
+            return 0;
+        }
+        int index = index(day.toEpochDay());
+        if (!bits.get(index)) {
+            return 0;
+        }
+        return index - bits.previousClearBit(index);
+    }
+
+    /**
+     * Выбирает отмеченные дни периода в карту, где бит 0 соответствует дню {@code from}
+     * @param from первый день периода
+     * @param to   последний день периода
+     * @return Новая битовая карта периода
+     */
+    public synchronized BitSet slice(LocalDate from, LocalDate to) {
+        int[] range = clip(from, to);
+        if (range == null) {
+            return new BitSet();
+        }
+        BitSet slice = bits.get(range[0], range[1]);
+        int offset = (int) (baseDay + range[0] - from.toEpochDay());
+        if (offset == 0) {
+            return slice;
+        }
+        BitSet shifted = new BitSet();
+        for (int i = slice.nextSetBit(0); i >= 0; i = slice.nextSetBit(i + 1)) {
+            shifted.set(i + offset);
+        }
+        return shifted;
+    }
+
+    /**
+     * Переводит биты карты периода в список дней
+     * @param days карта периода, где бит 0 соответствует дню {@code from}
+     * @param from первый день периода
+     * @return Список дней по возрастанию
+     */
+    public static List<LocalDate> toDays(BitSet days, LocalDate from) {
+        List<LocalDate> result = new ArrayList<>(days.cardinality());
+        for (int i = days.nextSetBit(0); i >= 0; i = days.nextSetBit(i + 1)) {
+            result.add(from.plusDays(i));
+        }
+        return result;
+    }
+
+    private int index(long epochDay) {
+        return (int) (epochDay - baseDay);
+    }
+
+    /**
+     * Пересекает период с диапазоном карты
+     * @return Полуинтервал индексов [начало, конец) или null, если пересечения нет
+     */
+    private int[] clip(LocalDate from, LocalDate to) {
+        if (baseDay == Long.MIN_VALUE) {
+            return null;
+        }
+        long first = Math.max(from.toEpochDay(), baseDay);
+        long last = Math.min(to.toEpochDay(), baseDay + bits.length() - 1);
+        return first > last ? null : new int[]{index(first), index(last) + 1};
+    }
+}
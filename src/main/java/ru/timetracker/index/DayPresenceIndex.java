@@ -0,0 +1,305 @@
+package ru.timetracker.index;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory индекс дней с трекингом. Для каждого пользователя хранит {@link DayBitmap}, по которой количество рабочих дней, серии и
+ * общие дни команды считаются битовыми операциями без сканирования записей времени.
+ * <p>Особенности:
+ * <ul>
+ *   <li>Карты всех пользователей строятся одним потоковым запросом после запуска приложения; после этого отсутствие карты означает, что
+ *   у пользователя нет завершенных записей, и чтение не обращается к БД</li>
+ *   <li>До завершения построения карта пользователя загружается при первом обращении; одновременные обращения ждут одну загрузку</li>
+ *   <li>Дни отмечаются по событиям остановки и автозавершения {@link TimeEntryEvent}; запись через полночь отмечает все дни</li>
+ *   <li>Незавершенная запись учитывается только после остановки</li>
+ *   <li>После удаления записей (удаление задач и пользователей, очистка, пересборка журнала) карта перестраивается после фиксации
+ *   транзакции в потоке, который ее сбросил</li>
+ * </ul>
+ * <p>Запросы к БД выполняются вне {@code lock} и операций карт: под блокировкой только выбор и публикация карт.
+ */
+@Component
+public class DayPresenceIndex {
+    private static final Logger logger = LogManager.getLogger(DayPresenceIndex.class);
+    private static final String LOAD_SQL = "SELECT DISTINCT CAST(start_time AS DATE), CAST(end_time AS DATE) FROM time_entries " +
+            "WHERE user_id = ? AND end_time IS NOT NULL ORDER BY 1";
+    private static final String LOAD_ALL_SQL = "SELECT DISTINCT user_id, CAST(start_time AS DATE), CAST(end_time AS DATE) " +
+            "FROM time_entries WHERE end_time IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentMap<Long, DayBitmap> bitmaps = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Load> loads = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private final List<TimeEntryEvent> missedDuringWarmUp = new ArrayList<>();
+    private final Set<Long> evictedDuringWarmUp = new HashSet<>();
+    private boolean warmingUp;
+    private volatile boolean warmedUp;
+
+    /**
+     * Создает индекс дней с трекингом.
+     * @param jdbcTemplate JDBC-шаблон для построения карт
+     */
+    public DayPresenceIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Подсчитывает дни с трекингом в периоде
+     * @param userId ID пользователя
+     * @param from   первый день периода
+     * @param to     последний день периода
+     * @return Количество дней
+     */
+    public int countDays(Long userId, LocalDate from, LocalDate to) {
+        return bitmap(userId).count(from, to);
+    }
+
+    /**
+     * Находит самую длинную серию дней с трекингом в периоде
+     * @param userId ID пользователя
+     * @param from   первый день периода
+     * @param to     последний день периода
+     * @return Массив [длина серии, первый день серии (epoch day)]
+     */
+    public long[] longestStreak(Long userId, LocalDate from, LocalDate to) {
+        return bitmap(userId).longestStreak(from, to);
+    }
+
+    /**
+     * Длина серии дней с трекингом, заканчивающейся указанным днем
+     * @param userId ID пользователя
+     * @param day    последний день серии
+     * @return Количество дней
+     */
+    public int streakEndingAt(Long userId, LocalDate day) {
+        return bitmap(userId).streakEndingAt(day);
+    }
+
+    /**
+     * Находит дни периода, в которые трекинг был у всех указанных пользователей
+     * @param userIds ID пользователей
+     * @param from    первый день периода
+     * @param to      последний день периода
+     * @return Карта периода, где бит 0 соответствует дню {@code from}
+     */
+    public BitSet intersect(Collection<Long> userIds, LocalDate from, LocalDate to) {
+        BitSet result = null;
+        for (Long userId : userIds) {
+            BitSet days = bitmap(userId).slice(from, to);
+            if (result == null) {
+                result = days;
+            } else {
+                result.and(days);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result == null ? new BitSet() : result;
+    }
+
+    /**
+     * Строит карты всех пользователей после запуска приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        synchronized (lock) {
+            warmingUp = true;
+        }
+        Map<Long, DayBitmap> loaded = new HashMap<>();
+        try {
+            jdbcTemplate.query(LOAD_ALL_SQL, resultSet -> {
+                loaded.computeIfAbsent(resultSet.getLong(1), userId -> new DayBitmap())
+                        .markRange(resultSet.getObject(2, LocalDate.class), resultSet.getObject(3, LocalDate.class));
+            });
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                warmingUp = false;
+                missedDuringWarmUp.clear();
+                evictedDuringWarmUp.clear();
+            }
+            logger.warn("Failed to build day presence bitmaps, they will be loaded per user: {}", e.getMessage());
+            return;
+        }
+        synchronized (lock) {
+            // Остановки, зафиксированные во время запроса, могли в него не попасть: они отмечаются поверх результата
+            for (TimeEntryEvent event : missedDuringWarmUp) {
+                loaded.computeIfAbsent(event.getUserId(), userId -> new DayBitmap())
+                        .markRange(event.getStartTime()
+                                .toLocalDate(), event.getEndTime()
+                                .toLocalDate());
+            }
+            loaded.keySet()
+                    .removeAll(evictedDuringWarmUp);
+            loaded.forEach((userId, bitmap) -> {
+                if (!loads.containsKey(userId)) {
+                    bitmaps.putIfAbsent(userId, bitmap);
+                }
+            });
+            missedDuringWarmUp.clear();
+            evictedDuringWarmUp.clear();
+            warmingUp = false;
+            warmedUp = true;
+        }
+        logger.info("Built day presence bitmaps of {} users", loaded.size());
+    }
+
+    /**
+     * Перестраивает карту пользователя или карты всех пользователей (например, после очистки по сроку хранения) после фиксации
+     * изменения данных трекинга
+     * @param event событие сброса данных трекинга
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserTrackingDataInvalidated(UserTrackingDataInvalidatedEvent event) {
+        if (event.isAllUsers()) {
+            synchronized (lock) {
+                warmedUp = false;
+                bitmaps.clear();
+                loads.clear();
+            }
+            warmUp();
+            return;
+        }
+        Long userId = event.getUserId();
+        synchronized (lock) {
+            bitmaps.remove(userId);
+            loads.remove(userId);
+            if (warmingUp) {
+                evictedDuringWarmUp.add(userId);
+            }
+        }
+        if (warmedUp) {
+            try {
+                load(userId);
+            } catch (RuntimeException e) {
+                // Неудачная загрузка остается в карте загрузок и повторяется при следующем обращении
+                logger.warn("Failed to reload day presence of user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Отмечает дни завершенной записи времени
+     * @param event Событие записи времени
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeEntryEvent(TimeEntryEvent event) {
+        if (event.getType() == TimeEntryEvent.Type.STARTED || event.getEndTime() == null) {
+            return;
+        }
+        DayBitmap target;
+        synchronized (lock) {
+            if (warmingUp) {
+                missedDuringWarmUp.add(event);
+            }
+            target = bitmaps.get(event.getUserId());
+            if (target == null) {
+                Load load = loads.get(event.getUserId());
+                if (load != null) {
+                    // Загрузка, начатая до фиксации записи, могла ее не увидеть: отметка попадет в загружаемую карту
+                    target = load.bitmap;
+                } else if (warmedUp) {
+                    target = bitmaps.computeIfAbsent(event.getUserId(), userId -> new DayBitmap());
+                }
+            }
+        }
+        if (target != null) {
+            target.markRange(event.getStartTime()
+                    .toLocalDate(), event.getEndTime()
+                    .toLocalDate());
+        }
+    }
+
+    private DayBitmap bitmap(Long userId) {
+        DayBitmap bitmap = bitmaps.get(userId);
+        if (bitmap != null) {
+            return bitmap;
+        }
+        if (warmedUp) {
+            synchronized (lock) {
+                if (warmedUp && !loads.containsKey(userId)) {
+                    // После построения всех карт у пользователя без карты нет завершенных записей
+                    return bitmaps.computeIfAbsent(userId, id -> new DayBitmap());
+                }
+            }
+        }
+        return load(userId);
+    }
+
+    private DayBitmap load(Long userId) {
+        Load load;
+        boolean owner;
+        synchronized (lock) {
+            DayBitmap bitmap = bitmaps.get(userId);
+            if (bitmap != null) {
+                return bitmap;
+            }
+            load = loads.get(userId);
+            owner = load == null || load.done.isCompletedExceptionally();
+            if (owner) {
+                load = new Load();
+                loads.put(userId, load);
+            }
+        }
+        if (!owner) {
+            return await(load);
+        }
+        try {
+            int[] rows = {0};
+            DayBitmap bitmap = load.bitmap;
+            jdbcTemplate.query(LOAD_SQL, resultSet -> {
+                bitmap.markRange(resultSet.getObject(1, LocalDate.class), resultSet.getObject(2, LocalDate.class));
+                rows[0]++;
+            }, userId);
+            synchronized (lock) {
+                // Карта, сброшенная во время загрузки, не публикуется
+                if (loads.remove(userId, load)) {
+                    bitmaps.put(userId, bitmap);
+                }
+            }
+            load.done.complete(bitmap);
+            logger.debug("Loaded day presence of user {} from {} distinct date pairs", userId, rows[0]);
+            return bitmap;
+        } catch (RuntimeException e) {
+            load.done.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static DayBitmap await(Load load) {
+        try {
+            return load.done.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Загрузка карты пользователя: события, пришедшие во время загрузки, отмечаются в той же карте.
+     */
+    private static final class Load {
+        private final DayBitmap bitmap = new DayBitmap();
+        private final CompletableFuture<DayBitmap> done = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,250 @@
+package ru.timetracker.index;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.timetracker.dto.task.TaskSuggestionDTO;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
+import ru.timetracker.model.Task;
+import ru.timetracker.repository.TaskRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * In-memory индекс названий задач для автодополнения. Для каждого пользователя хранит отсортированную карту нормализованных названий, что
+ * позволяет находить задачи по префиксу без обращения к БД.
+ * <p>Особенности:
+ * <ul>
+ *   <li>Индекс пользователя строится одним запросом при первом поиске; пустой результат не сохраняется, поэтому поиск по
+ *   произвольным ID пользователей не увеличивает индекс</li>
+ *   <li>Инкрементально обновляется {@link ru.timetracker.service.TaskService} после фиксации транзакции; загрузка, во время которой
+ *   пользователь получил изменение, не публикуется, чтобы не затереть его устаревшим снимком из БД</li>
+ *   <li>Время последнего трекинга обновляется по событиям {@link TimeEntryEvent}</li>
+ *   <li>Результаты ранжируются по времени последнего трекинга (сначала недавние)</li>
+ * </ul>
+ */
+@Component
+public class TaskTitleIndex {
+    private static final Logger logger = LogManager.getLogger(TaskTitleIndex.class);
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int MODIFICATION_STRIPES = 256;
+    private static final Comparator<Suggestion> RANKING = Comparator.comparing(Suggestion::lastTrackedAt,
+                    Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Suggestion::key);
+
+    private final TaskRepository taskRepository;
+    private final ConcurrentMap<Long, UserTitles> indexes = new ConcurrentHashMap<>();
+    /**
+     * Счетчики изменений по полосам пользователей. Увеличиваются до применения изменения и сверяются при публикации загруженного
+     * индекса: изменение, пришедшее между чтением строк и публикацией, не будет потеряно.
+     */
+    private final AtomicLongArray modifications = new AtomicLongArray(MODIFICATION_STRIPES);
+
+    /**
+     * Создает индекс названий задач.
+     * @param taskRepository репозиторий задач для первичной загрузки индекса
+     */
+    public TaskTitleIndex(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Ищет задачи пользователя по префиксу названия (без учета регистра)
+     * @param userId          ID пользователя
+     * @param prefix          Префикс названия (пустой префикс возвращает недавние задачи)
+     * @param limit           Максимальное количество результатов
+     * @param includeInactive Включать ли неактивные задачи
+     * @return Список подсказок, отсортированный по времени последнего трекинга
+     */
+    public List<TaskSuggestionDTO> search(Long userId, String prefix, int limit, boolean includeInactive) {
+        UserTitles titles = indexes.get(userId);
+        if (titles == null) {
+            titles = load(userId);
+        }
+        return titles.search(normalize(prefix), limit, includeInactive);
+    }
+
+    /**
+     * Добавляет или обновляет задачу в индексе. Изменение применяется после фиксации текущей транзакции.
+     * @param task Сохраненная задача
+     */
+    public void put(Task task) {
+        Long userId = task.getUser()
+                .getId();
+        Long taskId = task.getId();
+        String title = task.getTitle();
+        boolean active = task.isActive();
+        afterCommit(() -> modify(userId, titles -> titles.put(taskId, title, active, null)));
+    }
+
+    /**
+     * Удаляет задачу из индекса. Изменение применяется после фиксации текущей транзакции.
+     * @param userId ID пользователя
+     * @param taskId ID задачи
+     */
+    public void remove(Long userId, Long taskId) {
+        afterCommit(() -> modify(userId, titles -> titles.remove(taskId)));
+    }
+
+    /**
+     * Сбрасывает индекс пользователя или индексы всех пользователей (например, после массового удаления задач) после фиксации
+     * изменения данных трекинга. Индекс будет построен заново при следующем поиске.
+     * @param event событие сброса данных трекинга
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserTrackingDataInvalidated(UserTrackingDataInvalidatedEvent event) {
+        if (event.isAllUsers()) {
+            for (int i = 0; i < MODIFICATION_STRIPES; i++) {
+                modifications.incrementAndGet(i);
+            }
+            indexes.clear();
+        } else {
+            modifications.incrementAndGet(stripe(event.getUserId()));
+            indexes.remove(event.getUserId());
+        }
+    }
+
+    /**
+     * Обновляет время последнего трекинга задачи при старте записи времени
+     * @param event Событие записи времени
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeEntryEvent(TimeEntryEvent event) {
+        if (event.getType() != TimeEntryEvent.Type.STARTED) {
+            return;
+        }
+        modify(event.getUserId(), titles -> titles.touch(event.getTaskId(), event.getStartTime()));
+    }
+
+    /**
+     * Применяет изменение к загруженному индексу пользователя. Счетчик изменений увеличивается до обращения к карте, а само изменение
+     * выполняется под блокировкой ключа, поэтому параллельная загрузка либо увидит новый счетчик и откажется от публикации, либо
+     * опубликует индекс раньше, и изменение будет применено к нему.
+     */
+    private void modify(Long userId, Consumer<UserTitles> change) {
+        modifications.incrementAndGet(stripe(userId));
+        indexes.computeIfPresent(userId, (id, titles) -> {
+            change.accept(titles);
+            return titles;
+        });
+    }
+
+    private UserTitles load(Long userId) {
+        int stripe = stripe(userId);
+        long version = modifications.get(stripe);
+        UserTitles loaded = new UserTitles();
+        List<Object[]> rows = taskRepository.findTitleIndexRowsByUserId(userId);
+        for (Object[] row : rows) {
+            loaded.put(((Number) row[0]).longValue(), (String) row[1], (Boolean) row[2], (LocalDateTime) row[3]);
+        }
+        logger.debug("Loaded title index for user {} with {} tasks", userId, rows.size());
+        if (rows.isEmpty()) {
+            // Пользователь без задач или несуществующий: повторный поиск снова обратится к БД
+            return loaded;
+        }
+        UserTitles published = indexes.compute(userId, (id, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            // Изменение во время загрузки: строки могли его не увидеть, следующий поиск загрузит индекс заново
+            return modifications.get(stripe) == version ? loaded : null;
+        });
+        return published != null ? published : loaded;
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (MODIFICATION_STRIPES - 1);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String normalize(String title) {
+        return title == null ? "" : title.strip()
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private record Suggestion(String key, Long taskId, String title, boolean active, LocalDateTime lastTrackedAt) {
+        TaskSuggestionDTO toDTO() {
+            return new TaskSuggestionDTO(taskId, title, active, lastTrackedAt);
+        }
+    }
+
+    /**
+     * Индекс задач одного пользователя. Чтение выполняется без блокировок по {@link ConcurrentSkipListMap}, изменения сериализуются.
+     */
+    private static final class UserTitles {
+        private final ConcurrentSkipListMap<String, Suggestion> byKey = new ConcurrentSkipListMap<>();
+        private final Map<Long, String> keyByTaskId = new HashMap<>();
+
+        synchronized void put(Long taskId, String title, boolean active, LocalDateTime lastTrackedAt) {
+            Suggestion previous = removeInternal(taskId);
+            LocalDateTime tracked = lastTrackedAt != null || previous == null ? lastTrackedAt : previous.lastTrackedAt();
+            String key = normalize(title) + KEY_SEPARATOR + taskId;
+            byKey.put(key, new Suggestion(key, taskId, title, active, tracked));
+            keyByTaskId.put(taskId, key);
+        }
+
+        synchronized void remove(Long taskId) {
+            removeInternal(taskId);
+        }
+
+        synchronized void touch(Long taskId, LocalDateTime trackedAt) {
+            String key = keyByTaskId.get(taskId);
+            Suggestion current = key != null ? byKey.get(key) : null;
+            if (current != null && (current.lastTrackedAt() == null || trackedAt.isAfter(current.lastTrackedAt()))) {
+                byKey.put(key, new Suggestion(key, taskId, current.title(), current.active(), trackedAt));
+            }
+        }
+
+        List<TaskSuggestionDTO> search(String prefix, int limit, boolean includeInactive) {
+            PriorityQueue<Suggestion> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            for (Suggestion suggestion : byKey.subMap(prefix, prefix + Character.MAX_VALUE)
+                    .values()) {
+                if (!includeInactive && !suggestion.active()) {
+                    continue;
+                }
+                top.offer(suggestion);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Suggestion> ranked = new ArrayList<>(top);
+            ranked.sort(RANKING);
+            return ranked.stream()
+                    .map(Suggestion::toDTO)
+                    .toList();
+        }
+
+        private Suggestion removeInternal(Long taskId) {
+            String key = keyByTaskId.remove(taskId);
+            return key != null ? byKey.remove(key) : null;
+        }
+    }
+}
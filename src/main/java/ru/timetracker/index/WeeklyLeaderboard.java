@@ -0,0 +1,283 @@
+package ru.timetracker.index;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
+import ru.timetracker.writebehind.WriteBehindTracker;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory рейтинг пользователей по отработанному времени текущей недели (с понедельника). Рейтинг читается без запросов к БД и
+ * без блокировок.
+ * <p>Особенности:
+ * <ul>
+ *   <li>Недельные итоги пользователей хранятся в карте, их упорядоченная копия - в {@link ConcurrentSkipListSet}; первые N мест
+ *   читаются обходом начала множества</li>
+ *   <li>Итог увеличивается по событиям остановки и автозавершения {@link TimeEntryEvent}; запись, начатая на прошлой неделе,
+ *   учитывается с понедельника</li>
+ *   <li>Строится одним запросом по записям, завершенным на текущей неделе, после запуска приложения</li>
+ *   <li>Итог пользователя пересчитывается из БД после удаления его записей (удаление задач и пользователей, пересборка журнала),
+ *   весь рейтинг - после очистки по сроку хранения</li>
+ *   <li>С наступлением новой недели рейтинг начинается с нуля</li>
+ * </ul>
+ */
+@Component
+public class WeeklyLeaderboard {
+    private static final Logger logger = LogManager.getLogger(WeeklyLeaderboard.class);
+    private static final String LOAD_SQL = "SELECT user_id, start_time, end_time FROM time_entries WHERE end_time > ?";
+    private static final String LOAD_USER_SQL = "SELECT start_time, end_time FROM time_entries WHERE user_id = ? AND end_time > ?";
+    private static final Comparator<Standing> RANKING = Comparator.comparingLong(Standing::seconds)
+            .reversed()
+            .thenComparingLong(Standing::userId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WriteBehindTracker writeBehindTracker;
+
+    // Изменения рейтинга выполняются под lock; пересчеты из БД дополнительно сериализуются loadLock
+    private final Object lock = new Object();
+    private final Object loadLock = new Object();
+    private volatile Week week = new Week(weekStartOf(LocalDateTime.now()));
+    private boolean rebuilding;
+    private final Set<Long> loading = new HashSet<>();
+    private final Set<Long> dirty = new HashSet<>();
+
+    /**
+     * Создает недельный рейтинг.
+     * @param jdbcTemplate       JDBC-шаблон для построения рейтинга
+     * @param writeBehindTracker отложенная запись трекинга (накопленное записывается в БД перед построением)
+     */
+    public WeeklyLeaderboard(JdbcTemplate jdbcTemplate, WriteBehindTracker writeBehindTracker) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeBehindTracker = writeBehindTracker;
+    }
+
+    /**
+     * Первые места рейтинга текущей недели
+     * @param limit Количество мест
+     * @return Позиции в порядке убывания отработанного времени; при равенстве выше пользователь с меньшим ID
+     */
+    public List<Standing> top(int limit) {
+        Week current = current();
+        List<Standing> result = new ArrayList<>(limit);
+        // Между добавлением новой позиции пользователя и удалением старой он может встретиться дважды - берется первая
+        Set<Long> seen = new HashSet<>();
+        for (Standing standing : current.ranking) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (seen.add(standing.userId())) {
+                result.add(standing);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Отработанное время пользователя на текущей неделе
+     * @param userId ID пользователя
+     * @return Количество секунд
+     */
+    public long totalSeconds(Long userId) {
+        return current().totals.getOrDefault(userId, 0L);
+    }
+
+    /**
+     * Понедельник текущей недели
+     * @return Первый день недели рейтинга
+     */
+    public LocalDate weekStart() {
+        return current().start.toLocalDate();
+    }
+
+    /**
+     * Пересчитывает итог пользователя или весь рейтинг (например, после очистки по сроку хранения) из БД после фиксации изменения
+     * данных трекинга
+     * @param event событие сброса данных трекинга
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserTrackingDataInvalidated(UserTrackingDataInvalidatedEvent event) {
+        if (event.isAllUsers()) {
+            rebuild();
+            return;
+        }
+        synchronized (loadLock) {
+            reload(Set.of(event.getUserId()));
+        }
+    }
+
+    /**
+     * Строит рейтинг после запуска приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        writeBehindTracker.drain();
+        rebuild();
+    }
+
+    /**
+     * Учитывает завершенную запись времени
+     * @param event Событие записи времени
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeEntryEvent(TimeEntryEvent event) {
+        if (event.getType() == TimeEntryEvent.Type.STARTED || event.getEndTime() == null) {
+            return;
+        }
+        synchronized (lock) {
+            Long userId = event.getUserId();
+            if (rebuilding || loading.contains(userId)) {
+                // Неизвестно, попала ли запись в выполняющийся запрос, поэтому итог будет перечитан после него
+                dirty.add(userId);
+                return;
+            }
+            Week current = current();
+            long seconds = secondsWithin(current.start, event.getStartTime(), event.getEndTime());
+            if (seconds > 0) {
+                current.put(userId, current.totals.getOrDefault(userId, 0L) + seconds);
+            }
+        }
+    }
+
+    private void rebuild() {
+        synchronized (loadLock) {
+            LocalDateTime start;
+            synchronized (lock) {
+                rebuilding = true;
+                start = weekStartOf(LocalDateTime.now());
+            }
+            Map<Long, Long> totals = new HashMap<>();
+            try {
+                jdbcTemplate.query(LOAD_SQL, resultSet -> {
+                    long seconds = secondsWithin(start, resultSet.getObject(2, LocalDateTime.class),
+                            resultSet.getObject(3, LocalDateTime.class));
+                    totals.merge(resultSet.getLong(1), seconds, Long::sum);
+                }, start);
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    rebuilding = false;
+                }
+                throw e;
+            }
+            Set<Long> changed;
+            synchronized (lock) {
+                Week fresh = new Week(start);
+                totals.forEach(fresh::put);
+                week = fresh;
+                rebuilding = false;
+                changed = new HashSet<>(dirty);
+                dirty.clear();
+            }
+            reload(changed);
+            logger.info("Built weekly leaderboard of {} users for the week of {}", totals.size(), start.toLocalDate());
+        }
+    }
+
+    private void reload(Set<Long> userIds) {
+        Set<Long> pending = new HashSet<>(userIds);
+        while (!pending.isEmpty()) {
+            Week target;
+            synchronized (lock) {
+                target = current();
+                loading.addAll(pending);
+            }
+            Map<Long, Long> totals = new HashMap<>();
+            try {
+                for (Long userId : pending) {
+                    long[] seconds = {0};
+                    jdbcTemplate.query(LOAD_USER_SQL, resultSet -> {
+                        seconds[0] += secondsWithin(target.start, resultSet.getObject(1, LocalDateTime.class),
+                                resultSet.getObject(2, LocalDateTime.class));
+                    }, userId, target.start);
+                    totals.put(userId, seconds[0]);
+                }
+            } finally {
+                synchronized (lock) {
+                    loading.removeAll(pending);
+                    if (week == target) {
+                        totals.forEach(target::put);
+                    }
+                    pending.retainAll(dirty);
+                    dirty.removeAll(pending);
+                }
+            }
+            logger.debug("Reloaded weekly totals of users {}", totals.keySet());
+        }
+    }
+
+    private Week current() {
+        Week current = week;
+        LocalDateTime start = weekStartOf(LocalDateTime.now());
+        if (current.start.equals(start)) {
+            return current;
+        }
+        synchronized (lock) {
+            if (!week.start.equals(start)) {
+                logger.info("Weekly leaderboard rolled over to the week of {}", start.toLocalDate());
+                week = new Week(start);
+            }
+            return week;
+        }
+    }
+
+    private static LocalDateTime weekStartOf(LocalDateTime time) {
+        return time.toLocalDate()
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                .atStartOfDay();
+    }
+
+    private static long secondsWithin(LocalDateTime weekStart, LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime from = startTime.isBefore(weekStart) ? weekStart : startTime;
+        return endTime.isAfter(from) ? Duration.between(from, endTime)
+                .getSeconds() : 0;
+    }
+
+    /**
+     * Позиция пользователя в рейтинге
+     * @param userId  ID пользователя
+     * @param seconds Отработанное время недели в секундах
+     */
+    public record Standing(long userId, long seconds) {
+    }
+
+    private static final class Week {
+        private final LocalDateTime start;
+        private final ConcurrentMap<Long, Long> totals = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<Standing> ranking = new ConcurrentSkipListSet<>(RANKING);
+
+        private Week(LocalDateTime start) {
+            this.start = start;
+        }
+
+        // Вызывается под lock. Новая позиция добавляется до удаления старой, чтобы читатель не пропустил пользователя
+        private void put(Long userId, long seconds) {
+            Long previous = seconds > 0 ? totals.put(userId, seconds) : totals.remove(userId);
+            if (seconds > 0) {
+                ranking.add(new Standing(userId, seconds));
+            }
+            if (previous != null && previous != seconds) {
+                ranking.remove(new Standing(userId, previous));
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package ru.timetracker.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.jfr.config.JfrProperties;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Запись JDK Flight Recorder по запросу без перезапуска приложения с агентами. Одновременно идет не более одной записи.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Старт записи с набором настроек {@code settings}: ограничена по длительности ({@code max-duration}) и размеру на диске
+ *   ({@code max-size}), по истечении длительности останавливается автоматически</li>
+ *   <li>Досрочная остановка записи</li>
+ *   <li>Сохранение записи во временный файл для скачивания, в том числе во время записи</li>
+ *   <li>Удаление записи</li>
+ * </ul>
+ * @see JfrProperties Настройки записи
+ */
+public class JfrRecorder implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(JfrRecorder.class);
+    private static final String RECORDING_NAME = "timetracker-on-demand";
+
+    private final JfrProperties properties;
+    private Recording recording;
+
+    /**
+     * Создает запись JFR по запросу.
+     * @param properties настройки записи
+     */
+    public JfrRecorder(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Начинает запись
+     * @param duration Длительность записи (null - длительность по умолчанию)
+     * @return Начатая запись
+     * @throws IllegalArgumentException если длительность не положительна или больше максимальной
+     * @throws IllegalStateException    если запись уже идет
+     * @throws IOException              если набор настроек JFR не удалось прочитать
+     */
+    public synchronized Recording start(Duration duration) throws IOException {
+        Duration length = duration != null ? duration : properties.getDefaultDuration();
+        if (length.isNegative() || length.isZero() || length.compareTo(properties.getMaxDuration()) > 0) {
+            throw new IllegalArgumentException("Recording duration must be positive and at most " + properties.getMaxDuration());
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("JFR recording is already running");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(properties.getSettings());
+        } catch (ParseException e) {
+            throw new IOException("Invalid JFR settings '" + properties.getSettings() + "'", e);
+        }
+        discard();
+        Recording started = new Recording(configuration);
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.setMaxSize(properties.getMaxSize()
+                .toBytes());
+        started.setDuration(length);
+        started.start();
+        recording = started;
+        logger.info("JFR recording {} started with settings '{}' for {}", started.getId(), properties.getSettings(), length);
+        return started;
+    }
+
+    /**
+     * Останавливает запись; данные остаются доступны для скачивания до удаления или следующего старта
+     * @return Остановленная запись
+     * @throws ResourceNotFoundException если записи нет
+     */
+    public synchronized Recording stop() {
+        Recording current = current();
+        if (current.getState() == RecordingState.RUNNING) {
+            current.stop();
+            logger.info("JFR recording {} stopped", current.getId());
+        }
+        return current;
+    }
+
+    /**
+     * Возвращает текущую запись
+     * @return Идущая или остановленная запись
+     * @throws ResourceNotFoundException если записи нет
+     */
+    public synchronized Recording current() {
+        if (recording == null || recording.getState() == RecordingState.CLOSED) {
+            throw new ResourceNotFoundException("No JFR recording");
+        }
+        return recording;
+    }
+
+    /**
+     * Сохраняет данные записи во временный файл. Идущая запись продолжается
+     * @return Временный файл записи; удаляется вызывающим кодом
+     * @throws ResourceNotFoundException если записи нет или она еще не содержит данных
+     * @throws IOException               если файл не удалось записать
+     */
+    public synchronized Path dump() throws IOException {
+        Recording current = current();
+        if (current.getState() != RecordingState.RUNNING && current.getState() != RecordingState.STOPPED) {
+            throw new ResourceNotFoundException("JFR recording has no data");
+        }
+        Path file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+        try {
+            current.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        logger.info("JFR recording {} dumped to {} ({} bytes)", current.getId(), file, Files.size(file));
+        return file;
+    }
+
+    /**
+     * Удаляет запись и ее данные
+     * @throws ResourceNotFoundException если записи нет
+     */
+    public synchronized void delete() {
+        current();
+        discard();
+    }
+
+    /**
+     * Удаляет запись при остановке приложения
+     */
+    @Override
+    public synchronized void close() {
+        discard();
+    }
+
+    private void discard() {
+        if (recording != null) {
+            recording.close();
+            logger.info("JFR recording {} closed", recording.getId());
+            recording = null;
+        }
+    }
+}
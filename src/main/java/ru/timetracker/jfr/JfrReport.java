@@ -0,0 +1,23 @@
+package ru.timetracker.jfr;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Записывает расчет отчета событием {@link ReportJfrEvent}, когда идет запись JDK Flight Recorder. ID пользователя берется из
+ * параметра метода {@code userId}, если он есть.
+ * @see JfrReportInterceptor Запись событий
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface JfrReport {
+    /**
+     * Название отчета в событии
+     * @return Название отчета
+     */
+    String value();
+}
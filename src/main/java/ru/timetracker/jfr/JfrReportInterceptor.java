@@ -0,0 +1,60 @@
+package ru.timetracker.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import ru.timetracker.sql.SqlStatementCounter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collection;
+
+/**
+ * Записывает вызовы методов, отмеченных {@link JfrReport}, событиями {@link ReportJfrEvent}. Если запись JFR не идет, метод
+ * вызывается без накладных расходов, кроме проверки включенности события.
+ */
+public class JfrReportInterceptor implements MethodInterceptor {
+    private static final String USER_ID_PARAMETER = "userId";
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public JfrReportInterceptor() {
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ReportJfrEvent event = new ReportJfrEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        Method method = invocation.getMethod();
+        JfrReport report = AnnotatedElementUtils.findMergedAnnotation(method, JfrReport.class);
+        event.report = report != null ? report.value() : method.getName();
+        event.userId = userId(method, invocation.getArguments());
+        event.begin();
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open(event.report)) {
+            try {
+                Object result = invocation.proceed();
+                event.rows = result instanceof Collection<?> collection ? collection.size() : result != null ? 1 : 0;
+                return result;
+            } catch (Throwable e) {
+                event.failed = true;
+                throw e;
+            } finally {
+                event.sqlStatements = scope.getCount();
+                event.commit();
+            }
+        }
+    }
+
+    private static long userId(Method method, Object[] arguments) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length && i < arguments.length; i++) {
+            if (USER_ID_PARAMETER.equals(parameters[i].getName()) && arguments[i] instanceof Number number) {
+                return number.longValue();
+            }
+        }
+        return 0;
+    }
+}
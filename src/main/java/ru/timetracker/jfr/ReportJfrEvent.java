@@ -0,0 +1,52 @@
+package ru.timetracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JDK Flight Recorder о расчете отчета. Длительность события - время выполнения метода отчета, включая чтение из БД.
+ * @see JfrReport Отметка методов отчетов
+ */
+@Name("ru.timetracker.Report")
+@Label("Report Computation")
+@Category({"Time Tracker", "Reports"})
+@Description("Report computed by a service method annotated with @JfrReport")
+public class ReportJfrEvent extends jdk.jfr.Event {
+    /**
+     * Название отчета
+     */
+    @Label("Report")
+    String report;
+
+    /**
+     * ID пользователя (0, если отчет не относится к одному пользователю)
+     */
+    @Label("User Id")
+    long userId;
+
+    /**
+     * Количество элементов результата: размер списка, 1 для одиночного результата
+     */
+    @Label("Result Rows")
+    long rows;
+
+    /**
+     * Количество SQL-запросов, выполненных при расчете
+     */
+    @Label("SQL Statements")
+    int sqlStatements;
+
+    /**
+     * Завершился ли расчет исключением
+     */
+    @Label("Failed")
+    boolean failed;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public ReportJfrEvent() {
+    }
+}
@@ -0,0 +1,88 @@
+package ru.timetracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JDK Flight Recorder о выполнении задачи по расписанию. Длительность события - время выполнения задачи; строки, учтенные
+ * в том же потоке во время выполнения, суммируются в событии.
+ * @see ru.timetracker.metrics.SchedulerMetrics Источник событий
+ */
+@Name("ru.timetracker.SchedulerRun")
+@Label("Scheduler Run")
+@Category({"Time Tracker", "Scheduler"})
+@Description("Scheduled job run with the number of rows it affected")
+public class SchedulerRunJfrEvent extends jdk.jfr.Event {
+    private static final ThreadLocal<SchedulerRunJfrEvent> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Имя задачи
+     */
+    @Label("Job")
+    String job;
+
+    /**
+     * Результат: success или failure
+     */
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Количество строк, затронутых всеми операциями задачи
+     */
+    @Label("Rows")
+    long rows;
+
+    // Событие задачи, выполняющейся снаружи (вложенный вызов recordRun); не записывается в JFR
+    private transient SchedulerRunJfrEvent outer;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public SchedulerRunJfrEvent() {
+    }
+
+    /**
+     * Начинает событие выполнения задачи в текущем потоке, если идет запись JFR
+     * @param job Имя задачи
+     * @return Начатое событие или null, если событие не записывается
+     */
+    public static SchedulerRunJfrEvent start(String job) {
+        SchedulerRunJfrEvent event = new SchedulerRunJfrEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.job = job;
+        event.outer = CURRENT.get();
+        CURRENT.set(event);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Добавляет строки к событию выполнения задачи, начатому в текущем потоке
+     * @param rows Количество строк
+     */
+    public static void addRows(long rows) {
+        SchedulerRunJfrEvent event = CURRENT.get();
+        if (event != null) {
+            event.rows += rows;
+        }
+    }
+
+    /**
+     * Завершает и записывает событие; в потоке снова становится текущим событие внешнего выполнения
+     * @param outcome Результат выполнения
+     */
+    public void end(String outcome) {
+        if (outer != null) {
+            CURRENT.set(outer);
+        } else {
+            CURRENT.remove();
+        }
+        this.outcome = outcome;
+        commit();
+    }
+}
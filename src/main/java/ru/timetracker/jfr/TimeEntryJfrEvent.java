@@ -0,0 +1,55 @@
+package ru.timetracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Событие JDK Flight Recorder о старте, остановке или автозавершении записи времени. Записывается после фиксации транзакции,
+ * только когда идет запись JFR.
+ * @see TimeEntryJfrListener Источник событий
+ */
+@Name("ru.timetracker.TimeEntry")
+@Label("Time Entry")
+@Category({"Time Tracker", "Tracking"})
+@Description("Time entry started, stopped or auto-completed")
+public class TimeEntryJfrEvent extends jdk.jfr.Event {
+    /**
+     * Тип события: STARTED, STOPPED или AUTO_COMPLETED
+     */
+    @Label("Type")
+    String type;
+
+    /**
+     * ID записи времени
+     */
+    @Label("Entry Id")
+    long entryId;
+
+    /**
+     * ID пользователя
+     */
+    @Label("User Id")
+    long userId;
+
+    /**
+     * ID задачи
+     */
+    @Label("Task Id")
+    long taskId;
+
+    /**
+     * Длительность завершенной сессии (0 для старта)
+     */
+    @Label("Session Duration")
+    @Timespan(Timespan.SECONDS)
+    long sessionSeconds;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public TimeEntryJfrEvent() {
+    }
+}
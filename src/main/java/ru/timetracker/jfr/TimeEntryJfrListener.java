@@ -0,0 +1,42 @@
+package ru.timetracker.jfr;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.timetracker.event.TimeEntryEvent;
+
+import java.time.Duration;
+
+/**
+ * Записывает события записей времени {@link TimeEntryEvent} в JDK Flight Recorder событиями {@link TimeEntryJfrEvent}.
+ */
+@Component
+public class TimeEntryJfrListener {
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public TimeEntryJfrListener() {
+    }
+
+    /**
+     * Записывает событие записи времени, если идет запись JFR
+     * @param event Событие записи времени
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeEntryEvent(TimeEntryEvent event) {
+        TimeEntryJfrEvent jfrEvent = new TimeEntryJfrEvent();
+        if (!jfrEvent.shouldCommit()) {
+            return;
+        }
+        jfrEvent.type = event.getType()
+                .name();
+        jfrEvent.entryId = event.getEntryId() != null ? event.getEntryId() : 0;
+        jfrEvent.userId = event.getUserId();
+        jfrEvent.taskId = event.getTaskId() != null ? event.getTaskId() : 0;
+        if (event.getEndTime() != null) {
+            jfrEvent.sessionSeconds = Math.max(0, Duration.between(event.getStartTime(), event.getEndTime())
+                    .getSeconds());
+        }
+        jfrEvent.commit();
+    }
+}
@@ -0,0 +1,60 @@
+package ru.timetracker.jfr.config;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import ru.timetracker.jfr.JfrRecorder;
+import ru.timetracker.jfr.JfrReport;
+import ru.timetracker.jfr.JfrReportInterceptor;
+
+/**
+ * Конфигурация событий и записи JDK Flight Recorder.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Подключает настройки {@link JfrProperties} и создает запись по запросу {@link JfrRecorder}, если она включена</li>
+ *   <li>Регистрирует советник событий расчета отчетов для методов с {@link JfrReport}. События записываются только во время записи
+ *   JFR, поэтому советник регистрируется независимо от {@code timetracker.jfr.enabled}: запись может быть начата и средствами JDK
+ *   ({@code jcmd JFR.start})</li>
+ * </ul>
+ */
+@Configuration
+@EnableConfigurationProperties(JfrProperties.class)
+public class JfrConfig {
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public JfrConfig() {
+    }
+
+    /**
+     * Создает запись JFR по запросу
+     * @param properties настройки записи
+     * @return запись по запросу
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "timetracker.jfr", name = "enabled", matchIfMissing = true)
+    public JfrRecorder jfrRecorder(JfrProperties properties) {
+        return new JfrRecorder(properties);
+    }
+
+    /**
+     * Создает советник событий расчета отчетов для методов с {@link JfrReport}
+     * @return советник, выполняющийся после трассировки и объединения вызовов
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor jfrReportAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(JfrReport.class),
+                new JfrReportInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return advisor;
+    }
+}
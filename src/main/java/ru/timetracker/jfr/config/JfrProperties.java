@@ -0,0 +1,56 @@
+package ru.timetracker.jfr.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Настройки записи JDK Flight Recorder по запросу. Задаются в {@code application.properties} с префиксом {@code timetracker.jfr}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Набор настроек JFR ({@code default} или {@code profile} с выборкой аллокаций и блокировок)</li>
+ *   <li>Длительность записи по умолчанию и максимальная длительность</li>
+ *   <li>Максимальный размер записи на диске</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.jfr")
+public class JfrProperties {
+    /**
+     * Доступна ли запись JFR через API
+     * @return true если запись доступна
+     */
+    private boolean enabled = true;
+
+    /**
+     * Имя набора настроек JFR из {@code $JAVA_HOME/lib/jfr}
+     * @return Имя набора настроек
+     */
+    private String settings = "profile";
+
+    /**
+     * Длительность записи, если она не указана в запросе
+     * @return Длительность
+     */
+    private Duration defaultDuration = Duration.ofMinutes(5);
+
+    /**
+     * Максимальная длительность записи; по ее истечении запись останавливается автоматически
+     * @return Длительность
+     */
+    private Duration maxDuration = Duration.ofMinutes(30);
+
+    /**
+     * Максимальный размер записи на диске; при превышении удаляются самые старые данные
+     * @return Размер записи
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public JfrProperties() {
+    }
+}
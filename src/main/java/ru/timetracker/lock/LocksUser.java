@@ -0,0 +1,24 @@
+package ru.timetracker.lock;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Выполняет метод сервиса под блокировкой пользователя из {@link UserLockStripes}. Блокировка берется до начала транзакции метода и
+ * освобождается после ее фиксации или отката, поэтому ожидание блокировки не занимает соединение с БД и разрешение bulkhead.
+ * <p>Если метод вызван внутри уже открытой транзакции, блокировка удерживается до ее завершения.
+ * @see UserLockInterceptor Захват блокировки
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LocksUser {
+    /**
+     * Имя параметра метода с ID пользователя
+     * @return Имя параметра
+     */
+    String value() default "userId";
+}
@@ -0,0 +1,67 @@
+package ru.timetracker.lock;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Захват блокировки пользователя для методов, отмеченных {@link LocksUser}.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Находит ID пользователя по имени параметра из аннотации (позиция параметра запоминается для метода)</li>
+ *   <li>Вне транзакции захватывает блокировку на время вызова: советник выполняется раньше транзакционного, поэтому вызов охватывает
+ *   фиксацию транзакции</li>
+ *   <li>Внутри открытой транзакции удерживает блокировку до ее завершения через {@link UserLockStripes#lockForTransaction(Long)}</li>
+ * </ul>
+ */
+public class UserLockInterceptor implements MethodInterceptor {
+    private final ObjectProvider<UserLockStripes> userLockStripes;
+    private final ConcurrentMap<Method, Integer> userIdParameters = new ConcurrentHashMap<>();
+
+    /**
+     * Создает перехватчик блокировок пользователей.
+     * @param userLockStripes блокировки пользователей (разрешаются при первом вызове, чтобы не создавать их при сборке прокси)
+     */
+    public UserLockInterceptor(ObjectProvider<UserLockStripes> userLockStripes) {
+        this.userLockStripes = userLockStripes;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        int index = userIdParameters.computeIfAbsent(invocation.getMethod(), UserLockInterceptor::userIdParameter);
+        if (!(invocation.getArguments()[index] instanceof Long userId)) {
+            return invocation.proceed();
+        }
+        UserLockStripes stripes = userLockStripes.getObject();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            stripes.lockForTransaction(userId);
+            return invocation.proceed();
+        }
+        ReentrantLock lock = stripes.lock(userId);
+        try {
+            return invocation.proceed();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int userIdParameter(Method method) {
+        LocksUser annotation = method.getAnnotation(LocksUser.class);
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].getName()
+                    .equals(annotation.value())) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Method " + method.getDeclaringClass()
+                .getSimpleName() + "." + method.getName() + " has no parameter '" + annotation.value() + "' with the user ID");
+    }
+}
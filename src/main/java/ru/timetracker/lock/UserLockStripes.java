@@ -0,0 +1,149 @@
+package ru.timetracker.lock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Полосатые блокировки пользователей: сериализуют старт и остановку трекинга одного пользователя без глобальной блокировки.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Пользователь отображается на одну из фиксированного числа блокировок (количество округляется до степени двойки), поэтому
+ *   память не растет с числом пользователей, а разные пользователи почти не конкурируют</li>
+ *   <li>Блокировка удерживается до завершения транзакции: следующий старт того же пользователя видит уже зафиксированную запись.
+ *   Методы сервисов берут ее через {@link LocksUser} до начала транзакции, поэтому ожидание не занимает соединение с БД</li>
+ *   <li>Ожидание ограничено таймаутом, по истечении которого выбрасывается {@link CannotAcquireLockException}</li>
+ * </ul>
+ * <p>Блокировки действуют в пределах одного экземпляра приложения; между экземплярами инвариант одной активной записи на пользователя
+ * обеспечивает уникальный индекс {@code time_entries.active_user_id}.
+ */
+public final class UserLockStripes {
+    private static final Logger logger = LogManager.getLogger(UserLockStripes.class);
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+    private final Duration acquireTimeout;
+    private final AtomicLong contendedCount = new AtomicLong();
+
+    /**
+     * Создает набор блокировок.
+     * @param stripes        количество блокировок (округляется вверх до степени двойки)
+     * @param acquireTimeout максимальное время ожидания блокировки
+     */
+    public UserLockStripes(int stripes, Duration acquireTimeout) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Lock stripes must be positive: " + stripes);
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * Захватывает блокировку пользователя до завершения текущей транзакции (фиксации или отката)
+     * @param userId ID пользователя
+     * @throws IllegalStateException      если нет активной транзакции
+     * @throws CannotAcquireLockException если блокировка не получена за время ожидания
+     */
+    public void lockForTransaction(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("User lock requires an active transaction");
+        }
+        ReentrantLock lock = lockOf(userId);
+        acquire(lock, userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Выполняет действие под блокировкой пользователя и сразу освобождает ее. Используется вне транзакций (например, отложенной
+     * записью трекинга); внутри транзакции, уже удерживающей блокировку пользователя, повторный захват не ждет
+     * @param userId ID пользователя
+     * @param action Действие
+     * @param <T>    Тип результата
+     * @return Результат действия
+     * @throws CannotAcquireLockException если блокировка не получена за время ожидания
+     */
+    public <T> T withLock(Long userId, Supplier<T> action) {
+        ReentrantLock lock = lock(userId);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Количество блокировок
+     * @return Степень двойки
+     */
+    public int getStripeCount() {
+        return locks.length;
+    }
+
+    /**
+     * Количество захватов, которым пришлось ждать освобождения блокировки
+     * @return Количество захватов
+     */
+    public long getContendedCount() {
+        return contendedCount.get();
+    }
+
+    /**
+     * Захватывает блокировку пользователя; вызывающий освобождает ее сам
+     * @param userId ID пользователя
+     * @return Захваченная блокировка
+     * @throws CannotAcquireLockException если блокировка не получена за время ожидания
+     */
+    ReentrantLock lock(Long userId) {
+        ReentrantLock lock = lockOf(userId);
+        acquire(lock, userId);
+        return lock;
+    }
+
+    private ReentrantLock lockOf(Long userId) {
+        return locks[spread(userId.hashCode()) & mask];
+    }
+
+    private void acquire(ReentrantLock lock, Long userId) {
+        if (lock.tryLock()) {
+            return;
+        }
+        contendedCount.incrementAndGet();
+        try {
+            if (lock.tryLock(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            throw new CannotAcquireLockException("Interrupted while waiting for lock of user " + userId, e);
+        }
+        logger.warn("Lock of user {} not acquired within {}", userId, acquireTimeout);
+        throw new CannotAcquireLockException("Lock of user " + userId + " not acquired within " + acquireTimeout);
+    }
+
+    private static int spread(int hash) {
+        // Последовательные ID пользователей раскладываются по всем блокировкам, а не только по младшим битам
+        return (hash ^ (hash >>> 16)) * 0x9E3779B1;
+    }
+}
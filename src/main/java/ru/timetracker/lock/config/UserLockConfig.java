@@ -0,0 +1,76 @@
+package ru.timetracker.lock.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import ru.timetracker.lock.LocksUser;
+import ru.timetracker.lock.UserLockInterceptor;
+import ru.timetracker.lock.UserLockStripes;
+
+/**
+ * Конфигурация блокировок пользователей.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Подключает настройки {@link UserLockProperties}</li>
+ *   <li>Создает набор полосатых блокировок пользователей</li>
+ *   <li>Регистрирует советник для методов с {@link LocksUser}. Порядок между повторами и транзакцией: блокировка берется до
+ *   получения соединения и освобождается после фиксации, а каждая повторная попытка захватывает ее заново и не держит ее во время
+ *   задержки</li>
+ *   <li>Публикует метрику количества захватов с ожиданием</li>
+ * </ul>
+ * @see UserLockStripes Блокировки пользователей
+ */
+@Configuration
+@EnableConfigurationProperties(UserLockProperties.class)
+public class UserLockConfig {
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public UserLockConfig() {
+    }
+
+    /**
+     * Создает набор блокировок пользователей
+     * @param properties настройки блокировок
+     * @return набор блокировок
+     */
+    @Bean
+    public UserLockStripes userLockStripes(UserLockProperties properties) {
+        return new UserLockStripes(properties.getStripes(), properties.getAcquireTimeout());
+    }
+
+    /**
+     * Создает советник блокировки пользователя для методов с {@link LocksUser}
+     * @param userLockStripes блокировки пользователей
+     * @return советник, выполняющийся до транзакционного
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor userLockAdvisor(ObjectProvider<UserLockStripes> userLockStripes) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(LocksUser.class),
+                new UserLockInterceptor(userLockStripes));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return advisor;
+    }
+
+    /**
+     * Регистрирует метрики блокировок пользователей
+     * @param userLockStripes набор блокировок
+     * @return регистратор метрик
+     */
+    @Bean
+    public MeterBinder userLockMetrics(UserLockStripes userLockStripes) {
+        return registry -> FunctionCounter.builder("timetracker.lock.contended", userLockStripes, UserLockStripes::getContendedCount)
+                .description("User lock acquisitions that had to wait for another start or stop of the same stripe")
+                .register(registry);
+    }
+}
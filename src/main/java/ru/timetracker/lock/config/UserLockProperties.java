@@ -0,0 +1,37 @@
+package ru.timetracker.lock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки блокировок пользователей при старте и остановке трекинга. Задаются в {@code application.properties} с префиксом
+ * {@code timetracker.lock}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Количество блокировок, между которыми распределяются пользователи</li>
+ *   <li>Максимальное время ожидания блокировки</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.lock")
+public class UserLockProperties {
+    /**
+     * Количество блокировок (округляется вверх до степени двойки)
+     * @return Количество блокировок
+     */
+    private int stripes = 1024;
+
+    /**
+     * Максимальное время ожидания блокировки пользователя
+     * @return Время ожидания
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public UserLockProperties() {
+    }
+}
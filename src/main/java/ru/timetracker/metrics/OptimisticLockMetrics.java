@@ -0,0 +1,77 @@
+package ru.timetracker.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Метрики конфликтов оптимистической блокировки.
+ * <p>Метрики:
+ * <ul>
+ *   <li>{@value #ATTEMPTS} - счетчик попыток с тегами {@code operation} и {@code outcome} (success/conflict/failure); доля
+ *   {@code conflict} среди попыток операции - частота конфликтов</li>
+ *   <li>{@value #EXHAUSTED} - счетчик вызовов, завершившихся конфликтом после всех повторов, с тегом {@code operation}</li>
+ * </ul>
+ */
+@Component
+public class OptimisticLockMetrics {
+    /**
+     * Имя счетчика попыток
+     */
+    public static final String ATTEMPTS = "timetracker.optimistic.attempts";
+
+    /**
+     * Имя счетчика исчерпанных повторов
+     */
+    public static final String EXHAUSTED = "timetracker.optimistic.exhausted";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Создает метрики конфликтов.
+     * @param registry реестр метрик
+     */
+    public OptimisticLockMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Учитывает попытку выполнения операции
+     * @param operation Операция (класс и метод сервиса)
+     * @param outcome   Результат попытки: success, conflict или failure
+     */
+    public void recordAttempt(String operation, String outcome) {
+        Counter.builder(ATTEMPTS)
+                .description("Attempts of operations retried on optimistic locking conflicts")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Учитывает вызов, для которого исчерпаны повторы
+     * @param operation Операция (класс и метод сервиса)
+     */
+    public void recordExhausted(String operation) {
+        Counter.builder(EXHAUSTED)
+                .description("Operations that still conflicted after all retries")
+                .tag("operation", operation)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Количество попыток операции с указанным результатом
+     * @param operation Операция
+     * @param outcome   Результат попытки
+     * @return Количество попыток
+     */
+    public double getAttempts(String operation, String outcome) {
+        Counter counter = registry.find(ATTEMPTS)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,79 @@
+package ru.timetracker.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import ru.timetracker.jfr.SchedulerRunJfrEvent;
+
+/**
+ * Метрики задач по расписанию: длительность выполнения и количество затронутых строк.
+ * <p>Метрики:
+ * <ul>
+ *   <li>{@value #RUN_DURATION} - таймер выполнения задачи с тегами {@code job} и {@code outcome} (success/failure)</li>
+ *   <li>{@value #ROWS_AFFECTED} - счетчик затронутых строк с тегами {@code job} и {@code operation}</li>
+ * </ul>
+ * <p>Во время записи JDK Flight Recorder выполнение также записывается событием {@link SchedulerRunJfrEvent}.
+ */
+@Component
+public class SchedulerMetrics {
+    /**
+     * Имя таймера выполнения задачи
+     */
+    public static final String RUN_DURATION = "timetracker.scheduler.run";
+
+    /**
+     * Имя счетчика затронутых строк
+     */
+    public static final String ROWS_AFFECTED = "timetracker.scheduler.rows";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Создает метрики задач по расписанию.
+     * @param registry реестр метрик
+     */
+    public SchedulerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Выполняет задачу и записывает ее длительность
+     * @param job  Имя задачи
+     * @param task Тело задачи
+     */
+    public void recordRun(String job, Runnable task) {
+        Timer.Sample sample = Timer.start(registry);
+        SchedulerRunJfrEvent event = SchedulerRunJfrEvent.start(job);
+        String outcome = "failure";
+        try {
+            task.run();
+            outcome = "success";
+        } finally {
+            if (event != null) {
+                event.end(outcome);
+            }
+            sample.stop(Timer.builder(RUN_DURATION)
+                    .description("Scheduled job run duration")
+                    .tag("job", job)
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Учитывает количество строк, затронутых операцией задачи
+     * @param job       Имя задачи
+     * @param operation Операция (например, deleted-time-entries)
+     * @param rows      Количество строк
+     */
+    public void recordRows(String job, String operation, long rows) {
+        Counter.builder(ROWS_AFFECTED)
+                .description("Rows affected by scheduled jobs")
+                .tag("job", job)
+                .tag("operation", operation)
+                .register(registry)
+                .increment(rows);
+        SchedulerRunJfrEvent.addRows(rows);
+    }
+}
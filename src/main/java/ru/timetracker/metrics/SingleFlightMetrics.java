@@ -0,0 +1,76 @@
+package ru.timetracker.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Метрики объединения одновременных одинаковых вызовов.
+ * <p>Метрики:
+ * <ul>
+ *   <li>{@value #CALLS} - счетчик вызовов с тегами {@code operation} и {@code role}: {@value #LEADER} - вызов выполнил расчет,
+ *   {@value #COALESCED} - вызов присоединился к одновременному расчету и ждет его результат, {@value #TIMED_OUT} - присоединившийся
+ *   вызов не дождался результата и выполнил расчет сам. Доля {@code coalesced} за вычетом {@code timed-out} - доля сэкономленных
+ *   расчетов</li>
+ * </ul>
+ */
+@Component
+public class SingleFlightMetrics {
+    /**
+     * Имя счетчика вызовов
+     */
+    public static final String CALLS = "timetracker.singleflight.calls";
+
+    /**
+     * Роль вызова, выполнившего расчет
+     */
+    public static final String LEADER = "leader";
+
+    /**
+     * Роль вызова, присоединившегося к одновременному расчету
+     */
+    public static final String COALESCED = "coalesced";
+
+    /**
+     * Роль присоединившегося вызова, не дождавшегося результата
+     */
+    public static final String TIMED_OUT = "timed-out";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Создает метрики объединения вызовов.
+     * @param registry реестр метрик
+     */
+    public SingleFlightMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Учитывает вызов операции
+     * @param operation Операция (класс и метод сервиса)
+     * @param role      Роль вызова: leader, coalesced или timed-out
+     */
+    public void recordCall(String operation, String role) {
+        Counter.builder(CALLS)
+                .description("Calls of single-flight operations by whether they computed or shared the result")
+                .tag("operation", operation)
+                .tag("role", role)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Количество вызовов операции с указанной ролью
+     * @param operation Операция
+     * @param role      Роль вызова
+     * @return Количество вызовов
+     */
+    public double getCalls(String operation, String role) {
+        Counter counter = registry.find(CALLS)
+                .tag("operation", operation)
+                .tag("role", role)
+                .counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
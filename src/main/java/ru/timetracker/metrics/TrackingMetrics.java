@@ -0,0 +1,66 @@
+package ru.timetracker.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.repository.TimeEntryRepository;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Бизнес-метрики трекинга времени. Дополняют автоматические метрики Spring Boot Actuator: таймеры HTTP-запросов
+ * ({@code http.server.requests}), вызовов методов репозиториев ({@code spring.data.repository.invocations}), пула соединений Hikari
+ * ({@code hikaricp.connections.*}) и статистику Hibernate ({@code hibernate.*}).
+ * <p>Метрики:
+ * <ul>
+ *   <li>{@value #ACTIVE_ENTRIES} - количество активных записей времени (запрос к БД при каждом сборе метрик)</li>
+ *   <li>{@value #TRACKING_EVENTS} - счетчик стартов и остановок трекинга с тегом {@code type}</li>
+ * </ul>
+ */
+@Component
+public class TrackingMetrics {
+    /**
+     * Имя gauge активных записей времени
+     */
+    public static final String ACTIVE_ENTRIES = "timetracker.entries.active";
+
+    /**
+     * Имя счетчика событий трекинга
+     */
+    public static final String TRACKING_EVENTS = "timetracker.tracking.events";
+
+    private final Map<TimeEntryEvent.Type, Counter> eventCounters = new EnumMap<>(TimeEntryEvent.Type.class);
+
+    /**
+     * Регистрирует метрики трекинга.
+     * @param registry            реестр метрик
+     * @param timeEntryRepository репозиторий записей времени для подсчета активных записей
+     */
+    public TrackingMetrics(MeterRegistry registry, TimeEntryRepository timeEntryRepository) {
+        Gauge.builder(ACTIVE_ENTRIES, timeEntryRepository, TimeEntryRepository::countByEndTimeIsNull)
+                .description("Number of time entries that are currently being tracked")
+                .register(registry);
+        for (TimeEntryEvent.Type type : TimeEntryEvent.Type.values()) {
+            eventCounters.put(type, Counter.builder(TRACKING_EVENTS)
+                    .description("Time tracking starts and stops")
+                    .tag("type", type.name()
+                            .toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Учитывает старт или остановку трекинга после фиксации транзакции
+     * @param event Событие записи времени
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeEntryEvent(TimeEntryEvent event) {
+        eventCounters.get(event.getType())
+                .increment();
+    }
+}
@@ -0,0 +1,62 @@
+package ru.timetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import ru.timetracker.sketch.HyperLogLog;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Сохраненный скетч {@link HyperLogLog} пользователей, начинавших трекинг в течение дня. Позволяет восстановить скетчи при запуске
+ * без сканирования записей времени.
+ * <p>Основные характеристики:
+ * <ul>
+ *   <li>День, к которому относится скетч</li>
+ *   <li>Регистры скетча</li>
+ * </ul>
+ * @see HyperLogLog Скетч различных пользователей
+ */
+@Entity
+@Table(name = "active_user_sketches")
+@Data
+@Builder
+@AllArgsConstructor
+public class ActiveUserSketch {
+    /**
+     * День начала записей времени
+     * @return День
+     */
+    @Id
+    @Column(name = "activity_date")
+    private LocalDate day;
+
+    /**
+     * Регистры скетча
+     * @return Массив из {@value HyperLogLog#REGISTERS} байт
+     */
+    @Column(nullable = false, length = HyperLogLog.REGISTERS)
+    private byte[] registers;
+
+    /**
+     * Время последнего сохранения скетча
+     * @return Время сохранения
+     */
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Версия скетча для оптимистической блокировки (null у еще не сохраненного скетча)
+     * @return Версия
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public ActiveUserSketch() {
+    }
+}
@@ -4,8 +4,13 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import ru.timetracker.cache.config.SecondLevelCacheConfig;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,6 +25,7 @@ import java.util.List;
  *   <li>Статус активности (активная/неактивная)</li>
  *   <li>Связь с пользователем-владельцем</li>
  *   <li>Список связанных записей времени</li>
+ *   <li>Версия для оптимистической блокировки</li>
  * </ul>
  * <p>Связи:
  * <ul>
@@ -31,6 +37,8 @@ import java.util.List;
  */
 @Entity
 @Table(name = "tasks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.TASK_REGION)
 @Data
 @Builder
 @AllArgsConstructor
@@ -76,6 +84,24 @@ public class Task {
     @Column(nullable = false)
     private boolean active = true;
 
+    /**
+     * Максимальная длительность записи времени по задаче в минутах; имеет приоритет над ограничением пользователя
+     * (null - действует ограничение пользователя)
+     * @return Длительность в минутах или null
+     */
+    @Positive(message = "Max entry duration must be positive")
+    @Column(name = "max_entry_minutes")
+    private Integer maxEntryMinutes;
+
+    /**
+     * Версия задачи для оптимистической блокировки: параллельное изменение той же версии отклоняется, а не перезаписывается
+     * @return Версия
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     /**
      * Пользователь-владелец задачи
      * @return Объект пользователя
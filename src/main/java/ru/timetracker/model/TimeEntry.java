@@ -5,6 +5,7 @@ import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Duration;
@@ -19,6 +20,8 @@ import java.time.LocalDateTime;
  *   <li>Связь с пользователем и задачей</li>
  *   <li>Автоматический расчет продолжительности</li>
  *   <li>Определение активной/неактивной записи</li>
+ *   <li>Не более одной активной записи на пользователя (уникальный столбец {@code active_user_id})</li>
+ *   <li>Версия для оптимистической блокировки</li>
  * </ul>
  * <p>Связи:
  * <ul>
@@ -29,17 +32,29 @@ import java.time.LocalDateTime;
  * @see Task Задача, к которой относится запись
  */
 @Entity
-@Table(name = "time_entries")
+@Table(name = "time_entries", indexes = @Index(name = "idx_time_entries_open_start", columnList = "end_time, start_time"))
 @Data
 @AllArgsConstructor
 @Builder
 public class TimeEntry {
+    /**
+     * Имя последовательности ID записей времени
+     */
+    public static final String SEQUENCE = "time_entries_seq";
+
+    /**
+     * Шаг последовательности: одно обращение к ней выдает блок из стольких ID, начиная с полученного значения (оптимизатор
+     * {@code pooled-lo}). Блоками пользуются и Hibernate, и отложенная запись трекинга
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * Уникальный идентификатор записи времени
      * @return ID записи
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCE)
+    @SequenceGenerator(name = SEQUENCE, sequenceName = SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -57,6 +72,14 @@ public class TimeEntry {
     @Column
     private LocalDateTime endTime;
 
+    /**
+     * ID пользователя, пока запись активна, иначе null. Уникальный индекс по столбцу не допускает второй активной записи пользователя
+     * даже при параллельных стартах на разных экземплярах приложения; завершенные записи в индекс не попадают
+     * @return ID пользователя активной записи или null
+     */
+    @Column(name = "active_user_id", unique = true)
+    private Long activeUserId;
+
     /**
      * Пользователь, связанный с записью
      * @return Объект пользователя
@@ -78,6 +101,16 @@ public class TimeEntry {
     @EqualsAndHashCode.Exclude
     private Task task;
 
+    /**
+     * Версия записи для оптимистической блокировки. Массовые обновления и JDBC-запросы, завершающие записи, тоже увеличивают версию,
+     * поэтому остановка, прочитавшая запись до них, не перезапишет их время окончания
+     * @return Версия
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     /**
      * Дата и время создания записи (устанавливается автоматически)
      * @return Дата создания
@@ -110,8 +143,8 @@ public class TimeEntry {
     }
 
     /**
-     * Callback-метод, выполняющийся перед сохранением или обновлением записи. Автоматически устанавливает startTime, если он не задан, и
-     * завершает записи за предыдущие дни.
+     * Callback-метод, выполняющийся перед сохранением или обновлением записи. Автоматически устанавливает startTime, если он не задан,
+     * завершает записи за предыдущие дни и синхронизирует activeUserId с признаком активности.
      */
     @PrePersist
     @PreUpdate
@@ -125,5 +158,6 @@ public class TimeEntry {
             this.endTime = this.startTime.toLocalDate()
                     .atTime(23, 59);
         }
+        this.activeUserId = this.endTime == null && this.user != null ? this.user.getId() : null;
     }
 }
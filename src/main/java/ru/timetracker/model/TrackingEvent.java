@@ -0,0 +1,137 @@
+package ru.timetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие журнала трекинга пользователя. Журнал только дополняется: события не изменяются, а удаляются лишь при очистке данных
+ * пользователя или по сроку хранения. Таблица {@code time_entries} остается основным хранилищем записей и
+ * изменяется в той же транзакции; журнал служит аудитом и источником для перестроения снимков и восстановления таблицы.
+ * <p>Основные характеристики:
+ * <ul>
+ *   <li>Глобальный возрастающий ID задает порядок событий (в том числе внутри одного пользователя)</li>
+ *   <li>Тип события и ID записи времени, к которой оно относится</li>
+ *   <li>Значения записи после события; для {@link Type#EDITED} - также значения до изменения</li>
+ * </ul>
+ * <p>События не связаны внешними ключами с пользователями и задачами, чтобы журнал не зависел от состояния этих таблиц.
+ * @see TimeEntry Запись времени
+ * @see TrackingSnapshot Снимок состояния пользователя
+ */
+@Entity
+@Table(name = "tracking_events", indexes = @Index(name = "idx_tracking_events_user", columnList = "user_id, id"))
+@Getter
+@ToString
+@Builder
+@AllArgsConstructor
+public class TrackingEvent {
+    /**
+     * Имя последовательности ID событий
+     */
+    public static final String SEQUENCE = "tracking_events_seq";
+
+    /**
+     * Уникальный возрастающий идентификатор события
+     * @return ID события
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCE)
+    @SequenceGenerator(name = SEQUENCE, sequenceName = SEQUENCE, allocationSize = 1)
+    private Long id;
+
+    /**
+     * ID пользователя
+     * @return ID пользователя
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Тип события
+     * @return Тип события
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Type type;
+
+    /**
+     * ID записи времени
+     * @return ID записи
+     */
+    @Column(nullable = false)
+    private Long entryId;
+
+    /**
+     * ID задачи записи
+     * @return ID задачи
+     */
+    @Column
+    private Long taskId;
+
+    /**
+     * Время начала записи
+     * @return Время начала
+     */
+    @Column
+    private LocalDateTime startTime;
+
+    /**
+     * Время окончания записи (null для {@link Type#STARTED})
+     * @return Время окончания или null
+     */
+    @Column
+    private LocalDateTime endTime;
+
+    /**
+     * Время начала записи до изменения (только для {@link Type#EDITED})
+     * @return Время начала или null
+     */
+    @Column
+    private LocalDateTime previousStartTime;
+
+    /**
+     * Время окончания записи до изменения (только для {@link Type#EDITED})
+     * @return Время окончания или null
+     */
+    @Column
+    private LocalDateTime previousEndTime;
+
+    /**
+     * Время записи события в журнал
+     * @return Время записи
+     */
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public TrackingEvent() {
+    }
+
+    /**
+     * Тип события журнала трекинга.
+     */
+    public enum Type {
+        /**
+         * Трекинг начат
+         */
+        STARTED,
+        /**
+         * Трекинг остановлен пользователем или при переключении на другую задачу
+         */
+        STOPPED,
+        /**
+         * Запись завершена автоматически
+         */
+        AUTO_COMPLETED,
+        /**
+         * Запись изменена (задача, время начала или окончания)
+         */
+        EDITED
+    }
+}
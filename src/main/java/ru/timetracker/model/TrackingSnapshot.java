@@ -0,0 +1,87 @@
+package ru.timetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Снимок состояния трекинга пользователя на момент события {@link #lastEventId}. Позволяет получить текущее состояние, воспроизведя
+ * только события после снимка.
+ * <p>Основные характеристики:
+ * <ul>
+ *   <li>Активная запись времени (если есть)</li>
+ *   <li>Количество завершенных записей и суммарное отслеженное время</li>
+ * </ul>
+ * @see TrackingEvent Журнал трекинга
+ */
+@Entity
+@Table(name = "tracking_snapshots")
+@Data
+@Builder
+@AllArgsConstructor
+public class TrackingSnapshot {
+    /**
+     * ID пользователя
+     * @return ID пользователя
+     */
+    @Id
+    private Long userId;
+
+    /**
+     * ID последнего события, учтенного в снимке
+     * @return ID события
+     */
+    @Column(nullable = false)
+    private Long lastEventId;
+
+    /**
+     * ID активной записи времени (null, если трекинг не запущен)
+     * @return ID записи или null
+     */
+    @Column
+    private Long activeEntryId;
+
+    /**
+     * ID задачи активной записи
+     * @return ID задачи или null
+     */
+    @Column
+    private Long activeTaskId;
+
+    /**
+     * Время начала активной записи
+     * @return Время начала или null
+     */
+    @Column
+    private LocalDateTime activeStartTime;
+
+    /**
+     * Количество завершенных записей
+     * @return Количество записей
+     */
+    @Column(nullable = false)
+    private long completedEntries;
+
+    /**
+     * Суммарная продолжительность завершенных записей в секундах
+     * @return Продолжительность в секундах
+     */
+    @Column(nullable = false)
+    private long trackedSeconds;
+
+    /**
+     * Время создания снимка
+     * @return Время создания
+     */
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public TrackingSnapshot() {
+    }
+}
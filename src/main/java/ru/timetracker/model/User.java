@@ -3,6 +3,9 @@ package ru.timetracker.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.timetracker.cache.config.SecondLevelCacheConfig;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -33,6 +36,8 @@ import java.util.List;
 @ToString
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USER_REGION)
 public class User {
 
     /**
@@ -71,6 +76,15 @@ public class User {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    /**
+     * Максимальная длительность записи времени пользователя в минутах, после которой запись считается забытой и останавливается
+     * (null - действует общее ограничение)
+     * @return Длительность в минутах или null
+     */
+    @Positive(message = "Max entry duration must be positive")
+    @Column(name = "max_entry_minutes")
+    private Integer maxEntryMinutes;
+
     /**
      * Список задач пользователя
      * @return Список задач
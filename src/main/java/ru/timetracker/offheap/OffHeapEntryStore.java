@@ -0,0 +1,354 @@
+package ru.timetracker.offheap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
+import ru.timetracker.offheap.config.OffHeapStoreProperties;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Хранилище записей времени крупных пользователей вне кучи. Записи пользователя, у которого их больше порога
+ * {@link OffHeapStoreProperties#getMinEntries()}, загружаются один раз в сегмент {@link UserEntrySegment} и дальше отчеты
+ * {@link ru.timetracker.service.TimeEntryService} считаются сканированием сегмента без загрузки сущностей в кучу.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Ленивая загрузка сегмента одним потоковым JDBC-запросом при первом отчете пользователя; загрузки разных пользователей идут
+ *   параллельно, а одновременные отчеты одного пользователя ждут одну общую загрузку</li>
+ *   <li>Инкрементальное обновление по событиям {@link TimeEntryEvent} после фиксации транзакции</li>
+ *   <li>Ограничение общей памяти вне кучи с вытеснением давно не использованных сегментов; отчеты вытесненных пользователей снова
+ *   считаются в БД до следующей загрузки</li>
+ *   <li>Сброс сегментов после массовых изменений, которые не публикуют событий (удаление задач, очистка, пересборка)</li>
+ * </ul>
+ */
+@Component
+public class OffHeapEntryStore {
+    private static final Logger logger = LogManager.getLogger(OffHeapEntryStore.class);
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM time_entries WHERE user_id = ?";
+    private static final String LOAD_SQL = "SELECT start_time, end_time, task_id FROM time_entries WHERE user_id = ? ORDER BY start_time, id";
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    private final OffHeapStoreProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentMap<Long, Holder> segments = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Long> skippedUntil = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, AtomicBoolean> loading = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, CompletableFuture<Holder>> inFlightLoads = new ConcurrentHashMap<>();
+    private final Object stateLock = new Object();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Конструктор хранилища записей вне кучи.
+     * @param properties   настройки хранилища
+     * @param jdbcTemplate JDBC-шаблон для загрузки сегментов
+     */
+    public OffHeapEntryStore(OffHeapStoreProperties properties, JdbcTemplate jdbcTemplate) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Суммирует длительность записей пользователя, начатых в периоде, по сегменту вне кучи
+     * @param userId ID пользователя
+     * @param from   начало периода (включительно)
+     * @param to     конец периода (включительно)
+     * @return Длительность в секундах или пустое значение, если отчет нужно считать в БД
+     */
+    public OptionalLong sumSeconds(Long userId, LocalDateTime from, LocalDateTime to) {
+        UserEntrySegment segment = acquire(userId);
+        if (segment == null) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(segment.sumSeconds(toEpochSecond(from), toEpochSecond(to), toEpochSecond(LocalDateTime.now())));
+    }
+
+    /**
+     * Суммирует длительность записей пользователя, начатых в периоде, по задачам по сегменту вне кучи
+     * @param userId ID пользователя
+     * @param from   начало периода (включительно)
+     * @param to     конец периода (включительно)
+     * @return Длительности по задачам или null, если отчет нужно считать в БД
+     */
+    public TaskTotals sumByTask(Long userId, LocalDateTime from, LocalDateTime to) {
+        UserEntrySegment segment = acquire(userId);
+        if (segment == null) {
+            return null;
+        }
+        TaskTotals totals = new TaskTotals();
+        segment.sumByTask(toEpochSecond(from), toEpochSecond(to), toEpochSecond(LocalDateTime.now()), totals);
+        return totals;
+    }
+
+    /**
+     * Переводит время из сегмента обратно в {@link LocalDateTime}
+     * @param epochSecond время в epoch-секундах (UTC)
+     * @return Время
+     */
+    public static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Применяет событие записи времени к загруженному сегменту пользователя
+     * @param event событие записи времени
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeEntryEvent(TimeEntryEvent event) {
+        synchronized (stateLock) {
+            Holder holder = segments.get(event.getUserId());
+            if (holder == null) {
+                markDirty(event.getUserId());
+                return;
+            }
+            UserEntrySegment segment = holder.segment;
+            long start = toEpochSecond(event.getStartTime());
+            boolean applied = switch (event.getType()) {
+                case STARTED -> {
+                    long before = segment.bytes();
+                    // Запись могла попасть в сегмент при загрузке, если событие обрабатывается уже после нее
+                    segment.addIfAbsent(start, UserEntrySegment.ACTIVE, event.getTaskId());
+                    yield reserve(segment.bytes() - before, event.getUserId()) && segment.size() <= properties.getMaxEntriesPerUser();
+                }
+                case STOPPED, AUTO_COMPLETED -> segment.close(start, event.getTaskId(), toEpochSecond(event.getEndTime()));
+            };
+            if (!applied) {
+                logger.debug("Off-heap segment of user {} no longer fits or is out of sync after {}, evicting", event.getUserId(),
+                        event.getType());
+                drop(event.getUserId());
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает сегмент пользователя или все сегменты после фиксации изменения данных трекинга
+     * @param event событие сброса данных трекинга
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserTrackingDataInvalidated(UserTrackingDataInvalidatedEvent event) {
+        synchronized (stateLock) {
+            if (event.isAllUsers()) {
+                loading.keySet()
+                        .forEach(this::markDirty);
+                segments.keySet()
+                        .forEach(this::drop);
+                skippedUntil.clear();
+            } else {
+                markDirty(event.getUserId());
+                drop(event.getUserId());
+                skippedUntil.remove(event.getUserId());
+            }
+        }
+    }
+
+    /**
+     * Объем памяти вне кучи, занятый сегментами
+     * @return Размер в байтах
+     */
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * Количество загруженных сегментов
+     * @return Количество сегментов
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Количество отчетов, посчитанных по сегментам
+     * @return Количество попаданий
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Количество загрузок сегментов из БД
+     * @return Количество загрузок
+     */
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    /**
+     * Количество вытесненных и сброшенных сегментов
+     * @return Количество вытеснений
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private UserEntrySegment acquire(Long userId) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Holder holder = segments.get(userId);
+        if (holder == null) {
+            Long until = skippedUntil.get(userId);
+            if (until != null && until > System.currentTimeMillis()) {
+                return null;
+            }
+            holder = load(userId);
+            if (holder == null) {
+                return null;
+            }
+        }
+        holder.lastAccess = System.nanoTime();
+        hits.incrementAndGet();
+        return holder.segment;
+    }
+
+    private Holder load(Long userId) {
+        CompletableFuture<Holder> loaded = new CompletableFuture<>();
+        CompletableFuture<Holder> running = inFlightLoads.putIfAbsent(userId, loaded);
+        if (running != null) {
+            // Отчет при неудачной чужой загрузке считается в БД
+            return running.exceptionally(e -> null)
+                    .join();
+        }
+        try {
+            Holder holder = loadSegment(userId);
+            loaded.complete(holder);
+            return holder;
+        } catch (RuntimeException e) {
+            loaded.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(userId, loaded);
+        }
+    }
+
+    // Загрузка выполняется без общих блокировок: под stateLock только проверка и публикация готового сегмента
+    private Holder loadSegment(Long userId) {
+        Holder existing = segments.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, userId);
+        long entries = count == null ? 0 : count;
+        long expectedBytes = (entries + entries / 8) * UserEntrySegment.RECORD_SIZE;
+        if (entries < properties.getMinEntries() || entries > properties.getMaxEntriesPerUser() ||
+                expectedBytes > properties.getMaxSize()
+                        .toBytes()) {
+            skippedUntil.put(userId, System.currentTimeMillis() + properties.getRecheckInterval()
+                    .toMillis());
+            logger.debug("User {} has {} entries, reports stay in the database", userId, entries);
+            return null;
+        }
+
+        AtomicBoolean dirty = new AtomicBoolean();
+        loading.put(userId, dirty);
+        try {
+            UserEntrySegment segment = new UserEntrySegment((int) (entries + entries / 8));
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(LOAD_SQL);
+                statement.setFetchSize(LOAD_FETCH_SIZE);
+                statement.setLong(1, userId);
+                return statement;
+            }, resultSet -> {
+                Timestamp end = resultSet.getTimestamp(2);
+                segment.add(toEpochSecond(resultSet.getTimestamp(1)
+                        .toLocalDateTime()), end == null ? UserEntrySegment.ACTIVE : toEpochSecond(end.toLocalDateTime()),
+                        resultSet.getLong(3));
+            });
+            Holder holder = new Holder(segment);
+            synchronized (stateLock) {
+                if (dirty.get()) {
+                    // Записи пользователя менялись во время загрузки: сегмент мог пропустить изменение, загрузим при следующем отчете
+                    logger.debug("Entries of user {} changed while loading, discarding segment", userId);
+                    return null;
+                }
+                if (!reserve(segment.bytes(), userId)) {
+                    usedBytes.addAndGet(-segment.bytes());
+                    logger.debug("Segment of user {} does not fit into the off-heap limit", userId);
+                    return null;
+                }
+                segments.put(userId, holder);
+            }
+            loads.incrementAndGet();
+            logger.info("Loaded {} entries of user {} off-heap ({} bytes, {} bytes in use)", segment.size(), userId, segment.bytes(),
+                    usedBytes.get());
+            return holder;
+        } finally {
+            loading.remove(userId);
+        }
+    }
+
+    /**
+     * Учитывает выделенную память и вытесняет давно не использованные сегменты других пользователей, пока не уложится в лимит.
+     * Вызывается под {@code stateLock}
+     */
+    private boolean reserve(long bytes, Long owner) {
+        long limit = properties.getMaxSize()
+                .toBytes();
+        usedBytes.addAndGet(bytes);
+        while (usedBytes.get() > limit) {
+            Long victim = leastRecentlyUsed(owner);
+            if (victim == null) {
+                return false;
+            }
+            drop(victim);
+        }
+        return true;
+    }
+
+    private void markDirty(Long userId) {
+        AtomicBoolean dirty = loading.get(userId);
+        if (dirty != null) {
+            dirty.set(true);
+        }
+    }
+
+    private Long leastRecentlyUsed(Long excluded) {
+        Long victim = null;
+        long oldest = Long.MAX_VALUE;
+        for (Map.Entry<Long, Holder> entry : segments.entrySet()) {
+            if (!entry.getKey()
+                    .equals(excluded) && entry.getValue().lastAccess < oldest) {
+                oldest = entry.getValue().lastAccess;
+                victim = entry.getKey();
+            }
+        }
+        return victim;
+    }
+
+    private void drop(Long userId) {
+        Holder holder = segments.remove(userId);
+        if (holder != null) {
+            usedBytes.addAndGet(-holder.segment.bytes());
+            evictions.incrementAndGet();
+            logger.debug("Evicted off-heap segment of user {}", userId);
+        }
+    }
+
+    private static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static final class Holder {
+        private final UserEntrySegment segment;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Holder(UserEntrySegment segment) {
+            this.segment = segment;
+        }
+    }
+}
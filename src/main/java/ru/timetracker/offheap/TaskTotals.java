@@ -0,0 +1,122 @@
+package ru.timetracker.offheap;
+
+import java.util.Arrays;
+
+/**
+ * Накопитель длительностей по задачам на примитивных массивах. Заполняется при сканировании сегмента {@link UserEntrySegment} без
+ * создания объекта на каждую запись; задачи перечисляются в порядке первой записи в периоде.
+ * <p>Для каждой задачи хранит:
+ * <ul>
+ *   <li>ID задачи</li>
+ *   <li>Суммарную длительность за период в секундах</li>
+ *   <li>Время начала самой ранней записи задачи за все время (epoch-секунды)</li>
+ * </ul>
+ */
+public final class TaskTotals {
+    private static final long UNSET = Long.MIN_VALUE;
+    private static final int EMPTY_SLOT = -1;
+
+    private long[] taskIds = new long[16];
+    private long[] seconds = new long[16];
+    private long[] firstStarts = new long[16];
+    private int[] slots = newSlots(32);
+    private int size;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public TaskTotals() {
+    }
+
+    /**
+     * Количество задач в результате
+     * @return Количество задач
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * ID задачи по порядковому номеру
+     * @param index порядковый номер (от 0 до {@link #size()})
+     * @return ID задачи
+     */
+    public long taskId(int index) {
+        return taskIds[index];
+    }
+
+    /**
+     * Суммарная длительность задачи за период
+     * @param index порядковый номер (от 0 до {@link #size()})
+     * @return Длительность в секундах
+     */
+    public long seconds(int index) {
+        return seconds[index];
+    }
+
+    /**
+     * Время начала самой ранней записи задачи за все время
+     * @param index порядковый номер (от 0 до {@link #size()})
+     * @return Время в epoch-секундах (UTC)
+     */
+    public long firstStart(int index) {
+        return firstStarts[index];
+    }
+
+    void clear() {
+        Arrays.fill(slots, EMPTY_SLOT);
+        size = 0;
+    }
+
+    void add(long taskId, long duration) {
+        int slot = slotOf(taskId);
+        int index = slots[slot];
+        if (index == EMPTY_SLOT) {
+            if (size == taskIds.length) {
+                grow();
+                slot = slotOf(taskId);
+            }
+            index = size++;
+            slots[slot] = index;
+            taskIds[index] = taskId;
+            seconds[index] = 0;
+            firstStarts[index] = UNSET;
+        }
+        seconds[index] += duration;
+    }
+
+    boolean firstStart(long taskId, long start) {
+        int index = slots[slotOf(taskId)];
+        if (index == EMPTY_SLOT || firstStarts[index] != UNSET) {
+            return false;
+        }
+        firstStarts[index] = start;
+        return true;
+    }
+
+    private int slotOf(long taskId) {
+        int mask = slots.length - 1;
+        int slot = Long.hashCode(taskId * 0x9E3779B97F4A7C15L) & mask;
+        while (slots[slot] != EMPTY_SLOT && taskIds[slots[slot]] != taskId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = taskIds.length * 2;
+        taskIds = Arrays.copyOf(taskIds, capacity);
+        seconds = Arrays.copyOf(seconds, capacity);
+        firstStarts = Arrays.copyOf(firstStarts, capacity);
+        slots = newSlots(capacity * 2);
+        for (int i = 0; i < size; i++) {
+            slots[slotOf(taskIds[i])] = i;
+        }
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] result = new int[capacity];
+        Arrays.fill(result, EMPTY_SLOT);
+        return result;
+    }
+}
@@ -0,0 +1,266 @@
+package ru.timetracker.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Сегмент записей времени одного пользователя вне кучи. Записи хранятся в прямом {@link ByteBuffer} упакованными по
+ * {@value #RECORD_SIZE} байт: начало (epoch-секунды), окончание (epoch-секунды или {@link #ACTIVE} для незавершенной записи) и ID задачи.
+ * <p>Особенности:
+ * <ul>
+ *   <li>Записи упорядочены по времени начала, поэтому период находится бинарным поиском</li>
+ *   <li>Агрегация выполняется по примитивам без выделения объектов в куче</li>
+ *   <li>Буфер растет удвоением; освобождается сборщиком вместе с сегментом после вытеснения</li>
+ *   <li>Чтение и изменение защищены блокировкой чтения/записи сегмента</li>
+ * </ul>
+ */
+final class UserEntrySegment {
+    /**
+     * Размер одной записи в байтах
+     */
+    static final int RECORD_SIZE = 24;
+
+    /**
+     * Значение окончания незавершенной записи
+     */
+    static final long ACTIVE = Long.MIN_VALUE;
+
+    private static final int END_OFFSET = 8;
+    private static final int TASK_OFFSET = 16;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private ByteBuffer buffer;
+    private int size;
+
+    /**
+     * Создает пустой сегмент
+     * @param initialCapacity начальная емкость в записях
+     */
+    UserEntrySegment(int initialCapacity) {
+        this.buffer = allocate(Math.max(initialCapacity, 16));
+    }
+
+    /**
+     * Количество записей в сегменте
+     * @return Количество записей
+     */
+    int size() {
+        lock.readLock()
+                .lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock()
+                    .unlock();
+        }
+    }
+
+    /**
+     * Объем памяти вне кучи, занятый сегментом
+     * @return Размер буфера в байтах
+     */
+    long bytes() {
+        lock.readLock()
+                .lock();
+        try {
+            return buffer.capacity();
+        } finally {
+            lock.readLock()
+                    .unlock();
+        }
+    }
+
+    /**
+     * Добавляет запись, сохраняя порядок по времени начала
+     * @param start  начало в epoch-секундах
+     * @param end    окончание в epoch-секундах или {@link #ACTIVE}
+     * @param taskId ID задачи
+     */
+    void add(long start, long end, long taskId) {
+        lock.writeLock()
+                .lock();
+        try {
+            if (size == capacity()) {
+                ByteBuffer grown = allocate(size * 2);
+                grown.put(0, buffer, 0, size * RECORD_SIZE);
+                buffer = grown;
+            }
+            int index = size;
+            if (size > 0 && start < startAt(size - 1)) {
+                // Записи почти всегда приходят по порядку; иначе сдвигаем хвост, чтобы сохранить сортировку
+                index = upperBound(start);
+                for (int i = size - 1; i >= index; i--) {
+                    int offset = i * RECORD_SIZE;
+                    write(i + 1, buffer.getLong(offset), buffer.getLong(offset + END_OFFSET), buffer.getLong(offset + TASK_OFFSET));
+                }
+            }
+            write(index, start, end, taskId);
+            size++;
+        } finally {
+            lock.writeLock()
+                    .unlock();
+        }
+    }
+
+    /**
+     * Добавляет запись, если записи той же задачи с тем же временем начала в сегменте еще нет
+     * @param start  начало в epoch-секундах
+     * @param end    окончание в epoch-секундах или {@link #ACTIVE}
+     * @param taskId ID задачи
+     */
+    void addIfAbsent(long start, long end, long taskId) {
+        lock.writeLock()
+                .lock();
+        try {
+            if (find(start, taskId) < 0) {
+                add(start, end, taskId);
+            }
+        } finally {
+            lock.writeLock()
+                    .unlock();
+        }
+    }
+
+    /**
+     * Завершает запись задачи с указанным временем начала. Уже завершенная запись не меняется
+     * @param start  начало записи в epoch-секундах
+     * @param taskId ID задачи
+     * @param end    окончание в epoch-секундах
+     * @return true если запись найдена
+     */
+    boolean close(long start, long taskId, long end) {
+        lock.writeLock()
+                .lock();
+        try {
+            int index = find(start, taskId);
+            if (index < 0) {
+                return false;
+            }
+            int offset = index * RECORD_SIZE;
+            if (buffer.getLong(offset + END_OFFSET) == ACTIVE) {
+                buffer.putLong(offset + END_OFFSET, end);
+            }
+            return true;
+        } finally {
+            lock.writeLock()
+                    .unlock();
+        }
+    }
+
+    /**
+     * Суммирует длительность записей, начатых в периоде [from, to]
+     * @param from начало периода в epoch-секундах
+     * @param to   конец периода в epoch-секундах
+     * @param now  текущее время для незавершенных записей
+     * @return Суммарная длительность в секундах
+     */
+    long sumSeconds(long from, long to, long now) {
+        lock.readLock()
+                .lock();
+        try {
+            long total = 0;
+            int last = upperBound(to);
+            for (int i = lowerBound(from); i < last; i++) {
+                total += duration(i * RECORD_SIZE, now);
+            }
+            return total;
+        } finally {
+            lock.readLock()
+                    .unlock();
+        }
+    }
+
+    /**
+     * Суммирует длительность записей, начатых в периоде [from, to], по задачам и находит для этих задач самое раннее начало за все время
+     * @param from   начало периода в epoch-секундах
+     * @param to     конец периода в epoch-секундах
+     * @param now    текущее время для незавершенных записей
+     * @param totals накопитель результата (очищается перед заполнением)
+     */
+    void sumByTask(long from, long to, long now, TaskTotals totals) {
+        lock.readLock()
+                .lock();
+        try {
+            totals.clear();
+            int last = upperBound(to);
+            for (int i = lowerBound(from); i < last; i++) {
+                int offset = i * RECORD_SIZE;
+                totals.add(buffer.getLong(offset + TASK_OFFSET), duration(offset, now));
+            }
+            // Самая ранняя запись задачи из периода не может начаться позже конца периода
+            int unresolved = totals.size();
+            for (int i = 0; i < last && unresolved > 0; i++) {
+                int offset = i * RECORD_SIZE;
+                if (totals.firstStart(buffer.getLong(offset + TASK_OFFSET), buffer.getLong(offset))) {
+                    unresolved--;
+                }
+            }
+        } finally {
+            lock.readLock()
+                    .unlock();
+        }
+    }
+
+    private int find(long start, long taskId) {
+        for (int i = upperBound(start) - 1; i >= 0 && startAt(i) == start; i--) {
+            if (buffer.getLong(i * RECORD_SIZE + TASK_OFFSET) == taskId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private long duration(int offset, long now) {
+        long end = buffer.getLong(offset + END_OFFSET);
+        return (end == ACTIVE ? now : end) - buffer.getLong(offset);
+    }
+
+    private long startAt(int index) {
+        return buffer.getLong(index * RECORD_SIZE);
+    }
+
+    private void write(int index, long start, long end, long taskId) {
+        int offset = index * RECORD_SIZE;
+        buffer.putLong(offset, start);
+        buffer.putLong(offset + END_OFFSET, end);
+        buffer.putLong(offset + TASK_OFFSET, taskId);
+    }
+
+    private int capacity() {
+        return buffer.capacity() / RECORD_SIZE;
+    }
+
+    private int lowerBound(long start) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startAt(mid) < start) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(long start) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startAt(mid) <= start) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static ByteBuffer allocate(int records) {
+        return ByteBuffer.allocateDirect(records * RECORD_SIZE)
+                .order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,55 @@
+package ru.timetracker.offheap.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.timetracker.offheap.OffHeapEntryStore;
+
+/**
+ * Конфигурация хранилища записей времени вне кучи.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Подключает настройки {@link OffHeapStoreProperties}</li>
+ *   <li>Публикует метрики хранилища: занятая память, количество сегментов, попадания, загрузки и вытеснения</li>
+ * </ul>
+ * @see OffHeapEntryStore Хранилище записей вне кучи
+ */
+@Configuration
+@EnableConfigurationProperties(OffHeapStoreProperties.class)
+public class OffHeapStoreConfig {
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public OffHeapStoreConfig() {
+    }
+
+    /**
+     * Регистрирует метрики хранилища вне кучи
+     * @param store хранилище записей вне кучи
+     * @return регистратор метрик
+     */
+    @Bean
+    public MeterBinder offHeapStoreMetrics(OffHeapEntryStore store) {
+        return registry -> {
+            Gauge.builder("timetracker.offheap.used", store, OffHeapEntryStore::getUsedBytes)
+                    .description("Off-heap memory held by per-user entry segments")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("timetracker.offheap.segments", store, OffHeapEntryStore::getSegmentCount)
+                    .description("Users whose entries are held off-heap")
+                    .register(registry);
+            FunctionCounter.builder("timetracker.offheap.hits", store, OffHeapEntryStore::getHitCount)
+                    .description("Reports served from off-heap segments")
+                    .register(registry);
+            FunctionCounter.builder("timetracker.offheap.loads", store, OffHeapEntryStore::getLoadCount)
+                    .description("Segments loaded from the database")
+                    .register(registry);
+            FunctionCounter.builder("timetracker.offheap.evictions", store, OffHeapEntryStore::getEvictionCount)
+                    .description("Segments dropped to stay within the memory limit or after bulk changes")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package ru.timetracker.offheap.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Настройки хранилища записей времени вне кучи. Задаются в {@code application.properties} с префиксом {@code timetracker.offheap}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Общий лимит памяти вне кучи, при превышении которого вытесняются давно не использованные сегменты</li>
+ *   <li>Границы количества записей пользователя, при которых его записи переносятся вне кучи</li>
+ *   <li>Интервал повторной проверки пользователей, не прошедших по порогу</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.offheap")
+public class OffHeapStoreProperties {
+    /**
+     * Включено ли хранилище вне кучи
+     * @return true если хранилище включено
+     */
+    private boolean enabled = false;
+
+    /**
+     * Общий лимит памяти вне кучи для всех сегментов
+     * @return Лимит памяти
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+
+    /**
+     * Минимальное количество записей пользователя для загрузки вне кучи; отчеты остальных пользователей считаются в БД
+     * @return Количество записей
+     */
+    private long minEntries = 10_000;
+
+    /**
+     * Максимальное количество записей одного пользователя в хранилище; при превышении отчеты считаются в БД
+     * @return Количество записей
+     */
+    private long maxEntriesPerUser = 20_000_000;
+
+    /**
+     * Через какое время повторно проверять пользователя, не прошедшего по порогу количества записей
+     * @return Интервал
+     */
+    private Duration recheckInterval = Duration.ofMinutes(10);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public OffHeapStoreProperties() {
+    }
+}
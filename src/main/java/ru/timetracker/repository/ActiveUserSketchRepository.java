@@ -0,0 +1,20 @@
+package ru.timetracker.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.timetracker.model.ActiveUserSketch;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Репозиторий сохраненных скетчей активных пользователей {@link ActiveUserSketch}. Ключ скетча - день.
+ */
+public interface ActiveUserSketchRepository extends JpaRepository<ActiveUserSketch, LocalDate> {
+    /**
+     * Находит время последнего сохранения скетчей
+     * @return Время сохранения или null, если скетчей нет
+     */
+    @Query("SELECT MAX(s.updatedAt) FROM ActiveUserSketch s")
+    LocalDateTime findLastUpdatedAt();
+}
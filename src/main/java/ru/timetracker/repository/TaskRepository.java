@@ -1,10 +1,14 @@
 package ru.timetracker.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
+import ru.timetracker.cache.config.SecondLevelCacheConfig;
 import ru.timetracker.model.Task;
 import ru.timetracker.model.User;
 
@@ -14,6 +18,8 @@ import java.util.Optional;
 
 /**
  * Репозиторий для работы с задачами. Расширяет {@link JpaRepository} и добавляет специализированные методы для работы с {@link Task}.
+ * <p>Запросы задач пользователя кэшируются в регионе {@link SecondLevelCacheConfig#TASK_QUERY_REGION} и инвалидируются Hibernate при
+ * любом изменении таблицы задач.
  */
 public interface TaskRepository extends JpaRepository<Task, Long> {
     /**
@@ -30,6 +36,8 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @return Список задач с учетом фильтра
      */
     @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND (t.active = true OR :includeInactive = true)")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.TASK_QUERY_REGION)})
     List<Task> findByUserId(Long userId, boolean includeInactive);
 
     /**
@@ -46,8 +54,26 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param userId ID пользователя
      * @return Задача, если найдена и принадлежит пользователю
      */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.TASK_QUERY_REGION)})
     Optional<Task> findByIdAndUserId(Long id, Long userId);
 
+    /**
+     * Находит данные для построения индекса названий задач пользователя
+     * @param userId ID пользователя
+     * @return Список массивов [taskId, title, active, lastStartTime]; lastStartTime равен null, если по задаче не было трекинга
+     */
+    @Query("SELECT t.id, t.title, t.active, MAX(te.startTime) FROM Task t LEFT JOIN t.timeEntries te " +
+            "WHERE t.user.id = :userId GROUP BY t.id, t.title, t.active")
+    List<Object[]> findTitleIndexRowsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Находит наименьшее ограничение длительности записи среди задач
+     * @return Длительность в минутах или null, если ограничений нет
+     */
+    @Query("SELECT MIN(t.maxEntryMinutes) FROM Task t")
+    Integer findMinMaxEntryMinutes();
+
     /**
      * Удаляет все задачи пользователя
      * @param user Пользователь, чьи задачи нужно удалить
@@ -1,5 +1,7 @@
 package ru.timetracker.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,6 +11,7 @@ import ru.timetracker.model.TimeEntry;
 import ru.timetracker.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,12 +20,14 @@ import java.util.Optional;
  */
 public interface TimeEntryRepository extends JpaRepository<TimeEntry, Long> {
     /**
-     * Находит записи времени пользователя за указанный период
+     * Находит записи времени пользователя за указанный период. Задача загружается тем же запросом, чтобы преобразование в DTO не
+     * выполняло отдельный SELECT на каждую запись
      * @param user  Пользователь
      * @param start Начало периода
      * @param end   Конец периода
-     * @return Список записей, отсортированный по времени начала
+     * @return Список записей с загруженными задачами, отсортированный по времени начала
      */
+    @EntityGraph(attributePaths = "task")
     List<TimeEntry> findByUserAndStartTimeBetweenOrderByStartTime(User user, LocalDateTime start, LocalDateTime end);
 
     /**
@@ -32,6 +37,37 @@ public interface TimeEntryRepository extends JpaRepository<TimeEntry, Long> {
      */
     Optional<TimeEntry> findByUserAndEndTimeIsNull(User user);
 
+    /**
+     * Одним запросом проверяет принадлежность задачи пользователю и находит его активную запись времени (быстрый путь старта трекинга).
+     * Запрос не кэшируется и читает задачу из БД в обход кэша второго уровня: одно обращение к БД нужно в любом случае ради активной
+     * записи, а задача приходит в нем же
+     * @param userId ID пользователя
+     * @param taskId ID задачи
+     * @return Список массивов [task, activeEntryId, activeEntryStartTime, activeEntryTaskId]; пустой, если задача не найдена или
+     * принадлежит другому пользователю. Поля активной записи равны null, если активной записи нет
+     */
+    @Query("SELECT t, te.id, te.startTime, te.task.id FROM Task t LEFT JOIN TimeEntry te ON te.user.id = :userId AND te.endTime IS NULL " +
+            "WHERE t.id = :taskId AND t.user.id = :userId")
+    List<Object[]> findStartContext(@Param("userId") Long userId, @Param("taskId") Long taskId);
+
+    /**
+     * Находит активную запись времени пользователя вместе с задачей (быстрый путь остановки трекинга)
+     * @param userId ID пользователя
+     * @return Активная запись времени с загруженной задачей, если существует
+     */
+    @Query("SELECT te FROM TimeEntry te JOIN FETCH te.task WHERE te.user.id = :userId AND te.endTime IS NULL")
+    Optional<TimeEntry> findActiveWithTaskByUserId(@Param("userId") Long userId);
+
+    /**
+     * Завершает все активные записи времени пользователя одним UPDATE-запросом с увеличением версии записей
+     * @param userId  ID пользователя
+     * @param endTime Время окончания
+     * @return Количество завершенных записей
+     */
+    @Modifying
+    @Query("UPDATE VERSIONED TimeEntry te SET te.endTime = :endTime, te.activeUserId = NULL WHERE te.user.id = :userId AND te.endTime IS NULL")
+    int closeActiveEntries(@Param("userId") Long userId, @Param("endTime") LocalDateTime endTime);
+
     /**
      * Вычисляет продолжительность работы по задачам за период
      * @param userId ID пользователя
@@ -47,12 +83,15 @@ public interface TimeEntryRepository extends JpaRepository<TimeEntry, Long> {
             @Param("end") LocalDateTime end);
 
     /**
-     * Находит первую запись времени для задачи пользователя
-     * @param userId ID пользователя
-     * @param taskId ID задачи
-     * @return Самая ранняя запись времени, если существует
+     * Находит время начала самой ранней записи для каждой из задач пользователя одним запросом. Условия заданы по внешним ключам без
+     * JOIN, чтобы использовались индексы по user_id/task_id
+     * @param userId  ID пользователя
+     * @param taskIds ID задач
+     * @return Список массивов [taskId, firstStartTime]; задачи без записей в результат не попадают
      */
-    Optional<TimeEntry> findFirstByUserIdAndTaskIdOrderByStartTimeAsc(Long userId, Long taskId);
+    @Query("SELECT te.task.id, MIN(te.startTime) FROM TimeEntry te WHERE te.user.id = :userId AND te.task.id IN :taskIds " +
+            "GROUP BY te.task.id")
+    List<Object[]> findFirstStartTimesByUserIdAndTaskIds(@Param("userId") Long userId, @Param("taskIds") Collection<Long> taskIds);
 
     /**
      * Вычисляет общее время работы пользователя за период
@@ -75,10 +114,34 @@ public interface TimeEntryRepository extends JpaRepository<TimeEntry, Long> {
     void deleteByUser(User user);
 
     /**
-     * Находит все активные (незавершенные) записи времени
-     * @return Список активных записей времени
+     * Находит все активные (незавершенные) записи времени без загрузки сущностей
+     * @return Список массивов [ID записи, ID пользователя, время начала]
+     */
+    @Query("SELECT te.id, te.user.id, te.startTime FROM TimeEntry te WHERE te.endTime IS NULL")
+    List<Object[]> findActiveEntryStarts();
+
+    /**
+     * Находит незавершенные записи, начатые до startedBefore после позиции (startedAfter, afterId), вместе с ограничениями
+     * длительности пользователя и задачи. Позиция сравнивается парой (время начала, ID), поэтому постраничный обход не пропускает
+     * записи с одинаковым временем начала. Выполняется диапазонным сканированием индекса {@code (end_time, start_time)}
+     * @param startedAfter  Время начала последней записи предыдущей страницы
+     * @param afterId       ID последней записи предыдущей страницы
+     * @param startedBefore Верхняя граница времени начала (не включается)
+     * @param limit         Максимальное количество записей
+     * @return Список массивов [ID записи, ID пользователя, ID задачи, время начала, ограничение пользователя, ограничение задачи]
+     * в порядке времени начала и ID
+     */
+    @Query("SELECT te.id, u.id, t.id, te.startTime, u.maxEntryMinutes, t.maxEntryMinutes FROM TimeEntry te JOIN te.user u " +
+            "JOIN te.task t WHERE te.endTime IS NULL AND te.startTime < :startedBefore AND " +
+            "(te.startTime > :startedAfter OR (te.startTime = :startedAfter AND te.id > :afterId)) ORDER BY te.startTime, te.id")
+    List<Object[]> findOpenEntriesStartedBetween(@Param("startedAfter") LocalDateTime startedAfter, @Param("afterId") long afterId,
+            @Param("startedBefore") LocalDateTime startedBefore, Limit limit);
+
+    /**
+     * Подсчитывает активные (незавершенные) записи времени
+     * @return Количество активных записей
      */
-    List<TimeEntry> findByEndTimeIsNull();
+    long countByEndTimeIsNull();
 
     @Modifying
     @Query("DELETE FROM TimeEntry te WHERE te.startTime < :cutoffDate")
@@ -0,0 +1,76 @@
+package ru.timetracker.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.timetracker.model.TrackingEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий журнала трекинга {@link TrackingEvent}. Запись событий выполняется пакетно через
+ * {@link ru.timetracker.tracking.TrackingEventStore}, репозиторий используется для чтения и удаления.
+ */
+public interface TrackingEventRepository extends JpaRepository<TrackingEvent, Long> {
+    /**
+     * Находит все события пользователя в порядке записи
+     * @param userId ID пользователя
+     * @return Список событий
+     */
+    List<TrackingEvent> findByUserIdOrderByIdAsc(Long userId);
+
+    /**
+     * Находит события пользователя, записанные после указанного события
+     * @param userId  ID пользователя
+     * @param eventId ID последнего учтенного события
+     * @return Список событий в порядке записи
+     */
+    List<TrackingEvent> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long eventId);
+
+    /**
+     * Находит события пользователя указанного типа, записанные после указанного события
+     * @param userId  ID пользователя
+     * @param type    Тип события
+     * @param eventId ID последнего полученного события
+     * @param limit   Максимальное количество событий
+     * @return Список событий в порядке записи
+     */
+    List<TrackingEvent> findByUserIdAndTypeAndIdGreaterThanOrderByIdAsc(Long userId, TrackingEvent.Type type, Long eventId, Limit limit);
+
+    /**
+     * Находит ID всех пользователей, у которых есть события
+     * @return Список ID пользователей
+     */
+    @Query("SELECT DISTINCT e.userId FROM TrackingEvent e ORDER BY e.userId")
+    List<Long> findUserIds();
+
+    /**
+     * Находит пользователей, у которых после последнего снимка накопилось не меньше указанного количества событий
+     * @param minEvents Минимальное количество новых событий
+     * @return Список ID пользователей
+     */
+    @Query("SELECT e.userId FROM TrackingEvent e WHERE e.id > COALESCE((SELECT s.lastEventId FROM TrackingSnapshot s " +
+            "WHERE s.userId = e.userId), 0) GROUP BY e.userId HAVING COUNT(e) >= :minEvents")
+    List<Long> findUserIdsWithEventsSinceSnapshot(@Param("minEvents") long minEvents);
+
+    /**
+     * Удаляет все события пользователя
+     * @param userId ID пользователя
+     * @return Количество удаленных событий
+     */
+    @Modifying
+    @Query("DELETE FROM TrackingEvent e WHERE e.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Удаляет события записей, начатых до указанной даты
+     * @param cutoffDate Граничная дата
+     * @return Количество удаленных событий
+     */
+    @Modifying
+    @Query("DELETE FROM TrackingEvent e WHERE e.startTime < :cutoffDate")
+    int deleteByStartTimeBefore(@Param("cutoffDate") LocalDateTime cutoffDate);
+}
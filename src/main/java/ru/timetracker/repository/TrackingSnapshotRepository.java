@@ -0,0 +1,10 @@
+package ru.timetracker.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.timetracker.model.TrackingSnapshot;
+
+/**
+ * Репозиторий снимков состояния трекинга {@link TrackingSnapshot}. Ключ снимка - ID пользователя.
+ */
+public interface TrackingSnapshotRepository extends JpaRepository<TrackingSnapshot, Long> {
+}
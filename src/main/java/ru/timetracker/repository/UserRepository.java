@@ -21,6 +21,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     boolean existsByEmail(String email);
 
+    /**
+     * Находит наименьшее ограничение длительности записи среди пользователей
+     * @return Длительность в минутах или null, если ограничений нет
+     */
+    @Query("SELECT MIN(u.maxEntryMinutes) FROM User u")
+    Integer findMinMaxEntryMinutes();
+
     @Modifying
     @Query("DELETE FROM User u WHERE " +
             "NOT EXISTS (SELECT 1 FROM Task t WHERE t.user = u) AND " +
@@ -0,0 +1,92 @@
+package ru.timetracker.retry;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.timetracker.metrics.OptimisticLockMetrics;
+import ru.timetracker.retry.config.OptimisticRetryProperties;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Повтор методов, отмеченных {@link RetryOnConflict}, при конфликте оптимистической блокировки.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Выполняется снаружи транзакционного прокси, поэтому каждая попытка - отдельная транзакция с новым чтением сущностей</li>
+ *   <li>Задержка между попытками растет экспоненциально до {@code max-backoff}; случайная половина задержки разводит повторы
+ *   конкурирующих потоков</li>
+ *   <li>Внутри уже открытой транзакции метод выполняется один раз: устаревшие сущности остаются в ее контексте, и повтор решает
+ *   вызывающий код</li>
+ *   <li>Каждая попытка учитывается в {@link OptimisticLockMetrics}</li>
+ * </ul>
+ * @see OptimisticRetryProperties Настройки повторов
+ */
+public class OptimisticRetryInterceptor implements MethodInterceptor {
+    private static final Logger logger = LogManager.getLogger(OptimisticRetryInterceptor.class);
+
+    private final ObjectProvider<OptimisticRetryProperties> properties;
+    private final ObjectProvider<OptimisticLockMetrics> metrics;
+
+    /**
+     * Создает перехватчик повторов.
+     * @param properties настройки повторов (разрешаются при вызове: советник создается раньше бинов {@code @ConfigurationProperties})
+     * @param metrics    метрики конфликтов (разрешаются при первом вызове, чтобы не создавать реестр метрик при сборке прокси)
+     */
+    public OptimisticRetryInterceptor(ObjectProvider<OptimisticRetryProperties> properties, ObjectProvider<OptimisticLockMetrics> metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String operation = invocation.getMethod()
+                .getDeclaringClass()
+                .getSimpleName() + "." + invocation.getMethod()
+                .getName();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        OptimisticLockMetrics lockMetrics = metrics.getObject();
+        OptimisticRetryProperties retryProperties = properties.getObject();
+        int maxAttempts = Math.max(1, retryProperties.getMaxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Цепочка перехватчиков проходится заново для каждой попытки, чтобы каждый раз открывалась новая транзакция
+                Object result = invocation instanceof ProxyMethodInvocation proxyInvocation ? proxyInvocation.invocableClone()
+                        .proceed() : invocation.proceed();
+                lockMetrics.recordAttempt(operation, "success");
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                lockMetrics.recordAttempt(operation, "conflict");
+                if (attempt >= maxAttempts) {
+                    lockMetrics.recordExhausted(operation);
+                    logger.warn("{} still conflicts after {} attempts: {}", operation, attempt, e.getMessage());
+                    throw e;
+                }
+                logger.debug("{} conflicted on attempt {}, retrying: {}", operation, attempt, e.getMessage());
+                backoff(retryProperties, attempt);
+            } catch (Throwable e) {
+                lockMetrics.recordAttempt(operation, "failure");
+                throw e;
+            }
+        }
+    }
+
+    private static void backoff(OptimisticRetryProperties properties, int attempt) throws InterruptedException {
+        long maxNanos = properties.getMaxBackoff()
+                .toNanos();
+        long delay = Math.min(maxNanos, properties.getInitialBackoff()
+                .toNanos() << Math.min(attempt - 1, 30));
+        if (delay <= 0) {
+            return;
+        }
+        TimeUnit.NANOSECONDS.sleep(delay / 2 + ThreadLocalRandom.current()
+                .nextLong(delay / 2 + 1));
+    }
+}
@@ -0,0 +1,20 @@
+package ru.timetracker.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Повторяет метод сервиса при конфликте оптимистической блокировки (параллельное изменение той же версии сущности). Каждая попытка
+ * выполняется в собственной транзакции: повтор заново читает сущность и применяет изменение к актуальной версии.
+ * <p>Количество попыток и задержки между ними задаются настройками {@code timetracker.optimistic-retry}. После исчерпания попыток
+ * выбрасывается последнее {@link org.springframework.dao.OptimisticLockingFailureException}.
+ * @see OptimisticRetryInterceptor Выполнение повторов
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,51 @@
+package ru.timetracker.retry.config;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import ru.timetracker.metrics.OptimisticLockMetrics;
+import ru.timetracker.retry.OptimisticRetryInterceptor;
+import ru.timetracker.retry.RetryOnConflict;
+
+/**
+ * Конфигурация повтора операций при конфликте оптимистической блокировки.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Подключает настройки {@link OptimisticRetryProperties}</li>
+ *   <li>Регистрирует советник для методов с {@link RetryOnConflict}. Советник имеет инфраструктурную роль, поэтому применяется тем же
+ *   создателем прокси, что и транзакции, и порядок выше блокировки пользователя и транзакционного: повтор охватывает транзакцию
+ *   целиком</li>
+ * </ul>
+ */
+@Configuration
+@EnableConfigurationProperties(OptimisticRetryProperties.class)
+public class OptimisticRetryConfig {
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public OptimisticRetryConfig() {
+    }
+
+    /**
+     * Создает советник повторов для методов с {@link RetryOnConflict}
+     * @param properties настройки повторов
+     * @param metrics    метрики конфликтов
+     * @return советник, выполняющийся до транзакционного
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor optimisticRetryAdvisor(ObjectProvider<OptimisticRetryProperties> properties,
+            ObjectProvider<OptimisticLockMetrics> metrics) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(RetryOnConflict.class),
+                new OptimisticRetryInterceptor(properties, metrics));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 2);
+        return advisor;
+    }
+}
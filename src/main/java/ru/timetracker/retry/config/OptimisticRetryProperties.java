@@ -0,0 +1,43 @@
+package ru.timetracker.retry.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки повтора операций при конфликте оптимистической блокировки. Задаются в {@code application.properties} с префиксом
+ * {@code timetracker.optimistic-retry}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Максимальное количество попыток, включая первую</li>
+ *   <li>Начальная и максимальная задержка между попытками</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.optimistic-retry")
+public class OptimisticRetryProperties {
+    /**
+     * Максимальное количество попыток, включая первую
+     * @return Количество попыток
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Задержка перед первым повтором; удваивается с каждой следующей попыткой
+     * @return Задержка
+     */
+    private Duration initialBackoff = Duration.ofMillis(10);
+
+    /**
+     * Максимальная задержка между попытками
+     * @return Задержка
+     */
+    private Duration maxBackoff = Duration.ofMillis(200);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public OptimisticRetryProperties() {
+    }
+}
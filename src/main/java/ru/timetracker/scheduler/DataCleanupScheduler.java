@@ -4,11 +4,16 @@ import jakarta.transaction.Transactional;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import ru.timetracker.etag.ChangesUserData;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
+import ru.timetracker.metrics.SchedulerMetrics;
 import ru.timetracker.repository.TimeEntryRepository;
 import ru.timetracker.repository.TaskRepository;
 import ru.timetracker.repository.UserRepository;
+import ru.timetracker.tracking.TrackingEventStore;
 
 import java.time.LocalDateTime;
 
@@ -19,10 +24,14 @@ import java.time.LocalDateTime;
 @Transactional
 public class DataCleanupScheduler {
     private static final Logger logger = LogManager.getLogger(DataCleanupScheduler.class);
+    private static final String JOB_NAME = "data-cleanup";
 
     private final TimeEntryRepository timeEntryRepository;
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final SchedulerMetrics schedulerMetrics;
+    private final TrackingEventStore trackingEventStore;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${timetracker.data.retention.days:30}")
     private int retentionDays;
@@ -33,30 +42,52 @@ public class DataCleanupScheduler {
     public DataCleanupScheduler(
             TimeEntryRepository timeEntryRepository,
             TaskRepository taskRepository,
-            UserRepository userRepository
+            UserRepository userRepository,
+            SchedulerMetrics schedulerMetrics,
+            TrackingEventStore trackingEventStore,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.timeEntryRepository = timeEntryRepository;
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
+        this.schedulerMetrics = schedulerMetrics;
+        this.trackingEventStore = trackingEventStore;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Ежедневно удаляет данные старше указанного срока.
      * Вычисляет граничную дату ({@code cutoffDate}) как текущая дата минус {@code retentionDays}
      */
+    @ChangesUserData(allUsers = true)
     @Scheduled(cron = "${app.cleanup.cron:0 0 1 * * ?}")
     public void cleanupOldData() {
+        schedulerMetrics.recordRun(JOB_NAME, this::deleteOldData);
+    }
+
+    private void deleteOldData() {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
 
         logger.info("Starting data cleanup for records older than {} days (before {})", retentionDays, cutoffDate);
 
         int deletedEntries = timeEntryRepository.deleteByStartTimeBefore(cutoffDate);
         logger.info("Deleted {} time entries", deletedEntries);
+        schedulerMetrics.recordRows(JOB_NAME, "deleted-time-entries", deletedEntries);
+
+        int deletedEvents = trackingEventStore.deleteStartedBefore(cutoffDate);
+        logger.info("Deleted {} tracking events", deletedEvents);
+        schedulerMetrics.recordRows(JOB_NAME, "deleted-tracking-events", deletedEvents);
 
         int deletedTasks = taskRepository.deleteInactiveTasksOlderThan(cutoffDate);
         logger.info("Deleted {} inactive tasks", deletedTasks);
+        schedulerMetrics.recordRows(JOB_NAME, "deleted-tasks", deletedTasks);
 
         int deletedUsers = userRepository.deleteInactiveUsers(cutoffDate);
         logger.info("Deleted {} inactive users", deletedUsers);
+        schedulerMetrics.recordRows(JOB_NAME, "deleted-users", deletedUsers);
+
+        if (deletedEntries > 0 || deletedTasks > 0) {
+            eventPublisher.publishEvent(UserTrackingDataInvalidatedEvent.ofAllUsers());
+        }
     }
 }
\ No newline at end of file
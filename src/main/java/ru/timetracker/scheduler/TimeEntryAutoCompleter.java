@@ -1,66 +1,208 @@
 package ru.timetracker.scheduler;
 
-import jakarta.transaction.Transactional;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import ru.timetracker.model.TimeEntry;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.timetracker.dto.timeentry.TimeEntryDTO;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.metrics.SchedulerMetrics;
 import ru.timetracker.repository.TimeEntryRepository;
+import ru.timetracker.scheduler.config.AutoStopProperties;
 import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.writebehind.WriteBehindTracker;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * Автозавершение незакрытых временных записей.
+ * Автозавершение незакрытых временных записей по сроку каждой записи.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>При старте записи ставит таймер на ее срок в колесо {@link HashedWheelTimer}, при остановке - отменяет его</li>
+ *   <li>Срок - окончание дня начала записи ({@code timetracker.auto-stop.cutoff}) или истечение максимальной длительности
+ *   ({@code timetracker.auto-stop.max-duration}), если оно наступает раньше</li>
+ *   <li>По сроку завершает запись временем срока, поэтому записи закрываются равномерно в течение суток, а не одним обновлением</li>
+ *   <li>При запуске приложения восстанавливает таймеры всех активных записей; просроченные записи завершаются сразу</li>
+ * </ul>
+ * <p>Срок сначала сохраняется в карте сроков и только потом ставится в колесо: таймер просроченной записи может сработать сразу, и
+ * его удаление срока из карты не должно опережать вставку.
+ * <p>Таймеры хранятся в памяти экземпляра: запись, начатая на другом экземпляре, получает таймер при его перезапуске.
+ * @see AutoStopProperties Настройки автозавершения
  */
 @Component
-@Transactional
 public class TimeEntryAutoCompleter {
     private static final Logger logger = LogManager.getLogger(TimeEntryAutoCompleter.class);
+    private static final String JOB_NAME = "time-entry-auto-complete";
 
     private final TimeEntryRepository timeEntryRepository;
     private final TimeEntryService timeEntryService;
+    private final SchedulerMetrics schedulerMetrics;
+    private final WriteBehindTracker writeBehindTracker;
+    private final HashedWheelTimer timer;
+    private final AutoStopProperties properties;
+    private final ConcurrentMap<Long, Deadline> deadlines = new ConcurrentHashMap<>();
 
     /**
      * Создает новый экземпляр TimeEntryAutoCompleter.
      * @param timeEntryRepository репозиторий для работы с записями времени
      * @param timeEntryService    сервис для управления записями времени
+     * @param schedulerMetrics    метрики задач по расписанию
+     * @param writeBehindTracker  отложенная запись трекинга (накопленное записывается в БД перед поиском активных записей)
+     * @param timer               колесо таймеров сроков автозавершения
+     * @param properties          настройки автозавершения
      */
-    public TimeEntryAutoCompleter(TimeEntryRepository timeEntryRepository, TimeEntryService timeEntryService) {
+    public TimeEntryAutoCompleter(TimeEntryRepository timeEntryRepository, TimeEntryService timeEntryService,
+            SchedulerMetrics schedulerMetrics, WriteBehindTracker writeBehindTracker, HashedWheelTimer timer,
+            AutoStopProperties properties) {
         this.timeEntryRepository = timeEntryRepository;
         this.timeEntryService = timeEntryService;
+        this.schedulerMetrics = schedulerMetrics;
+        this.writeBehindTracker = writeBehindTracker;
+        this.timer = timer;
+        this.properties = properties;
     }
 
     /**
-     * Ежедневно завершает все активные записи времени в 23:59.
+     * Ставит таймеры всех активных записей после запуска приложения
      */
-    @Scheduled(cron = "${app.auto-complete.cron:0 59 23 * * ?}")
-    @Transactional
-    public void autoCompleteTimeEntries() {
-        LocalDateTime endOfDay = LocalDateTime.now()
-                .with(LocalTime.of(23, 59));
-        LocalDateTime today = LocalDateTime.now();
-
-        List<TimeEntry> activeEntries = timeEntryRepository.findByEndTimeIsNull();
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleActiveEntries() {
+        writeBehindTracker.drain();
+        List<Object[]> activeEntries = timeEntryRepository.findActiveEntryStarts();
+        int scheduled = 0;
+        for (Object[] row : activeEntries) {
+            Long entryId = (Long) row[0];
+            Long userId = (Long) row[1];
+            LocalDateTime startTime = (LocalDateTime) row[2];
+            Deadline deadline = new Deadline(entryId, deadlineOf(startTime));
+            if (deadlines.putIfAbsent(userId, deadline) == null) {
+                arm(userId, deadline, untilDeadline(deadline));
+                scheduled++;
+            }
+        }
+        logger.info("Scheduled auto-completion of {} active time entries", scheduled);
+    }
 
-        if (activeEntries.isEmpty()) {
-            logger.debug("No active time entries found for auto-completion");
+    /**
+     * Ставит таймер при старте записи и отменяет его при ее завершении
+     * @param event Событие записи времени
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeEntryEvent(TimeEntryEvent event) {
+        Long userId = event.getUserId();
+        if (event.getType() == TimeEntryEvent.Type.STARTED) {
+            Deadline deadline = new Deadline(event.getEntryId(), deadlineOf(event.getStartTime()));
+            Deadline previous = deadlines.put(userId, deadline);
+            if (previous != null) {
+                previous.cancel();
+            }
+            arm(userId, deadline, untilDeadline(deadline));
             return;
         }
+        deadlines.computeIfPresent(userId, (id, deadline) -> {
+            if (deadline.entryId != event.getEntryId()) {
+                return deadline;
+            }
+            deadline.cancel();
+            return null;
+        });
+    }
 
-        logger.info("Starting auto-completion of {} time entries", activeEntries.size());
+    /**
+     * Количество записей, ожидающих автозавершения
+     * @return Количество записей
+     */
+    public int getScheduledCount() {
+        return deadlines.size();
+    }
 
-        activeEntries.forEach(entry -> {
-            timeEntryService.stopTimeEntry(entry.getUser()
-                    .getId());
-            logger.info("Auto-completed time entry ID {} for user {} (started at {})", entry.getId(), entry.getUser()
-                    .getId(), entry.getStartTime());
-        });
+    /**
+     * Ожидает ли запись пользователя автозавершения
+     * @param userId ID пользователя
+     * @return true если срок пользователя поставлен
+     */
+    boolean isScheduled(Long userId) {
+        return deadlines.containsKey(userId);
+    }
+
+    /**
+     * Вычисляет срок автозавершения записи
+     * @param startTime время начала записи
+     * @return Окончание дня начала или истечение максимальной длительности, если оно раньше
+     */
+    LocalDateTime deadlineOf(LocalDateTime startTime) {
+        LocalDateTime cutoff = startTime.toLocalDate()
+                .atTime(properties.getCutoff());
+        if (!cutoff.isAfter(startTime)) {
+            cutoff = cutoff.plusDays(1);
+        }
+        Duration maxDuration = properties.getMaxDuration();
+        if (maxDuration != null) {
+            LocalDateTime limit = startTime.plus(maxDuration);
+            if (limit.isBefore(cutoff)) {
+                return limit;
+            }
+        }
+        return cutoff;
+    }
+
+    private static Duration untilDeadline(Deadline deadline) {
+        return Duration.between(LocalDateTime.now(), deadline.endTime);
+    }
 
-        List<TimeEntry> completedEntries = timeEntryRepository.saveAll(activeEntries);
-        logger.info("Successfully completed {} time entries", completedEntries.size());
+    // Вызывается после сохранения срока в карте; срок, отмененный до постановки таймера, таймер не оставляет
+    private void arm(Long userId, Deadline deadline, Duration delay) {
+        deadline.timeout = timer.schedule(() -> complete(userId, deadline), delay);
+        if (deadline.cancelled) {
+            deadline.timeout.cancel();
+        }
+    }
+
+    private void complete(Long userId, Deadline deadline) {
+        try {
+            schedulerMetrics.recordRun(JOB_NAME, () -> {
+                TimeEntryDTO completed = timeEntryService.autoCompleteTimeEntry(userId, deadline.entryId, deadline.endTime);
+                if (completed != null) {
+                    schedulerMetrics.recordRows(JOB_NAME, "completed-time-entries", 1);
+                }
+            });
+            deadlines.remove(userId, deadline);
+        } catch (RuntimeException e) {
+            logger.error("Auto-completion of time entry {} for user {} failed, retrying in {}: {}", deadline.entryId, userId,
+                    properties.getRetryDelay(), e.getMessage(), e);
+            Deadline retry = new Deadline(deadline.entryId, deadline.endTime);
+            if (deadlines.replace(userId, deadline, retry)) {
+                arm(userId, retry, properties.getRetryDelay());
+            }
+        }
+    }
+
+    /**
+     * Срок автозавершения активной записи пользователя.
+     */
+    private static final class Deadline {
+        private final long entryId;
+        private final LocalDateTime endTime;
+        private volatile HashedWheelTimer.Timeout timeout;
+        private volatile boolean cancelled;
+
+        private Deadline(long entryId, LocalDateTime endTime) {
+            this.entryId = entryId;
+            this.endTime = endTime;
+        }
+
+        private void cancel() {
+            cancelled = true;
+            HashedWheelTimer.Timeout current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package ru.timetracker.scheduler.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import ru.timetracker.scheduler.HashedWheelTimer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Конфигурация автозавершения записей времени.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Подключает настройки {@link AutoStopProperties}</li>
+ *   <li>Создает колесо таймеров сроков автозавершения и пул потоков, завершающих записи</li>
+ *   <li>Публикует метрики: количество ожидающих и сработавших таймеров</li>
+ * </ul>
+ * @see ru.timetracker.scheduler.TimeEntryAutoCompleter Автозавершение записей
+ */
+@Configuration
+@EnableConfigurationProperties(AutoStopProperties.class)
+public class AutoStopConfig {
+    /**
+     * Имя бина пула автозавершения
+     */
+    public static final String AUTO_STOP_EXECUTOR = "autoStopExecutor";
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public AutoStopConfig() {
+    }
+
+    /**
+     * Создает пул потоков, завершающих записи по сработавшим таймерам
+     * @param properties настройки автозавершения
+     * @return пул фиксированного размера
+     */
+    @Bean(name = AUTO_STOP_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService autoStopExecutor(AutoStopProperties properties) {
+        return Executors.newFixedThreadPool(properties.getParallelism(), new CustomizableThreadFactory("auto-stop-"));
+    }
+
+    /**
+     * Создает и запускает колесо таймеров сроков автозавершения
+     * @param properties настройки автозавершения
+     * @param executor   пул автозавершения
+     * @return запущенное колесо таймеров
+     */
+    @Bean(destroyMethod = "close")
+    public HashedWheelTimer autoStopTimer(AutoStopProperties properties, @Qualifier(AUTO_STOP_EXECUTOR) ExecutorService executor) {
+        HashedWheelTimer timer = new HashedWheelTimer("auto-stop-timer", properties.getTickDuration(), properties.getWheelSize(),
+                executor);
+        timer.start();
+        return timer;
+    }
+
+    /**
+     * Регистрирует метрики колеса таймеров автозавершения
+     * @param timer колесо таймеров
+     * @return регистратор метрик
+     */
+    @Bean
+    public MeterBinder autoStopMetrics(HashedWheelTimer timer) {
+        return registry -> {
+            Gauge.builder("timetracker.autostop.pending", timer, HashedWheelTimer::getPendingCount)
+                    .description("Active time entries waiting for their auto-stop deadline")
+                    .register(registry);
+            FunctionCounter.builder("timetracker.autostop.expired", timer, HashedWheelTimer::getExpiredCount)
+                    .description("Auto-stop deadlines reached")
+                    .register(registry);
+        };
+    }
+}
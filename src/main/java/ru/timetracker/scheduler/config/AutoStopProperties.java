@@ -0,0 +1,62 @@
+package ru.timetracker.scheduler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+/**
+ * Настройки автозавершения записей времени. Задаются в {@code application.properties} с префиксом {@code timetracker.auto-stop}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Срок автозавершения: время окончания дня и необязательная максимальная длительность записи</li>
+ *   <li>Шаг и размер колеса таймеров</li>
+ *   <li>Количество потоков, завершающих записи, и задержка повтора после ошибки</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.auto-stop")
+public class AutoStopProperties {
+    /**
+     * Время дня, в которое завершается запись, начатая в этот день
+     * @return Время окончания дня
+     */
+    private LocalTime cutoff = LocalTime.of(23, 59, 59);
+
+    /**
+     * Максимальная длительность записи; если задана, запись завершается по ее истечении, даже если день не закончился
+     * @return Длительность или null
+     */
+    private Duration maxDuration;
+
+    /**
+     * Длительность шага колеса таймеров (точность срабатывания)
+     * @return Длительность шага
+     */
+    private Duration tickDuration = Duration.ofSeconds(1);
+
+    /**
+     * Количество корзин колеса таймеров (округляется вверх до степени двойки)
+     * @return Количество корзин
+     */
+    private int wheelSize = 512;
+
+    /**
+     * Количество потоков, завершающих записи по сработавшим таймерам
+     * @return Количество потоков
+     */
+    private int parallelism = 2;
+
+    /**
+     * Через какое время повторить автозавершение, если оно завершилось ошибкой
+     * @return Задержка повтора
+     */
+    private Duration retryDelay = Duration.ofMinutes(1);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public AutoStopProperties() {
+    }
+}
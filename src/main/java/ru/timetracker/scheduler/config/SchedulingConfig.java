@@ -1,6 +1,7 @@
 package ru.timetracker.scheduler.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
@@ -8,10 +9,14 @@ import org.springframework.scheduling.annotation.EnableScheduling;
  * <p>Основные функции:
  * <ul>
  *   <li>Включает поддержку аннотации {@code @Scheduled}</li>
+ *   <li>Включает поддержку аннотации {@code @Async}</li>
  *   <li>Позволяет настраивать периодические задачи</li>
  * </ul>
+ * <p>Исполнители задач создает Spring Boot: при {@code spring.threads.virtual.enabled=true} (Java 21+) задачи {@code @Scheduled} и
+ * {@code @Async} выполняются в виртуальных потоках, иначе - в пулах платформенных потоков.
  */
 @Configuration
+@EnableAsync
 @EnableScheduling
 public class SchedulingConfig {
     /**
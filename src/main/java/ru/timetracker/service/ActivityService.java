@@ -0,0 +1,208 @@
+package ru.timetracker.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Service;
+import ru.timetracker.dto.activity.ActiveUsersDTO;
+import ru.timetracker.dto.activity.ActiveUsersPeriodDTO;
+import ru.timetracker.dto.activity.DaysWorkedDTO;
+import ru.timetracker.dto.activity.StreakDTO;
+import ru.timetracker.dto.activity.TeamDaysDTO;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.index.DayBitmap;
+import ru.timetracker.index.DayPresenceIndex;
+import ru.timetracker.jfr.JfrReport;
+import ru.timetracker.repository.UserRepository;
+import ru.timetracker.sketch.ActiveUserSketches;
+import ru.timetracker.sketch.HyperLogLog;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Сервис статистики активности по дням. Все расчеты выполняются битовыми операциями над картами {@link DayPresenceIndex} без
+ * сканирования записей времени.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Количество дней с трекингом за период</li>
+ *   <li>Самая длинная и текущая серии дней с трекингом</li>
+ *   <li>Общие дни с трекингом у всех участников команды</li>
+ *   <li>Приблизительное количество различных активных пользователей за период, в том числе по дням и месяцам</li>
+ * </ul>
+ * <p>Если период не указан, используется текущий квартал по сегодняшний день включительно.
+ * @see DayPresenceIndex Индекс дней с трекингом
+ * @see ActiveUserSketches Скетчи активных пользователей по дням
+ */
+@Service
+public class ActivityService {
+    /**
+     * Максимальное количество участников команды в одном запросе
+     */
+    public static final int MAX_TEAM_SIZE = 500;
+
+    /**
+     * Максимальная длина периода оценки активных пользователей в днях
+     */
+    public static final int MAX_ACTIVE_USERS_DAYS = 3660;
+
+    private static final Logger logger = LogManager.getLogger(ActivityService.class);
+
+    private final DayPresenceIndex dayPresenceIndex;
+    private final UserRepository userRepository;
+    private final ActiveUserSketches activeUserSketches;
+
+    /**
+     * Конструктор сервиса статистики активности.
+     * @param dayPresenceIndex   индекс дней с трекингом
+     * @param userRepository     репозиторий пользователей
+     * @param activeUserSketches скетчи активных пользователей по дням
+     */
+    public ActivityService(DayPresenceIndex dayPresenceIndex, UserRepository userRepository, ActiveUserSketches activeUserSketches) {
+        this.dayPresenceIndex = dayPresenceIndex;
+        this.userRepository = userRepository;
+        this.activeUserSketches = activeUserSketches;
+    }
+
+    /**
+     * Подсчитывает дни с трекингом за период
+     * @param userId ID пользователя (обязательный)
+     * @param from   Первый день периода (необязательный)
+     * @param to     Последний день периода (необязательный)
+     * @return Количество дней с трекингом и календарных дней
+     * @throws ResourceNotFoundException если пользователь не найден
+     * @throws IllegalArgumentException  если начало периода позже окончания
+     */
+    @JfrReport("days-worked")
+    public DaysWorkedDTO getDaysWorked(Long userId, LocalDate from, LocalDate to) {
+        requireUser(userId);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = resolveFrom(from, end);
+        int daysWorked = dayPresenceIndex.countDays(userId, start, end);
+        logger.debug("User {} worked {} days from {} to {}", userId, daysWorked, start, end);
+        return new DaysWorkedDTO(userId, start, end, daysWorked, (int) ChronoUnit.DAYS.between(start, end) + 1);
+    }
+
+    /**
+     * Находит самую длинную и текущую серии дней с трекингом за период
+     * @param userId ID пользователя (обязательный)
+     * @param from   Первый день периода (необязательный)
+     * @param to     Последний день периода (необязательный)
+     * @return Серии дней с трекингом
+     * @throws ResourceNotFoundException если пользователь не найден
+     * @throws IllegalArgumentException  если начало периода позже окончания
+     */
+    @JfrReport("streaks")
+    public StreakDTO getStreaks(Long userId, LocalDate from, LocalDate to) {
+        requireUser(userId);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = resolveFrom(from, end);
+
+        long[] longest = dayPresenceIndex.longestStreak(userId, start, end);
+        int length = (int) longest[0];
+        LocalDate streakStart = length > 0 ? LocalDate.ofEpochDay(longest[1]) : null;
+        LocalDate streakEnd = length > 0 ? streakStart.plusDays(length - 1) : null;
+
+        // Последний день периода может быть еще не отработан (например, сегодня), поэтому серия может заканчиваться накануне
+        LocalDate currentEnd = end;
+        int current = dayPresenceIndex.streakEndingAt(userId, currentEnd);
+        if (current == 0 && end.isAfter(start)) {
+            currentEnd = end.minusDays(1);
+            current = dayPresenceIndex.streakEndingAt(userId, currentEnd);
+        }
+        current = (int) Math.min(current, ChronoUnit.DAYS.between(start, currentEnd) + 1);
+        logger.debug("User {} streaks from {} to {}: longest {}, current {}", userId, start, end, length, current);
+        return new StreakDTO(userId, length, streakStart, streakEnd, current);
+    }
+
+    /**
+     * Находит дни периода, в которые трекинг был у всех участников команды
+     * @param userIds ID участников (обязательный, от 1 до {@value #MAX_TEAM_SIZE})
+     * @param from    Первый день периода (необязательный)
+     * @param to      Последний день периода (необязательный)
+     * @return Общие дни с трекингом
+     * @throws ResourceNotFoundException если один из пользователей не найден
+     * @throws IllegalArgumentException  если список участников пуст, слишком велик или начало периода позже окончания
+     */
+    @JfrReport("team-days")
+    public TeamDaysDTO getTeamDays(List<Long> userIds, LocalDate from, LocalDate to) {
+        if (userIds == null || userIds.isEmpty() || userIds.size() > MAX_TEAM_SIZE) {
+            throw new IllegalArgumentException("Team must contain from 1 to " + MAX_TEAM_SIZE + " users");
+        }
+        List<Long> team = userIds.stream()
+                .distinct()
+                .toList();
+        team.forEach(this::requireUser);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = resolveFrom(from, end);
+
+        BitSet common = dayPresenceIndex.intersect(team, start, end);
+        List<LocalDate> days = DayBitmap.toDays(common, start);
+        logger.debug("Team of {} users has {} common days from {} to {}", team.size(), days.size(), start, end);
+        return new TeamDaysDTO(team, start, end, days.size(), days);
+    }
+
+    /**
+     * Оценивает количество различных пользователей, начинавших трекинг в периоде
+     * @param from        Первый день периода (необязательный)
+     * @param to          Последний день периода (необязательный)
+     * @param granularity Разбиение периода на дни или месяцы (необязательный)
+     * @return Оценка за весь период и, если запрошено, по его частям
+     * @throws IllegalArgumentException если начало периода позже окончания или период длиннее {@value #MAX_ACTIVE_USERS_DAYS} дней
+     */
+    @JfrReport("active-users")
+    public ActiveUsersDTO getActiveUsers(LocalDate from, LocalDate to, ActiveUsersDTO.Granularity granularity) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = resolveFrom(from, end);
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_ACTIVE_USERS_DAYS) {
+            throw new IllegalArgumentException("Period must not exceed " + MAX_ACTIVE_USERS_DAYS + " days");
+        }
+
+        HyperLogLog total;
+        List<ActiveUsersPeriodDTO> periods = new ArrayList<>();
+        if (granularity == null) {
+            total = activeUserSketches.union(start, end);
+        } else {
+            // Скетчи частей объединяются в скетч всего периода, поэтому каждый день читается один раз
+            total = new HyperLogLog();
+            for (LocalDate periodStart = start; !periodStart.isAfter(end); ) {
+                LocalDate periodEnd = granularity == ActiveUsersDTO.Granularity.DAY ? periodStart
+                        : periodStart.with(TemporalAdjusters.lastDayOfMonth());
+                if (periodEnd.isAfter(end)) {
+                    periodEnd = end;
+                }
+                HyperLogLog period = activeUserSketches.union(periodStart, periodEnd);
+                periods.add(new ActiveUsersPeriodDTO(periodStart, periodEnd, period.estimate()));
+                total.merge(period);
+                periodStart = periodEnd.plusDays(1);
+            }
+        }
+
+        long distinctUsers = total.estimate();
+        double margin = 2 * HyperLogLog.RELATIVE_STANDARD_ERROR * distinctUsers;
+        logger.debug("Estimated {} distinct active users from {} to {}", distinctUsers, start, end);
+        return new ActiveUsersDTO(start, end, distinctUsers, HyperLogLog.RELATIVE_STANDARD_ERROR, (long) Math.floor(distinctUsers - margin),
+                (long) Math.ceil(distinctUsers + margin), granularity, periods);
+    }
+
+    private LocalDate resolveFrom(LocalDate from, LocalDate end) {
+        LocalDate start = from != null ? from : end.with(IsoFields.DAY_OF_QUARTER, 1);
+        if (start.isAfter(end)) {
+            logger.error("Invalid period: from {} is after to {}", start, end);
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        return start;
+    }
+
+    private void requireUser(Long userId) {
+        if (userRepository.findById(userId)
+                .isEmpty()) {
+            logger.error("User not found with id {}", userId);
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+    }
+}
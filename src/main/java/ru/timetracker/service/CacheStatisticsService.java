@@ -0,0 +1,82 @@
+package ru.timetracker.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import ru.timetracker.cache.config.SecondLevelCacheConfig;
+import ru.timetracker.dto.cache.CacheRegionStatisticsDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервис для получения статистики и управления кэшем второго уровня Hibernate во время работы приложения.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Статистика попаданий/промахов по регионам сущностей и запросов</li>
+ *   <li>Принудительная очистка всех регионов кэша</li>
+ * </ul>
+ * @see SecondLevelCacheConfig Конфигурация регионов кэша
+ */
+@Service
+public class CacheStatisticsService {
+    private static final Logger logger = LogManager.getLogger(CacheStatisticsService.class);
+
+    private final SessionFactory sessionFactory;
+
+    /**
+     * Конструктор сервиса статистики кэша.
+     * @param entityManagerFactory фабрика EntityManager, из которой извлекается {@link SessionFactory}
+     */
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * Получает статистику по регионам кэша второго уровня
+     * @return Список статистики по регионам пользователей, задач и запросов задач
+     */
+    public List<CacheRegionStatisticsDTO> getRegionStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<CacheRegionStatisticsDTO> result = new ArrayList<>();
+        result.add(toDTO(SecondLevelCacheConfig.USER_REGION, domainRegionStatistics(statistics, SecondLevelCacheConfig.USER_REGION)));
+        result.add(toDTO(SecondLevelCacheConfig.TASK_REGION, domainRegionStatistics(statistics, SecondLevelCacheConfig.TASK_REGION)));
+        result.add(toDTO(SecondLevelCacheConfig.TASK_QUERY_REGION,
+                statistics.getQueryRegionStatistics(SecondLevelCacheConfig.TASK_QUERY_REGION)));
+        logger.debug("Collected statistics for {} cache regions", result.size());
+        return result;
+    }
+
+    /**
+     * Очищает все регионы кэша второго уровня
+     */
+    public void evictAll() {
+        sessionFactory.getCache()
+                .evictAllRegions();
+        logger.warn("All second-level cache regions evicted");
+    }
+
+    private static CacheRegionStatistics domainRegionStatistics(Statistics statistics, String region) {
+        try {
+            return statistics.getDomainDataRegionStatistics(region);
+        } catch (IllegalArgumentException e) {
+            // Регион не зарегистрирован, если кэш второго уровня отключен настройкой timetracker.cache.enabled
+            logger.debug("Cache region {} is not available: {}", region, e.getMessage());
+            return null;
+        }
+    }
+
+    private static CacheRegionStatisticsDTO toDTO(String region, CacheRegionStatistics statistics) {
+        if (statistics == null) {
+            return new CacheRegionStatisticsDTO(region, 0, 0, 0, 0, 0.0);
+        }
+        long hits = statistics.getHitCount();
+        long misses = statistics.getMissCount();
+        double hitRatio = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+        return new CacheRegionStatisticsDTO(region, hits, misses, statistics.getPutCount(), statistics.getElementCountInMemory(), hitRatio);
+    }
+}
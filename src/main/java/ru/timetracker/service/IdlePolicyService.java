@@ -0,0 +1,121 @@
+package ru.timetracker.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.timetracker.dto.idle.AutoStopDTO;
+import ru.timetracker.dto.idle.IdlePolicyDTO;
+import ru.timetracker.dto.mapper.TaskMapper;
+import ru.timetracker.dto.mapper.UserMapper;
+import ru.timetracker.dto.task.TaskDTO;
+import ru.timetracker.dto.user.UserDTO;
+import ru.timetracker.etag.ChangesUserData;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.model.Task;
+import ru.timetracker.model.TrackingEvent;
+import ru.timetracker.model.User;
+import ru.timetracker.repository.TaskRepository;
+import ru.timetracker.repository.TrackingEventRepository;
+import ru.timetracker.repository.UserRepository;
+
+import java.util.List;
+
+/**
+ * Сервис ограничений длительности записей времени и уведомлений об автоматических остановках.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Установка и снятие ограничения длительности записи для пользователя и для задачи</li>
+ *   <li>Получение автоматических остановок пользователя из журнала трекинга начиная с последней полученной</li>
+ * </ul>
+ * @see ru.timetracker.idle.IdleEntryStopper Остановка забытых записей
+ */
+@Service
+public class IdlePolicyService {
+    /**
+     * Максимальное количество остановок в одном ответе
+     */
+    public static final int MAX_AUTO_STOPS = 1000;
+
+    private static final Logger logger = LogManager.getLogger(IdlePolicyService.class);
+
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final TrackingEventRepository trackingEventRepository;
+    private final UserMapper userMapper;
+    private final TaskMapper taskMapper;
+
+    /**
+     * Конструктор сервиса ограничений длительности записей.
+     * @param userRepository          репозиторий пользователей
+     * @param taskRepository          репозиторий задач
+     * @param trackingEventRepository репозиторий журнала трекинга (источник уведомлений об остановках)
+     * @param userMapper              маппер пользователей
+     * @param taskMapper              маппер задач
+     */
+    public IdlePolicyService(UserRepository userRepository, TaskRepository taskRepository, TrackingEventRepository trackingEventRepository,
+            UserMapper userMapper, TaskMapper taskMapper) {
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.trackingEventRepository = trackingEventRepository;
+        this.userMapper = userMapper;
+        this.taskMapper = taskMapper;
+    }
+
+    /**
+     * Устанавливает ограничение длительности записей пользователя
+     * @param userId ID пользователя (обязательный)
+     * @param policy Ограничение (null в поле снимает ограничение)
+     * @return Обновленный пользователь
+     * @throws ResourceNotFoundException если пользователь не найден
+     */
+    @ChangesUserData
+    @Transactional
+    public UserDTO updateUserPolicy(Long userId, IdlePolicyDTO policy) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        user.setMaxEntryMinutes(policy.getMaxEntryMinutes());
+        logger.info("Set max entry duration of user {} to {} minutes", userId, policy.getMaxEntryMinutes());
+        return userMapper.toDTO(userRepository.save(user));
+    }
+
+    /**
+     * Устанавливает ограничение длительности записей по задаче; имеет приоритет над ограничением пользователя
+     * @param userId ID пользователя (обязательный)
+     * @param taskId ID задачи (обязательный)
+     * @param policy Ограничение (null в поле снимает ограничение)
+     * @return Обновленная задача
+     * @throws ResourceNotFoundException если задача не найдена или не принадлежит пользователю
+     */
+    @ChangesUserData
+    @Transactional
+    public TaskDTO updateTaskPolicy(Long userId, Long taskId, IdlePolicyDTO policy) {
+        Task task = taskRepository.findByIdAndUserId(taskId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+        task.setMaxEntryMinutes(policy.getMaxEntryMinutes());
+        logger.info("Set max entry duration of task {} to {} minutes", taskId, policy.getMaxEntryMinutes());
+        return taskMapper.toDTO(taskRepository.save(task));
+    }
+
+    /**
+     * Получает автоматические остановки записей пользователя, записанные после указанного события
+     * @param userId       ID пользователя (обязательный)
+     * @param afterEventId ID последнего полученного события (необязательный, по умолчанию - с начала журнала)
+     * @param limit        Максимальное количество остановок (от 1 до {@value #MAX_AUTO_STOPS})
+     * @return Список остановок в порядке записи
+     * @throws IllegalArgumentException если лимит вне допустимого диапазона
+     */
+    @Transactional(readOnly = true)
+    public List<AutoStopDTO> getAutoStops(Long userId, Long afterEventId, int limit) {
+        if (limit < 1 || limit > MAX_AUTO_STOPS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_AUTO_STOPS);
+        }
+        return trackingEventRepository.findByUserIdAndTypeAndIdGreaterThanOrderByIdAsc(userId, TrackingEvent.Type.AUTO_COMPLETED,
+                        afterEventId != null ? afterEventId : 0L, Limit.of(limit))
+                .stream()
+                .map(event -> new AutoStopDTO(event.getId(), event.getEntryId(), event.getTaskId(), event.getStartTime(),
+                        event.getEndTime(), event.getRecordedAt()))
+                .toList();
+    }
+}
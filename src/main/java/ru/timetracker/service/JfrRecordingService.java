@@ -0,0 +1,114 @@
+package ru.timetracker.service;
+
+import jdk.jfr.Recording;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import ru.timetracker.dto.jfr.JfrRecordingDTO;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.jfr.JfrRecorder;
+import ru.timetracker.jfr.config.JfrProperties;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Сервис записи JDK Flight Recorder по запросу.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Старт, остановка и удаление ограниченной по длительности и размеру записи</li>
+ *   <li>Состояние текущей записи</li>
+ *   <li>Сохранение записи в файл для скачивания</li>
+ * </ul>
+ * @see JfrRecorder Запись JFR по запросу
+ */
+@Service
+public class JfrRecordingService {
+    private static final Logger logger = LogManager.getLogger(JfrRecordingService.class);
+
+    private final ObjectProvider<JfrRecorder> jfrRecorder;
+    private final JfrProperties properties;
+
+    /**
+     * Конструктор сервиса записи JFR.
+     * @param jfrRecorder запись JFR по запросу (отсутствует, если запись отключена)
+     * @param properties  настройки записи
+     */
+    public JfrRecordingService(ObjectProvider<JfrRecorder> jfrRecorder, JfrProperties properties) {
+        this.jfrRecorder = jfrRecorder;
+        this.properties = properties;
+    }
+
+    /**
+     * Начинает запись
+     * @param duration Длительность записи (необязательный, по умолчанию {@code timetracker.jfr.default-duration})
+     * @return Начатая запись
+     * @throws IllegalArgumentException  если длительность вне допустимого диапазона
+     * @throws IllegalStateException     если запись уже идет
+     * @throws ResourceNotFoundException если запись JFR отключена
+     * @throws IOException               если набор настроек JFR не удалось прочитать
+     */
+    public JfrRecordingDTO startRecording(Duration duration) throws IOException {
+        logger.info("Starting JFR recording for {}", duration);
+        return toDTO(recorder().start(duration));
+    }
+
+    /**
+     * Получает текущую запись
+     * @return Идущая или остановленная запись
+     * @throws ResourceNotFoundException если записи нет или запись JFR отключена
+     */
+    public JfrRecordingDTO getRecording() {
+        return toDTO(recorder().current());
+    }
+
+    /**
+     * Останавливает запись
+     * @return Остановленная запись
+     * @throws ResourceNotFoundException если записи нет или запись JFR отключена
+     */
+    public JfrRecordingDTO stopRecording() {
+        return toDTO(recorder().stop());
+    }
+
+    /**
+     * Сохраняет данные записи во временный файл
+     * @return Файл записи; удаляется вызывающим кодом после передачи
+     * @throws ResourceNotFoundException если записи нет или запись JFR отключена
+     * @throws IOException               если файл не удалось записать
+     */
+    public Path dumpRecording() throws IOException {
+        return recorder().dump();
+    }
+
+    /**
+     * Удаляет запись и ее данные
+     * @throws ResourceNotFoundException если записи нет или запись JFR отключена
+     */
+    public void deleteRecording() {
+        recorder().delete();
+    }
+
+    private JfrRecorder recorder() {
+        JfrRecorder recorder = jfrRecorder.getIfAvailable();
+        if (recorder == null) {
+            throw new ResourceNotFoundException("JFR recording is disabled");
+        }
+        return recorder;
+    }
+
+    private JfrRecordingDTO toDTO(Recording recording) {
+        return new JfrRecordingDTO(recording.getId(), recording.getState()
+                .name(), properties.getSettings(), toLocal(recording.getStartTime()), toLocal(recording.getStopTime()),
+                recording.getDuration(), recording.getMaxSize(), recording.getSize());
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
+    }
+}
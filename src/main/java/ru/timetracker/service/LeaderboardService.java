@@ -0,0 +1,62 @@
+package ru.timetracker.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Service;
+import ru.timetracker.dto.leaderboard.LeaderboardEntryDTO;
+import ru.timetracker.dto.leaderboard.WeeklyLeaderboardDTO;
+import ru.timetracker.index.WeeklyLeaderboard;
+import ru.timetracker.jfr.JfrReport;
+import ru.timetracker.util.DurationFormatter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервис рейтинга пользователей по отработанному времени. Рейтинг читается из памяти {@link WeeklyLeaderboard} без запросов к БД.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Первые места рейтинга текущей недели</li>
+ * </ul>
+ * @see WeeklyLeaderboard Недельный рейтинг
+ */
+@Service
+public class LeaderboardService {
+    /**
+     * Максимальное количество мест в одном запросе
+     */
+    public static final int MAX_LIMIT = 100;
+
+    private static final Logger logger = LogManager.getLogger(LeaderboardService.class);
+
+    private final WeeklyLeaderboard weeklyLeaderboard;
+
+    /**
+     * Конструктор сервиса рейтинга.
+     * @param weeklyLeaderboard недельный рейтинг
+     */
+    public LeaderboardService(WeeklyLeaderboard weeklyLeaderboard) {
+        this.weeklyLeaderboard = weeklyLeaderboard;
+    }
+
+    /**
+     * Получает первые места рейтинга текущей недели
+     * @param limit Количество мест (от 1 до {@value #MAX_LIMIT})
+     * @return Рейтинг недели
+     * @throws IllegalArgumentException если количество мест вне допустимого диапазона
+     */
+    @JfrReport("weekly-leaderboard")
+    public WeeklyLeaderboardDTO getWeeklyLeaderboard(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<WeeklyLeaderboard.Standing> standings = weeklyLeaderboard.top(limit);
+        List<LeaderboardEntryDTO> entries = new ArrayList<>(standings.size());
+        for (WeeklyLeaderboard.Standing standing : standings) {
+            entries.add(new LeaderboardEntryDTO(entries.size() + 1, standing.userId(), standing.seconds(),
+                    DurationFormatter.formatSeconds(standing.seconds())));
+        }
+        logger.debug("Weekly leaderboard requested with limit {}, returned {} entries", limit, entries.size());
+        return new WeeklyLeaderboardDTO(weeklyLeaderboard.weekStart(), entries);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.timetracker.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import ru.timetracker.dto.sql.SlowQueryDTO;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.sql.SlowQuery;
+import ru.timetracker.sql.SlowQueryRecorder;
+
+import java.util.List;
+
+/**
+ * Сервис просмотра журнала медленных SQL-запросов.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Последние медленные запросы с параметрами, количеством строк, вызывающим методом и планом выполнения</li>
+ *   <li>Очистка журнала</li>
+ * </ul>
+ * @see SlowQueryRecorder Журнал медленных запросов
+ */
+@Service
+public class SlowQueryService {
+    /**
+     * Максимальное количество запросов в одном ответе
+     */
+    public static final int MAX_LIMIT = 200;
+
+    private static final Logger logger = LogManager.getLogger(SlowQueryService.class);
+
+    private final ObjectProvider<SlowQueryRecorder> slowQueryRecorder;
+
+    /**
+     * Конструктор сервиса медленных запросов.
+     * @param slowQueryRecorder журнал медленных запросов (отсутствует, если журнал отключен)
+     */
+    public SlowQueryService(ObjectProvider<SlowQueryRecorder> slowQueryRecorder) {
+        this.slowQueryRecorder = slowQueryRecorder;
+    }
+
+    /**
+     * Получает последние медленные запросы
+     * @param limit Количество запросов (от 1 до {@value #MAX_LIMIT})
+     * @return Запросы от последнего к первому
+     * @throws IllegalArgumentException  если количество запросов вне допустимого диапазона
+     * @throws ResourceNotFoundException если журнал медленных запросов отключен
+     */
+    public List<SlowQueryDTO> getRecentSlowQueries(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<SlowQueryDTO> queries = recorder().recent(limit)
+                .stream()
+                .map(SlowQueryService::toDTO)
+                .toList();
+        logger.debug("Slow queries requested with limit {}, returned {} queries", limit, queries.size());
+        return queries;
+    }
+
+    /**
+     * Очищает журнал медленных запросов
+     * @throws ResourceNotFoundException если журнал медленных запросов отключен
+     */
+    public void clear() {
+        recorder().clear();
+        logger.info("Slow query log cleared");
+    }
+
+    private SlowQueryRecorder recorder() {
+        SlowQueryRecorder recorder = slowQueryRecorder.getIfAvailable();
+        if (recorder == null) {
+            throw new ResourceNotFoundException("Slow query log is disabled");
+        }
+        return recorder;
+    }
+
+    private static SlowQueryDTO toDTO(SlowQuery query) {
+        return new SlowQueryDTO(query.getRecordedAt(), query.getSql(), query.getParameters(), query.getDurationMillis(),
+                query.getBatchSize(), query.getRows(), query.getCaller(), query.getPlan(), query.getError());
+    }
+}
@@ -3,18 +3,25 @@ package ru.timetracker.service;
 import lombok.Data;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.timetracker.dto.mapper.TaskMapper;
 import ru.timetracker.dto.task.TaskCreateDTO;
 import ru.timetracker.dto.task.TaskDTO;
+import ru.timetracker.dto.task.TaskSuggestionDTO;
 import ru.timetracker.dto.task.TaskUpdateDTO;
+import ru.timetracker.etag.ChangesUserData;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
 import ru.timetracker.exception.ResourceNotFoundException;
 import ru.timetracker.exception.TaskAlreadyExistsException;
+import ru.timetracker.index.TaskTitleIndex;
 import ru.timetracker.model.Task;
 import ru.timetracker.model.User;
 import ru.timetracker.repository.TaskRepository;
 import ru.timetracker.repository.UserRepository;
+import ru.timetracker.retry.RetryOnConflict;
 
 import java.util.List;
 
@@ -27,29 +34,41 @@ import java.util.List;
  *   <li>Валидация данных задач</li>
  *   <li>Фильтрация задач по статусу</li>
  *   <li>Полное удаление задач пользователя</li>
+ *   <li>Поиск задач по префиксу названия для автодополнения</li>
+ *   <li>Повтор изменений задачи при конфликте с параллельным изменением той же версии</li>
  * </ul>
  * @see TaskRepository Репозиторий для работы с задачами
  * @see TaskMapper Маппер для преобразования DTO/Entity
+ * @see TaskTitleIndex Индекс названий задач
+ * @see UserTrackingDataInvalidatedEvent Сброс данных трекинга пользователя при удалении задач
  */
 @Service
 @Data
 public class TaskService {
     private static final Logger logger = LogManager.getLogger(TaskService.class);
+    private static final int MAX_SUGGESTIONS = 50;
 
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final TaskMapper taskMapper;
+    private final TaskTitleIndex taskTitleIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Конструктор сервиса задач.
-     * @param taskRepository репозиторий для работы с задачами
-     * @param userRepository репозиторий пользователей
-     * @param taskMapper     маппер для преобразования задач
+     * @param taskRepository       репозиторий для работы с задачами
+     * @param userRepository       репозиторий пользователей
+     * @param taskMapper           маппер для преобразования задач
+     * @param taskTitleIndex       индекс названий задач для автодополнения
+     * @param eventPublisher       публикатор событий сброса данных трекинга (записи удаленных задач удаляются вместе с ними)
      */
-    public TaskService(TaskRepository taskRepository, UserRepository userRepository, TaskMapper taskMapper) {
+    public TaskService(TaskRepository taskRepository, UserRepository userRepository, TaskMapper taskMapper,
+            TaskTitleIndex taskTitleIndex, ApplicationEventPublisher eventPublisher) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
         this.taskMapper = taskMapper;
+        this.taskTitleIndex = taskTitleIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -89,6 +108,34 @@ public class TaskService {
         return taskMapper.toDTO(task);
     }
 
+    /**
+     * Ищет задачи пользователя по префиксу названия для автодополнения
+     * @param userId          ID пользователя (обязательный)
+     * @param prefix          Префикс названия без учета регистра (пустой префикс возвращает недавние задачи)
+     * @param limit           Максимальное количество результатов (от 1 до 50)
+     * @param includeInactive включать ли неактивные задачи
+     * @return Список подсказок, отсортированный по времени последнего трекинга
+     * @throws IllegalArgumentException  если limit меньше 1
+     * @throws ResourceNotFoundException если подсказок нет и пользователь не найден
+     */
+    @Transactional(readOnly = true)
+    public List<TaskSuggestionDTO> searchTasksByTitle(Long userId, String prefix, int limit, boolean includeInactive) {
+        logger.debug("Searching tasks for user ID: {} by prefix: '{}', limit: {}", userId, prefix, limit);
+        if (limit < 1) {
+            logger.error("Invalid suggestion limit: {}", limit);
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        List<TaskSuggestionDTO> suggestions = taskTitleIndex.search(userId, prefix, Math.min(limit, MAX_SUGGESTIONS), includeInactive);
+        // Существование пользователя проверяется только для пустого результата: найденные задачи уже подтверждают его
+        if (suggestions.isEmpty() && !userRepository.existsById(userId)) {
+            String errorMessage = "User with ID " + userId + " not found";
+            logger.error(errorMessage);
+            throw new ResourceNotFoundException(errorMessage);
+        }
+        logger.debug("Found {} suggestions for user ID: {}", suggestions.size(), userId);
+        return suggestions;
+    }
+
     /**
      * Создает новую задачу для пользователя
      * @param userId        ID пользователя (обязательный)
@@ -97,6 +144,7 @@ public class TaskService {
      * @throws ResourceNotFoundException  если пользователь не найден
      * @throws TaskAlreadyExistsException если задача с таким названием уже существует
      */
+    @ChangesUserData
     @Transactional
     public TaskDTO createTask(Long userId, TaskCreateDTO taskCreateDTO) {
         logger.debug("Creating new task for user ID: {}. Data: {}", userId, taskCreateDTO);
@@ -117,6 +165,7 @@ public class TaskService {
         Task task = taskMapper.toEntity(taskCreateDTO);
         task.setUser(user);
         task = taskRepository.save(task);
+        taskTitleIndex.put(task);
 
         logger.info("Created new task ID: {} for user ID: {}. Title: {}", task.getId(), userId, task.getTitle());
         return taskMapper.toDTO(task);
@@ -128,8 +177,11 @@ public class TaskService {
      * @param userId        ID пользователя (обязательный)
      * @param taskUpdateDTO DTO с обновленными данными задачи
      * @return Обновленная DTO задачи
-     * @throws ResourceNotFoundException если задача не найдена
+     * @throws ResourceNotFoundException         если задача не найдена
+     * @throws OptimisticLockingFailureException если конфликт не разрешился за все попытки
      */
+    @ChangesUserData
+    @RetryOnConflict
     @Transactional
     public TaskDTO updateTask(Long taskId, Long userId, TaskUpdateDTO taskUpdateDTO) {
         logger.debug("Updating task ID: {} for user ID: {}. Data: {}", taskId, userId, taskUpdateDTO);
@@ -149,6 +201,7 @@ public class TaskService {
         }
 
         task = taskRepository.save(task);
+        taskTitleIndex.put(task);
         logger.info("Updated task ID: {} for user ID: {}", taskId, userId);
         return taskMapper.toDTO(task);
     }
@@ -158,8 +211,11 @@ public class TaskService {
      * @param taskId ID задачи (обязательный)
      * @param userId ID пользователя (обязательный)
      * @return DTO задачи с новым статусом
-     * @throws ResourceNotFoundException если задача не найдена
+     * @throws ResourceNotFoundException         если задача не найдена
+     * @throws OptimisticLockingFailureException если конфликт не разрешился за все попытки
      */
+    @ChangesUserData
+    @RetryOnConflict
     @Transactional
     public TaskDTO toggleTaskStatus(Long taskId, Long userId) {
         logger.debug("Toggling status for task ID: {} for user ID: {}", taskId, userId);
@@ -174,6 +230,7 @@ public class TaskService {
         boolean newStatus = !task.isActive();
         task.setActive(newStatus);
         task = taskRepository.save(task);
+        taskTitleIndex.put(task);
 
         logger.info("Status changed for task ID: {} for user ID: {}. New status: {}", taskId, userId, newStatus ? "active" : "inactive");
         return taskMapper.toDTO(task);
@@ -185,6 +242,7 @@ public class TaskService {
      * @param userId ID пользователя (обязательный)
      * @throws ResourceNotFoundException если задача не найдена
      */
+    @ChangesUserData
     @Transactional
     public void deleteTask(Long taskId, Long userId) {
         logger.debug("Deleting task ID: {} for user ID: {}", taskId, userId);
@@ -197,6 +255,8 @@ public class TaskService {
                 });
 
         taskRepository.delete(task);
+        taskTitleIndex.remove(userId, taskId);
+        eventPublisher.publishEvent(UserTrackingDataInvalidatedEvent.ofUser(userId));
         logger.info("Deleted task ID: {} for user ID: {}", taskId, userId);
     }
 
@@ -205,6 +265,7 @@ public class TaskService {
      * @param userId ID пользователя (обязательный)
      * @throws ResourceNotFoundException если пользователь не найден
      */
+    @ChangesUserData
     public void deleteTasksCompletely(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -213,5 +274,6 @@ public class TaskService {
                 });
         taskRepository.deleteByUser(user);
         taskRepository.deleteByUser(user);
+        eventPublisher.publishEvent(UserTrackingDataInvalidatedEvent.ofUser(userId));
     }
 }
\ No newline at end of file
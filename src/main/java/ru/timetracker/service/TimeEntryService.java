@@ -6,28 +6,50 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.timetracker.dto.mapper.TimeEntryMapper;
 import ru.timetracker.dto.task.TaskDurationDTO;
+import ru.timetracker.dto.timeentry.SessionStatsDTO;
 import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
 import ru.timetracker.dto.timeentry.TimeEntryDTO;
 import ru.timetracker.dto.timeentry.TimeIntervalDTO;
 import ru.timetracker.dto.timeentry.TotalWorkDurationDTO;
+import ru.timetracker.etag.ChangesUserData;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
 import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.index.DayPresenceIndex;
+import ru.timetracker.jfr.JfrReport;
+import ru.timetracker.lock.LocksUser;
 import ru.timetracker.model.Task;
 import ru.timetracker.model.TimeEntry;
 import ru.timetracker.model.User;
+import ru.timetracker.offheap.OffHeapEntryStore;
+import ru.timetracker.offheap.TaskTotals;
 import ru.timetracker.repository.TaskRepository;
 import ru.timetracker.repository.TimeEntryRepository;
 import ru.timetracker.repository.UserRepository;
+import ru.timetracker.retry.RetryOnConflict;
+import ru.timetracker.singleflight.SingleFlight;
+import ru.timetracker.sketch.SessionLengthDigests;
+import ru.timetracker.sketch.TDigest;
+import ru.timetracker.tracking.TrackingEventStore;
+import ru.timetracker.util.DurationFormatter;
+import ru.timetracker.writebehind.WriteBehindTracker;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
 
 /**
  * Сервис для работы с записями времени и трекингом рабочего времени. Обеспечивает функциональность старта/останова трекинга, получения
@@ -42,6 +64,14 @@ import java.util.List;
  * </ul>
  * @see TimeEntryRepository Репозиторий для работы с записями времени
  * @see TimeEntryMapper Маппер для преобразования DTO/Entity
+ * @see TimeEntryEvent События старта/остановки трекинга
+ * @see TrackingEventStore Журнал трекинга, из которого строится таблица записей
+ * @see WriteBehindTracker Режим отложенной записи старта/остановки
+ * @see OffHeapEntryStore Хранилище записей крупных пользователей вне кучи для отчетов
+ * @see DayPresenceIndex Индекс дней с трекингом
+ * @see LocksUser Блокировка пользователя при старте и остановке трекинга
+ * @see SessionLengthDigests Скетчи длительности сессий
+ * @see SingleFlight Объединение одновременных одинаковых запросов отчетов
  */
 @Service
 @Data
@@ -53,68 +83,151 @@ public class TimeEntryService {
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
     private final TimeEntryMapper timeEntryMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TrackingEventStore trackingEventStore;
+    private final WriteBehindTracker writeBehindTracker;
+    private final OffHeapEntryStore offHeapEntryStore;
+    private final DayPresenceIndex dayPresenceIndex;
+    private final SessionLengthDigests sessionLengthDigests;
 
     /**
      * Конструктор сервиса временных записей.
-     * @param timeEntryRepository репозиторий для работы с временными записями
-     * @param userRepository      репозиторий пользователей
-     * @param taskRepository      репозиторий задач
-     * @param timeEntryMapper     маппер для преобразования DTO
+     * @param timeEntryRepository  репозиторий для работы с временными записями
+     * @param userRepository       репозиторий пользователей
+     * @param taskRepository       репозиторий задач
+     * @param timeEntryMapper      маппер для преобразования DTO
+     * @param eventPublisher       публикатор событий старта/остановки трекинга и сброса данных трекинга
+     * @param trackingEventStore   журнал трекинга (очищается вместе с данными пользователя)
+     * @param writeBehindTracker   отложенная запись старта/остановки (используется, если режим включен)
+     * @param offHeapEntryStore    хранилище записей вне кучи (используется для отчетов, если хранилище включено)
+     * @param dayPresenceIndex     индекс дней с трекингом (количество рабочих дней в отчете об общем времени)
+     * @param sessionLengthDigests скетчи длительности сессий (квантили длительности)
      */
     public TimeEntryService(TimeEntryRepository timeEntryRepository, UserRepository userRepository, TaskRepository taskRepository,
-            TimeEntryMapper timeEntryMapper) {
+            TimeEntryMapper timeEntryMapper, ApplicationEventPublisher eventPublisher, TrackingEventStore trackingEventStore,
+            WriteBehindTracker writeBehindTracker, OffHeapEntryStore offHeapEntryStore,
+            DayPresenceIndex dayPresenceIndex, SessionLengthDigests sessionLengthDigests) {
         this.timeEntryRepository = timeEntryRepository;
         this.userRepository = userRepository;
         this.taskRepository = taskRepository;
         this.timeEntryMapper = timeEntryMapper;
+        this.eventPublisher = eventPublisher;
+        this.trackingEventStore = trackingEventStore;
+        this.writeBehindTracker = writeBehindTracker;
+        this.offHeapEntryStore = offHeapEntryStore;
+        this.dayPresenceIndex = dayPresenceIndex;
+        this.sessionLengthDigests = sessionLengthDigests;
     }
 
     /**
-     * Начинает новую запись времени для задачи пользователя
+     * Начинает новую запись времени для задачи пользователя.
+     * <p>Быстрый путь: принадлежность задачи и активная запись проверяются одним запросом, пользователь подставляется ссылкой без
+     * загрузки, а предыдущая активная запись завершается одним UPDATE. Всего не более трех SQL-запросов и одного пакетного INSERT событий
+     * журнала перед фиксацией транзакции. В режиме отложенной записи старт только добавляется в локальный журнал.
+     * <p>Старты и остановки одного пользователя выполняются под его блокировкой ({@link LocksUser}), которая берется до начала
+     * транзакции и освобождается после фиксации, поэтому параллельные старты не оставляют двух активных записей, а ожидающий поток не
+     * занимает соединение с БД; между экземплярами приложения это гарантирует уникальный индекс активной записи.
      * @param userId ID пользователя (обязательный)
      * @param dto    DTO с данными для старта трекинга (обязательный)
      * @return Созданная запись времени
-     * @throws ResourceNotFoundException если пользователь или задача не найдены
+     * @throws ResourceNotFoundException если задача не найдена или не принадлежит пользователю
      */
+    @ChangesUserData
+    @LocksUser
     @Transactional
     public TimeEntryDTO startTimeEntry(Long userId, TimeEntryCreateDTO dto) {
         logger.info("Starting time entry for user {} and task {}", userId, dto.getTaskId());
-        User user = getUser(userId);
-        Task task = getTask(dto.getTaskId());
-
-        if (!task.getUser()
-                .getId()
-                .equals(userId)) {
-            logger.error("Task {} does not belong to user {}", dto.getTaskId(), userId);
+        if (writeBehindTracker.isEnabled()) {
+            return writeBehindTracker.start(userId, dto.getTaskId());
+        }
+        List<Object[]> context = timeEntryRepository.findStartContext(userId, dto.getTaskId());
+        if (context.isEmpty()) {
+            logger.error("Task {} not found for user {}", dto.getTaskId(), userId);
             throw new ResourceNotFoundException("Task not found");
         }
 
-        timeEntryRepository.findByUserAndEndTimeIsNull(user)
-                .ifPresent(entry -> {
-                    logger.debug("Stopping previous active time entry {}", entry.getId());
-                    entry.setEndTime(LocalDateTime.now());
-                    timeEntryRepository.save(entry);
-                });
+        Object[] row = context.get(0);
+        Task task = (Task) row[0];
+        Long activeEntryId = (Long) row[1];
+        LocalDateTime now = LocalDateTime.now();
+
+        if (activeEntryId != null) {
+            int closed = timeEntryRepository.closeActiveEntries(userId, now);
+            logger.debug("Stopped {} previous active time entries of user {}", closed, userId);
+            for (Object[] activeRow : context) {
+                eventPublisher.publishEvent(new TimeEntryEvent(TimeEntryEvent.Type.STOPPED, (Long) activeRow[1], userId,
+                        (Long) activeRow[3], (LocalDateTime) activeRow[2], now));
+            }
+        }
 
         TimeEntry entry = new TimeEntry();
-        entry.setUser(user);
+        entry.setUser(userRepository.getReferenceById(userId));
         entry.setTask(task);
+        entry.setStartTime(now);
         entry = timeEntryRepository.save(entry);
         logger.info("Created new time entry with id {}", entry.getId());
+        publishEvent(TimeEntryEvent.Type.STARTED, entry, userId);
 
         return timeEntryMapper.toDTO(entry);
     }
 
     /**
-     * Останавливает активную запись времени пользователя
+     * Останавливает активную запись времени пользователя.
+     * <p>Быстрый путь: активная запись загружается вместе с задачей одним запросом без отдельной загрузки пользователя. Если запись
+     * одновременно завершена другим путем (остановка забытых записей, отложенная запись), версия не совпадет и остановка повторится
+     * с новым чтением.
      * @param userId ID пользователя (обязательный)
      * @return Остановленная запись времени
      * @throws IllegalStateException если нет активной записи времени
      */
+    @ChangesUserData
+    @RetryOnConflict
+    @LocksUser
     @Transactional
     public TimeEntryDTO stopTimeEntry(Long userId) {
         logger.info("Stopping time entry for user {}", userId);
-        TimeEntry entry = timeEntryRepository.findByUserAndEndTimeIsNull(getUser(userId))
+        return completeActiveEntry(userId, TimeEntryEvent.Type.STOPPED);
+    }
+
+    /**
+     * Автоматически завершает запись времени по наступлении ее срока. В отличие от {@link #stopTimeEntry(Long)} время окончания
+     * равно сроку, а не текущему времени, и запись завершается, только если она все еще активна: остановленная или смененная за это
+     * время запись не меняется
+     * @param userId  ID пользователя (обязательный)
+     * @param entryId ID записи, для которой наступил срок
+     * @param endTime Срок автозавершения (время окончания записи)
+     * @return Завершенная запись времени или null, если запись уже не активна
+     */
+    @ChangesUserData
+    @RetryOnConflict
+    @LocksUser
+    @Transactional
+    public TimeEntryDTO autoCompleteTimeEntry(Long userId, Long entryId, LocalDateTime endTime) {
+        if (writeBehindTracker.isEnabled()) {
+            return writeBehindTracker.stopEntry(userId, entryId, TimeEntryEvent.Type.AUTO_COMPLETED, endTime);
+        }
+        TimeEntry entry = timeEntryRepository.findActiveWithTaskByUserId(userId)
+                .filter(active -> active.getId()
+                        .equals(entryId))
+                .orElse(null);
+        if (entry == null) {
+            logger.debug("Time entry {} of user {} is no longer active, auto-completion skipped", entryId, userId);
+            return null;
+        }
+
+        logger.info("Auto-completing time entry {} for user {} at {}", entryId, userId, endTime);
+        entry.setEndTime(endTime);
+        entry = timeEntryRepository.save(entry);
+        publishEvent(TimeEntryEvent.Type.AUTO_COMPLETED, entry, userId);
+
+        return timeEntryMapper.toDTO(entry);
+    }
+
+    private TimeEntryDTO completeActiveEntry(Long userId, TimeEntryEvent.Type type) {
+        if (writeBehindTracker.isEnabled()) {
+            return writeBehindTracker.stop(userId, type);
+        }
+        TimeEntry entry = timeEntryRepository.findActiveWithTaskByUserId(userId)
                 .orElseThrow(() -> {
                     logger.error("No active time entry found for user {}", userId);
                     return new IllegalStateException("No active time entry");
@@ -123,6 +236,7 @@ public class TimeEntryService {
         entry.setEndTime(LocalDateTime.now());
         entry = timeEntryRepository.save(entry);
         logger.debug("Time entry {} stopped at {}", entry.getId(), entry.getEndTime());
+        publishEvent(type, entry, userId);
 
         return timeEntryMapper.toDTO(entry);
     }
@@ -134,6 +248,7 @@ public class TimeEntryService {
      * @param to     Конец периода (необязательный)
      * @return Список записей времени
      */
+    @JfrReport("time-entries")
     @Transactional(readOnly = true)
     public List<TimeEntryDTO> getUserTimeEntries(Long userId, LocalDateTime from, LocalDateTime to) {
         logger.info("Getting time entries for user {} from {} to {}", userId, from, to);
@@ -163,13 +278,16 @@ public class TimeEntryService {
     }
 
     /**
-     * Получает суммарное время работы по задачам за период
+     * Получает суммарное время работы по задачам за период. Одновременные запросы с теми же аргументами получают результат одного
+     * расчета
      * @param userId ID пользователя (обязательный)
      * @param from   Начало периода (необязательный)
      * @param to     Конец периода (необязательный)
      * @return Список продолжительностей по задачам
      * @throws IllegalArgumentException если некорректный период
      */
+    @SingleFlight
+    @JfrReport("task-durations")
     public List<TaskDurationDTO> getUserTaskDurations(Long userId, LocalDateTime from, LocalDateTime to) {
         logger.info("Getting task durations for user {} from {} to {}", userId, from, to);
 
@@ -193,11 +311,18 @@ public class TimeEntryService {
             logger.debug("Setting from = start of day: {}", from);
         }
 
+        TaskTotals totals = offHeapEntryStore.sumByTask(userId, from, to);
+        if (totals != null) {
+            return toTaskDurations(userId, totals);
+        }
+
         try {
             List<Object[]> results = timeEntryRepository.findTaskDurationsByUserAndPeriod(userId, from, to);
 
             logger.debug("Found {} task duration records", results.size());
 
+            Map<Long, LocalDateTime> firstEntries = findFirstEntryTimes(userId, results);
+
             return results.stream()
                     .map(taskDurationData -> {
                         try {
@@ -205,11 +330,7 @@ public class TimeEntryService {
                             String title = (String) taskDurationData[1];
                             long totalSeconds = ((Number) taskDurationData[2]).longValue();
 
-                            LocalDateTime firstEntry = timeEntryRepository.findFirstByUserIdAndTaskIdOrderByStartTimeAsc(userId, taskId)
-                                    .map(TimeEntry::getStartTime)
-                                    .orElse(null);
-
-                            return new TaskDurationDTO(taskId, title, formatDuration(totalSeconds), firstEntry);
+                            return new TaskDurationDTO(taskId, title, DurationFormatter.formatSeconds(totalSeconds), firstEntries.get(taskId));
                         } catch (Exception e) {
                             logger.error("Error processing time entry data", e);
                             throw new IllegalArgumentException("Error processing time entry data", e);
@@ -231,6 +352,7 @@ public class TimeEntryService {
      * @return Список интервалов
      * @throws IllegalArgumentException если некорректный период
      */
+    @JfrReport("time-intervals")
     public List<TimeIntervalDTO> getUserTimeIntervals(Long userId, LocalDateTime from, LocalDateTime to) {
         logger.info("Getting time intervals for user {} from {} to {}", userId, from, to);
 
@@ -274,12 +396,14 @@ public class TimeEntryService {
     }
 
     /**
-     * Получает общее время работы за период
+     * Получает общее время работы за период. Одновременные запросы с теми же аргументами получают результат одного расчета
      * @param userId ID пользователя (обязательный)
      * @param from   Начало периода (необязательный)
      * @param to     Конец периода (необязательный)
      * @return Общая продолжительность работы
      */
+    @SingleFlight
+    @JfrReport("total-work-duration")
     public TotalWorkDurationDTO getTotalWorkDuration(Long userId, LocalDateTime from, LocalDateTime to) {
         logger.info("Getting total work duration for user {} from {} to {}", userId, from, to);
 
@@ -295,7 +419,9 @@ public class TimeEntryService {
             logger.debug("Setting to = from + 7 days: {}", to);
         }
 
-        Long totalSeconds = timeEntryRepository.sumWorkDurationByUserAndPeriod(userId, from, to);
+        OptionalLong storedSeconds = offHeapEntryStore.sumSeconds(userId, from, to);
+        Long totalSeconds = storedSeconds.isPresent() ? Long.valueOf(storedSeconds.getAsLong()) :
+                timeEntryRepository.sumWorkDurationByUserAndPeriod(userId, from, to);
         if (totalSeconds == null) {
             totalSeconds = 0L;
             logger.debug("No work duration found, setting to 0");
@@ -305,9 +431,62 @@ public class TimeEntryService {
 
         long daysInPeriod = ChronoUnit.DAYS.between(from.toLocalDate(), to.toLocalDate()) + 1;
 
-        logger.debug("Days in period: {}", daysInPeriod);
+        int workedDays = dayPresenceIndex.countDays(userId, from.toLocalDate(), to.toLocalDate());
+
+        logger.debug("Days in period: {}, worked days: {}", daysInPeriod, workedDays);
 
-        return new TotalWorkDurationDTO(formatDuration(totalSeconds), totalSeconds, (int) daysInPeriod, from, to);
+        return new TotalWorkDurationDTO(DurationFormatter.formatSeconds(totalSeconds), totalSeconds, (int) daysInPeriod, workedDays, from, to);
+    }
+
+    /**
+     * Оценивает медиану, p90 и p99 длительности сессий пользователя, его задачи или команды объединением скетчей по дням без чтения
+     * записей
+     * @param userId      ID пользователя (обязательный)
+     * @param taskId      ID задачи пользователя (необязательный)
+     * @param teamUserIds ID остальных участников команды (необязательный; сессии пользователя и участников объединяются)
+     * @param from        Первый день периода (необязательный, по умолчанию за 29 дней до окончания)
+     * @param to          Последний день периода (необязательный, по умолчанию сегодня)
+     * @return Квантили длительности сессий, начатых в периоде
+     * @throws ResourceNotFoundException если пользователь, участник команды или задача не найдены
+     * @throws IllegalArgumentException  если начало периода позже окончания, указаны одновременно задача и команда или команда
+     *                                   слишком велика
+     */
+    @JfrReport("session-stats")
+    public SessionStatsDTO getSessionStats(Long userId, Long taskId, List<Long> teamUserIds, LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            logger.error("Invalid period: from {} is after to {}", start, end);
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        List<Long> team = teamUserIds == null ? List.of() : teamUserIds;
+        if (taskId != null && !team.isEmpty()) {
+            throw new IllegalArgumentException("Task and team statistics cannot be combined");
+        }
+        List<Long> userIds = Stream.concat(Stream.of(userId), team.stream())
+                .distinct()
+                .toList();
+        if (userIds.size() > ActivityService.MAX_TEAM_SIZE) {
+            throw new IllegalArgumentException("Team must contain at most " + ActivityService.MAX_TEAM_SIZE + " users");
+        }
+        if (userRepository.findAllById(userIds)
+                .size() != userIds.size()) {
+            logger.error("Some of users {} not found", userIds);
+            throw new ResourceNotFoundException("User not found among: " + userIds);
+        }
+        if (taskId != null && taskRepository.findByIdAndUserId(taskId, userId)
+                .isEmpty()) {
+            throw new ResourceNotFoundException("Task with ID " + taskId + " not found for user " + userId);
+        }
+
+        TDigest digest = new TDigest();
+        for (Long memberId : userIds) {
+            digest.merge(sessionLengthDigests.union(memberId, taskId, start, end));
+        }
+        long sessions = digest.size();
+        logger.debug("Session stats for users {} (task {}) from {} to {}: {} sessions", userIds, taskId, start, end, sessions);
+        return new SessionStatsDTO(userIds, taskId, start, end, sessions, quantileSeconds(digest, 0.5), quantileSeconds(digest, 0.9),
+                quantileSeconds(digest, 0.99), sessions > 0 ? Math.round(digest.max()) : null);
     }
 
     /**
@@ -315,9 +494,12 @@ public class TimeEntryService {
      * @param userId ID пользователя (обязательный)
      * @throws ResourceNotFoundException если пользователь не найден
      */
+    @ChangesUserData
+    @LocksUser
     @Transactional
     public void clearUserTrackingData(Long userId) {
         logger.info("Clearing tracking data for user {}", userId);
+        writeBehindTracker.drain();
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> {
                     logger.error("User not found with id {}", userId);
@@ -325,6 +507,9 @@ public class TimeEntryService {
                 });
 
         timeEntryRepository.deleteByUser(user);
+        trackingEventStore.deleteUser(userId);
+        writeBehindTracker.evictUser(userId);
+        eventPublisher.publishEvent(UserTrackingDataInvalidatedEvent.ofUser(userId));
         logger.info("Deleted time entries for user {}", userId);
 
         List<Task> userTasks = taskRepository.findByUser(user);
@@ -337,6 +522,41 @@ public class TimeEntryService {
         });
     }
 
+    private List<TaskDurationDTO> toTaskDurations(Long userId, TaskTotals totals) {
+        logger.debug("Found {} task duration records off-heap", totals.size());
+        if (totals.size() == 0) {
+            return List.of();
+        }
+        // Список задач пользователя обслуживается кэшем запросов, сами записи времени в кучу не загружаются
+        Map<Long, String> titles = new HashMap<>();
+        for (Task task : taskRepository.findByUserId(userId, true)) {
+            titles.put(task.getId(), task.getTitle());
+        }
+        List<TaskDurationDTO> result = new ArrayList<>(totals.size());
+        for (int i = 0; i < totals.size(); i++) {
+            result.add(new TaskDurationDTO(totals.taskId(i), titles.get(totals.taskId(i)), DurationFormatter.formatSeconds(totals.seconds(i)),
+                    OffHeapEntryStore.toLocalDateTime(totals.firstStart(i))));
+        }
+        result.sort(Comparator.comparing(TaskDurationDTO::getFirstEntryTime, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    private Map<Long, LocalDateTime> findFirstEntryTimes(Long userId, List<Object[]> taskDurations) {
+        if (taskDurations.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> taskIds = taskDurations.stream()
+                .map(taskDurationData -> ((Number) taskDurationData[0]).longValue())
+                .toList();
+
+        Map<Long, LocalDateTime> firstEntries = new HashMap<>();
+        for (Object[] row : timeEntryRepository.findFirstStartTimesByUserIdAndTaskIds(userId, taskIds)) {
+            firstEntries.put(((Number) row[0]).longValue(), (LocalDateTime) row[1]);
+        }
+        logger.debug("Found first entry times for {} of {} tasks", firstEntries.size(), taskIds.size());
+        return firstEntries;
+    }
+
     private User getUser(Long userId) {
         logger.debug("Getting user with id {}", userId);
         return userRepository.findById(userId)
@@ -346,36 +566,24 @@ public class TimeEntryService {
                 });
     }
 
-    private Task getTask(Long taskId) {
-        logger.debug("Getting task with id {}", taskId);
-        return taskRepository.findById(taskId)
-                .orElseThrow(() -> {
-                    logger.error("Task not found with id {}", taskId);
-                    return new ResourceNotFoundException("Task not found");
-                });
+    private static Long quantileSeconds(TDigest digest, double q) {
+        return digest.size() > 0 ? Math.round(digest.quantile(q)) : null;
+    }
+
+    private void publishEvent(TimeEntryEvent.Type type, TimeEntry entry, Long userId) {
+        Long taskId = entry.getTask() != null ? entry.getTask()
+                .getId() : null;
+        eventPublisher.publishEvent(new TimeEntryEvent(type, entry.getId(), userId, taskId, entry.getStartTime(), entry.getEndTime()));
     }
 
     private void addActiveInterval(List<TimeIntervalDTO> result, TimeEntry entry, LocalDateTime start, LocalDateTime end) {
         Duration duration = Duration.between(start, end);
-        result.add(new TimeIntervalDTO(formatDurationUserTimeIntervals(duration), entry.getTask()
+        result.add(new TimeIntervalDTO(DurationFormatter.format(duration), entry.getTask()
                 .getTitle(), true, start, end));
     }
 
     private void addInactiveInterval(List<TimeIntervalDTO> result, LocalDateTime start, LocalDateTime end) {
         Duration duration = Duration.between(start, end);
-        result.add(new TimeIntervalDTO(formatDurationUserTimeIntervals(duration), "Неактивность", false, start, end));
-    }
-
-    private String formatDurationUserTimeIntervals(Duration duration) {
-        long hours = duration.toHours();
-        long minutes = duration.minusHours(hours)
-                .toMinutes();
-        return String.format("%02d:%02d", hours, minutes);
-    }
-
-    private String formatDuration(long totalSeconds) {
-        long hours = totalSeconds / 3600;
-        long minutes = (totalSeconds % 3600) / 60;
-        return String.format("%02d:%02d", hours, minutes);
+        result.add(new TimeIntervalDTO(DurationFormatter.format(duration), "Неактивность", false, start, end));
     }
 }
\ No newline at end of file
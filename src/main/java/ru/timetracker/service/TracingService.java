@@ -0,0 +1,112 @@
+package ru.timetracker.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import ru.timetracker.dto.tracing.SpanDTO;
+import ru.timetracker.dto.tracing.TraceDTO;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.tracing.InMemorySpanExporter;
+import ru.timetracker.tracing.Span;
+import ru.timetracker.tracing.Trace;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервис отладочного просмотра трасс, сохраненных {@link InMemorySpanExporter}.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Самые долгие из последних трасс с собственным временем участков и итогами SQL-запросов</li>
+ *   <li>Очистка сохраненных трасс</li>
+ * </ul>
+ * @see ru.timetracker.tracing.Tracer Трассировщик
+ */
+@Service
+public class TracingService {
+    /**
+     * Максимальное количество трасс в одном запросе
+     */
+    public static final int MAX_LIMIT = 100;
+
+    private static final Logger logger = LogManager.getLogger(TracingService.class);
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final ObjectProvider<InMemorySpanExporter> inMemorySpanExporter;
+
+    /**
+     * Конструктор сервиса трасс.
+     * @param inMemorySpanExporter экспортер трасс в память (отсутствует, если трассировка или экспортер отключены)
+     */
+    public TracingService(ObjectProvider<InMemorySpanExporter> inMemorySpanExporter) {
+        this.inMemorySpanExporter = inMemorySpanExporter;
+    }
+
+    /**
+     * Получает самые долгие из последних трасс
+     * @param limit Количество трасс (от 1 до {@value #MAX_LIMIT})
+     * @return Трассы в порядке убывания длительности
+     * @throws IllegalArgumentException  если количество трасс вне допустимого диапазона
+     * @throws ResourceNotFoundException если экспортер трасс в память отключен
+     */
+    public List<TraceDTO> getSlowestTraces(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<TraceDTO> traces = exporter().slowest(limit)
+                .stream()
+                .map(TracingService::toDTO)
+                .toList();
+        logger.debug("Slowest traces requested with limit {}, returned {} traces", limit, traces.size());
+        return traces;
+    }
+
+    /**
+     * Удаляет сохраненные трассы
+     * @throws ResourceNotFoundException если экспортер трасс в память отключен
+     */
+    public void clear() {
+        exporter().clear();
+        logger.info("In-memory traces cleared");
+    }
+
+    private InMemorySpanExporter exporter() {
+        InMemorySpanExporter exporter = inMemorySpanExporter.getIfAvailable();
+        if (exporter == null) {
+            throw new ResourceNotFoundException("In-memory span exporter is disabled");
+        }
+        return exporter;
+    }
+
+    private static TraceDTO toDTO(Trace trace) {
+        Map<String, Long> childNanos = new HashMap<>();
+        for (Span span : trace.spans()) {
+            if (span.getParentId() != null) {
+                childNanos.merge(span.getParentId(), span.getDurationNanos(), Long::sum);
+            }
+        }
+        long traceStart = trace.spans()
+                .get(0)
+                .getStartNanos();
+        List<SpanDTO> spans = new ArrayList<>(trace.spans()
+                .size());
+        int statements = 0;
+        long sqlMillis = 0;
+        for (Span span : trace.spans()) {
+            Map<String, Object> attributes = span.getAttributes();
+            statements += (Integer) attributes.getOrDefault(Span.DB_STATEMENT_COUNT, 0);
+            sqlMillis += (Long) attributes.getOrDefault(Span.DB_TIME_MS, 0L);
+            long self = span.getDurationNanos() - childNanos.getOrDefault(span.getSpanId(), 0L);
+            spans.add(new SpanDTO(span.getSpanId(), span.getParentId(), span.getName(), span.getKind()
+                    .name(), (span.getStartNanos() - traceStart) / NANOS_PER_MILLI, span.getDurationNanos() / NANOS_PER_MILLI,
+                    Math.max(0, self) / NANOS_PER_MILLI, attributes, span.getError()));
+        }
+        return new TraceDTO(trace.traceId(), trace.name(), LocalDateTime.ofInstant(trace.startTime(), ZoneId.systemDefault()),
+                trace.durationNanos() / NANOS_PER_MILLI, statements, sqlMillis, trace.droppedSpans(), spans);
+    }
+}
@@ -4,18 +4,23 @@ import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.timetracker.dto.mapper.UserMapper;
 import ru.timetracker.dto.user.UserCreateDTO;
 import ru.timetracker.dto.user.UserDTO;
 import ru.timetracker.dto.user.UserUpdateDTO;
+import ru.timetracker.etag.ChangesUserData;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
 import ru.timetracker.exception.EmailAlreadyExistsException;
 import ru.timetracker.exception.ResourceNotFoundException;
 import ru.timetracker.model.User;
 import ru.timetracker.repository.TaskRepository;
 import ru.timetracker.repository.TimeEntryRepository;
 import ru.timetracker.repository.UserRepository;
+import ru.timetracker.tracking.TrackingEventStore;
+import ru.timetracker.writebehind.WriteBehindTracker;
 
 import java.util.List;
 
@@ -40,20 +45,30 @@ public class UserService {
     private final UserMapper userMapper;
     private final TaskRepository taskRepository;
     private final TimeEntryRepository timeEntryRepository;
+    private final TrackingEventStore trackingEventStore;
+    private final WriteBehindTracker writeBehindTracker;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Конструктор сервиса пользователей.
-     * @param userRepository      репозиторий пользователей
-     * @param userMapper          маппер для преобразования DTO
-     * @param taskRepository      репозиторий задач
-     * @param timeEntryRepository репозиторий временных записей
+     * @param userRepository       репозиторий пользователей
+     * @param userMapper           маппер для преобразования DTO
+     * @param taskRepository       репозиторий задач
+     * @param timeEntryRepository  репозиторий временных записей
+     * @param trackingEventStore   журнал трекинга (события пользователя удаляются вместе с ним)
+     * @param writeBehindTracker   отложенная запись трекинга (накопленное записывается в БД перед удалением)
+     * @param eventPublisher       публикатор событий сброса данных трекинга (данные пользователя сбрасываются при удалении)
      */
     public UserService(UserRepository userRepository, UserMapper userMapper, TaskRepository taskRepository,
-            TimeEntryRepository timeEntryRepository) {
+            TimeEntryRepository timeEntryRepository, TrackingEventStore trackingEventStore, WriteBehindTracker writeBehindTracker,
+            ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.taskRepository = taskRepository;
         this.timeEntryRepository = timeEntryRepository;
+        this.trackingEventStore = trackingEventStore;
+        this.writeBehindTracker = writeBehindTracker;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -116,6 +131,7 @@ public class UserService {
      * @throws ResourceNotFoundException   если пользователь не найден
      * @throws EmailAlreadyExistsException если новый email уже занят
      */
+    @ChangesUserData("id")
     @Transactional
     public UserDTO updateUser(Long id, UserUpdateDTO userUpdateDTO) {
         logger.debug("Attempting to update user with ID: {}", id);
@@ -156,9 +172,11 @@ public class UserService {
      * @param userId ID удаляемого пользователя
      * @throws ResourceNotFoundException если пользователь не найден
      */
+    @ChangesUserData
     @Transactional
     public void deleteUserCompletely(Long userId) {
         logger.debug("Attempting complete deletion of user with ID: {}", userId);
+        writeBehindTracker.drain();
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> {
                     String errorMessage = "User with ID " + userId + " not found";
@@ -169,6 +187,9 @@ public class UserService {
         timeEntryRepository.deleteByUser(user);
         taskRepository.deleteByUser(user);
         userRepository.delete(user);
+        trackingEventStore.deleteUser(userId);
+        writeBehindTracker.evictUser(userId);
+        eventPublisher.publishEvent(UserTrackingDataInvalidatedEvent.ofUser(userId));
 
         logger.info("User with ID: {} has been completely deleted", userId);
     }
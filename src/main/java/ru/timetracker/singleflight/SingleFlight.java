@@ -0,0 +1,28 @@
+package ru.timetracker.singleflight;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Объединяет одновременные вызовы метода сервиса с одинаковыми аргументами: пока первый вызов выполняется, остальные ждут его
+ * результат вместо повторного расчета. После завершения первого вызова результат не сохраняется - следующий вызов считается заново.
+ * <p>Подходит для методов чтения без побочных эффектов, результат которых определяется аргументами (аргументы сравниваются через
+ * {@code equals}) и данными пользователя. Ожидающие вызовы получают тот же объект результата или то же исключение, что и первый вызов.
+ * <p>Вызов присоединяется только к вызову, начатому при той же версии данных пользователя в {@link ru.timetracker.etag.UserDataVersions}: запрос после
+ * изменения данных не получает результат, посчитанный до него.
+ * @see SingleFlightInterceptor Объединение вызовов
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+    /**
+     * Имя параметра метода с ID пользователя, версия данных которого входит в ключ вызова; без такого параметра ключ состоит только
+     * из аргументов
+     * @return Имя параметра
+     */
+    String value() default "userId";
+}
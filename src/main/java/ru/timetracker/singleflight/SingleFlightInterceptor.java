@@ -0,0 +1,132 @@
+package ru.timetracker.singleflight;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.timetracker.etag.UserDataVersions;
+import ru.timetracker.metrics.SingleFlightMetrics;
+import ru.timetracker.singleflight.config.SingleFlightProperties;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Объединение одновременных вызовов методов, отмеченных {@link SingleFlight}, с одинаковыми аргументами.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Первый вызов регистрирует общий результат и выполняет расчет; одновременные вызовы с теми же аргументами ждут его не дольше
+ *   {@code wait-timeout}, затем считают сами</li>
+ *   <li>В ключ вызова входит версия данных пользователя, прочитанная до расчета: вызов после изменения данных начинает новый расчет,
+ *   а не ждет результат, посчитанный по старым данным. Если версии данных отключены вместе с ETag, ключ состоит из аргументов</li>
+ *   <li>Общий результат удаляется сразу после завершения расчета: результаты не кэшируются</li>
+ *   <li>Внутри открытой транзакции метод выполняется без объединения: транзакция может видеть свои незафиксированные изменения</li>
+ *   <li>Каждый вызов учитывается в {@link SingleFlightMetrics}</li>
+ * </ul>
+ * @see SingleFlightProperties Настройки объединения
+ */
+public class SingleFlightInterceptor implements MethodInterceptor {
+    private static final Logger logger = LogManager.getLogger(SingleFlightInterceptor.class);
+    private static final int NO_USER = -1;
+
+    private final ObjectProvider<SingleFlightProperties> properties;
+    private final ObjectProvider<SingleFlightMetrics> metrics;
+    private final ObjectProvider<UserDataVersions> versions;
+    private final ConcurrentMap<Call, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, Integer> userIdParameters = new ConcurrentHashMap<>();
+
+    /**
+     * Создает перехватчик объединения вызовов.
+     * @param properties настройки объединения (разрешаются при вызове: советник создается раньше бинов {@code @ConfigurationProperties})
+     * @param metrics    метрики объединения (разрешаются при первом вызове, чтобы не создавать реестр метрик при сборке прокси)
+     * @param versions   версии данных пользователей (отсутствуют, если ETag отключены)
+     */
+    public SingleFlightInterceptor(ObjectProvider<SingleFlightProperties> properties, ObjectProvider<SingleFlightMetrics> metrics,
+            ObjectProvider<UserDataVersions> versions) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.versions = versions;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        Method method = invocation.getMethod();
+        String operation = method.getDeclaringClass()
+                .getSimpleName() + "." + method.getName();
+        Call call = new Call(method, Arrays.asList(invocation.getArguments()), version(method, invocation.getArguments()));
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(call, flight);
+        if (leader != null) {
+            return await(leader, invocation, operation);
+        }
+        metrics.getObject()
+                .recordCall(operation, SingleFlightMetrics.LEADER);
+        try {
+            Object result = invocation.proceed();
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(call, flight);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> leader, MethodInvocation invocation, String operation) throws Throwable {
+        metrics.getObject()
+                .recordCall(operation, SingleFlightMetrics.COALESCED);
+        Duration waitTimeout = properties.getObject()
+                .getWaitTimeout();
+        try {
+            return leader.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            metrics.getObject()
+                    .recordCall(operation, SingleFlightMetrics.TIMED_OUT);
+            logger.warn("{} did not complete within {}, computing without coalescing", operation, waitTimeout);
+            return invocation.proceed();
+        }
+    }
+
+    private String version(Method method, Object[] arguments) {
+        int index = userIdParameters.computeIfAbsent(method, SingleFlightInterceptor::userIdParameter);
+        UserDataVersions userDataVersions = versions.getIfAvailable();
+        if (index == NO_USER || userDataVersions == null || !(arguments[index] instanceof Long userId)) {
+            return null;
+        }
+        return userDataVersions.current(userId);
+    }
+
+    private static int userIdParameter(Method method) {
+        String name = method.getAnnotation(SingleFlight.class)
+                .value();
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].getName()
+                    .equals(name)) {
+                return i;
+            }
+        }
+        return NO_USER;
+    }
+
+    // Ключ вызова: метод, аргументы и версия данных пользователя (аргументы и версия могут быть null)
+    private record Call(Method method, List<Object> arguments, String version) {
+    }
+}
@@ -0,0 +1,54 @@
+package ru.timetracker.singleflight.config;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import ru.timetracker.etag.UserDataVersions;
+import ru.timetracker.metrics.SingleFlightMetrics;
+import ru.timetracker.singleflight.SingleFlight;
+import ru.timetracker.singleflight.SingleFlightInterceptor;
+
+/**
+ * Конфигурация объединения одновременных одинаковых вызовов.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Подключает настройки {@link SingleFlightProperties}</li>
+ *   <li>Регистрирует советник для методов с {@link SingleFlight}. Советник выполняется после трассировки, но до событий JFR,
+ *   повторов и транзакции: объединенный вызов не открывает транзакцию и не обращается к БД</li>
+ * </ul>
+ */
+@Configuration
+@EnableConfigurationProperties(SingleFlightProperties.class)
+@ConditionalOnProperty(prefix = "timetracker.single-flight", name = "enabled", matchIfMissing = true)
+public class SingleFlightConfig {
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public SingleFlightConfig() {
+    }
+
+    /**
+     * Создает советник объединения вызовов для методов с {@link SingleFlight}
+     * @param properties настройки объединения
+     * @param metrics    метрики объединения
+     * @param versions   версии данных пользователей
+     * @return советник объединения вызовов
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor singleFlightAdvisor(ObjectProvider<SingleFlightProperties> properties, ObjectProvider<SingleFlightMetrics> metrics,
+            ObjectProvider<UserDataVersions> versions) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(SingleFlight.class),
+                new SingleFlightInterceptor(properties, metrics, versions));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return advisor;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.timetracker.singleflight.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки объединения одновременных одинаковых вызовов. Задаются в {@code application.properties} с префиксом
+ * {@code timetracker.single-flight}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Включение объединения</li>
+ *   <li>Максимальное ожидание результата одновременного вызова</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.single-flight")
+public class SingleFlightProperties {
+    /**
+     * Включено ли объединение вызовов методов с {@link ru.timetracker.singleflight.SingleFlight}
+     * @return true если объединение включено
+     */
+    private boolean enabled = true;
+
+    /**
+     * Максимальное ожидание результата одновременного вызова; по его истечении вызов выполняет расчет сам
+     * @return Время ожидания
+     */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public SingleFlightProperties() {
+    }
+}
@@ -0,0 +1,204 @@
+package ru.timetracker.sketch;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.metrics.SchedulerMetrics;
+import ru.timetracker.model.ActiveUserSketch;
+import ru.timetracker.repository.ActiveUserSketchRepository;
+import ru.timetracker.sketch.config.ActiveUserSketchProperties;
+import ru.timetracker.writebehind.WriteBehindTracker;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Скетчи {@link HyperLogLog} пользователей, начинавших трекинг, по дням. Количество различных активных пользователей за любой период
+ * оценивается объединением скетчей его дней без {@code COUNT(DISTINCT)} по записям времени.
+ * <p>Особенности:
+ * <ul>
+ *   <li>Пользователь добавляется в скетч дня по событию старта {@link TimeEntryEvent}</li>
+ *   <li>Измененные скетчи сохраняются в таблицу {@code active_user_sketches} раз в {@code flush-interval} и при остановке
+ *   приложения; перед сохранением скетч объединяется с сохраненным, поэтому экземпляры приложения не затирают старты друг друга</li>
+ *   <li>При запуске скетчи загружаются из БД и дополняются по записям, начатым за {@code recovery-window} до последнего
+ *   сохранения (повторное добавление пользователя скетч не меняет); если сохраненных скетчей нет, они строятся по всем записям</li>
+ *   <li>Скетчи не уменьшаются при удалении записей и хранятся дольше записей: история активности переживает очистку по сроку
+ *   хранения</li>
+ *   <li>Все скетчи хранятся в памяти: {@value HyperLogLog#REGISTERS} байт на день с трекингом</li>
+ * </ul>
+ * @see ActiveUserSketchProperties Настройки скетчей
+ */
+@Component
+public class ActiveUserSketches {
+    private static final Logger logger = LogManager.getLogger(ActiveUserSketches.class);
+    private static final String JOB_NAME = "active-user-sketches";
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String BACKFILL_SQL = "SELECT user_id, start_time FROM time_entries WHERE start_time >= ?";
+
+    private final ActiveUserSketchRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final WriteBehindTracker writeBehindTracker;
+    private final SchedulerMetrics schedulerMetrics;
+    private final ActiveUserSketchProperties properties;
+    private final ConcurrentMap<LocalDate, HyperLogLog> sketches = new ConcurrentHashMap<>();
+    private final Set<LocalDate> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Создает скетчи активных пользователей.
+     * @param repository         репозиторий сохраненных скетчей
+     * @param jdbcTemplate       JDBC-шаблон для дополнения скетчей по записям времени
+     * @param writeBehindTracker отложенная запись трекинга (накопленное записывается в БД перед загрузкой)
+     * @param schedulerMetrics   метрики задач по расписанию
+     * @param properties         настройки скетчей
+     */
+    public ActiveUserSketches(ActiveUserSketchRepository repository, JdbcTemplate jdbcTemplate, WriteBehindTracker writeBehindTracker,
+            SchedulerMetrics schedulerMetrics, ActiveUserSketchProperties properties) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeBehindTracker = writeBehindTracker;
+        this.schedulerMetrics = schedulerMetrics;
+        this.properties = properties;
+    }
+
+    /**
+     * Объединяет скетчи дней периода
+     * @param from первый день периода
+     * @param to   последний день периода
+     * @return Новый скетч пользователей, начинавших трекинг в периоде
+     */
+    public HyperLogLog union(LocalDate from, LocalDate to) {
+        HyperLogLog union = new HyperLogLog();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            HyperLogLog sketch = sketches.get(day);
+            if (sketch != null) {
+                union.merge(sketch);
+            }
+        }
+        return union;
+    }
+
+    /**
+     * Загружает скетчи после запуска приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        writeBehindTracker.drain();
+        List<ActiveUserSketch> saved = repository.findAll();
+        for (ActiveUserSketch sketch : saved) {
+            // Старты, пришедшие до загрузки, уже в памяти - сохраненный скетч объединяется с ними
+            HyperLogLog loaded = HyperLogLog.fromBytes(sketch.getRegisters());
+            sketches.merge(sketch.getDay(), loaded, (current, stored) -> {
+                current.merge(stored);
+                return current;
+            });
+        }
+        LocalDateTime lastUpdatedAt = repository.findLastUpdatedAt();
+        LocalDateTime recoverFrom = lastUpdatedAt != null ? lastUpdatedAt.minus(properties.getRecoveryWindow()) : EPOCH;
+        int[] entries = {0};
+        jdbcTemplate.query(BACKFILL_SQL, resultSet -> {
+            add(resultSet.getLong(1), resultSet.getObject(2, LocalDateTime.class)
+                    .toLocalDate());
+            entries[0]++;
+        }, recoverFrom);
+        logger.info("Loaded {} active user sketches, replayed {} time entries started since {}", saved.size(), entries[0], recoverFrom);
+        try {
+            save();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to save recovered active user sketches, will retry on the next flush: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Добавляет пользователя в скетч дня старта записи
+     * @param event Событие записи времени
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeEntryEvent(TimeEntryEvent event) {
+        if (event.getType() == TimeEntryEvent.Type.STARTED) {
+            add(event.getUserId(), event.getStartTime()
+                    .toLocalDate());
+        }
+    }
+
+    /**
+     * Сохраняет измененные скетчи с интервалом {@code timetracker.active-users.flush-interval}
+     */
+    @Scheduled(fixedDelayString = "${timetracker.active-users.flush-interval:PT1M}",
+            initialDelayString = "${timetracker.active-users.flush-interval:PT1M}")
+    public void flush() {
+        schedulerMetrics.recordRun(JOB_NAME, () -> schedulerMetrics.recordRows(JOB_NAME, "saved-sketches", save()));
+    }
+
+    /**
+     * Сохраняет измененные скетчи при остановке приложения
+     */
+    @PreDestroy
+    public void close() {
+        try {
+            save();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to save {} active user sketches on shutdown: {}", dirty.size(), e.getMessage());
+        }
+    }
+
+    private void add(long userId, LocalDate day) {
+        if (sketches.computeIfAbsent(day, key -> new HyperLogLog())
+                .add(userId)) {
+            dirty.add(day);
+        }
+    }
+
+    // Синхронизирован, чтобы один день не сохранялся параллельно двумя потоками экземпляра
+    private synchronized int save() {
+        List<LocalDate> days = new ArrayList<>(dirty);
+        if (days.isEmpty()) {
+            return 0;
+        }
+        // Дни снимаются с отметки до копирования регистров: старт, добавленный после копии, отметит день снова
+        dirty.removeAll(days);
+        try {
+            Map<LocalDate, ActiveUserSketch> stored = repository.findAllById(days)
+                    .stream()
+                    .collect(Collectors.toMap(ActiveUserSketch::getDay, Function.identity()));
+            LocalDateTime now = LocalDateTime.now();
+            List<ActiveUserSketch> batch = new ArrayList<>(days.size());
+            for (LocalDate day : days) {
+                HyperLogLog sketch = sketches.get(day);
+                ActiveUserSketch entity = stored.get(day);
+                if (entity == null) {
+                    entity = ActiveUserSketch.builder()
+                            .day(day)
+                            .build();
+                } else {
+                    // Сохраненный скетч может содержать старты других экземпляров приложения
+                    sketch.merge(HyperLogLog.fromBytes(entity.getRegisters()));
+                }
+                entity.setRegisters(sketch.toBytes());
+                entity.setUpdatedAt(now);
+                batch.add(entity);
+            }
+            repository.saveAll(batch);
+            logger.debug("Saved {} active user sketches", batch.size());
+            return batch.size();
+        } catch (RuntimeException e) {
+            // Конфликт версий с другим экземпляром или ошибка БД: дни будут объединены и сохранены заново при следующем сохранении
+            dirty.addAll(days);
+            throw e;
+        }
+    }
+}
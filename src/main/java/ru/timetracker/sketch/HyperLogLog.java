@@ -0,0 +1,131 @@
+package ru.timetracker.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Скетч HyperLogLog для приблизительного подсчета различных пользователей. Занимает {@value #REGISTERS} байт независимо от количества
+ * пользователей; относительная стандартная ошибка оценки - {@link #RELATIVE_STANDARD_ERROR}.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Добавление пользователя (повторное добавление не меняет скетч)</li>
+ *   <li>Объединение скетчей: оценка объединения равна оценке различных пользователей всех объединенных дней</li>
+ *   <li>Оценка количества различных пользователей с поправкой линейного подсчета для малых значений</li>
+ *   <li>Сохранение регистров в массив байт и восстановление из него</li>
+ * </ul>
+ * <p>Потокобезопасен: все операции синхронизированы на экземпляре.
+ */
+public final class HyperLogLog {
+    /**
+     * Количество бит хеша, выбирающих регистр
+     */
+    public static final int PRECISION = 14;
+
+    /**
+     * Количество регистров (и размер скетча в байтах)
+     */
+    public static final int REGISTERS = 1 << PRECISION;
+
+    /**
+     * Относительная стандартная ошибка оценки: 1.04 / sqrt({@value #REGISTERS})
+     */
+    public static final double RELATIVE_STANDARD_ERROR = 1.04 / Math.sqrt(REGISTERS);
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    /**
+     * Создает пустой скетч.
+     */
+    public HyperLogLog() {
+        this(new byte[REGISTERS]);
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * Восстанавливает скетч из регистров, сохраненных {@link #toBytes()}
+     * @param registers Регистры скетча
+     * @return Скетч
+     * @throws IllegalArgumentException если размер массива не равен {@value #REGISTERS}
+     */
+    public static HyperLogLog fromBytes(byte[] registers) {
+        if (registers == null || registers.length != REGISTERS) {
+            throw new IllegalArgumentException("HyperLogLog sketch must have " + REGISTERS + " registers");
+        }
+        return new HyperLogLog(registers.clone());
+    }
+
+    /**
+     * Добавляет пользователя
+     * @param userId ID пользователя
+     * @return true, если скетч изменился
+     */
+    public synchronized boolean add(long userId) {
+        long hash = mix(userId);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        // Ранг - позиция первой единицы в оставшихся битах; метка в младшем бите ограничивает ранг, если все они нулевые
+        byte rank = (byte) (Long.numberOfLeadingZeros(hash << PRECISION | 1L << (PRECISION - 1)) + 1);
+        if (registers[index] >= rank) {
+            return false;
+        }
+        registers[index] = rank;
+        return true;
+    }
+
+    /**
+     * Объединяет с другим скетчем: каждый регистр принимает максимум из двух значений
+     * @param other Скетч, добавляемый к этому
+     */
+    public void merge(HyperLogLog other) {
+        byte[] source = other.toBytes();
+        synchronized (this) {
+            for (int i = 0; i < REGISTERS; i++) {
+                if (source[i] > registers[i]) {
+                    registers[i] = source[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Оценивает количество различных пользователей
+     * @return Оценка количества
+     */
+    public synchronized long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Копирует регистры скетча
+     * @return Массив из {@value #REGISTERS} байт
+     */
+    public synchronized byte[] toBytes() {
+        return Arrays.copyOf(registers, REGISTERS);
+    }
+
+    // Финализатор MurmurHash3: последовательные ID пользователей равномерно распределяются по всем 64 битам
+    private static long mix(long value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,135 @@
+package ru.timetracker.sketch;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory скетчи {@link TDigest} длительности сессий (завершенных записей времени) по пользователям, задачам и дням. Квантили за
+ * любой период считаются объединением скетчей его дней без чтения и сортировки записей.
+ * <p>Особенности:
+ * <ul>
+ *   <li>Скетчи пользователя строятся одним запросом по его завершенным записям при первом обращении</li>
+ *   <li>Длительность добавляется в скетч задачи и дня начала записи по событиям остановки и автозавершения {@link TimeEntryEvent}</li>
+ *   <li>Скетч пользователя за период - объединение скетчей всех его задач, скетч команды - объединение скетчей участников</li>
+ *   <li>Сбрасываются после удаления записей (удаление задач и пользователей, очистка, пересборка журнала)</li>
+ * </ul>
+ */
+@Component
+public class SessionLengthDigests {
+    private static final Logger logger = LogManager.getLogger(SessionLengthDigests.class);
+    private static final String LOAD_SQL = "SELECT task_id, start_time, end_time FROM time_entries WHERE user_id = ? AND end_time IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentMap<Long, UserDigests> digests = new ConcurrentHashMap<>();
+
+    /**
+     * Создает скетчи длительности сессий.
+     * @param jdbcTemplate JDBC-шаблон для построения скетчей пользователя
+     */
+    public SessionLengthDigests(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Объединяет скетчи пользователя за период
+     * @param userId ID пользователя
+     * @param taskId ID задачи (null - все задачи пользователя)
+     * @param from   первый день периода
+     * @param to     последний день периода
+     * @return Новый скетч длительностей сессий в секундах, начатых в периоде
+     */
+    public TDigest union(Long userId, Long taskId, LocalDate from, LocalDate to) {
+        TDigest union = new TDigest();
+        userDigests(userId).mergeInto(union, taskId, from, to);
+        return union;
+    }
+
+    /**
+     * Сбрасывает скетчи пользователя или всех пользователей после фиксации изменения данных трекинга. Скетчи будут построены заново
+     * при следующем обращении.
+     * @param event событие сброса данных трекинга
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserTrackingDataInvalidated(UserTrackingDataInvalidatedEvent event) {
+        if (event.isAllUsers()) {
+            digests.clear();
+        } else {
+            digests.remove(event.getUserId());
+        }
+    }
+
+    /**
+     * Добавляет длительность завершенной записи времени
+     * @param event Событие записи времени
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeEntryEvent(TimeEntryEvent event) {
+        if (event.getType() == TimeEntryEvent.Type.STARTED || event.getEndTime() == null) {
+            return;
+        }
+        // computeIfPresent ждет построения скетчей, начатого до фиксации записи, поэтому длительность не теряется
+        digests.computeIfPresent(event.getUserId(), (userId, userDigests) -> {
+            userDigests.add(event.getTaskId(), event.getStartTime(), event.getEndTime());
+            return userDigests;
+        });
+    }
+
+    private UserDigests userDigests(Long userId) {
+        UserDigests userDigests = digests.get(userId);
+        return userDigests != null ? userDigests : digests.computeIfAbsent(userId, this::load);
+    }
+
+    private UserDigests load(Long userId) {
+        UserDigests userDigests = new UserDigests();
+        int[] rows = {0};
+        jdbcTemplate.query(LOAD_SQL, resultSet -> {
+            userDigests.add(resultSet.getLong(1), resultSet.getObject(2, LocalDateTime.class),
+                    resultSet.getObject(3, LocalDateTime.class));
+            rows[0]++;
+        }, userId);
+        logger.debug("Loaded session length digests of user {} from {} entries", userId, rows[0]);
+        return userDigests;
+    }
+
+    // Скетчи одного пользователя: день начала записи -> задача -> скетч. Синхронизированы на экземпляре
+    private static final class UserDigests {
+        private final NavigableMap<LocalDate, Map<Long, TDigest>> days = new TreeMap<>();
+
+        private synchronized void add(Long taskId, LocalDateTime startTime, LocalDateTime endTime) {
+            days.computeIfAbsent(startTime.toLocalDate(), day -> new HashMap<>())
+                    .computeIfAbsent(taskId, id -> new TDigest())
+                    .add(Math.max(0, Duration.between(startTime, endTime)
+                            .getSeconds()));
+        }
+
+        private synchronized void mergeInto(TDigest target, Long taskId, LocalDate from, LocalDate to) {
+            for (Map<Long, TDigest> tasks : days.subMap(from, true, to, true)
+                    .values()) {
+                if (taskId == null) {
+                    tasks.values()
+                            .forEach(target::merge);
+                } else {
+                    TDigest digest = tasks.get(taskId);
+                    if (digest != null) {
+                        target.merge(digest);
+                    }
+                }
+            }
+        }
+    }
+}
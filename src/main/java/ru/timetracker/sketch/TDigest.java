@@ -0,0 +1,205 @@
+package ru.timetracker.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Скетч t-digest для оценки квантилей распределения (медианы, p90, p99) без хранения и сортировки всех значений. Значения сжимаются в
+ * центроиды (среднее и вес); размер центроида ограничен масштабной функцией {@code k(q) = δ/(2π)·asin(2q-1)}, поэтому у краев
+ * распределения центроиды остаются мелкими и крайние квантили оцениваются точнее медианы.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Добавление значения; значения копятся в буфере и сжимаются пакетами</li>
+ *   <li>Объединение скетчей: результат не зависит от того, как значения были распределены между скетчами</li>
+ *   <li>Оценка квантиля линейной интерполяцией между центрами соседних центроидов</li>
+ * </ul>
+ * <p>Пока значений меньше примерно {@value #COMPRESSION}, центроиды не объединяются и квантили совпадают с интерполяцией по
+ * отсортированным значениям. Потокобезопасен: все операции синхронизированы на экземпляре.
+ */
+public final class TDigest {
+    /**
+     * Параметр сжатия δ: количество центроидов не превышает примерно δ
+     */
+    public static final int COMPRESSION = 100;
+
+    private static final int BUFFER_SIZE = 5 * COMPRESSION;
+    private static final double[] EMPTY = new double[0];
+
+    private double[] means = EMPTY;
+    private double[] weights = EMPTY;
+    private int centroids;
+    // Буфер растет по мере добавления и освобождается при сжатии: скетчи дней с парой записей занимают десятки байт
+    private double[] buffer = EMPTY;
+    private int buffered;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public TDigest() {
+    }
+
+    /**
+     * Добавляет значение
+     * @param value Значение
+     */
+    public synchronized void add(double value) {
+        if (buffered == BUFFER_SIZE) {
+            compress(null, null, 0);
+        }
+        if (buffered == buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.min(BUFFER_SIZE, Math.max(4, buffer.length * 2)));
+        }
+        buffer[buffered++] = value;
+        count++;
+        min = count == 1 ? value : Math.min(min, value);
+        max = count == 1 ? value : Math.max(max, value);
+    }
+
+    /**
+     * Объединяет с другим скетчем
+     * @param other Скетч, добавляемый к этому
+     */
+    public void merge(TDigest other) {
+        double[] otherMeans;
+        double[] otherWeights;
+        long otherCount;
+        double otherMin;
+        double otherMax;
+        synchronized (other) {
+            other.compress(null, null, 0);
+            otherMeans = Arrays.copyOf(other.means, other.centroids);
+            otherWeights = Arrays.copyOf(other.weights, other.centroids);
+            otherCount = other.count;
+            otherMin = other.min;
+            otherMax = other.max;
+        }
+        if (otherCount == 0) {
+            return;
+        }
+        synchronized (this) {
+            min = count == 0 ? otherMin : Math.min(min, otherMin);
+            max = count == 0 ? otherMax : Math.max(max, otherMax);
+            count += otherCount;
+            compress(otherMeans, otherWeights, otherMeans.length);
+        }
+    }
+
+    /**
+     * Оценивает квантиль
+     * @param q Уровень квантиля от 0 до 1
+     * @return Оценка квантиля или {@link Double#NaN}, если значений нет
+     * @throws IllegalArgumentException если уровень вне диапазона от 0 до 1
+     */
+    public synchronized double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        compress(null, null, 0);
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (centroids == 1) {
+            return means[0];
+        }
+        double index = q * count;
+        // Центр центроида i - середина его веса на накопленной оси; до первого и после последнего центра интерполируется к min и max
+        if (index <= weights[0] / 2) {
+            return min + (means[0] - min) * index / (weights[0] / 2);
+        }
+        double left = weights[0] / 2;
+        for (int i = 0; i < centroids - 1; i++) {
+            double right = left + (weights[i] + weights[i + 1]) / 2;
+            if (index <= right) {
+                return means[i] + (means[i + 1] - means[i]) * (index - left) / (right - left);
+            }
+            left = right;
+        }
+        double lastHalf = weights[centroids - 1] / 2;
+        return means[centroids - 1] + (max - means[centroids - 1]) * Math.min(1, (index - left) / lastHalf);
+    }
+
+    /**
+     * Количество добавленных значений
+     * @return Количество значений
+     */
+    public synchronized long size() {
+        return count;
+    }
+
+    /**
+     * Наибольшее добавленное значение
+     * @return Максимум или {@link Double#NaN}, если значений нет
+     */
+    public synchronized double max() {
+        return max;
+    }
+
+    // Сливает центроиды, буфер и дополнительные центроиды в отсортированный список и объединяет соседей в пределах масштабной функции
+    private void compress(double[] extraMeans, double[] extraWeights, int extra) {
+        if (buffered == 0 && extra == 0) {
+            return;
+        }
+        int total = centroids + buffered + extra;
+        double[][] points = new double[total][];
+        int n = 0;
+        for (int i = 0; i < centroids; i++) {
+            points[n++] = new double[]{means[i], weights[i]};
+        }
+        for (int i = 0; i < buffered; i++) {
+            points[n++] = new double[]{buffer[i], 1};
+        }
+        for (int i = 0; i < extra; i++) {
+            points[n++] = new double[]{extraMeans[i], extraWeights[i]};
+        }
+        Arrays.sort(points, (a, b) -> Double.compare(a[0], b[0]));
+
+        double totalWeight = 0;
+        for (double[] point : points) {
+            totalWeight += point[1];
+        }
+        double[] newMeans = new double[total];
+        double[] newWeights = new double[total];
+        int size = 0;
+        double mean = points[0][0];
+        double weight = points[0][1];
+        double weightSoFar = 0;
+        double limit = totalWeight * qOfK(kOfQ(0) + 1);
+        for (int i = 1; i < total; i++) {
+            double[] point = points[i];
+            if (weightSoFar + weight + point[1] <= limit) {
+                weight += point[1];
+                mean += (point[0] - mean) * point[1] / weight;
+            } else {
+                newMeans[size] = mean;
+                newWeights[size] = weight;
+                size++;
+                weightSoFar += weight;
+                limit = totalWeight * qOfK(kOfQ(weightSoFar / totalWeight) + 1);
+                mean = point[0];
+                weight = point[1];
+            }
+        }
+        newMeans[size] = mean;
+        newWeights[size] = weight;
+        size++;
+
+        means = Arrays.copyOf(newMeans, size);
+        weights = Arrays.copyOf(newWeights, size);
+        centroids = size;
+        buffer = EMPTY;
+        buffered = 0;
+    }
+
+    private static double kOfQ(double q) {
+        return COMPRESSION / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+
+    private static double qOfK(double k) {
+        if (k >= COMPRESSION / 4.0) {
+            return 1;
+        }
+        return (Math.sin(k * 2 * Math.PI / COMPRESSION) + 1) / 2;
+    }
+}
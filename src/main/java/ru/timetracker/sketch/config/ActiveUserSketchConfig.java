@@ -0,0 +1,18 @@
+package ru.timetracker.sketch.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация скетчей активных пользователей. Подключает настройки {@link ActiveUserSketchProperties}.
+ * @see ru.timetracker.sketch.ActiveUserSketches Скетчи активных пользователей
+ */
+@Configuration
+@EnableConfigurationProperties(ActiveUserSketchProperties.class)
+public class ActiveUserSketchConfig {
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public ActiveUserSketchConfig() {
+    }
+}
@@ -0,0 +1,37 @@
+package ru.timetracker.sketch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки скетчей активных пользователей. Задаются в {@code application.properties} с префиксом {@code timetracker.active-users}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Интервал сохранения измененных скетчей в БД</li>
+ *   <li>Период, за который скетчи дополняются по записям времени при запуске</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.active-users")
+public class ActiveUserSketchProperties {
+    /**
+     * Интервал сохранения измененных скетчей
+     * @return Интервал
+     */
+    private Duration flushInterval = Duration.ofMinutes(1);
+
+    /**
+     * Период до последнего сохранения, за который скетчи дополняются по записям времени при запуске (старты, не сохраненные до
+     * остановки приложения)
+     * @return Период
+     */
+    private Duration recoveryWindow = Duration.ofDays(1);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public ActiveUserSketchProperties() {
+    }
+}
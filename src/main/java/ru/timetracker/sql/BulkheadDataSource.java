@@ -0,0 +1,152 @@
+package ru.timetracker.sql;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограничитель одновременного доступа к пулу соединений (bulkhead). Соединение выдается только после получения разрешения семафора,
+ * разрешение возвращается при закрытии соединения. При виртуальных потоках количество одновременных запросов не ограничено пулом
+ * потоков Tomcat, поэтому без ограничителя все запросы одновременно ожидали бы соединение внутри пула Hikari и завершались бы по
+ * его таймауту.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Справедливая очередь ожидания соединения (семафор с fair-политикой, ожидание не блокирует поток-носитель)</li>
+ *   <li>Отказ с {@link SQLTransientConnectionException}, если разрешение не получено за отведенное время</li>
+ *   <li>Счетчики доступных разрешений, ожидающих потоков и отказов для метрик</li>
+ * </ul>
+ */
+public class BulkheadDataSource extends DelegatingDataSource implements Closeable {
+    private static final Logger logger = LogManager.getLogger(BulkheadDataSource.class);
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Создает ограничитель перед источником данных.
+     * @param targetDataSource источник данных (пул соединений)
+     * @param maxConcurrent    максимальное количество одновременно выданных соединений
+     * @param acquireTimeout   максимальное время ожидания разрешения
+     */
+    public BulkheadDataSource(DataSource targetDataSource, int maxConcurrent, Duration acquireTimeout) {
+        super(targetDataSource);
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Bulkhead maxConcurrent must be positive: " + maxConcurrent);
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquirePermit();
+        try {
+            return guard(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquirePermit();
+        try {
+            return guard(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Закрывает пул соединений при остановке контекста
+     * @throws IOException при ошибке закрытия пула
+     */
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Возвращает максимальное количество одновременно выданных соединений
+     * @return Количество разрешений
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Возвращает количество свободных разрешений
+     * @return Количество разрешений
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Возвращает примерное количество потоков, ожидающих соединение
+     * @return Количество ожидающих потоков
+     */
+    public int getWaitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Возвращает количество отказов по таймауту ожидания
+     * @return Количество отказов
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private void acquirePermit() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                logger.warn("No database bulkhead permit within {} ({} threads waiting)", acquireTimeout, permits.getQueueLength());
+                throw new SQLTransientConnectionException("Database bulkhead: no connection permit within " + acquireTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for database bulkhead permit", e);
+        }
+    }
+
+    private Connection guard(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        // Повторное закрытие соединения не должно возвращать разрешение второй раз
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                });
+    }
+}
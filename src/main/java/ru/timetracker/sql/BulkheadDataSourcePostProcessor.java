@@ -0,0 +1,68 @@
+package ru.timetracker.sql;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import ru.timetracker.sql.config.DataSourceBulkheadProperties;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Оборачивает бины {@link DataSource} ограничителем {@link BulkheadDataSource}. Выполняется раньше
+ * {@link SqlCountingDataSourcePostProcessor}, чтобы ограничитель находился непосредственно перед пулом соединений.
+ * <p>Если количество разрешений не задано, используется максимальный размер пула Hikari.
+ */
+public class BulkheadDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+    private static final Logger logger = LogManager.getLogger(BulkheadDataSourcePostProcessor.class);
+
+    private final DataSourceBulkheadProperties properties;
+
+    /**
+     * Создает пост-процессор ограничителя.
+     * @param properties настройки ограничителя
+     */
+    public BulkheadDataSourcePostProcessor(DataSourceBulkheadProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Оборачивает источник данных ограничителем
+     * @param bean     Бин после инициализации
+     * @param beanName Имя бина
+     * @return Ограничитель для {@link DataSource}, иначе исходный бин
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+            int maxConcurrent = properties.getMaxConcurrent() != null ? properties.getMaxConcurrent() : poolSize(dataSource);
+            logger.info("Wrapping data source '{}' with bulkhead of {} permits (acquire timeout {})", beanName, maxConcurrent,
+                    properties.getAcquireTimeout());
+            return new BulkheadDataSource(dataSource, maxConcurrent, properties.getAcquireTimeout());
+        }
+        return bean;
+    }
+
+    /**
+     * Возвращает порядок выполнения: раньше пост-процессоров без явного порядка
+     * @return Порядок пост-процессора
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariConfigMXBean.class)) {
+                return dataSource.unwrap(HikariConfigMXBean.class)
+                        .getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            logger.debug("Cannot read connection pool size: {}", e.getMessage());
+        }
+        return DataSourceBulkheadProperties.DEFAULT_MAX_CONCURRENT;
+    }
+}
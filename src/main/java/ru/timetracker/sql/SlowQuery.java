@@ -0,0 +1,108 @@
+package ru.timetracker.sql;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Запись журнала медленных SQL-запросов.
+ * <p>Количество строк результата читается при каждом обращении: строки, прочитанные вызывающим кодом после записи запроса в журнал,
+ * тоже учитываются.
+ * @see SlowQueryRecorder Журнал медленных запросов
+ */
+public final class SlowQuery {
+    private final LocalDateTime recordedAt;
+    private final String sql;
+    private final List<String> parameters;
+    private final long durationMillis;
+    private final int batchSize;
+    private final LongSupplier rows;
+    private final String caller;
+    private final String plan;
+    private final String error;
+
+    SlowQuery(LocalDateTime recordedAt, String sql, List<String> parameters, long durationMillis, int batchSize, LongSupplier rows,
+            String caller, String plan, String error) {
+        this.recordedAt = recordedAt;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.durationMillis = durationMillis;
+        this.batchSize = batchSize;
+        this.rows = rows;
+        this.caller = caller;
+        this.plan = plan;
+        this.error = error;
+    }
+
+    /**
+     * Возвращает время выполнения запроса
+     * @return Время записи в журнал
+     */
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    /**
+     * Возвращает текст запроса
+     * @return Текст запроса (для пакета из разных запросов - через точку с запятой)
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Возвращает параметры запроса в порядке позиций
+     * @return Параметры (для пакета - первого набора) с учетом режима сохранения
+     */
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Возвращает длительность выполнения
+     * @return Длительность в миллисекундах
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Возвращает размер пакета
+     * @return Количество наборов параметров пакета или 0, если запрос выполнен не пакетом
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Возвращает количество строк: прочитанных из результата для выборки или измененных для изменения
+     * @return Количество строк или -1, если оно неизвестно
+     */
+    public long getRows() {
+        return rows.getAsLong();
+    }
+
+    /**
+     * Возвращает метод приложения, выполнивший запрос
+     * @return Класс, метод и строка (например, {@code TimeEntryService.getUserTaskDurations:290}) или null
+     */
+    public String getCaller() {
+        return caller;
+    }
+
+    /**
+     * Возвращает снимок плана выполнения
+     * @return Результат {@code EXPLAIN} или null, если план не снимался
+     */
+    public String getPlan() {
+        return plan;
+    }
+
+    /**
+     * Возвращает ошибку выполнения запроса
+     * @return Класс и сообщение исключения или null при успехе
+     */
+    public String getError() {
+        return error;
+    }
+}
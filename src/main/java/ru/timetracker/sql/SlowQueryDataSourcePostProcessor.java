@@ -0,0 +1,68 @@
+package ru.timetracker.sql;
+
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * Подключает журнал медленных запросов {@link SlowQueryRecorder} к источнику данных. Если источник уже обернут JDBC-прокси
+ * (datasource-proxy), настройки прокси дополняются слушателем журнала, иначе источник оборачивается новым прокси. При подсчете строк
+ * прокси также оборачивает каждый {@link java.sql.ResultSet}.
+ */
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+    private static final Logger logger = LogManager.getLogger(SlowQueryDataSourcePostProcessor.class);
+
+    private final SlowQueryRecorder recorder;
+    private final boolean countRows;
+
+    /**
+     * Создает пост-процессор журнала медленных запросов.
+     * @param recorder  журнал медленных запросов
+     * @param countRows оборачивать ли результаты запросов для подсчета прочитанных строк
+     */
+    public SlowQueryDataSourcePostProcessor(SlowQueryRecorder recorder, boolean countRows) {
+        this.recorder = recorder;
+        this.countRows = countRows;
+    }
+
+    /**
+     * Подключает журнал медленных запросов к источнику данных
+     * @param bean     Бин после инициализации
+     * @param beanName Имя бина
+     * @return Прокси для {@link DataSource}, иначе исходный бин
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ProxyDataSource proxy) {
+            logger.info("Adding slow query recorder to data source proxy '{}'", beanName);
+            if (countRows) {
+                // Фабрика прокси результатов задается только при создании настроек - они пересоздаются с сохранением цепочки слушателей
+                proxy.setProxyConfig(ProxyConfig.Builder.from(proxy.getProxyConfig())
+                        .queryListener(recorder)
+                        .resultSetProxyLogicFactory(recorder.rowCountingResultSets())
+                        .build());
+            } else {
+                proxy.getProxyConfig()
+                        .getQueryListener()
+                        .addListener(recorder);
+            }
+            return bean;
+        }
+        if (bean instanceof DataSource dataSource) {
+            logger.info("Wrapping data source '{}' with slow query recording proxy", beanName);
+            ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(recorder);
+            if (countRows) {
+                builder.proxyResultSet(recorder.rowCountingResultSets());
+            }
+            return builder.build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,333 @@
+package ru.timetracker.sql;
+
+import jakarta.servlet.Filter;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.timetracker.sql.config.SlowQueryProperties;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Журнал медленных SQL-запросов: слушатель JDBC-прокси (datasource-proxy), сохраняющий запросы дольше порога в ограниченный кольцевой
+ * буфер.
+ * <p>Для каждого медленного запроса сохраняются:
+ * <ul>
+ *   <li>Текст запроса, длительность и параметры (скрытые или полные, см. {@link SlowQueryProperties.ParameterCapture})</li>
+ *   <li>Количество строк: прочитанных из результата через прокси {@link ResultSet} или измененных</li>
+ *   <li>Метод приложения, выполнивший запрос (первый кадр стека из пакетов приложения)</li>
+ *   <li>Снимок плана {@code EXPLAIN}, снятый на исходном соединении мимо прокси, не чаще раза в {@code explain-interval} на запрос</li>
+ * </ul>
+ * @see SlowQueryProperties Настройки журнала
+ * @see SlowQueryDataSourcePostProcessor Подключение к источнику данных
+ */
+public class SlowQueryRecorder implements QueryExecutionListener {
+    private static final Logger logger = LogManager.getLogger(SlowQueryRecorder.class);
+    private static final String APPLICATION_PACKAGE = "ru.timetracker.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final int EXPLAIN_TIMEOUT_SECONDS = 5;
+    private static final LongSupplier UNKNOWN_ROWS = () -> -1;
+
+    private final SlowQueryProperties properties;
+    private final Deque<SlowQuery> queries = new ArrayDeque<>();
+    private final ConcurrentMap<String, Plan> plans = new ConcurrentHashMap<>();
+    private final AtomicLong recordedCount = new AtomicLong();
+
+    /**
+     * Создает журнал медленных запросов.
+     * @param properties настройки журнала
+     */
+    public SlowQueryRecorder(SlowQueryProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Возвращает фабрику прокси {@link ResultSet}, считающих прочитанные строки
+     * @return Фабрика прокси результатов
+     */
+    public ResultSetProxyLogicFactory rowCountingResultSets() {
+        return (resultSet, connectionInfo, proxyConfig) -> new RowCountingResultSet(resultSet);
+    }
+
+    /**
+     * Возвращает последние медленные запросы
+     * @param limit Максимальное количество запросов
+     * @return Запросы от последнего к первому
+     */
+    public List<SlowQuery> recent(int limit) {
+        List<SlowQuery> recent = new ArrayList<>(Math.min(limit, properties.getCapacity()));
+        synchronized (queries) {
+            Iterator<SlowQuery> iterator = queries.descendingIterator();
+            while (iterator.hasNext() && recent.size() < limit) {
+                recent.add(iterator.next());
+            }
+        }
+        return recent;
+    }
+
+    /**
+     * Удаляет все сохраненные запросы и снимки планов
+     */
+    public void clear() {
+        synchronized (queries) {
+            queries.clear();
+        }
+        plans.clear();
+    }
+
+    /**
+     * Возвращает количество медленных запросов с момента запуска
+     * @return Количество запросов, включая вытесненные из буфера
+     */
+    public long getRecordedCount() {
+        return recordedCount.get();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Длительность известна только после выполнения
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < properties.getThreshold()
+                .toMillis() || queryInfoList.isEmpty()) {
+            return;
+        }
+        try {
+            record(execInfo, queryInfoList);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to record slow query: {}", e.getMessage());
+        }
+    }
+
+    private void record(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.size() == 1 ? queryInfoList.get(0)
+                .getQuery() : String.join("; ", queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .toList());
+        List<ParameterSetOperation> operations = firstParameterSet(queryInfoList.get(0));
+        String error = execInfo.getThrowable() != null ? execInfo.getThrowable()
+                .toString() : null;
+        String plan = properties.isExplain() && error == null && queryInfoList.size() == 1 ? plan(execInfo.getStatement(), sql,
+                operations) : null;
+        SlowQuery query = new SlowQuery(LocalDateTime.now(), sql, parameters(operations), execInfo.getElapsedTime(),
+                execInfo.isBatch() ? execInfo.getBatchSize() : 0, rows(execInfo.getResult()), caller(), plan, error);
+        synchronized (queries) {
+            if (queries.size() >= properties.getCapacity()) {
+                queries.removeFirst();
+            }
+            queries.addLast(query);
+        }
+        recordedCount.incrementAndGet();
+        logger.warn("Slow query ({} ms) from {}: {}", query.getDurationMillis(), query.getCaller(), sql);
+    }
+
+    private static List<ParameterSetOperation> firstParameterSet(QueryInfo queryInfo) {
+        List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+        if (parametersList.isEmpty()) {
+            return List.of();
+        }
+        List<ParameterSetOperation> operations = new ArrayList<>(parametersList.get(0));
+        operations.sort(Comparator.comparing(operation -> String.valueOf(operation.getArgs()[0]), Comparator.comparingInt(String::length)
+                .thenComparing(Comparator.naturalOrder())));
+        return operations;
+    }
+
+    private List<String> parameters(List<ParameterSetOperation> operations) {
+        if (properties.getParameters() == SlowQueryProperties.ParameterCapture.NONE) {
+            return List.of();
+        }
+        List<String> parameters = new ArrayList<>(operations.size());
+        for (ParameterSetOperation operation : operations) {
+            Object[] args = operation.getArgs();
+            Object value = ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2 ? null : args[1];
+            parameters.add(format(value));
+        }
+        return parameters;
+    }
+
+    private String format(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        boolean safe = value instanceof Number || value instanceof Boolean || value instanceof Date || value instanceof TemporalAccessor
+                || value instanceof Enum<?>;
+        if (!safe && properties.getParameters() == SlowQueryProperties.ParameterCapture.REDACTED) {
+            int length = value instanceof byte[] bytes ? bytes.length : String.valueOf(value)
+                    .length();
+            return "<" + value.getClass()
+                    .getSimpleName() + "(" + length + ")>";
+        }
+        String text = value instanceof byte[] bytes ? "<byte[" + bytes.length + "]>" : String.valueOf(value);
+        if (text.length() > properties.getMaxParameterLength()) {
+            text = text.substring(0, properties.getMaxParameterLength()) + "...";
+        }
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+
+    private static LongSupplier rows(Object result) {
+        try {
+            if (result instanceof ResultSet resultSet && resultSet.isWrapperFor(RowCountingResultSet.class)) {
+                RowCountingResultSet counter = resultSet.unwrap(RowCountingResultSet.class);
+                return () -> counter.rows;
+            }
+        } catch (SQLException e) {
+            logger.debug("Cannot unwrap row counting result set: {}", e.getMessage());
+        }
+        long rows;
+        if (result instanceof Number number) {
+            rows = number.longValue();
+        } else if (result instanceof int[] counts) {
+            rows = 0;
+            for (int count : counts) {
+                rows += Math.max(0, count);
+            }
+        } else if (result instanceof long[] counts) {
+            rows = 0;
+            for (long count : counts) {
+                rows += Math.max(0, count);
+            }
+        } else {
+            return UNKNOWN_ROWS;
+        }
+        long affected = rows;
+        return () -> affected;
+    }
+
+    private static String caller() {
+        return STACK_WALKER.walk(frames -> frames.filter(SlowQueryRecorder::isApplicationFrame)
+                .findFirst()
+                .map(frame -> frame.getDeclaringClass()
+                        .getSimpleName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse(null));
+    }
+
+    // Кадры приложения, кроме инфраструктуры между вызывающим методом и JDBC: перехватчиков, фильтров, слушателей и прокси Spring
+    private static boolean isApplicationFrame(StackWalker.StackFrame frame) {
+        Class<?> type = frame.getDeclaringClass();
+        return type.getName()
+                .startsWith(APPLICATION_PACKAGE) && !type.getName()
+                .contains("$$") && !MethodInterceptor.class.isAssignableFrom(type) && !Filter.class.isAssignableFrom(type)
+                && !QueryExecutionListener.class.isAssignableFrom(type);
+    }
+
+    private String plan(Statement statement, String sql, List<ParameterSetOperation> operations) {
+        String normalized = sql.stripLeading()
+                .toLowerCase(Locale.ROOT);
+        if (statement == null || !(normalized.startsWith("select") || normalized.startsWith("with"))) {
+            return null;
+        }
+        long now = System.nanoTime();
+        Plan cached = plans.get(sql);
+        if (cached != null && now - cached.takenAtNanos < properties.getExplainInterval()
+                .toNanos()) {
+            return cached.text;
+        }
+        try {
+            Connection connection = statement.getConnection();
+            // Исходное соединение: EXPLAIN не проходит через прокси, не учитывается в бюджете SQL и не попадает в журнал
+            if (connection instanceof ProxyJdbcObject proxy) {
+                connection = (Connection) proxy.getTarget();
+            }
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                explain.setQueryTimeout(EXPLAIN_TIMEOUT_SECONDS);
+                for (ParameterSetOperation operation : operations) {
+                    operation.getMethod()
+                            .invoke(explain, operation.getArgs());
+                }
+                String text = read(explain);
+                plans.put(sql, new Plan(text, now));
+                return text;
+            }
+        } catch (SQLException | ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Cannot explain slow query: {}", e.getMessage());
+            return "EXPLAIN failed: " + e;
+        }
+    }
+
+    private static String read(PreparedStatement explain) throws SQLException {
+        StringBuilder text = new StringBuilder();
+        try (ResultSet resultSet = explain.executeQuery()) {
+            int columns = resultSet.getMetaData()
+                    .getColumnCount();
+            while (resultSet.next()) {
+                if (!text.isEmpty()) {
+                    text.append('\n');
+                }
+                for (int column = 1; column <= columns; column++) {
+                    if (column > 1) {
+                        text.append(" | ");
+                    }
+                    text.append(resultSet.getString(column));
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private record Plan(String text, long takenAtNanos) {
+    }
+
+    // Прокси результата: считает строки, для которых next() вернул true; остальные вызовы передаются результату без изменений
+    private static final class RowCountingResultSet implements ResultSetProxyLogic {
+        private final ResultSet target;
+        private volatile long rows;
+
+        private RowCountingResultSet(ResultSet target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (method.getDeclaringClass() == ProxyJdbcObject.class) {
+                return target;
+            }
+            if (args != null && args.length == 1 && args[0] == RowCountingResultSet.class) {
+                if (name.equals("isWrapperFor")) {
+                    return true;
+                }
+                if (name.equals("unwrap")) {
+                    return this;
+                }
+            }
+            try {
+                Object result = method.invoke(target, args);
+                if (Boolean.TRUE.equals(result) && name.equals("next")) {
+                    rows++;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
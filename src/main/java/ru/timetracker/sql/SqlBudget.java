@@ -0,0 +1,28 @@
+package ru.timetracker.sql;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Объявляет максимальное количество SQL-запросов, которое endpoint может выполнить за один HTTP-запрос. Аннотация на методе
+ * контроллера имеет приоритет над аннотацией на классе.
+ * <p>Поведение при превышении задается настройкой {@code timetracker.sql-budget.mode}:
+ * <ul>
+ *   <li>{@code fail} - запрос завершается исключением {@link ru.timetracker.exception.SqlBudgetExceededException} (тесты)</li>
+ *   <li>{@code log} - выборочно пишется предупреждение в лог и увеличивается метрика нарушений (production)</li>
+ * </ul>
+ * @see SqlBudgetFilter Проверка бюджета
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+    /**
+     * Максимальное количество SQL-запросов на один HTTP-запрос
+     * @return Бюджет запросов
+     */
+    int value();
+}
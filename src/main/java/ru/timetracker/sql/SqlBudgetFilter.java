@@ -0,0 +1,88 @@
+package ru.timetracker.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.timetracker.exception.SqlBudgetExceededException;
+import ru.timetracker.sql.config.SqlBudgetProperties;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Считает SQL-запросы, выполненные за один HTTP-запрос, и сравнивает их количество с бюджетом endpoint, объявленным через
+ * {@link SqlBudget}.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Открывает область {@link SqlStatementCounter} на время обработки запроса</li>
+ *   <li>Учитывает нарушения бюджета в метрике {@value #BUDGET_EXCEEDED} с тегом {@code endpoint}</li>
+ *   <li>В режиме {@code fail} выбрасывает {@link SqlBudgetExceededException}, в режиме {@code log} выборочно пишет предупреждение</li>
+ * </ul>
+ * @see SqlBudgetInterceptor Определение бюджета обработчика
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+    /**
+     * Имя счетчика нарушений бюджета SQL-запросов
+     */
+    public static final String BUDGET_EXCEEDED = "timetracker.sql.budget.exceeded";
+
+    private static final Logger logger = LogManager.getLogger(SqlBudgetFilter.class);
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry registry;
+
+    /**
+     * Создает фильтр проверки бюджета SQL-запросов.
+     * @param properties настройки проверки
+     * @param registry   реестр метрик
+     */
+    public SqlBudgetFilter(SqlBudgetProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.Scope scope = SqlStatementCounter.open(request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+        }
+
+        Object budget = request.getAttribute(SqlBudgetInterceptor.BUDGET_ATTRIBUTE);
+        if (budget == null) {
+            logger.debug("{} {} executed {} SQL statements", request.getMethod(), request.getRequestURI(), scope.getCount());
+            return;
+        }
+        String endpoint = (String) request.getAttribute(SqlBudgetInterceptor.ENDPOINT_ATTRIBUTE);
+        logger.debug("{} executed {} SQL statements (budget {})", endpoint, scope.getCount(), budget);
+        if (scope.getCount() > (Integer) budget) {
+            onBudgetExceeded(endpoint, (Integer) budget, scope.getCount());
+        }
+    }
+
+    private void onBudgetExceeded(String endpoint, int budget, int actual) {
+        Counter.builder(BUDGET_EXCEEDED)
+                .description("Requests that executed more SQL statements than the endpoint budget")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .increment();
+
+        if (properties.getMode() == SqlBudgetProperties.Mode.FAIL) {
+            throw new SqlBudgetExceededException(endpoint, budget, actual);
+        }
+        if (ThreadLocalRandom.current()
+                .nextDouble() < properties.getLogSampleRate()) {
+            logger.warn("SQL budget exceeded for {}: {} statements, budget {} (sampled at rate {})", endpoint, actual, budget,
+                    properties.getLogSampleRate());
+        }
+    }
+}
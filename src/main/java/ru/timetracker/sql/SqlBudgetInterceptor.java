@@ -0,0 +1,58 @@
+package ru.timetracker.sql;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Определяет бюджет SQL-запросов обработчика по аннотации {@link SqlBudget} и передает его {@link SqlBudgetFilter} через атрибуты
+ * запроса. Сам подсчет выполняется фильтром, так как он охватывает весь запрос, включая сериализацию ответа.
+ */
+public class SqlBudgetInterceptor implements HandlerInterceptor {
+    /**
+     * Атрибут запроса с бюджетом обработчика ({@link Integer})
+     */
+    public static final String BUDGET_ATTRIBUTE = SqlBudgetInterceptor.class.getName() + ".budget";
+
+    /**
+     * Атрибут запроса с названием endpoint: HTTP-метод и шаблон пути
+     */
+    public static final String ENDPOINT_ATTRIBUTE = SqlBudgetInterceptor.class.getName() + ".endpoint";
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public SqlBudgetInterceptor() {
+    }
+
+    /**
+     * Сохраняет бюджет и название endpoint в атрибутах запроса
+     * @param request  HTTP-запрос
+     * @param response HTTP-ответ
+     * @param handler  Обработчик запроса
+     * @return всегда true
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            SqlBudget budget = findBudget(handlerMethod);
+            if (budget != null) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                request.setAttribute(BUDGET_ATTRIBUTE, budget.value());
+                request.setAttribute(ENDPOINT_ATTRIBUTE, request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()));
+            }
+        }
+        return true;
+    }
+
+    private static SqlBudget findBudget(HandlerMethod handlerMethod) {
+        SqlBudget budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), SqlBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), SqlBudget.class);
+        }
+        return budget;
+    }
+}
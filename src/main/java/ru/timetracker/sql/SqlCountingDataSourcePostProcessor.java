@@ -0,0 +1,69 @@
+package ru.timetracker.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Оборачивает все бины {@link DataSource} JDBC-прокси (datasource-proxy), который сообщает о каждом выполненном запросе в
+ * {@link SqlStatementCounter}. Пакетное выполнение (executeBatch) считается одним запросом, так как это один обмен с БД. Если источник
+ * уже обернут JDBC-прокси, слушатель добавляется в цепочку существующего прокси.
+ * <p>Прокси не зависит от СУБД и работает как с H2, так и с PostgreSQL.
+ */
+public class SqlCountingDataSourcePostProcessor implements BeanPostProcessor {
+    private static final Logger logger = LogManager.getLogger(SqlCountingDataSourcePostProcessor.class);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public SqlCountingDataSourcePostProcessor() {
+    }
+
+    /**
+     * Оборачивает источник данных прокси подсчета запросов
+     * @param bean     Бин после инициализации
+     * @param beanName Имя бина
+     * @return Прокси для {@link DataSource}, иначе исходный бин
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ProxyDataSource proxy) {
+            // Источник уже обернут другим пост-процессором (например, трассировкой SQL) - достаточно добавить слушатель в цепочку
+            logger.info("Adding SQL statement counting listener to data source proxy '{}'", beanName);
+            proxy.getProxyConfig()
+                    .getQueryListener()
+                    .addListener(countingListener());
+            return bean;
+        }
+        if (bean instanceof DataSource dataSource) {
+            logger.info("Wrapping data source '{}' with SQL statement counting proxy", beanName);
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(countingListener())
+                    .build();
+        }
+        return bean;
+    }
+
+    private static QueryExecutionListener countingListener() {
+        return new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                // Запрос учитывается в afterQuery, в том числе завершившийся ошибкой
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                SqlStatementCounter.increment();
+            }
+        };
+    }
+}
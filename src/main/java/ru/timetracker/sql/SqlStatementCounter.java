@@ -0,0 +1,91 @@
+package ru.timetracker.sql;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Счетчик SQL-запросов, выполненных текущим потоком. Запросы считаются внутри открытых областей (HTTP-запрос, тест, фоновая задача);
+ * вне областей счетчик ничего не делает.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Открытие вложенных областей подсчета</li>
+ *   <li>Увеличение всех открытых областей потока при выполнении запроса через JDBC-прокси</li>
+ * </ul>
+ * @see SqlCountingDataSourcePostProcessor Источник событий выполнения запросов
+ */
+public final class SqlStatementCounter {
+    private static final ThreadLocal<Deque<Scope>> SCOPES = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Открывает область подсчета запросов в текущем потоке
+     * @param name Название области (например, шаблон пути endpoint)
+     * @return Открытая область; должна быть закрыта в том же потоке
+     */
+    public static Scope open(String name) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+        Scope scope = new Scope(name);
+        scopes.push(scope);
+        return scope;
+    }
+
+    /**
+     * Учитывает выполненный запрос во всех открытых областях текущего потока
+     */
+    public static void increment() {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes != null) {
+            for (Scope scope : scopes) {
+                scope.count++;
+            }
+        }
+    }
+
+    /**
+     * Область подсчета SQL-запросов.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final String name;
+        private int count;
+
+        private Scope(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Возвращает название области
+         * @return Название области
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Возвращает количество запросов, выполненных с момента открытия области
+         * @return Количество запросов
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Закрывает область; после закрытия счетчик области больше не меняется
+         */
+        @Override
+        public void close() {
+            Deque<Scope> scopes = SCOPES.get();
+            if (scopes != null) {
+                scopes.remove(this);
+                if (scopes.isEmpty()) {
+                    SCOPES.remove();
+                }
+            }
+        }
+    }
+}
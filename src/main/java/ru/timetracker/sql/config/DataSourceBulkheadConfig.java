@@ -0,0 +1,85 @@
+package ru.timetracker.sql.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import ru.timetracker.sql.BulkheadDataSource;
+import ru.timetracker.sql.BulkheadDataSourcePostProcessor;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Конфигурация ограничителя одновременного доступа к пулу соединений.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Оборачивает источник данных {@link BulkheadDataSource}</li>
+ *   <li>Публикует метрики ограничителя: свободные разрешения, ожидающие потоки, отказы</li>
+ * </ul>
+ * @see DataSourceBulkheadProperties Настройки ограничителя
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "timetracker.datasource.bulkhead", name = "enabled", matchIfMissing = true)
+public class DataSourceBulkheadConfig {
+    private static final Logger logger = LogManager.getLogger(DataSourceBulkheadConfig.class);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public DataSourceBulkheadConfig() {
+    }
+
+    /**
+     * Создает пост-процессор, оборачивающий источники данных ограничителем. Метод статический, а настройки привязываются напрямую из
+     * окружения, так как пост-процессор создается раньше бинов {@code @ConfigurationProperties}
+     * @param environment окружение приложения
+     * @return пост-процессор источников данных
+     */
+    @Bean
+    public static BulkheadDataSourcePostProcessor bulkheadDataSourcePostProcessor(Environment environment) {
+        DataSourceBulkheadProperties properties = Binder.get(environment)
+                .bindOrCreate("timetracker.datasource.bulkhead", DataSourceBulkheadProperties.class);
+        return new BulkheadDataSourcePostProcessor(properties);
+    }
+
+    /**
+     * Регистрирует метрики ограничителя
+     * @param dataSource источник данных приложения
+     * @return регистратор метрик
+     */
+    @Bean
+    public MeterBinder dataSourceBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            BulkheadDataSource bulkhead = unwrap(dataSource);
+            if (bulkhead == null) {
+                logger.warn("Data source is not wrapped with a bulkhead, bulkhead metrics are not registered");
+                return;
+            }
+            Gauge.builder("timetracker.db.bulkhead.available", bulkhead, BulkheadDataSource::getAvailablePermits)
+                    .description("Free database bulkhead permits")
+                    .register(registry);
+            Gauge.builder("timetracker.db.bulkhead.waiting", bulkhead, BulkheadDataSource::getWaitingThreads)
+                    .description("Threads waiting for a database bulkhead permit")
+                    .register(registry);
+            FunctionCounter.builder("timetracker.db.bulkhead.rejected", bulkhead, BulkheadDataSource::getRejectedCount)
+                    .description("Connection requests rejected after the bulkhead acquire timeout")
+                    .register(registry);
+        };
+    }
+
+    private static BulkheadDataSource unwrap(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(BulkheadDataSource.class) ? dataSource.unwrap(BulkheadDataSource.class) : null;
+        } catch (SQLException e) {
+            logger.debug("Cannot unwrap bulkhead data source: {}", e.getMessage());
+            return null;
+        }
+    }
+}
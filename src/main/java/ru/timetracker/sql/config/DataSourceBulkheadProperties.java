@@ -0,0 +1,48 @@
+package ru.timetracker.sql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки ограничителя одновременного доступа к пулу соединений. Задаются в {@code application.properties} с префиксом
+ * {@code timetracker.datasource.bulkhead}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Количество одновременно выданных соединений (по умолчанию - размер пула Hikari)</li>
+ *   <li>Максимальное время ожидания соединения в очереди ограничителя</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.datasource.bulkhead")
+public class DataSourceBulkheadProperties {
+    /**
+     * Количество разрешений, если размер пула определить не удалось
+     */
+    public static final int DEFAULT_MAX_CONCURRENT = 10;
+
+    /**
+     * Включен ли ограничитель
+     * @return true если ограничитель включен
+     */
+    private boolean enabled = true;
+
+    /**
+     * Максимальное количество одновременно выданных соединений (null - размер пула Hikari)
+     * @return Количество разрешений
+     */
+    private Integer maxConcurrent;
+
+    /**
+     * Максимальное время ожидания соединения
+     * @return Время ожидания
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public DataSourceBulkheadProperties() {
+    }
+}
@@ -0,0 +1,75 @@
+package ru.timetracker.sql.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+import ru.timetracker.sql.SlowQueryDataSourcePostProcessor;
+import ru.timetracker.sql.SlowQueryRecorder;
+
+/**
+ * Конфигурация журнала медленных SQL-запросов.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Создает журнал {@link SlowQueryRecorder} и подключает его к источнику данных</li>
+ *   <li>Публикует счетчик медленных запросов</li>
+ * </ul>
+ * @see SlowQueryProperties Настройки журнала
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "timetracker.slow-query", name = "enabled", matchIfMissing = true)
+public class SlowQueryConfig {
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public SlowQueryConfig() {
+    }
+
+    /**
+     * Создает журнал медленных запросов. Метод статический, а настройки привязываются напрямую из окружения, так как журнал нужен
+     * пост-процессору источников данных, который создается раньше бинов {@code @ConfigurationProperties}. Журнал - инфраструктурный
+     * бин и не обрабатывается пост-процессорами
+     * @param environment окружение приложения
+     * @return журнал медленных запросов
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static SlowQueryRecorder slowQueryRecorder(Environment environment) {
+        return new SlowQueryRecorder(properties(environment));
+    }
+
+    /**
+     * Создает пост-процессор, подключающий журнал медленных запросов к источникам данных
+     * @param environment окружение приложения
+     * @param recorder    журнал медленных запросов
+     * @return пост-процессор источников данных
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static SlowQueryDataSourcePostProcessor slowQueryDataSourcePostProcessor(Environment environment, SlowQueryRecorder recorder) {
+        return new SlowQueryDataSourcePostProcessor(recorder, properties(environment).isCountRows());
+    }
+
+    /**
+     * Регистрирует счетчик медленных запросов
+     * @param recorder журнал медленных запросов
+     * @return регистратор метрик
+     */
+    @Bean
+    public MeterBinder slowQueryMetrics(SlowQueryRecorder recorder) {
+        return registry -> FunctionCounter.builder("timetracker.sql.slow", recorder, SlowQueryRecorder::getRecordedCount)
+                .description("SQL statements slower than the slow query threshold")
+                .register(registry);
+    }
+
+    private static SlowQueryProperties properties(Environment environment) {
+        return Binder.get(environment)
+                .bindOrCreate("timetracker.slow-query", SlowQueryProperties.class);
+    }
+}
@@ -0,0 +1,93 @@
+package ru.timetracker.sql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки журнала медленных SQL-запросов. Задаются в {@code application.properties} с префиксом {@code timetracker.slow-query}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Порог длительности и количество хранимых запросов</li>
+ *   <li>Сохранение параметров запроса: без параметров, со скрытыми строками или полностью</li>
+ *   <li>Подсчет прочитанных строк и снимок плана выполнения ({@code EXPLAIN})</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.slow-query")
+public class SlowQueryProperties {
+    /**
+     * Включен ли журнал медленных запросов
+     * @return true если журнал включен
+     */
+    private boolean enabled = true;
+
+    /**
+     * Длительность выполнения, начиная с которой запрос записывается в журнал
+     * @return Порог длительности
+     */
+    private Duration threshold = Duration.ofMillis(500);
+
+    /**
+     * Количество хранимых последних медленных запросов
+     * @return Количество запросов
+     */
+    private int capacity = 200;
+
+    /**
+     * Сохранение параметров запроса
+     * @return Режим сохранения параметров
+     */
+    private ParameterCapture parameters = ParameterCapture.REDACTED;
+
+    /**
+     * Максимальная длина сохраняемого значения параметра
+     * @return Количество символов
+     */
+    private int maxParameterLength = 100;
+
+    /**
+     * Считать ли строки, прочитанные из результата запроса. Требует прокси для каждого {@link java.sql.ResultSet}
+     * @return true если строки считаются
+     */
+    private boolean countRows = true;
+
+    /**
+     * Снимать ли план выполнения медленного запроса ({@code EXPLAIN} с теми же параметрами на том же соединении)
+     * @return true если план снимается
+     */
+    private boolean explain = false;
+
+    /**
+     * Минимальный интервал между снимками плана одного и того же запроса; в пределах интервала используется последний снимок
+     * @return Интервал
+     */
+    private Duration explainInterval = Duration.ofMinutes(1);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public SlowQueryProperties() {
+    }
+
+    /**
+     * Режим сохранения параметров запроса.
+     */
+    public enum ParameterCapture {
+        /**
+         * Параметры не сохраняются
+         */
+        NONE,
+
+        /**
+         * Сохраняются числа, даты, логические значения и null; строки и двоичные значения заменяются типом и длиной
+         */
+        REDACTED,
+
+        /**
+         * Сохраняются все значения (только для отладки: строки могут содержать персональные данные)
+         */
+        FULL
+    }
+}
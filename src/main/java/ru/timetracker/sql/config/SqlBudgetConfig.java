@@ -0,0 +1,75 @@
+package ru.timetracker.sql.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.timetracker.sql.SqlBudgetFilter;
+import ru.timetracker.sql.SqlBudgetInterceptor;
+import ru.timetracker.sql.SqlCountingDataSourcePostProcessor;
+
+/**
+ * Конфигурация подсчета SQL-запросов и проверки бюджета endpoint.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Оборачивает источник данных JDBC-прокси подсчета запросов</li>
+ *   <li>Регистрирует фильтр подсчета для API и интерцептор, определяющий бюджет обработчика</li>
+ * </ul>
+ * @see SqlBudgetProperties Настройки проверки
+ * @see ru.timetracker.sql.SqlBudget Объявление бюджета
+ */
+@Configuration
+@EnableConfigurationProperties(SqlBudgetProperties.class)
+@ConditionalOnProperty(prefix = "timetracker.sql-budget", name = "enabled", matchIfMissing = true)
+public class SqlBudgetConfig {
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public SqlBudgetConfig() {
+    }
+
+    /**
+     * Создает пост-процессор, оборачивающий источники данных прокси подсчета запросов. Метод статический, чтобы пост-процессор
+     * создавался раньше остальных бинов конфигурации
+     * @return пост-процессор источников данных
+     */
+    @Bean
+    public static SqlCountingDataSourcePostProcessor sqlCountingDataSourcePostProcessor() {
+        return new SqlCountingDataSourcePostProcessor();
+    }
+
+    /**
+     * Регистрирует фильтр проверки бюджета для путей API
+     * @param properties настройки проверки
+     * @param registry   реестр метрик
+     * @return регистрация фильтра
+     */
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(SqlBudgetProperties properties, MeterRegistry registry) {
+        FilterRegistrationBean<SqlBudgetFilter> registration = new FilterRegistrationBean<>(new SqlBudgetFilter(properties, registry));
+        registration.addUrlPatterns("/api/*");
+        // Фильтр охватывает все остальные фильтры, чтобы учитывались и их запросы к БД
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Подключает интерцептор, определяющий бюджет обработчика по аннотации
+     * @return конфигуратор Spring MVC
+     */
+    @Bean
+    public WebMvcConfigurer sqlBudgetWebMvcConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new SqlBudgetInterceptor());
+            }
+        };
+    }
+}
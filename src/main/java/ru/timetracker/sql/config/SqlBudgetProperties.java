@@ -0,0 +1,56 @@
+package ru.timetracker.sql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки проверки бюджета SQL-запросов. Задаются в {@code application.properties} с префиксом {@code timetracker.sql-budget}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Включение JDBC-прокси и проверки бюджета</li>
+ *   <li>Реакция на превышение бюджета: исключение или выборочное предупреждение в лог</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.sql-budget")
+public class SqlBudgetProperties {
+    /**
+     * Включены ли подсчет SQL-запросов и проверка бюджета
+     * @return true если проверка включена
+     */
+    private boolean enabled = true;
+
+    /**
+     * Реакция на превышение бюджета
+     * @return Режим проверки
+     */
+    private Mode mode = Mode.LOG;
+
+    /**
+     * Доля нарушений, о которых пишется предупреждение в лог в режиме {@link Mode#LOG} (от 0 до 1). Метрика нарушений учитывает все
+     * нарушения независимо от этой настройки
+     * @return Доля записываемых нарушений
+     */
+    private double logSampleRate = 0.01;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public SqlBudgetProperties() {
+    }
+
+    /**
+     * Режим реакции на превышение бюджета.
+     */
+    public enum Mode {
+        /**
+         * Выборочно писать предупреждение в лог (production)
+         */
+        LOG,
+
+        /**
+         * Завершать запрос исключением (тесты)
+         */
+        FAIL
+    }
+}
@@ -0,0 +1,63 @@
+package ru.timetracker.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Экспортер, хранящий последние трассы в памяти для отладочного API. Хранит не более {@code capacity} трасс; самые старые вытесняются.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+    private final int capacity;
+    private final Deque<Trace> traces;
+
+    /**
+     * Создает экспортер в память.
+     * @param capacity количество хранимых последних трасс
+     */
+    public InMemorySpanExporter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("In-memory trace capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.traces = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Сохраняет трассу, вытесняя самую старую при заполнении
+     * @param trace Трасса
+     */
+    @Override
+    public synchronized void export(Trace trace) {
+        if (traces.size() == capacity) {
+            traces.removeFirst();
+        }
+        traces.addLast(trace);
+    }
+
+    /**
+     * Возвращает самые долгие из хранимых трасс
+     * @param limit Максимальное количество трасс
+     * @return Трассы в порядке убывания длительности
+     */
+    public List<Trace> slowest(int limit) {
+        List<Trace> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(traces);
+        }
+        return snapshot.stream()
+                .sorted(Comparator.comparingLong(Trace::durationNanos)
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Удаляет все хранимые трассы
+     */
+    public synchronized void clear() {
+        traces.clear();
+    }
+}
@@ -0,0 +1,200 @@
+package ru.timetracker.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Участок трассировки: вызов HTTP-запроса, метода контроллера, сервиса, маппера или репозитория. Выполненные внутри участка SQL-запросы
+ * сохраняются в атрибутах {@value #DB_STATEMENTS}, {@value #DB_STATEMENT_COUNT} и {@value #DB_TIME_MS}.
+ * <p>Участок изменяется только потоком, который его открыл; после закрытия трассы участок не изменяется. Закрывается в том же потоке,
+ * в котором открыт.
+ * @see Tracer Открытие участков
+ */
+public final class Span implements AutoCloseable {
+    /**
+     * Атрибут с текстом выполненных SQL-запросов
+     */
+    public static final String DB_STATEMENTS = "db.statements";
+
+    /**
+     * Атрибут с количеством выполненных SQL-запросов (пакет считается одним запросом)
+     */
+    public static final String DB_STATEMENT_COUNT = "db.statement.count";
+
+    /**
+     * Атрибут с суммарным временем выполнения SQL-запросов в миллисекундах
+     */
+    public static final String DB_TIME_MS = "db.time.ms";
+
+    private final String spanId;
+    private final String parentId;
+    private final Kind kind;
+    private final Instant startTime;
+    private final long startNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private String name;
+    private long durationNanos = -1;
+    private String error;
+
+    Span(String spanId, String parentId, String name, Kind kind) {
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.name = name;
+        this.kind = kind;
+        this.startTime = Instant.now();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Возвращает ID участка
+     * @return ID участка (16 шестнадцатеричных символов)
+     */
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * Возвращает ID родительского участка
+     * @return ID родителя или null для корневого участка
+     */
+    public String getParentId() {
+        return parentId;
+    }
+
+    /**
+     * Возвращает название участка
+     * @return Название (например, {@code TimeEntryService.getUserTaskDurations})
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Изменяет название участка (например, на шаблон пути после выбора обработчика)
+     * @param name Новое название
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Возвращает вид участка
+     * @return Вид участка
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Возвращает время открытия участка
+     * @return Время открытия
+     */
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Возвращает момент открытия участка по {@link System#nanoTime()}
+     * @return Момент открытия в наносекундах
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * Возвращает длительность участка
+     * @return Длительность в наносекундах или -1, если участок не закрыт
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Возвращает атрибуты участка
+     * @return Неизменяемое представление атрибутов
+     */
+    public Map<String, Object> getAttributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * Возвращает ошибку, которой завершился участок
+     * @return Класс и сообщение исключения или null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Устанавливает атрибут участка
+     * @param key   Название атрибута
+     * @param value Значение
+     */
+    public void setAttribute(String key, Object value) {
+        attributes.put(key, value);
+    }
+
+    /**
+     * Отмечает участок завершившимся ошибкой
+     * @param throwable Исключение
+     */
+    public void setError(Throwable throwable) {
+        error = throwable.getClass()
+                .getName() + (throwable.getMessage() != null ? ": " + throwable.getMessage() : "");
+    }
+
+    /**
+     * Закрывает участок; закрытие корневого участка завершает трассу и передает ее экспортерам
+     */
+    @Override
+    public void close() {
+        if (durationNanos < 0) {
+            durationNanos = System.nanoTime() - startNanos;
+            Tracer.end(this);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void addStatement(String sql, long elapsedMillis, int maxStatements, int maxLength) {
+        attributes.merge(DB_STATEMENT_COUNT, 1, (count, one) -> (Integer) count + 1);
+        attributes.merge(DB_TIME_MS, elapsedMillis, (total, elapsed) -> (Long) total + (Long) elapsed);
+        List<String> statements = (List<String>) attributes.computeIfAbsent(DB_STATEMENTS, key -> new ArrayList<String>());
+        if (statements.size() < maxStatements) {
+            statements.add(sql.length() > maxLength ? sql.substring(0, maxLength) + "..." : sql);
+        }
+    }
+
+    /**
+     * Вид участка трассировки.
+     */
+    public enum Kind {
+        /**
+         * Обработка HTTP-запроса целиком, включая сериализацию ответа (корневой участок)
+         */
+        HTTP,
+
+        /**
+         * Метод контроллера
+         */
+        CONTROLLER,
+
+        /**
+         * Метод сервиса (включая транзакцию и повторы)
+         */
+        SERVICE,
+
+        /**
+         * Метод маппера DTO
+         */
+        MAPPER,
+
+        /**
+         * Метод репозитория
+         */
+        REPOSITORY
+    }
+}
@@ -0,0 +1,16 @@
+package ru.timetracker.tracing;
+
+/**
+ * Получатель завершенных трасс. Все бины этого типа получают каждую записанную трассу; так подключаются внешние системы трассировки.
+ * <p>Вызывается в потоке, завершившем трассу, поэтому реализация должна быстро возвращать управление (например, ставить трассу в
+ * очередь). Исключения экспортера записываются в лог и не влияют на обработку запроса.
+ * @see InMemorySpanExporter Экспортер в память для отладочного API
+ */
+@FunctionalInterface
+public interface SpanExporter {
+    /**
+     * Принимает завершенную трассу
+     * @param trace Трасса
+     */
+    void export(Trace trace);
+}
@@ -0,0 +1,16 @@
+package ru.timetracker.tracing;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Завершенная трасса: корневой участок и все вложенные участки в порядке открытия.
+ * @param traceId       ID трассы (32 шестнадцатеричных символа)
+ * @param name          Название корневого участка
+ * @param startTime     Время открытия корневого участка
+ * @param durationNanos Длительность корневого участка в наносекундах
+ * @param droppedSpans  Количество участков, не записанных из-за ограничения размера трассы
+ * @param spans         Участки трассы; первый - корневой
+ */
+public record Trace(String traceId, String name, Instant startTime, long durationNanos, int droppedSpans, List<Span> spans) {
+}
@@ -0,0 +1,156 @@
+package ru.timetracker.tracing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.timetracker.tracing.config.TracingProperties;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Трассировщик: открывает участки трассы в текущем потоке и передает завершенные трассы экспортерам.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Открытие корневого участка (трассы) с выборкой по доле {@code sample-rate}</li>
+ *   <li>Открытие вложенных участков, если в потоке есть открытая трасса; вне трассы вложенные участки не создаются и ничего не
+ *   стоят</li>
+ *   <li>Привязка выполненных SQL-запросов к самому глубокому открытому участку</li>
+ *   <li>Передача завершенной трассы всем {@link SpanExporter}</li>
+ * </ul>
+ * @see TracingProperties Настройки трассировки
+ */
+public class Tracer {
+    private static final Logger logger = LogManager.getLogger(Tracer.class);
+    private static final ThreadLocal<TraceContext> CONTEXT = new ThreadLocal<>();
+
+    private final TracingProperties properties;
+    private final List<SpanExporter> exporters;
+
+    /**
+     * Создает трассировщик.
+     * @param properties настройки трассировки
+     * @param exporters  получатели завершенных трасс
+     */
+    public Tracer(TracingProperties properties, List<SpanExporter> exporters) {
+        this.properties = properties;
+        this.exporters = List.copyOf(exporters);
+    }
+
+    /**
+     * Открывает корневой участок новой трассы в текущем потоке. Если трасса уже открыта, открывает вложенный участок
+     * @param name Название участка
+     * @param kind Вид участка
+     * @return Открытый участок или null, если трасса не попала в выборку или участок не записывается
+     */
+    public Span startTrace(String name, Span.Kind kind) {
+        if (CONTEXT.get() != null) {
+            return startSpan(name, kind);
+        }
+        if (properties.getSampleRate() < 1 && ThreadLocalRandom.current()
+                .nextDouble() >= properties.getSampleRate()) {
+            return null;
+        }
+        TraceContext context = new TraceContext(this, randomHex(2));
+        Span root = new Span(randomHex(1), null, name, kind);
+        context.spans.add(root);
+        context.stack.push(root);
+        CONTEXT.set(context);
+        return root;
+    }
+
+    /**
+     * Открывает участок, вложенный в самый глубокий открытый участок текущего потока
+     * @param name Название участка
+     * @param kind Вид участка
+     * @return Открытый участок или null, если в потоке нет трассы или трасса достигла максимального размера
+     */
+    public static Span startSpan(String name, Span.Kind kind) {
+        TraceContext context = CONTEXT.get();
+        if (context == null) {
+            return null;
+        }
+        if (context.spans.size() >= context.tracer.properties.getMaxSpansPerTrace()) {
+            context.droppedSpans++;
+            return null;
+        }
+        Span span = new Span(randomHex(1), context.stack.peek()
+                .getSpanId(), name, kind);
+        context.spans.add(span);
+        context.stack.push(span);
+        return span;
+    }
+
+    /**
+     * Возвращает самый глубокий открытый участок текущего потока
+     * @return Участок или null, если в потоке нет трассы
+     */
+    public static Span currentSpan() {
+        TraceContext context = CONTEXT.get();
+        return context != null ? context.stack.peek() : null;
+    }
+
+    /**
+     * Добавляет выполненный SQL-запрос в самый глубокий открытый участок текущего потока; вне трассы ничего не делает
+     * @param sql           Текст запроса
+     * @param elapsedMillis Время выполнения в миллисекундах
+     */
+    public static void recordSql(String sql, long elapsedMillis) {
+        TraceContext context = CONTEXT.get();
+        if (context != null) {
+            TracingProperties properties = context.tracer.properties;
+            context.stack.peek()
+                    .addStatement(sql, elapsedMillis, properties.getMaxStatementsPerSpan(), properties.getMaxStatementLength());
+        }
+    }
+
+    static void end(Span span) {
+        TraceContext context = CONTEXT.get();
+        if (context == null || !context.stack.remove(span)) {
+            logger.warn("Span {} closed outside of its trace", span.getName());
+            return;
+        }
+        // Закрытие корневого участка завершает трассу, даже если вложенный участок не был закрыт из-за ошибки
+        if (span == context.spans.get(0)) {
+            CONTEXT.remove();
+            context.tracer.export(new Trace(context.traceId, span.getName(), span.getStartTime(), span.getDurationNanos(),
+                    context.droppedSpans, List.copyOf(context.spans)));
+        }
+    }
+
+    private void export(Trace trace) {
+        for (SpanExporter exporter : exporters) {
+            try {
+                exporter.export(trace);
+            } catch (RuntimeException e) {
+                logger.warn("Span exporter {} failed to export trace {}: {}", exporter.getClass()
+                        .getSimpleName(), trace.traceId(), e.getMessage());
+            }
+        }
+    }
+
+    private static String randomHex(int longs) {
+        StringBuilder hex = new StringBuilder(16 * longs);
+        for (int i = 0; i < longs; i++) {
+            hex.append(String.format("%016x", ThreadLocalRandom.current()
+                    .nextLong()));
+        }
+        return hex.toString();
+    }
+
+    // Трасса, открытая в потоке: все участки в порядке открытия и стек открытых участков
+    private static final class TraceContext {
+        private final Tracer tracer;
+        private final String traceId;
+        private final List<Span> spans = new ArrayList<>();
+        private final Deque<Span> stack = new ArrayDeque<>();
+        private int droppedSpans;
+
+        private TraceContext(Tracer tracer, String traceId) {
+            this.tracer = tracer;
+            this.traceId = traceId;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.timetracker.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Передает выполненные SQL-запросы в открытый участок трассы {@link Tracer#recordSql(String, long)}. Если источник данных уже обернут
+ * JDBC-прокси (datasource-proxy), слушатель добавляется в его цепочку, иначе источник оборачивается новым прокси.
+ */
+public class TracingDataSourcePostProcessor implements BeanPostProcessor {
+    private static final Logger logger = LogManager.getLogger(TracingDataSourcePostProcessor.class);
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public TracingDataSourcePostProcessor() {
+    }
+
+    /**
+     * Подключает слушатель трассировки SQL-запросов к источнику данных
+     * @param bean     Бин после инициализации
+     * @param beanName Имя бина
+     * @return Прокси для {@link DataSource}, иначе исходный бин
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ProxyDataSource proxy) {
+            logger.info("Adding SQL tracing listener to data source proxy '{}'", beanName);
+            proxy.getProxyConfig()
+                    .getQueryListener()
+                    .addListener(tracingListener());
+            return bean;
+        }
+        if (bean instanceof DataSource dataSource) {
+            logger.info("Wrapping data source '{}' with SQL tracing proxy", beanName);
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(tracingListener())
+                    .build();
+        }
+        return bean;
+    }
+
+    private static QueryExecutionListener tracingListener() {
+        return new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                // Запрос записывается в afterQuery вместе со временем выполнения
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                String sql = queryInfoList.size() == 1 ? queryInfoList.get(0)
+                        .getQuery() : String.join("; ", queryInfoList.stream()
+                        .map(QueryInfo::getQuery)
+                        .toList());
+                Tracer.recordSql(execInfo.isBatch() ? sql + " [batch of " + execInfo.getBatchSize() + "]" : sql,
+                        execInfo.getElapsedTime());
+            }
+        };
+    }
+}
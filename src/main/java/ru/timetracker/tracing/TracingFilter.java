@@ -0,0 +1,66 @@
+package ru.timetracker.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Открывает корневой участок трассы на время обработки HTTP-запроса. Участок охватывает фильтры, контроллер и сериализацию ответа;
+ * разница между длительностью корневого участка и участка контроллера - время сериализации и фильтров.
+ * <p>После обработки участок называется по методу и шаблону пути обработчика (например,
+ * {@code GET /api/v1/users/{userId}/time-entries/task-durations}), чтобы трассы одного endpoint группировались.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+    /**
+     * Путь отладочного API трасс; его запросы не трассируются, чтобы не вытеснять трассы приложения
+     */
+    public static final String TRACES_PATH = "/api/v1/admin/traces";
+
+    private final Tracer tracer;
+
+    /**
+     * Создает фильтр трассировки HTTP-запросов.
+     * @param tracer трассировщик
+     */
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI()
+                .startsWith(TRACES_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Span span = tracer.startTrace(request.getMethod() + " " + request.getRequestURI(), Span.Kind.HTTP);
+        if (span == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        span.setAttribute("http.method", request.getMethod());
+        span.setAttribute("http.target", request.getQueryString() != null ? request.getRequestURI() + "?" + request.getQueryString()
+                : request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.setError(e);
+            throw e;
+        } finally {
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                span.setAttribute("http.route", route);
+                span.setName(request.getMethod() + " " + route);
+            }
+            span.setAttribute("http.status_code", response.getStatus());
+            span.close();
+        }
+    }
+}
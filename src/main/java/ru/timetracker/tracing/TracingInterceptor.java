@@ -0,0 +1,64 @@
+package ru.timetracker.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+
+/**
+ * Открывает участок трассы на время вызова метода контроллера, сервиса, маппера или репозитория. Вне открытой трассы (фоновые задачи,
+ * обработка событий без HTTP-запроса) вызов выполняется без участка.
+ * <p>Название участка - имя класса и метода. Для прокси репозиториев Spring Data и реализаций мапперов MapStruct используется имя
+ * интерфейса приложения.
+ */
+public class TracingInterceptor implements MethodInterceptor {
+    private static final String APPLICATION_PACKAGE = "ru.timetracker";
+    private static final ClassValue<String> DISPLAY_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getPackageName()
+                        .startsWith(APPLICATION_PACKAGE)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        }
+    };
+
+    private final Span.Kind kind;
+
+    /**
+     * Создает перехватчик участков.
+     * @param kind вид открываемых участков
+     */
+    public TracingInterceptor(Span.Kind kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Выполняет метод внутри участка трассы
+     * @param invocation Вызов метода
+     * @return Результат метода
+     * @throws Throwable исключение метода (участок отмечается ошибкой)
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (Tracer.currentSpan() == null) {
+            return invocation.proceed();
+        }
+        String type = DISPLAY_NAMES.get(AopUtils.getTargetClass(invocation.getThis()));
+        Span span = Tracer.startSpan(type + "." + invocation.getMethod()
+                .getName(), kind);
+        if (span == null) {
+            return invocation.proceed();
+        }
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            span.setError(e);
+            throw e;
+        } finally {
+            span.close();
+        }
+    }
+}
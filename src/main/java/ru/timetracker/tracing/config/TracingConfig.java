@@ -0,0 +1,147 @@
+package ru.timetracker.tracing.config;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+import ru.timetracker.dto.mapper.TimeEntryMapper;
+import ru.timetracker.tracing.InMemorySpanExporter;
+import ru.timetracker.tracing.Span;
+import ru.timetracker.tracing.SpanExporter;
+import ru.timetracker.tracing.Tracer;
+import ru.timetracker.tracing.TracingDataSourcePostProcessor;
+import ru.timetracker.tracing.TracingFilter;
+import ru.timetracker.tracing.TracingInterceptor;
+
+/**
+ * Конфигурация трассировки запросов от контроллера до SQL.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Подключает настройки {@link TracingProperties} и создает {@link Tracer} со всеми бинами {@link SpanExporter}</li>
+ *   <li>Регистрирует фильтр корневых участков для путей API</li>
+ *   <li>Регистрирует советники участков для контроллеров, сервисов, мапперов и репозиториев. Советники имеют инфраструктурную роль и
+ *   наивысший приоритет: участок сервиса охватывает повторы и транзакцию, включая фиксацию</li>
+ *   <li>Подключает слушатель SQL-запросов к источнику данных</li>
+ * </ul>
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+@ConditionalOnProperty(prefix = "timetracker.tracing", name = "enabled")
+public class TracingConfig {
+    private static final String MAPPER_PACKAGE = TimeEntryMapper.class.getPackageName();
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public TracingConfig() {
+    }
+
+    /**
+     * Создает трассировщик
+     * @param properties настройки трассировки
+     * @param exporters  получатели завершенных трасс
+     * @return трассировщик
+     */
+    @Bean
+    public Tracer tracer(TracingProperties properties, ObjectProvider<SpanExporter> exporters) {
+        return new Tracer(properties, exporters.orderedStream()
+                .toList());
+    }
+
+    /**
+     * Создает экспортер трасс в память для отладочного API
+     * @param properties настройки трассировки
+     * @return экспортер в память
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "timetracker.tracing.in-memory", name = "enabled", matchIfMissing = true)
+    public InMemorySpanExporter inMemorySpanExporter(TracingProperties properties) {
+        return new InMemorySpanExporter(properties.getInMemory()
+                .getCapacity());
+    }
+
+    /**
+     * Регистрирует фильтр трассировки для путей API
+     * @param tracer трассировщик
+     * @return регистрация фильтра
+     */
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.addUrlPatterns("/api/*");
+        // Сразу после фильтра бюджета SQL: корневой участок охватывает остальные фильтры
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    /**
+     * Создает пост-процессор, подключающий трассировку SQL к источникам данных
+     * @return пост-процессор источников данных
+     */
+    @Bean
+    public static TracingDataSourcePostProcessor tracingDataSourcePostProcessor() {
+        return new TracingDataSourcePostProcessor();
+    }
+
+    /**
+     * Создает советник участков методов контроллеров
+     * @return советник участков
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor controllerTracingAdvisor() {
+        return advisor(new AnnotationMatchingPointcut(RestController.class, true), Span.Kind.CONTROLLER);
+    }
+
+    /**
+     * Создает советник участков методов сервисов
+     * @return советник участков
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceTracingAdvisor() {
+        return advisor(new AnnotationMatchingPointcut(Service.class, true), Span.Kind.SERVICE);
+    }
+
+    /**
+     * Создает советник участков методов мапперов MapStruct (аннотация {@code @Mapper} недоступна во время выполнения, поэтому мапперы
+     * определяются по пакету)
+     * @return советник участков
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor mapperTracingAdvisor() {
+        return advisor(new ComposablePointcut((ClassFilter) type -> type.getPackageName()
+                .equals(MAPPER_PACKAGE)), Span.Kind.MAPPER);
+    }
+
+    /**
+     * Создает советник участков методов репозиториев Spring Data
+     * @return советник участков
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor repositoryTracingAdvisor() {
+        return advisor(new ComposablePointcut((ClassFilter) Repository.class::isAssignableFrom), Span.Kind.REPOSITORY);
+    }
+
+    private static Advisor advisor(Pointcut pointcut, Span.Kind kind) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new TracingInterceptor(kind));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,83 @@
+package ru.timetracker.tracing.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки трассировки запросов. Задаются в {@code application.properties} с префиксом {@code timetracker.tracing}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Включение трассировки и доля трассируемых HTTP-запросов</li>
+ *   <li>Ограничения размера трассы: количество участков и SQL-запросов в участке, длина текста запроса</li>
+ *   <li>Экспортер в память для отладочного API</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.tracing")
+public class TracingProperties {
+    /**
+     * Включена ли трассировка (по умолчанию отключена: атрибуты участков содержат тексты SQL-запросов)
+     * @return true если трассировка включена
+     */
+    private boolean enabled;
+
+    /**
+     * Доля трассируемых HTTP-запросов (от 0 до 1)
+     * @return Доля запросов
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * Максимальное количество участков в трассе; остальные не записываются и учитываются в счетчике пропущенных
+     * @return Количество участков
+     */
+    private int maxSpansPerTrace = 500;
+
+    /**
+     * Максимальное количество текстов SQL-запросов в участке; количество и время учитываются для всех запросов
+     * @return Количество запросов
+     */
+    private int maxStatementsPerSpan = 50;
+
+    /**
+     * Максимальная длина сохраняемого текста SQL-запроса
+     * @return Количество символов
+     */
+    private int maxStatementLength = 1000;
+
+    /**
+     * Настройки экспортера в память
+     * @return Настройки экспортера
+     */
+    private InMemory inMemory = new InMemory();
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public TracingProperties() {
+    }
+
+    /**
+     * Настройки экспортера трасс в память.
+     */
+    @Data
+    public static class InMemory {
+        /**
+         * Включен ли экспортер в память и отладочное API трасс
+         * @return true если экспортер включен
+         */
+        private boolean enabled = true;
+
+        /**
+         * Количество хранимых последних трасс
+         * @return Количество трасс
+         */
+        private int capacity = 1000;
+
+        /**
+         * Конструктор по умолчанию, необходимый для Javadoc.
+         */
+        public InMemory() {
+        }
+    }
+}
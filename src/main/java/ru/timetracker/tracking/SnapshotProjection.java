@@ -0,0 +1,47 @@
+package ru.timetracker.tracking;
+
+import org.springframework.stereotype.Component;
+import ru.timetracker.model.TrackingEvent;
+import ru.timetracker.repository.TrackingSnapshotRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Проекция журнала трекинга в снимки состояния {@link ru.timetracker.model.TrackingSnapshot}. Перестроение сворачивает все события
+ * пользователя заново, что исправляет снимки после изменения правил свертки или удаления событий.
+ */
+@Component
+public class SnapshotProjection implements TrackingReplayTarget {
+    /**
+     * Имя проекции
+     */
+    public static final String NAME = "snapshots";
+
+    private final TrackingSnapshotRepository snapshotRepository;
+
+    /**
+     * Создает проекцию снимков.
+     * @param snapshotRepository репозиторий снимков
+     */
+    public SnapshotProjection(TrackingSnapshotRepository snapshotRepository) {
+        this.snapshotRepository = snapshotRepository;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int rebuild(Long userId, List<TrackingEvent> events) {
+        if (events.isEmpty()) {
+            snapshotRepository.deleteById(userId);
+            return 0;
+        }
+        TrackingState state = TrackingState.empty(userId);
+        events.forEach(state::apply);
+        snapshotRepository.save(state.toSnapshot(LocalDateTime.now()));
+        return 1;
+    }
+}
@@ -0,0 +1,136 @@
+package ru.timetracker.tracking;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
+import ru.timetracker.model.TrackingEvent;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Восстановление таблицы {@code time_entries} по журналу трекинга. Таблица остается основным хранилищем записей: старт и остановка
+ * изменяют ее синхронно в той же транзакции, что и дополняют журнал. Пересборка нужна для сверки и восстановления таблицы после сбоев
+ * или ручных правок. Записи пользователя удаляются и вставляются заново с исходными ID, поэтому ссылки на записи (например, в событиях
+ * и ответах API) остаются действительными.
+ * <p>Правила построения:
+ * <ul>
+ *   <li>{@code STARTED} создает запись, {@code STOPPED}/{@code AUTO_COMPLETED} задают время окончания</li>
+ *   <li>{@code EDITED} заменяет задачу и время записи</li>
+ *   <li>Записи удаленных задач и пользователей пропускаются</li>
+ * </ul>
+ * <p>Работает через JDBC в обход контекста персистентности и кэша второго уровня; вызывается в отдельной транзакции на пользователя
+ * под его блокировкой, поэтому старт и остановка того же пользователя не фиксируются во время пересборки.
+ * Структуры в памяти, построенные по записям пользователя, сбрасываются после фиксации пересборки по
+ * {@link UserTrackingDataInvalidatedEvent}.
+ */
+@Component
+public class TimeEntryRebuilder implements TrackingReplayTarget {
+    /**
+     * Имя цели перестроения
+     */
+    public static final String NAME = "time-entries";
+
+    private static final Logger logger = LogManager.getLogger(TimeEntryRebuilder.class);
+    private static final String INSERT_SQL =
+            "INSERT INTO time_entries (id, user_id, task_id, start_time, end_time, active_user_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Создает восстановление записей времени.
+     * @param jdbcTemplate   шаблон JDBC
+     * @param eventPublisher публикатор событий сброса данных трекинга
+     */
+    public TimeEntryRebuilder(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int rebuild(Long userId, List<TrackingEvent> events) {
+        Map<Long, Row> rows = new LinkedHashMap<>();
+        for (TrackingEvent event : events) {
+            switch (event.getType()) {
+                case STARTED -> rows.put(event.getEntryId(), new Row(event.getEntryId(), event.getTaskId(), event.getStartTime(),
+                        event.getEndTime(), event.getRecordedAt()));
+                case STOPPED, AUTO_COMPLETED -> {
+                    Row row = rows.get(event.getEntryId());
+                    if (row != null) {
+                        row.endTime = event.getEndTime();
+                    }
+                }
+                case EDITED -> {
+                    Row row = rows.get(event.getEntryId());
+                    if (row != null) {
+                        row.taskId = event.getTaskId();
+                        row.startTime = event.getStartTime();
+                        row.endTime = event.getEndTime();
+                    }
+                }
+            }
+        }
+
+        jdbcTemplate.update("DELETE FROM time_entries WHERE user_id = ?", userId);
+        eventPublisher.publishEvent(UserTrackingDataInvalidatedEvent.ofUser(userId));
+        Integer users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, userId);
+        if (users == null || users == 0) {
+            logger.debug("User {} no longer exists, skipping {} rebuilt entries", userId, rows.size());
+            return 0;
+        }
+        Set<Long> taskIds = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM tasks WHERE user_id = ?", Long.class, userId));
+        List<Row> projected = rows.values()
+                .stream()
+                .filter(row -> taskIds.contains(row.taskId))
+                .toList();
+        // Журналы, записанные до уникального индекса активной записи, могут содержать несколько незавершенных записей: активной
+        // считается последняя из них
+        Row active = projected.stream()
+                .filter(row -> row.endTime == null)
+                .reduce((first, second) -> second)
+                .orElse(null);
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, projected, projected.size(), (ps, row) -> {
+            ps.setLong(1, row.id);
+            ps.setLong(2, userId);
+            ps.setLong(3, row.taskId);
+            ps.setTimestamp(4, Timestamp.valueOf(row.startTime));
+            ps.setTimestamp(5, row.endTime != null ? Timestamp.valueOf(row.endTime) : null);
+            ps.setObject(6, row == active ? userId : null, Types.BIGINT);
+            ps.setTimestamp(7, Timestamp.valueOf(row.createdAt));
+        });
+        logger.debug("Rebuilt {} time entries of user {} from {} events", projected.size(), userId, events.size());
+        return projected.size();
+    }
+
+    private static final class Row {
+        private final long id;
+        private Long taskId;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private final LocalDateTime createdAt;
+
+        private Row(long id, Long taskId, LocalDateTime startTime, LocalDateTime endTime, LocalDateTime createdAt) {
+            this.id = id;
+            this.taskId = taskId;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package ru.timetracker.tracking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.model.TrackingEvent;
+import ru.timetracker.repository.TrackingEventRepository;
+import ru.timetracker.repository.TrackingSnapshotRepository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Журнал событий трекинга. События только дополняют журнал; снимки состояния строятся из него как проекция, а таблица
+ * {@code time_entries} записывается синхронно и восстанавливается по журналу только при перестроении.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Запись событий старта/остановки/автозавершения, опубликованных {@link ru.timetracker.service.TimeEntryService}</li>
+ *   <li>Получение состояния пользователя: снимок плюс события после него</li>
+ *   <li>Создание снимков для пользователей с накопившимися событиями</li>
+ *   <li>Удаление событий при очистке данных пользователя и по сроку хранения</li>
+ * </ul>
+ * <p>События одной транзакции накапливаются и записываются перед ее фиксацией одним пакетным INSERT через JDBC (мимо статистики
+ * Hibernate); ID берется из последовательности в самом запросе, поэтому транзакция получает ровно одно дополнительное обращение
+ * к БД независимо от числа событий. Откаченная транзакция не оставляет событий в журнале.
+ * @see TrackingState Свертка событий
+ * @see TrackingReplayService Перестроение по журналу
+ */
+@Service
+public class TrackingEventStore {
+    private static final Logger logger = LogManager.getLogger(TrackingEventStore.class);
+
+    private final TrackingEventRepository eventRepository;
+    private final TrackingSnapshotRepository snapshotRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertSql;
+
+    /**
+     * Создает журнал событий трекинга.
+     * @param eventRepository      репозиторий событий
+     * @param snapshotRepository   репозиторий снимков
+     * @param jdbcTemplate         шаблон JDBC для пакетной записи событий
+     * @param entityManagerFactory фабрика EntityManager, из которой берется диалект для выражения следующего значения последовательности
+     */
+    public TrackingEventStore(TrackingEventRepository eventRepository, TrackingSnapshotRepository snapshotRepository,
+            JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        String nextId = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport()
+                .getSelectSequenceNextValString(TrackingEvent.SEQUENCE);
+        this.insertSql = "INSERT INTO tracking_events (id, user_id, type, entry_id, task_id, start_time, end_time, previous_start_time, " +
+                "previous_end_time, recorded_at) VALUES (" + nextId + ", ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    /**
+     * Записывает событие записи времени в журнал. Вызывается синхронно в транзакции, опубликовавшей событие
+     * @param event Событие записи времени
+     */
+    @EventListener
+    public void onTimeEntryEvent(TimeEntryEvent event) {
+        append(TrackingEvent.builder()
+                .userId(event.getUserId())
+                .type(TrackingEvent.Type.valueOf(event.getType()
+                        .name()))
+                .entryId(event.getEntryId())
+                .taskId(event.getTaskId())
+                .startTime(event.getStartTime())
+                .endTime(event.getEndTime())
+                .recordedAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Добавляет событие в журнал. В активной транзакции событие записывается перед ее фиксацией вместе с остальными событиями
+     * транзакции, без транзакции - сразу
+     * @param event Событие журнала (ID назначается при записи)
+     */
+    public void append(TrackingEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(event));
+            return;
+        }
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    /**
+     * Получает текущее состояние трекинга пользователя: последний снимок плюс события после него
+     * @param userId ID пользователя
+     * @return Состояние пользователя
+     */
+    @Transactional(readOnly = true)
+    public TrackingState loadState(Long userId) {
+        TrackingState state = snapshotRepository.findById(userId)
+                .map(TrackingState::fromSnapshot)
+                .orElseGet(() -> TrackingState.empty(userId));
+        List<TrackingEvent> tail = eventRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, state.getLastEventId());
+        tail.forEach(state::apply);
+        logger.debug("Loaded tracking state of user {} with {} events after snapshot", userId, tail.size());
+        return state;
+    }
+
+    /**
+     * Создает снимки состояния для пользователей, у которых после предыдущего снимка накопилось не меньше указанного количества событий
+     * @param minEvents Минимальное количество новых событий
+     * @return Количество созданных снимков
+     */
+    @Transactional
+    public int takeSnapshots(long minEvents) {
+        List<Long> userIds = eventRepository.findUserIdsWithEventsSinceSnapshot(minEvents);
+        LocalDateTime now = LocalDateTime.now();
+        for (Long userId : userIds) {
+            snapshotRepository.save(loadState(userId).toSnapshot(now));
+        }
+        logger.debug("Took {} tracking snapshots", userIds.size());
+        return userIds.size();
+    }
+
+    /**
+     * Удаляет все события и снимок пользователя
+     * @param userId ID пользователя
+     * @return Количество удаленных событий
+     */
+    @Transactional
+    public int deleteUser(Long userId) {
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            pending.events.removeIf(event -> userId.equals(event.getUserId()));
+        }
+        int deleted = eventRepository.deleteByUserId(userId);
+        snapshotRepository.deleteById(userId);
+        logger.info("Deleted {} tracking events of user {}", deleted, userId);
+        return deleted;
+    }
+
+    /**
+     * Удаляет события записей, начатых до указанной даты. Снимки при этом сбрасываются, так как учитывают удаленные события
+     * @param cutoffDate Граничная дата
+     * @return Количество удаленных событий
+     */
+    @Transactional
+    public int deleteStartedBefore(LocalDateTime cutoffDate) {
+        int deleted = eventRepository.deleteByStartTimeBefore(cutoffDate);
+        if (deleted > 0) {
+            snapshotRepository.deleteAllInBatch();
+        }
+        return deleted;
+    }
+
+    private void insert(List<TrackingEvent> events) {
+        jdbcTemplate.batchUpdate(insertSql, events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.getUserId());
+            ps.setString(2, event.getType()
+                    .name());
+            ps.setLong(3, event.getEntryId());
+            ps.setObject(4, event.getTaskId(), Types.BIGINT);
+            ps.setTimestamp(5, timestamp(event.getStartTime()));
+            ps.setTimestamp(6, timestamp(event.getEndTime()));
+            ps.setTimestamp(7, timestamp(event.getPreviousStartTime()));
+            ps.setTimestamp(8, timestamp(event.getPreviousEndTime()));
+            ps.setTimestamp(9, timestamp(event.getRecordedAt()));
+        });
+        logger.debug("Appended {} tracking events", events.size());
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    /**
+     * События текущей транзакции, ожидающие записи перед фиксацией.
+     */
+    private final class PendingEvents implements TransactionSynchronization {
+        private final List<TrackingEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!events.isEmpty()) {
+                insert(events);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TrackingEventStore.this);
+        }
+    }
+}
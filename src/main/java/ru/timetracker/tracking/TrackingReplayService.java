@@ -0,0 +1,148 @@
+package ru.timetracker.tracking;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.timetracker.dto.tracking.TrackingReplayResultDTO;
+import ru.timetracker.dto.tracking.TrackingStateDTO;
+import ru.timetracker.etag.ChangesUserData;
+import ru.timetracker.lock.UserLockStripes;
+import ru.timetracker.model.TrackingEvent;
+import ru.timetracker.repository.TrackingEventRepository;
+import ru.timetracker.tracking.config.TrackingConfig;
+import ru.timetracker.util.DurationFormatter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис воспроизведения журнала трекинга. Перестраивает по событиям таблицу {@code time_entries} и снимки состояния и отдает состояние
+ * пользователя.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Перестроение всех пользователей параллельно, по одной транзакции на пользователя</li>
+ *   <li>Перестроение одного пользователя</li>
+ *   <li>Получение состояния трекинга пользователя по снимку и событиям после него</li>
+ * </ul>
+ * <p>Пересборка пользователя выполняется под его блокировкой {@link UserLockStripes}, которая берется до начала транзакции, а события
+ * читаются после ее захвата: старт или остановка, зафиксированные во время пересборки, не теряются и не конфликтуют с восстановленной
+ * активной записью, а ожидание блокировки не занимает соединение с БД.
+ * @see TrackingReplayTarget Цели перестроения
+ */
+@Service
+public class TrackingReplayService {
+    private static final Logger logger = LogManager.getLogger(TrackingReplayService.class);
+
+    private final TrackingEventRepository eventRepository;
+    private final TrackingEventStore eventStore;
+    private final Map<String, TrackingReplayTarget> targets;
+    private final UserLockStripes userLockStripes;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+
+    /**
+     * Создает сервис воспроизведения журнала.
+     * @param eventRepository    репозиторий событий
+     * @param eventStore         журнал событий
+     * @param targets            доступные цели перестроения
+     * @param userLockStripes    блокировки пользователей
+     * @param transactionManager менеджер транзакций (по транзакции на пользователя)
+     * @param executor           пул потоков перестроения
+     */
+    public TrackingReplayService(TrackingEventRepository eventRepository, TrackingEventStore eventStore, List<TrackingReplayTarget> targets,
+            UserLockStripes userLockStripes, PlatformTransactionManager transactionManager,
+            @Qualifier(TrackingConfig.REPLAY_EXECUTOR) ExecutorService executor) {
+        this.eventRepository = eventRepository;
+        this.eventStore = eventStore;
+        this.targets = targets.stream()
+                .collect(Collectors.toMap(TrackingReplayTarget::getName, Function.identity()));
+        this.userLockStripes = userLockStripes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+
+    /**
+     * Перестраивает данные всех пользователей, у которых есть события. Пользователи обрабатываются параллельно
+     * @param targetName Имя цели перестроения
+     * @return Итоги перестроения
+     * @throws IllegalArgumentException если цель не найдена
+     */
+    @ChangesUserData(allUsers = true)
+    public TrackingReplayResultDTO replayAll(String targetName) {
+        TrackingReplayTarget target = getTarget(targetName);
+        long started = System.nanoTime();
+        List<Long> userIds = eventRepository.findUserIds();
+        logger.info("Replaying '{}' for {} users", target.getName(), userIds.size());
+
+        List<CompletableFuture<long[]>> futures = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            futures.add(CompletableFuture.supplyAsync(() -> replay(target, userId), executor));
+        }
+        long events = 0;
+        long rows = 0;
+        for (CompletableFuture<long[]> future : futures) {
+            long[] counts = future.join();
+            events += counts[0];
+            rows += counts[1];
+        }
+
+        long durationMillis = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Replayed {} events of {} users into '{}' ({} rows) in {} ms", events, userIds.size(), target.getName(), rows,
+                durationMillis);
+        return new TrackingReplayResultDTO(target.getName(), userIds.size(), events, rows, durationMillis);
+    }
+
+    /**
+     * Перестраивает данные одного пользователя
+     * @param targetName Имя цели перестроения
+     * @param userId     ID пользователя
+     * @return Итоги перестроения
+     * @throws IllegalArgumentException если цель не найдена
+     */
+    @ChangesUserData
+    public TrackingReplayResultDTO replayUser(String targetName, Long userId) {
+        TrackingReplayTarget target = getTarget(targetName);
+        long started = System.nanoTime();
+        long[] counts = replay(target, userId);
+        long durationMillis = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Replayed {} events of user {} into '{}' ({} rows)", counts[0], userId, target.getName(), counts[1]);
+        return new TrackingReplayResultDTO(target.getName(), 1, counts[0], counts[1], durationMillis);
+    }
+
+    /**
+     * Получает состояние трекинга пользователя по последнему снимку и событиям после него
+     * @param userId ID пользователя
+     * @return Состояние трекинга
+     */
+    public TrackingStateDTO getState(Long userId) {
+        TrackingState state = eventStore.loadState(userId);
+        return new TrackingStateDTO(state.getUserId(), state.getLastEventId(), state.getActiveEntryId(), state.getActiveTaskId(),
+                state.getActiveStartTime(), state.getCompletedEntries(), DurationFormatter.formatSeconds(state.getTrackedSeconds()),
+                state.getTrackedSeconds());
+    }
+
+    private long[] replay(TrackingReplayTarget target, Long userId) {
+        // События читаются после захвата блокировки: все старты и остановки пользователя уже зафиксированы, новые ждут пересборки
+        return userLockStripes.withLock(userId, () -> transactionTemplate.execute(status -> {
+            List<TrackingEvent> events = eventRepository.findByUserIdOrderByIdAsc(userId);
+            int rows = target.rebuild(userId, events);
+            return new long[]{events.size(), rows};
+        }));
+    }
+
+    private TrackingReplayTarget getTarget(String targetName) {
+        TrackingReplayTarget target = targets.get(targetName);
+        if (target == null) {
+            throw new IllegalArgumentException("Unknown replay target: " + targetName + ", available: " + targets.keySet());
+        }
+        return target;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.timetracker.tracking;
+
+import ru.timetracker.model.TrackingEvent;
+
+import java.util.List;
+
+/**
+ * Данные, которые можно перестроить воспроизведением событий журнала трекинга одного пользователя.
+ * <p>Данные пользователей независимы, поэтому {@link TrackingReplayService} перестраивает их параллельно, каждого пользователя в своей
+ * транзакции под блокировкой пользователя.
+ * @see TimeEntryRebuilder Восстановление таблицы записей времени
+ * @see SnapshotProjection Проекция снимков состояния
+ */
+public interface TrackingReplayTarget {
+    /**
+     * Имя цели, по которому она выбирается при перестроении
+     * @return Имя цели
+     */
+    String getName();
+
+    /**
+     * Полностью перестраивает данные пользователя по его событиям
+     * @param userId ID пользователя
+     * @param events Все события пользователя в порядке записи
+     * @return Количество записанных строк
+     */
+    int rebuild(Long userId, List<TrackingEvent> events);
+}
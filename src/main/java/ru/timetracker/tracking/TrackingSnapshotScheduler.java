@@ -0,0 +1,49 @@
+package ru.timetracker.tracking;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.timetracker.metrics.SchedulerMetrics;
+import ru.timetracker.tracking.config.TrackingProperties;
+
+/**
+ * Периодическое создание снимков состояния трекинга для пользователей, у которых накопились новые события.
+ */
+@Component
+public class TrackingSnapshotScheduler {
+    private static final Logger logger = LogManager.getLogger(TrackingSnapshotScheduler.class);
+    private static final String JOB_NAME = "tracking-snapshot";
+
+    private final TrackingEventStore eventStore;
+    private final TrackingProperties properties;
+    private final SchedulerMetrics schedulerMetrics;
+
+    /**
+     * Создает планировщик снимков.
+     * @param eventStore       журнал событий трекинга
+     * @param properties       настройки журнала
+     * @param schedulerMetrics метрики задач по расписанию
+     */
+    public TrackingSnapshotScheduler(TrackingEventStore eventStore, TrackingProperties properties, SchedulerMetrics schedulerMetrics) {
+        this.eventStore = eventStore;
+        this.properties = properties;
+        this.schedulerMetrics = schedulerMetrics;
+    }
+
+    /**
+     * Создает снимки с интервалом {@code timetracker.tracking.snapshot.interval}.
+     */
+    @Scheduled(fixedDelayString = "${timetracker.tracking.snapshot.interval:PT5M}",
+            initialDelayString = "${timetracker.tracking.snapshot.interval:PT5M}")
+    public void takeSnapshots() {
+        schedulerMetrics.recordRun(JOB_NAME, () -> {
+            int snapshots = eventStore.takeSnapshots(properties.getSnapshot()
+                    .getMinEvents());
+            if (snapshots > 0) {
+                logger.info("Took {} tracking snapshots", snapshots);
+            }
+            schedulerMetrics.recordRows(JOB_NAME, "snapshots", snapshots);
+        });
+    }
+}
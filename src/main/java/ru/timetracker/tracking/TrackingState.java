@@ -0,0 +1,142 @@
+package ru.timetracker.tracking;
+
+import lombok.Getter;
+import lombok.ToString;
+import ru.timetracker.model.TrackingEvent;
+import ru.timetracker.model.TrackingSnapshot;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Состояние трекинга пользователя, получаемое сверткой журнала событий. Начальное состояние берется из снимка (или пустое), после чего
+ * к нему последовательно применяются события, записанные позже снимка.
+ * <p>Правила свертки:
+ * <ul>
+ *   <li>{@code STARTED} делает запись активной</li>
+ *   <li>{@code STOPPED} и {@code AUTO_COMPLETED} добавляют продолжительность записи к итогу и снимают активность</li>
+ *   <li>{@code EDITED} корректирует итог на разницу продолжительностей или меняет активную запись</li>
+ * </ul>
+ * @see TrackingEventStore Журнал событий
+ */
+@Getter
+@ToString
+public class TrackingState {
+    private final Long userId;
+    private Long lastEventId;
+    private Long activeEntryId;
+    private Long activeTaskId;
+    private LocalDateTime activeStartTime;
+    private long completedEntries;
+    private long trackedSeconds;
+
+    private TrackingState(Long userId) {
+        this.userId = userId;
+        this.lastEventId = 0L;
+    }
+
+    /**
+     * Создает пустое состояние пользователя без событий
+     * @param userId ID пользователя
+     * @return Пустое состояние
+     */
+    public static TrackingState empty(Long userId) {
+        return new TrackingState(userId);
+    }
+
+    /**
+     * Восстанавливает состояние из снимка
+     * @param snapshot Снимок состояния
+     * @return Состояние на момент снимка
+     */
+    public static TrackingState fromSnapshot(TrackingSnapshot snapshot) {
+        TrackingState state = new TrackingState(snapshot.getUserId());
+        state.lastEventId = snapshot.getLastEventId();
+        state.activeEntryId = snapshot.getActiveEntryId();
+        state.activeTaskId = snapshot.getActiveTaskId();
+        state.activeStartTime = snapshot.getActiveStartTime();
+        state.completedEntries = snapshot.getCompletedEntries();
+        state.trackedSeconds = snapshot.getTrackedSeconds();
+        return state;
+    }
+
+    /**
+     * Применяет событие к состоянию. События с ID не больше уже учтенного пропускаются
+     * @param event Событие журнала
+     * @return Это же состояние
+     */
+    public TrackingState apply(TrackingEvent event) {
+        if (event.getId() != null && event.getId() <= lastEventId) {
+            return this;
+        }
+        switch (event.getType()) {
+            case STARTED -> {
+                activeEntryId = event.getEntryId();
+                activeTaskId = event.getTaskId();
+                activeStartTime = event.getStartTime();
+            }
+            case STOPPED, AUTO_COMPLETED -> {
+                completedEntries++;
+                trackedSeconds += seconds(event.getStartTime(), event.getEndTime());
+                clearActive(event.getEntryId());
+            }
+            case EDITED -> applyEdit(event);
+        }
+        if (event.getId() != null) {
+            lastEventId = event.getId();
+        }
+        return this;
+    }
+
+    /**
+     * Создает снимок текущего состояния
+     * @param takenAt Время создания снимка
+     * @return Снимок состояния
+     */
+    public TrackingSnapshot toSnapshot(LocalDateTime takenAt) {
+        return TrackingSnapshot.builder()
+                .userId(userId)
+                .lastEventId(lastEventId)
+                .activeEntryId(activeEntryId)
+                .activeTaskId(activeTaskId)
+                .activeStartTime(activeStartTime)
+                .completedEntries(completedEntries)
+                .trackedSeconds(trackedSeconds)
+                .takenAt(takenAt)
+                .build();
+    }
+
+    private void applyEdit(TrackingEvent event) {
+        if (Objects.equals(activeEntryId, event.getEntryId())) {
+            if (event.getEndTime() == null) {
+                activeTaskId = event.getTaskId();
+                activeStartTime = event.getStartTime();
+                return;
+            }
+            // Правка закрыла активную запись
+            completedEntries++;
+            trackedSeconds += seconds(event.getStartTime(), event.getEndTime());
+            clearActive(event.getEntryId());
+            return;
+        }
+        trackedSeconds += seconds(event.getStartTime(), event.getEndTime()) - seconds(event.getPreviousStartTime(),
+                event.getPreviousEndTime());
+    }
+
+    private void clearActive(Long entryId) {
+        if (Objects.equals(activeEntryId, entryId)) {
+            activeEntryId = null;
+            activeTaskId = null;
+            activeStartTime = null;
+        }
+    }
+
+    private static long seconds(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(start, end)
+                .getSeconds());
+    }
+}
@@ -0,0 +1,43 @@
+package ru.timetracker.tracking.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Конфигурация журнала трекинга.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Подключает настройки {@link TrackingProperties}</li>
+ *   <li>Создает пул потоков для параллельного перестроения по журналу по пользователям</li>
+ * </ul>
+ */
+@Configuration
+@EnableConfigurationProperties(TrackingProperties.class)
+public class TrackingConfig {
+    /**
+     * Имя бина пула перестроения по журналу
+     */
+    public static final String REPLAY_EXECUTOR = "trackingReplayExecutor";
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public TrackingConfig() {
+    }
+
+    /**
+     * Создает пул потоков перестроения по журналу
+     * @param properties настройки журнала трекинга
+     * @return пул фиксированного размера
+     */
+    @Bean(name = REPLAY_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService trackingReplayExecutor(TrackingProperties properties) {
+        return Executors.newFixedThreadPool(properties.getReplay()
+                .getParallelism(), new CustomizableThreadFactory("tracking-replay-"));
+    }
+}
@@ -0,0 +1,78 @@
+package ru.timetracker.tracking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки журнала трекинга. Задаются в {@code application.properties} с префиксом {@code timetracker.tracking}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Периодичность создания снимков и порог новых событий для снимка</li>
+ *   <li>Параллелизм перестроения по журналу</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.tracking")
+public class TrackingProperties {
+    /**
+     * Настройки снимков состояния
+     * @return Настройки снимков
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * Настройки перестроения по журналу
+     * @return Настройки перестроения
+     */
+    private Replay replay = new Replay();
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public TrackingProperties() {
+    }
+
+    /**
+     * Настройки снимков состояния.
+     */
+    @Data
+    public static class Snapshot {
+        /**
+         * Интервал между запусками создания снимков
+         * @return Интервал
+         */
+        private Duration interval = Duration.ofMinutes(5);
+
+        /**
+         * Минимальное количество новых событий пользователя для создания снимка
+         * @return Количество событий
+         */
+        private long minEvents = 100;
+
+        /**
+         * Конструктор по умолчанию, необходимый для Javadoc.
+         */
+        public Snapshot() {
+        }
+    }
+
+    /**
+     * Настройки перестроения по журналу.
+     */
+    @Data
+    public static class Replay {
+        /**
+         * Количество пользователей, перестраиваемых параллельно (каждому нужно отдельное соединение с БД)
+         * @return Количество потоков
+         */
+        private int parallelism = 4;
+
+        /**
+         * Конструктор по умолчанию, необходимый для Javadoc.
+         */
+        public Replay() {
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.timetracker.util;
+
+import java.time.Duration;
+
+/**
+ * Форматирование продолжительности работы в строку формата {@code HH:MM}, используемую во всех DTO статистики.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Форматирование количества секунд</li>
+ *   <li>Форматирование {@link Duration}</li>
+ * </ul>
+ */
+public final class DurationFormatter {
+
+    private DurationFormatter() {
+    }
+
+    /**
+     * Форматирует количество секунд в строку {@code HH:MM}
+     * @param totalSeconds Количество секунд
+     * @return Строка формата HH:MM (часы не ограничены 24)
+     */
+    public static String formatSeconds(long totalSeconds) {
+        long hours = totalSeconds / 3600;
+        long minutes = (totalSeconds % 3600) / 60;
+        return String.format("%02d:%02d", hours, minutes);
+    }
+
+    /**
+     * Форматирует продолжительность в строку {@code HH:MM}
+     * @param duration Продолжительность
+     * @return Строка формата HH:MM (часы не ограничены 24)
+     */
+    public static String format(Duration duration) {
+        long hours = duration.toHours();
+        long minutes = duration.minusHours(hours)
+                .toMinutes();
+        return String.format("%02d:%02d", hours, minutes);
+    }
+}
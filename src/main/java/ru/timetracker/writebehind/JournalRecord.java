@@ -0,0 +1,36 @@
+package ru.timetracker.writebehind;
+
+import ru.timetracker.event.TimeEntryEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись журнала отложенной записи: старт или завершение записи времени.
+ * @param sequence  Порядковый номер записи в журнале (начиная с 1)
+ * @param type      Тип события
+ * @param userId    ID пользователя
+ * @param entryId   ID записи времени
+ * @param taskId    ID задачи
+ * @param startTime Время начала записи
+ * @param endTime   Время окончания записи (null для старта)
+ */
+public record JournalRecord(long sequence, TimeEntryEvent.Type type, long userId, long entryId, long taskId, LocalDateTime startTime,
+                            LocalDateTime endTime) {
+
+    /**
+     * Создает запись с назначенным порядковым номером
+     * @param sequence Порядковый номер
+     * @return Копия записи с номером
+     */
+    public JournalRecord withSequence(long sequence) {
+        return new JournalRecord(sequence, type, userId, entryId, taskId, startTime, endTime);
+    }
+
+    /**
+     * Преобразует запись в событие записи времени
+     * @return Событие записи времени
+     */
+    public TimeEntryEvent toEvent() {
+        return new TimeEntryEvent(type, entryId, userId, taskId, startTime, endTime);
+    }
+}
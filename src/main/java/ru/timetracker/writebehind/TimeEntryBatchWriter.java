@@ -0,0 +1,150 @@
+package ru.timetracker.writebehind;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.timetracker.model.TimeEntry;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Пакетная запись накопленных записей журнала в таблицу {@code time_entries}.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Сворачивает записи журнала по ID записи времени и пишет результат пакетными INSERT/UPDATE</li>
+ *   <li>Публикует события старта/остановки в транзакции записи, чтобы журнал трекинга и индексы увидели их вместе с данными</li>
+ *   <li>Резервирует блоки ID записей времени из последовательности {@link TimeEntry#SEQUENCE}</li>
+ * </ul>
+ * <p>Запись идемпотентна: уже примененные записи (например, при восстановлении после сбоя между фиксацией транзакции и отметкой в
+ * журнале) не пишутся и не публикуются повторно. Записи удаленных задач пропускаются.
+ */
+@Component
+public class TimeEntryBatchWriter {
+    private static final Logger logger = LogManager.getLogger(TimeEntryBatchWriter.class);
+    private static final String INSERT_SQL =
+            "INSERT INTO time_entries (id, user_id, task_id, start_time, end_time, active_user_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE time_entries SET end_time = ?, active_user_id = NULL, version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nextIdBlockSql;
+
+    /**
+     * Создает пакетную запись журнала.
+     * @param jdbcTemplate         шаблон JDBC
+     * @param eventPublisher       публикатор событий записей времени
+     * @param entityManagerFactory фабрика EntityManager (диалект для запроса следующего значения последовательности)
+     */
+    public TimeEntryBatchWriter(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+            EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.eventPublisher = eventPublisher;
+        this.nextIdBlockSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport()
+                .getSequenceNextValString(TimeEntry.SEQUENCE);
+    }
+
+    /**
+     * Записывает пакет записей журнала в отдельной транзакции
+     * @param records Записи журнала в порядке номеров
+     * @return Количество вставленных и обновленных строк
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int write(List<JournalRecord> records) {
+        Map<Long, JournalRecord> latest = new LinkedHashMap<>();
+        Set<Long> taskIds = new HashSet<>();
+        for (JournalRecord record : records) {
+            latest.put(record.entryId(), record);
+            taskIds.add(record.taskId());
+        }
+        Set<Long> existingTasks = new HashSet<>(namedJdbcTemplate.queryForList("SELECT id FROM tasks WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", taskIds), Long.class));
+        Map<Long, LocalDateTime> storedEndTimes = new HashMap<>();
+        Set<Long> storedEntries = new HashSet<>();
+        namedJdbcTemplate.query("SELECT id, end_time FROM time_entries WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", latest.keySet()), rs -> {
+                    Timestamp endTime = rs.getTimestamp(2);
+                    storedEntries.add(rs.getLong(1));
+                    storedEndTimes.put(rs.getLong(1), endTime != null ? endTime.toLocalDateTime() : null);
+                });
+
+        List<JournalRecord> inserts = new ArrayList<>();
+        List<JournalRecord> updates = new ArrayList<>();
+        for (JournalRecord record : latest.values()) {
+            if (!existingTasks.contains(record.taskId())) {
+                continue;
+            }
+            if (!storedEntries.contains(record.entryId())) {
+                inserts.add(record);
+            } else if (record.endTime() != null && storedEndTimes.get(record.entryId()) == null) {
+                updates.add(record);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        // Сначала завершаются сохраненные активные записи, иначе новая активная запись того же пользователя нарушит уникальность
+        // active_user_id
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (ps, record) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(record.endTime()));
+            ps.setLong(2, record.entryId());
+        });
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, record) -> {
+            ps.setLong(1, record.entryId());
+            ps.setLong(2, record.userId());
+            ps.setLong(3, record.taskId());
+            ps.setTimestamp(4, Timestamp.valueOf(record.startTime()));
+            ps.setTimestamp(5, record.endTime() != null ? Timestamp.valueOf(record.endTime()) : null);
+            ps.setObject(6, record.endTime() == null ? record.userId() : null, Types.BIGINT);
+            ps.setTimestamp(7, Timestamp.valueOf(now));
+        });
+
+        for (JournalRecord record : records) {
+            if (existingTasks.contains(record.taskId()) && !isApplied(record, storedEntries, storedEndTimes)) {
+                eventPublisher.publishEvent(record.toEvent());
+            }
+        }
+        logger.debug("Wrote {} journal records: {} inserted, {} updated time entries", records.size(), inserts.size(), updates.size());
+        return inserts.size() + updates.size();
+    }
+
+    /**
+     * Резервирует блок из {@link TimeEntry#ID_ALLOCATION_SIZE} ID записей времени одним обращением к последовательности. Hibernate
+     * берет блоки из той же последовательности, поэтому ID не пересекаются; последовательность не участвует в транзакции и не
+     * блокирует таблицу, так что резервирование безопасно вызывать из транзакции старта
+     * @return Первый ID блока
+     */
+    public long reserveIdBlock() {
+        long firstId = Objects.requireNonNull(jdbcTemplate.queryForObject(nextIdBlockSql, Long.class));
+        logger.debug("Reserved time entry ids {}..{}", firstId, firstId + TimeEntry.ID_ALLOCATION_SIZE - 1);
+        return firstId;
+    }
+
+    private static boolean isApplied(JournalRecord record, Set<Long> storedEntries, Map<Long, LocalDateTime> storedEndTimes) {
+        if (!storedEntries.contains(record.entryId())) {
+            return false;
+        }
+        return record.endTime() == null || storedEndTimes.get(record.entryId()) != null;
+    }
+}
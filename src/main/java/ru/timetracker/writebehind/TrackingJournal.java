@@ -0,0 +1,245 @@
+package ru.timetracker.writebehind;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.timetracker.event.TimeEntryEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Кольцевой журнал фиксированного размера в отображаемом в память файле. Хранит записи старта/остановки трекинга до их записи в БД.
+ * <p>Формат файла:
+ * <ul>
+ *   <li>Заголовок 64 байта: сигнатура, версия, емкость, номер последней записи, сохраненной в БД</li>
+ *   <li>Записи по 64 байта; запись с номером {@code n} хранится в ячейке {@code (n - 1) % capacity}</li>
+ *   <li>Каждая запись содержит свой номер и контрольную сумму CRC32C, поэтому недописанная запись и записи прошлых кругов
+ *   отбрасываются при восстановлении</li>
+ * </ul>
+ * <p>Запись в отображенный файл переживает аварийное завершение процесса; для защиты от сбоя ОС включается сброс страниц после каждой
+ * записи. Методы потокобезопасны.
+ */
+public class TrackingJournal implements Closeable {
+    /**
+     * Размер заголовка в байтах
+     */
+    public static final int HEADER_SIZE = 64;
+
+    /**
+     * Размер записи в байтах
+     */
+    public static final int RECORD_SIZE = 64;
+
+    private static final Logger logger = LogManager.getLogger(TrackingJournal.class);
+    private static final int MAGIC = 0x54544A31;
+    private static final int VERSION = 1;
+    private static final int FLUSHED_OFFSET = 16;
+    private static final int CHECKSUM_OFFSET = 60;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final TimeEntryEvent.Type[] TYPES = TimeEntryEvent.Type.values();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final boolean forceOnAppend;
+    private long flushedSequence;
+    private long lastSequence;
+
+    private TrackingJournal(FileChannel channel, MappedByteBuffer buffer, int capacity, boolean forceOnAppend) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.forceOnAppend = forceOnAppend;
+    }
+
+    /**
+     * Открывает журнал, создавая файл при необходимости. Емкость существующего журнала берется из его заголовка
+     * @param file          Путь к файлу журнала
+     * @param capacity      Емкость нового журнала в записях
+     * @param forceOnAppend Сбрасывать ли страницы на диск после каждой записи
+     * @return Открытый журнал, готовый к восстановлению через {@link #recover()}
+     * @throws IOException если файл не удалось открыть или отобразить
+     */
+    public static TrackingJournal open(Path file, int capacity, boolean forceOnAppend) throws IOException {
+        Path parent = file.toAbsolutePath()
+                .getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            int existingCapacity = readExistingCapacity(channel);
+            int journalCapacity = existingCapacity > 0 ? existingCapacity : capacity;
+            if (existingCapacity > 0 && existingCapacity != capacity) {
+                logger.warn("Journal {} keeps its capacity of {} records, configured capacity {} is ignored", file, existingCapacity, capacity);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) journalCapacity * RECORD_SIZE);
+            TrackingJournal journal = new TrackingJournal(channel, buffer, journalCapacity, forceOnAppend);
+            if (existingCapacity == 0) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, journalCapacity);
+                buffer.putLong(FLUSHED_OFFSET, 0);
+                buffer.force(0, HEADER_SIZE);
+            }
+            journal.flushedSequence = buffer.getLong(FLUSHED_OFFSET);
+            journal.lastSequence = journal.flushedSequence;
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Читает записи, не сохраненные в БД до предыдущего завершения, и продолжает нумерацию после последней целой записи
+     * @return Несохраненные записи в порядке номеров
+     */
+    public synchronized List<JournalRecord> recover() {
+        List<JournalRecord> records = new ArrayList<>();
+        long sequence = flushedSequence + 1;
+        while (sequence - flushedSequence <= capacity) {
+            JournalRecord record = read(sequence);
+            if (record == null) {
+                break;
+            }
+            records.add(record);
+            sequence++;
+        }
+        lastSequence = sequence - 1;
+        return records;
+    }
+
+    /**
+     * Добавляет запись в журнал
+     * @param record Запись (номер назначается журналом)
+     * @return Запись с назначенным номером
+     * @throws IllegalStateException если журнал заполнен несохраненными записями
+     */
+    public synchronized JournalRecord append(JournalRecord record) {
+        if (lastSequence - flushedSequence >= capacity) {
+            throw new IllegalStateException("Write-behind journal is full (" + capacity + " unflushed records)");
+        }
+        JournalRecord numbered = record.withSequence(lastSequence + 1);
+        int offset = offset(numbered.sequence());
+        buffer.putLong(offset, numbered.sequence());
+        buffer.put(offset + 8, (byte) numbered.type()
+                .ordinal());
+        buffer.put(offset + 9, (byte) 0);
+        buffer.putShort(offset + 10, (short) 0);
+        buffer.putInt(offset + 12, numbered.startTime()
+                .getNano());
+        buffer.putLong(offset + 16, numbered.userId());
+        buffer.putLong(offset + 24, numbered.entryId());
+        buffer.putLong(offset + 32, numbered.taskId());
+        buffer.putLong(offset + 40, numbered.startTime()
+                .toEpochSecond(ZoneOffset.UTC));
+        buffer.putLong(offset + 48, numbered.endTime() != null ? numbered.endTime()
+                .toEpochSecond(ZoneOffset.UTC) : NO_TIME);
+        buffer.putInt(offset + 56, numbered.endTime() != null ? numbered.endTime()
+                .getNano() : 0);
+        buffer.putInt(offset + CHECKSUM_OFFSET, checksum(offset));
+        if (forceOnAppend) {
+            buffer.force(offset, RECORD_SIZE);
+        }
+        lastSequence = numbered.sequence();
+        return numbered;
+    }
+
+    /**
+     * Отмечает записи до указанного номера включительно как сохраненные в БД; их ячейки могут быть использованы повторно
+     * @param sequence Номер последней сохраненной записи
+     */
+    public synchronized void markFlushed(long sequence) {
+        if (sequence <= flushedSequence) {
+            return;
+        }
+        flushedSequence = Math.min(sequence, lastSequence);
+        buffer.putLong(FLUSHED_OFFSET, flushedSequence);
+        if (forceOnAppend) {
+            buffer.force(0, HEADER_SIZE);
+        }
+    }
+
+    /**
+     * Количество записей, еще не сохраненных в БД
+     * @return Количество записей
+     */
+    public synchronized long getPendingCount() {
+        return lastSequence - flushedSequence;
+    }
+
+    /**
+     * Номер последней записи, сохраненной в БД
+     * @return Номер записи
+     */
+    public synchronized long getFlushedSequence() {
+        return flushedSequence;
+    }
+
+    /**
+     * Емкость журнала в записях
+     * @return Количество записей
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Сбрасывает журнал на диск и закрывает файл
+     * @throws IOException если файл не удалось закрыть
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private JournalRecord read(long sequence) {
+        int offset = offset(sequence);
+        if (buffer.getLong(offset) != sequence || buffer.getInt(offset + CHECKSUM_OFFSET) != checksum(offset)) {
+            return null;
+        }
+        int type = buffer.get(offset + 8);
+        if (type < 0 || type >= TYPES.length) {
+            return null;
+        }
+        long endSecond = buffer.getLong(offset + 48);
+        LocalDateTime endTime = endSecond == NO_TIME ? null : LocalDateTime.ofEpochSecond(endSecond, buffer.getInt(offset + 56),
+                ZoneOffset.UTC);
+        return new JournalRecord(sequence, TYPES[type], buffer.getLong(offset + 16), buffer.getLong(offset + 24),
+                buffer.getLong(offset + 32), LocalDateTime.ofEpochSecond(buffer.getLong(offset + 40), buffer.getInt(offset + 12),
+                ZoneOffset.UTC), endTime);
+    }
+
+    private int offset(long sequence) {
+        return HEADER_SIZE + (int) ((sequence - 1) % capacity) * RECORD_SIZE;
+    }
+
+    private int checksum(int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, CHECKSUM_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private static int readExistingCapacity(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            return 0;
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            return 0;
+        }
+        return header.getInt(8);
+    }
+}
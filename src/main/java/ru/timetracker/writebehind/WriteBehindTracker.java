@@ -0,0 +1,413 @@
+package ru.timetracker.writebehind;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.timetracker.dto.timeentry.TimeEntryDTO;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.lock.UserLockStripes;
+import ru.timetracker.model.Task;
+import ru.timetracker.model.TimeEntry;
+import ru.timetracker.repository.TaskRepository;
+import ru.timetracker.repository.TimeEntryRepository;
+import ru.timetracker.writebehind.config.WriteBehindProperties;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Отложенная запись старта/остановки трекинга. Включается настройкой {@code timetracker.write-behind.enabled}.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Старт и остановка добавляют запись в журнал {@link TrackingJournal} и отвечают по состоянию в памяти, без записи в БД</li>
+ *   <li>Фоновый поток пакетно записывает накопленное в {@code time_entries} через {@link TimeEntryBatchWriter}</li>
+ *   <li>При запуске записи, не сохраненные до остановки или сбоя, восстанавливаются из журнала и записываются в БД</li>
+ *   <li>При штатной остановке (после остановки веб-сервера) накопленное записывается полностью</li>
+ * </ul>
+ * <p>Старт и остановка пользователя выполняются под его блокировкой {@link UserLockStripes} - той же, что и в режиме прямой записи,
+ * но без транзакции: блокировка освобождается сразу после добавления в журнал. Журнал дополняется вне операций
+ * {@link ConcurrentHashMap}, поэтому синхронная запись в БД при заполненном журнале не выполняется под блокировкой сегмента карты.
+ * <p>В этом режиме приложение должно быть единственным экземпляром, пишущим записи времени: активные записи пользователей хранятся
+ * в памяти. ID новых записей выдаются из блоков последовательности {@link TimeEntry#SEQUENCE} без обращения к БД на каждый старт.
+ * Чтение записей времени отстает от старта/остановки не больше чем на интервал фоновой записи.
+ * @see WriteBehindProperties Настройки режима
+ */
+@Component
+public class WriteBehindTracker implements SmartLifecycle {
+    private static final Logger logger = LogManager.getLogger(WriteBehindTracker.class);
+    private static final ActiveEntry NO_ACTIVE_ENTRY = new ActiveEntry(0, 0, null, null);
+
+    private final WriteBehindProperties properties;
+    private final TimeEntryBatchWriter batchWriter;
+    private final TaskRepository taskRepository;
+    private final TimeEntryRepository timeEntryRepository;
+    private final UserLockStripes userLockStripes;
+
+    private final Map<Long, ActiveEntry> activeEntries = new ConcurrentHashMap<>();
+    private final Deque<JournalRecord> pending = new ArrayDeque<>();
+    private final Object pendingLock = new Object();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Object idLock = new Object();
+    private final AtomicLong flushedRecords = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    private volatile TrackingJournal journal;
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+    private long nextId;
+    private long idBlockEnd;
+
+    /**
+     * Создает отложенную запись трекинга.
+     * @param properties          настройки режима
+     * @param batchWriter         пакетная запись в БД
+     * @param taskRepository      репозиторий задач (проверка принадлежности задачи, обслуживается кэшем второго уровня)
+     * @param timeEntryRepository репозиторий записей времени (начальная загрузка активной записи пользователя)
+     * @param userLockStripes     блокировки пользователей (сериализуют старт и остановку одного пользователя)
+     */
+    public WriteBehindTracker(WriteBehindProperties properties, TimeEntryBatchWriter batchWriter, TaskRepository taskRepository,
+            TimeEntryRepository timeEntryRepository, UserLockStripes userLockStripes) {
+        this.properties = properties;
+        this.batchWriter = batchWriter;
+        this.taskRepository = taskRepository;
+        this.timeEntryRepository = timeEntryRepository;
+        this.userLockStripes = userLockStripes;
+    }
+
+    /**
+     * Включен ли режим и готов ли журнал принимать записи
+     * @return true если старт/остановка должны идти через журнал
+     */
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * Начинает запись времени: завершает активную запись пользователя и добавляет в журнал старт новой
+     * @param userId ID пользователя
+     * @param taskId ID задачи
+     * @return Новая активная запись
+     * @throws ResourceNotFoundException если задача не найдена или не принадлежит пользователю
+     * @throws org.springframework.dao.CannotAcquireLockException если блокировка пользователя не получена за время ожидания
+     */
+    public TimeEntryDTO start(Long userId, Long taskId) {
+        Task task = taskRepository.findByIdAndUserId(taskId, userId)
+                .orElseThrow(() -> {
+                    logger.error("Task {} not found for user {}", taskId, userId);
+                    return new ResourceNotFoundException("Task not found");
+                });
+        long entryId = allocateId();
+
+        ActiveEntry started = userLockStripes.withLock(userId, () -> {
+            ActiveEntry active = loadActiveEntry(userId);
+            LocalDateTime now = LocalDateTime.now();
+            if (active != NO_ACTIVE_ENTRY) {
+                append(new JournalRecord(0, TimeEntryEvent.Type.STOPPED, userId, active.entryId(), active.taskId(), active.startTime(),
+                        now));
+            }
+            append(new JournalRecord(0, TimeEntryEvent.Type.STARTED, userId, entryId, taskId, now, null));
+            ActiveEntry entry = new ActiveEntry(entryId, taskId, task.getTitle(), now);
+            activeEntries.put(userId, entry);
+            return entry;
+        });
+        logger.debug("Journaled start of time entry {} for user {}", entryId, userId);
+        return toDTO(userId, started, null);
+    }
+
+    /**
+     * Завершает активную запись пользователя
+     * @param userId ID пользователя
+     * @param type   Тип события завершения ({@code STOPPED} или {@code AUTO_COMPLETED})
+     * @return Завершенная запись
+     * @throws IllegalStateException если нет активной записи времени
+     * @throws org.springframework.dao.CannotAcquireLockException если блокировка пользователя не получена за время ожидания
+     */
+    public TimeEntryDTO stop(Long userId, TimeEntryEvent.Type type) {
+        LocalDateTime now = LocalDateTime.now();
+        ActiveEntry stopped = userLockStripes.withLock(userId, () -> {
+            ActiveEntry active = loadActiveEntry(userId);
+            if (active == NO_ACTIVE_ENTRY) {
+                logger.error("No active time entry found for user {}", userId);
+                throw new IllegalStateException("No active time entry");
+            }
+            append(new JournalRecord(0, type, userId, active.entryId(), active.taskId(), active.startTime(), now));
+            activeEntries.put(userId, NO_ACTIVE_ENTRY);
+            return active;
+        });
+        logger.debug("Journaled stop of time entry {} for user {}", stopped.entryId(), userId);
+        return toDTO(userId, stopped, now);
+    }
+
+    /**
+     * Завершает запись пользователя с указанным временем окончания, если она все еще активна
+     * @param userId  ID пользователя
+     * @param entryId ID записи, которую нужно завершить
+     * @param type    Тип события завершения
+     * @param endTime Время окончания записи
+     * @return Завершенная запись или null, если эта запись уже не активна
+     * @throws org.springframework.dao.CannotAcquireLockException если блокировка пользователя не получена за время ожидания
+     */
+    public TimeEntryDTO stopEntry(Long userId, Long entryId, TimeEntryEvent.Type type, LocalDateTime endTime) {
+        ActiveEntry stopped = userLockStripes.withLock(userId, () -> {
+            ActiveEntry active = loadActiveEntry(userId);
+            if (active == NO_ACTIVE_ENTRY || active.entryId() != entryId) {
+                return null;
+            }
+            append(new JournalRecord(0, type, userId, active.entryId(), active.taskId(), active.startTime(), endTime));
+            activeEntries.put(userId, NO_ACTIVE_ENTRY);
+            return active;
+        });
+        if (stopped == null) {
+            return null;
+        }
+        logger.debug("Journaled stop of time entry {} for user {} at {}", entryId, userId, endTime);
+        return toDTO(userId, stopped, endTime);
+    }
+
+    /**
+     * Записывает в БД все накопленные записи. Вызывается перед операциями, которым нужны актуальные данные в БД (очистка данных,
+     * автозавершение). Без включенного режима ничего не делает
+     * @throws IllegalStateException если записать накопленное не удалось
+     */
+    public void drain() {
+        if (journal == null) {
+            return;
+        }
+        while (true) {
+            synchronized (pendingLock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+            }
+            if (!flushBatch()) {
+                throw new IllegalStateException("Failed to flush write-behind journal");
+            }
+        }
+    }
+
+    /**
+     * Забывает состояние пользователя в памяти после удаления его данных
+     * @param userId ID пользователя
+     */
+    public void evictUser(Long userId) {
+        activeEntries.remove(userId);
+    }
+
+    /**
+     * Количество записей журнала, еще не сохраненных в БД
+     * @return Количество записей
+     */
+    public long getPendingCount() {
+        synchronized (pendingLock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Количество записей журнала, сохраненных в БД с момента запуска
+     * @return Количество записей
+     */
+    public long getFlushedCount() {
+        return flushedRecords.get();
+    }
+
+    /**
+     * Количество неудачных попыток фоновой записи
+     * @return Количество попыток
+     */
+    public long getFailedFlushCount() {
+        return failedFlushes.get();
+    }
+
+    /**
+     * Открывает журнал, записывает в БД восстановленные записи и запускает фоновую запись
+     */
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        try {
+            journal = TrackingJournal.open(properties.getJournalFile(), properties.getCapacity(), properties.isForceOnAppend());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open write-behind journal " + properties.getJournalFile(), e);
+        }
+        List<JournalRecord> recovered = journal.recover();
+        if (!recovered.isEmpty()) {
+            logger.warn("Replaying {} unflushed write-behind records from {}", recovered.size(), properties.getJournalFile());
+            synchronized (pendingLock) {
+                pending.addAll(recovered);
+            }
+            drain();
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("write-behind-"));
+        long intervalMillis = properties.getFlushInterval()
+                .toMillis();
+        flusher.scheduleWithFixedDelay(this::flushBatch, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+        logger.info("Write-behind tracking enabled (journal: {}, capacity: {}, flush interval: {})", properties.getJournalFile(),
+                journal.getCapacity(), properties.getFlushInterval());
+    }
+
+    /**
+     * Останавливает фоновую запись, записывает в БД все накопленное и закрывает журнал
+     */
+    @Override
+    public void stop() {
+        if (journal == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(properties.getFlushInterval()
+                    .multipliedBy(10)
+                    .toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Write-behind flusher did not stop in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+        }
+        try {
+            drain();
+        } catch (IllegalStateException e) {
+            logger.error("{} unflushed records stay in the journal and will be replayed on next start", getPendingCount(), e);
+        }
+        synchronized (pendingLock) {
+            running = false;
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.error("Failed to close write-behind journal: {}", e.getMessage(), e);
+            }
+            journal = null;
+        }
+        logger.info("Write-behind tracking stopped, {} records flushed since start", flushedRecords.get());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Фаза ниже фаз веб-сервера: журнал восстанавливается до приема запросов и записывается в БД после их завершения
+     * @return Фаза жизненного цикла
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    // Вызывается под блокировкой пользователя: состояние пользователя в карте меняет только ее владелец
+    private ActiveEntry loadActiveEntry(Long userId) {
+        ActiveEntry active = activeEntries.get(userId);
+        if (active != null) {
+            return active;
+        }
+        ActiveEntry loaded = timeEntryRepository.findActiveWithTaskByUserId(userId)
+                .map(entry -> new ActiveEntry(entry.getId(), entry.getTask()
+                        .getId(), entry.getTask()
+                        .getTitle(), entry.getStartTime()))
+                .orElse(NO_ACTIVE_ENTRY);
+        activeEntries.put(userId, loaded);
+        return loaded;
+    }
+
+    private long allocateId() {
+        synchronized (idLock) {
+            if (nextId >= idBlockEnd) {
+                nextId = batchWriter.reserveIdBlock();
+                idBlockEnd = nextId + TimeEntry.ID_ALLOCATION_SIZE;
+            }
+            return nextId++;
+        }
+    }
+
+    private void append(JournalRecord record) {
+        while (true) {
+            synchronized (pendingLock) {
+                if (journal == null) {
+                    throw new IllegalStateException("Write-behind journal is closed");
+                }
+                if (journal.getPendingCount() < journal.getCapacity()) {
+                    pending.addLast(journal.append(record));
+                    return;
+                }
+            }
+            logger.warn("Write-behind journal is full, flushing synchronously");
+            drain();
+        }
+    }
+
+    private boolean flushBatch() {
+        flushLock.lock();
+        try {
+            List<JournalRecord> batch;
+            synchronized (pendingLock) {
+                batch = new ArrayList<>(Math.min(pending.size(), properties.getBatchSize()));
+                for (JournalRecord record : pending) {
+                    if (batch.size() == properties.getBatchSize()) {
+                        break;
+                    }
+                    batch.add(record);
+                }
+            }
+            if (batch.isEmpty()) {
+                return true;
+            }
+            batchWriter.write(batch);
+            synchronized (pendingLock) {
+                for (int i = 0; i < batch.size(); i++) {
+                    pending.removeFirst();
+                }
+                journal.markFlushed(batch.get(batch.size() - 1)
+                        .sequence());
+            }
+            flushedRecords.addAndGet(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            logger.error("Write-behind flush failed, {} records will be retried: {}", getPendingCount(), e.getMessage(), e);
+            return false;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private static TimeEntryDTO toDTO(Long userId, ActiveEntry entry, LocalDateTime endTime) {
+        TimeEntryDTO dto = new TimeEntryDTO();
+        dto.setId(entry.entryId());
+        dto.setStartTime(entry.startTime());
+        dto.setEndTime(endTime);
+        dto.setDuration(endTime != null ? Duration.between(entry.startTime(), endTime) : Duration.ZERO);
+        dto.setUserId(userId);
+        dto.setTaskId(entry.taskId());
+        dto.setTaskTitle(entry.taskTitle());
+        dto.setActive(endTime == null);
+        return dto;
+    }
+
+    /**
+     * Активная запись пользователя в памяти.
+     */
+    private record ActiveEntry(long entryId, long taskId, String taskTitle, LocalDateTime startTime) {
+    }
+}
@@ -0,0 +1,48 @@
+package ru.timetracker.writebehind.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.timetracker.writebehind.WriteBehindTracker;
+
+/**
+ * Конфигурация режима отложенной записи старта/остановки трекинга.
+ * <p>Основные функции:
+ * <ul>
+ *   <li>Подключает настройки {@link WriteBehindProperties}</li>
+ *   <li>Публикует метрики журнала: несохраненные записи, сохраненные записи, неудачные попытки записи</li>
+ * </ul>
+ * @see WriteBehindTracker Отложенная запись трекинга
+ */
+@Configuration
+@EnableConfigurationProperties(WriteBehindProperties.class)
+public class WriteBehindConfig {
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public WriteBehindConfig() {
+    }
+
+    /**
+     * Регистрирует метрики отложенной записи
+     * @param tracker отложенная запись трекинга
+     * @return регистратор метрик
+     */
+    @Bean
+    public MeterBinder writeBehindMetrics(WriteBehindTracker tracker) {
+        return registry -> {
+            Gauge.builder("timetracker.writebehind.pending", tracker, WriteBehindTracker::getPendingCount)
+                    .description("Journaled start/stop records not yet written to the database")
+                    .register(registry);
+            FunctionCounter.builder("timetracker.writebehind.flushed", tracker, WriteBehindTracker::getFlushedCount)
+                    .description("Journaled records written to the database")
+                    .register(registry);
+            FunctionCounter.builder("timetracker.writebehind.flush.failures", tracker, WriteBehindTracker::getFailedFlushCount)
+                    .description("Failed background flushes of the write-behind journal")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package ru.timetracker.writebehind.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки режима отложенной записи старта/остановки трекинга. Задаются в {@code application.properties} с префиксом
+ * {@code timetracker.write-behind}.
+ * <p>Настраиваются:
+ * <ul>
+ *   <li>Файл журнала и его емкость в записях</li>
+ *   <li>Периодичность и размер пакета фоновой записи в БД</li>
+ * </ul>
+ */
+@Data
+@ConfigurationProperties(prefix = "timetracker.write-behind")
+public class WriteBehindProperties {
+    /**
+     * Включен ли режим отложенной записи
+     * @return true если режим включен
+     */
+    private boolean enabled = false;
+
+    /**
+     * Путь к файлу журнала
+     * @return Путь к файлу
+     */
+    private Path journalFile = Path.of("data", "write-behind.journal");
+
+    /**
+     * Емкость журнала в записях; при заполнении старт/остановка ждут записи накопленного в БД
+     * @return Количество записей
+     */
+    private int capacity = 65_536;
+
+    /**
+     * Сбрасывать ли страницы журнала на диск после каждой записи (защита от сбоя ОС, а не только процесса)
+     * @return true если сброс включен
+     */
+    private boolean forceOnAppend = false;
+
+    /**
+     * Интервал фоновой записи в БД
+     * @return Интервал
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * Максимальное количество записей журнала в одной транзакции фоновой записи
+     * @return Размер пакета
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * Конструктор по умолчанию, необходимый для Javadoc.
+     */
+    public WriteBehindProperties() {
+    }
+}
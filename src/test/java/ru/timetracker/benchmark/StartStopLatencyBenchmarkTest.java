@@ -0,0 +1,119 @@
+package ru.timetracker.benchmark;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.UserService;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Замер задержки быстрого пути старта/остановки трекинга на H2. Не входит в обычный прогон тестов, запускается профилем
+ * {@code benchmark}: {@code mvn test -Pbenchmark}.
+ * <p>Параметры (системные свойства):
+ * <ul>
+ *   <li>{@code benchmark.warmup} - количество прогревочных циклов (по умолчанию 500)</li>
+ *   <li>{@code benchmark.iterations} - количество измеряемых циклов (по умолчанию 5000)</li>
+ * </ul>
+ * <p>Помимо перцентилей выводит пропускную способность (циклов в секунду). Для сравнения с профилем логирования production
+ * запустите замер повторно с {@code -Pbenchmark,prod -Dspring.profiles.active=prod}: Maven-профиль {@code prod} добавляет настройки
+ * log4j для всей JVM.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class StartStopLatencyBenchmarkTest {
+    private static final Logger logger = LogManager.getLogger(StartStopLatencyBenchmarkTest.class);
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private Environment environment;
+
+    private Long userId;
+    private Long firstTaskId;
+    private Long secondTaskId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.createUser(new UserCreateDTO("Benchmark", "benchmark-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+        firstTaskId = taskService.createTask(userId, new TaskCreateDTO("Benchmark task 1", null))
+                .getId();
+        secondTaskId = taskService.createTask(userId, new TaskCreateDTO("Benchmark task 2", null))
+                .getId();
+    }
+
+    /**
+     * Измеряет задержку цикла "старт, переключение на другую задачу, остановка" и выводит перцентили и пропускную способность в лог.
+     */
+    @Test
+    void measureStartSwitchStopLatency() {
+        int warmup = Integer.getInteger("benchmark.warmup", 500);
+        int iterations = Integer.getInteger("benchmark.iterations", 5000);
+
+        for (int i = 0; i < warmup; i++) {
+            runCycle();
+        }
+
+        long[] start = new long[iterations];
+        long[] switchTask = new long[iterations];
+        long[] stop = new long[iterations];
+        long began = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            long t0 = System.nanoTime();
+            timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(firstTaskId));
+            long t1 = System.nanoTime();
+            timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(secondTaskId));
+            long t2 = System.nanoTime();
+            timeEntryService.stopTimeEntry(userId);
+            long t3 = System.nanoTime();
+            start[i] = t1 - t0;
+            switchTask[i] = t2 - t1;
+            stop[i] = t3 - t2;
+        }
+
+        long elapsed = System.nanoTime() - began;
+
+        report("start", start);
+        report("switch", switchTask);
+        report("stop", stop);
+        logger.info("throughput: {} cycles/s ({} iterations, profiles: {})", Math.round(iterations * 1e9 / elapsed), iterations,
+                Arrays.toString(environment.getActiveProfiles()));
+        assertTrue(percentile(stop, 0.5) > 0);
+    }
+
+    private void runCycle() {
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(firstTaskId));
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(secondTaskId));
+        timeEntryService.stopTimeEntry(userId);
+    }
+
+    private static void report(String operation, long[] samples) {
+        logger.info("{}: n={}, p50={} us, p90={} us, p99={} us, max={} us", operation, samples.length, percentile(samples, 0.5) / 1000,
+                percentile(samples, 0.9) / 1000, percentile(samples, 0.99) / 1000, percentile(samples, 1.0) / 1000);
+    }
+
+    private static long percentile(long[] samples, double quantile) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
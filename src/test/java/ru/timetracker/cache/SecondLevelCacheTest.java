@@ -0,0 +1,124 @@
+package ru.timetracker.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.timetracker.cache.config.SecondLevelCacheConfig;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.model.Task;
+import ru.timetracker.model.User;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.UserService;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционные тесты кэша второго уровня на H2. Проверяют, что пользователь и задача читаются из кэша, а на пути старта/остановки
+ * трекинга не читаются отдельными SELECT-запросами.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Попадания в кэш при чтении пользователя и задачи по ID</li>
+ *   <li>Отсутствия загрузок User/Task из БД при старте и остановке</li>
+ *   <li>Кэширования запроса списка задач пользователя</li>
+ * </ul>
+ */
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long userId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        userId = userService.createUser(new UserCreateDTO("Cache Tester", "cache-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+        taskId = taskService.createTask(userId, new TaskCreateDTO("Cached task", "Second-level cache test"))
+                .getId();
+        statistics.clear();
+    }
+
+    /**
+     * Проверяет, что чтение пользователя и задачи по ID обслуживается кэшем второго уровня.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Пользователь читается из региона пользователей без загрузки из БД</li>
+     *   <li>Повторное чтение задачи по ID попадает в регион запросов задач и не загружает задачу из БД</li>
+     * </ul>
+     */
+    @Test
+    void getUserAndTask_ShouldHitSecondLevelCache() {
+        taskService.getTaskById(userId, taskId);
+        long taskLoads = statistics.getEntityStatistics(Task.class.getName())
+                .getLoadCount();
+
+        taskService.getTaskById(userId, taskId);
+        userService.getUserById(userId);
+
+        assertEquals(1, statistics.getQueryRegionStatistics(SecondLevelCacheConfig.TASK_QUERY_REGION)
+                .getHitCount());
+        assertEquals(taskLoads, statistics.getEntityStatistics(Task.class.getName())
+                .getLoadCount());
+        assertTrue(statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.USER_REGION)
+                .getHitCount() > 0);
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName())
+                .getLoadCount());
+    }
+
+    /**
+     * Проверяет, что старт и остановка трекинга не загружают пользователя и задачу из БД отдельными запросами.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Пользователь не загружается из БД</li>
+     *   <li>Задача загружается только в составе запросов быстрого пути: всего четыре SQL-запроса на старт и остановку</li>
+     * </ul>
+     */
+    @Test
+    void startAndStop_ShouldReadUserAndTaskFromCache() {
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(taskId));
+        timeEntryService.stopTimeEntry(userId);
+
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName())
+                .getLoadCount());
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Проверяет, что повторный запрос списка задач обслуживается кэшем запросов.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Запрос выполняется в БД только один раз</li>
+     *   <li>Второй вызов дает попадание в регион запросов задач</li>
+     * </ul>
+     */
+    @Test
+    void getUserTasks_ShouldHitQueryCacheOnRepeatedCall() {
+        taskService.getUserTasks(userId, false);
+        taskService.getUserTasks(userId, false);
+
+        assertEquals(1, statistics.getQueryRegionStatistics(SecondLevelCacheConfig.TASK_QUERY_REGION)
+                .getMissCount());
+        assertEquals(1, statistics.getQueryRegionStatistics(SecondLevelCacheConfig.TASK_QUERY_REGION)
+                .getHitCount());
+    }
+}
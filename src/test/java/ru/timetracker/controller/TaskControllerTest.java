@@ -9,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import ru.timetracker.dto.task.TaskCreateDTO;
 import ru.timetracker.dto.task.TaskDTO;
+import ru.timetracker.dto.task.TaskSuggestionDTO;
 import ru.timetracker.dto.task.TaskUpdateDTO;
 import ru.timetracker.service.TaskService;
 
@@ -163,4 +164,41 @@ class TaskControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         verify(taskService).deleteTask(taskId, userId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Проверяет поиск задач по префиксу названия. Ожидаемое поведение:
+     * <ul>
+     *   <li>HTTP-статус 200 (OK)</li>
+     *   <li>Тело ответа содержит найденные подсказки</li>
+     *   <li>Вызов taskService.searchTasksByTitle() с правильными параметрами</li>
+     * </ul>
+     */
+    @Test
+    void searchTasks_Success() {
+        Long userId = 1L;
+        List<TaskSuggestionDTO> suggestions = List.of(new TaskSuggestionDTO());
+        when(taskService.searchTasksByTitle(userId, "раз", 10, false)).thenReturn(suggestions);
+
+        ResponseEntity<List<TaskSuggestionDTO>> response = taskController.searchTasks(userId, "раз", 10, false);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(suggestions, response.getBody());
+        verify(taskService).searchTasksByTitle(userId, "раз", 10, false);
+    }
+
+    /**
+     * Проверяет обработку некорректного лимита при поиске задач. Ожидаемое поведение:
+     * <ul>
+     *   <li>HTTP-статус 400 (Bad Request)</li>
+     * </ul>
+     */
+    @Test
+    void searchTasks_BadRequest_WhenLimitInvalid() {
+        Long userId = 1L;
+        when(taskService.searchTasksByTitle(userId, "раз", 0, false)).thenThrow(new IllegalArgumentException("Limit must be positive"));
+
+        ResponseEntity<List<TaskSuggestionDTO>> response = taskController.searchTasks(userId, "раз", 0, false);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+}
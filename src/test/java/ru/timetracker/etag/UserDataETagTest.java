@@ -0,0 +1,163 @@
+package ru.timetracker.etag;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.dto.user.UserUpdateDTO;
+import ru.timetracker.scheduler.DataCleanupScheduler;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.UserService;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты условных GET-запросов к данным пользователя на H2.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Выдачи ETag и ответа 304 Not Modified без тела на совпадающий {@code If-None-Match}</li>
+ *   <li>Смены ETag после изменений задач, пользователя, трекинга и очистки данных</li>
+ *   <li>Смены ETag статистики команды после изменения данных участника</li>
+ *   <li>Отсутствия ETag у ответов с ошибкой</li>
+ * </ul>
+ */
+@SpringBootTest(properties = "timetracker.etag.refresh-interval=365d")
+@AutoConfigureMockMvc
+class UserDataETagTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private DataCleanupScheduler dataCleanupScheduler;
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * Проверяет ответ 304 и смену ETag после изменения задач.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Список задач возвращается со слабым ETag; повторный запрос с этим ETag получает 304 без тела</li>
+     *   <li>ETag другого пользователя и других путей пользователя не затрагиваются изменением</li>
+     *   <li>После создания задачи прежний ETag не совпадает, и список возвращается полностью</li>
+     * </ul>
+     */
+    @Test
+    void getWithMatchingETag_ShouldReturnNotModifiedUntilTasksChange() throws Exception {
+        Long userId = createUser();
+        Long otherId = createUser();
+        taskService.createTask(userId, new TaskCreateDTO("ETag task " + UUID.randomUUID(), "ETag test"));
+        String tasks = "/api/v1/users/" + userId + "/tasks";
+
+        String eTag = eTag(tasks);
+        String otherETag = eTag("/api/v1/users/" + otherId + "/tasks");
+        assertTrue(eTag.startsWith("W/\""));
+        mockMvc.perform(get(tasks).header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        taskService.createTask(userId, new TaskCreateDTO("ETag task " + UUID.randomUUID(), "ETag test"));
+
+        mockMvc.perform(get(tasks).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+        assertNotEquals(eTag, eTag(tasks));
+        mockMvc.perform(get("/api/v1/users/" + otherId + "/tasks").header(HttpHeaders.IF_NONE_MATCH, otherETag))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * Проверяет смену ETag после изменений пользователя, трекинга и очистки данных.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Изменение пользователя, старт и остановка трекинга и очистка по сроку хранения меняют ETag</li>
+     *   <li>Ответ с ошибкой для несуществующего пользователя не получает ETag</li>
+     * </ul>
+     */
+    @Test
+    void writes_ShouldChangeETag() throws Exception {
+        Long userId = createUser();
+        Long taskId = taskService.createTask(userId, new TaskCreateDTO("ETag task " + UUID.randomUUID(), "ETag test"))
+                .getId();
+        String user = "/api/v1/users/" + userId;
+
+        String created = eTag(user);
+        userService.updateUser(userId, new UserUpdateDTO("ETag Renamed", "etag-" + UUID.randomUUID() + "@example.com"));
+        String updated = eTag(user);
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(taskId));
+        String started = eTag(user);
+        timeEntryService.stopTimeEntry(userId);
+        String stopped = eTag(user);
+        dataCleanupScheduler.cleanupOldData();
+        String cleaned = eTag(user);
+
+        assertEquals(5, Set.of(created, updated, started, stopped, cleaned)
+                .size());
+        mockMvc.perform(get("/api/v1/users/" + Long.MAX_VALUE / 2))
+                .andExpect(result -> assertTrue(result.getResponse()
+                        .getStatus() >= 400))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    /**
+     * Проверяет ETag статистики сессий команды.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Статистика команды получает ETag; повторный запрос с ним получает 304</li>
+     *   <li>После трекинга участника команды прежний ETag не совпадает, хотя данные пользователя пути не менялись</li>
+     *   <li>Запрос с некорректным ID участника выполняется без ETag</li>
+     * </ul>
+     */
+    @Test
+    void teamSessionStats_ShouldChangeETagWhenTeamMemberChanges() throws Exception {
+        Long userId = createUser();
+        Long memberId = createUser();
+        Long memberTaskId = taskService.createTask(memberId, new TaskCreateDTO("ETag task " + UUID.randomUUID(), "ETag test"))
+                .getId();
+        String teamStats = "/api/v1/users/" + userId + "/time-entries/session-stats?teamUserIds=" + memberId;
+
+        String eTag = eTag(teamStats);
+        mockMvc.perform(get(teamStats).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        timeEntryService.startTimeEntry(memberId, new TimeEntryCreateDTO(memberTaskId));
+        timeEntryService.stopTimeEntry(memberId);
+
+        mockMvc.perform(get(teamStats).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+        assertNotEquals(eTag, eTag(teamStats));
+        mockMvc.perform(get("/api/v1/users/" + userId + "/time-entries/session-stats?teamUserIds=abc"))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    private Long createUser() {
+        return userService.createUser(new UserCreateDTO("ETag Tester", "etag-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+    }
+
+    private String eTag(String path) throws Exception {
+        String eTag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        return eTag;
+    }
+}
@@ -0,0 +1,162 @@
+package ru.timetracker.idle;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.timetracker.dto.idle.AutoStopDTO;
+import ru.timetracker.dto.idle.IdlePolicyDTO;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.idle.config.IdlePolicyProperties;
+import ru.timetracker.service.IdlePolicyService;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционные тесты остановки забытых записей на H2.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Остановки записей по ограничению пользователя и по ограничению задачи, имеющему приоритет</li>
+ *   <li>Постраничного обхода записей с одинаковым временем начала</li>
+ *   <li>Получения остановок из журнала трекинга для уведомления клиента</li>
+ * </ul>
+ */
+@SpringBootTest
+class IdleEntryStopperTest {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO time_entries (id, user_id, task_id, start_time, end_time, created_at) " +
+                    "VALUES (NEXT VALUE FOR time_entries_seq, ?, ?, ?, NULL, ?)";
+    private static final String END_TIME_SQL = "SELECT end_time FROM time_entries WHERE id = ?";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private IdlePolicyService idlePolicyService;
+    @Autowired
+    private IdleEntryStopper idleEntryStopper;
+    @Autowired
+    private IdlePolicyProperties idlePolicyProperties;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now()
+            .truncatedTo(ChronoUnit.SECONDS);
+
+    /**
+     * Проверяет остановку записей по ограничениям длительности.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Запись, превысившая ограничение пользователя, завершается временем начала плюс ограничение</li>
+     *   <li>Ограничение задачи имеет приоритет над ограничением пользователя</li>
+     *   <li>Запись в пределах ограничения не меняется</li>
+     * </ul>
+     */
+    @Test
+    void stopIdleEntries_ShouldStopEntriesOverTheirLimit() {
+        Long userLimited = createUser(60);
+        Long userEntry = insertOpenEntry(userLimited, createTask(userLimited, null), now.minusHours(2));
+        Long taskLimited = createUser(600);
+        Long taskEntry = insertOpenEntry(taskLimited, createTask(taskLimited, 30), now.minusHours(1));
+        Long withinLimit = createUser(600);
+        Long runningEntry = insertOpenEntry(withinLimit, createTask(withinLimit, null), now.minusHours(1));
+
+        idleEntryStopper.stopIdleEntries();
+
+        assertEquals(now.minusHours(1), endTime(userEntry));
+        assertEquals(now.minusMinutes(30), endTime(taskEntry));
+        assertNull(endTime(runningEntry));
+    }
+
+    /**
+     * Проверяет, что записи с одинаковым временем начала не пропускаются на границе пакетов.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>При пакете меньше числа записей с одним временем начала все они завершаются</li>
+     * </ul>
+     */
+    @Test
+    void stopIdleEntries_ShouldNotSkipEntriesWithSameStartTime() {
+        LocalDateTime start = now.minusHours(3);
+        List<Long> entryIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Long userId = createUser(60);
+            entryIds.add(insertOpenEntry(userId, createTask(userId, null), start));
+        }
+        int batchSize = idlePolicyProperties.getBatchSize();
+        idlePolicyProperties.setBatchSize(2);
+        try {
+            idleEntryStopper.stopIdleEntries();
+        } finally {
+            idlePolicyProperties.setBatchSize(batchSize);
+        }
+
+        for (Long entryId : entryIds) {
+            assertEquals(start.plusHours(1), endTime(entryId));
+        }
+    }
+
+    /**
+     * Проверяет получение остановок для уведомления клиента.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Остановка записана в журнал трекинга с временем окончания записи</li>
+     *   <li>Запрос после ID последней полученной остановки возвращает пустой список</li>
+     * </ul>
+     */
+    @Test
+    void getAutoStops_ShouldReturnRecordedStops() {
+        Long userId = createUser(15);
+        Long entryId = insertOpenEntry(userId, createTask(userId, null), now.minusHours(3));
+
+        idleEntryStopper.stopIdleEntries();
+
+        List<AutoStopDTO> stops = idlePolicyService.getAutoStops(userId, null, 10);
+        assertEquals(1, stops.size());
+        assertEquals(entryId, stops.get(0)
+                .getEntryId());
+        assertEquals(now.minusHours(3)
+                .plusMinutes(15), stops.get(0)
+                .getEndTime());
+        assertTrue(idlePolicyService.getAutoStops(userId, stops.get(0)
+                        .getEventId(), 10)
+                .isEmpty());
+    }
+
+    private Long createUser(int maxEntryMinutes) {
+        Long userId = userService.createUser(new UserCreateDTO("Idle Tester", "idle-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+        idlePolicyService.updateUserPolicy(userId, new IdlePolicyDTO(maxEntryMinutes));
+        return userId;
+    }
+
+    private Long createTask(Long userId, Integer maxEntryMinutes) {
+        Long taskId = taskService.createTask(userId, new TaskCreateDTO("Forgotten task", "Idle policy test"))
+                .getId();
+        if (maxEntryMinutes != null) {
+            idlePolicyService.updateTaskPolicy(userId, taskId, new IdlePolicyDTO(maxEntryMinutes));
+        }
+        return taskId;
+    }
+
+    private Long insertOpenEntry(Long userId, Long taskId, LocalDateTime start) {
+        jdbcTemplate.update(INSERT_SQL, userId, taskId, Timestamp.valueOf(start), Timestamp.valueOf(start));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM time_entries WHERE user_id = ?", Long.class, userId);
+    }
+
+    private LocalDateTime endTime(Long entryId) {
+        return jdbcTemplate.queryForObject(END_TIME_SQL, LocalDateTime.class, entryId);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.timetracker.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты битовой карты дней {@link DayBitmap}.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Подсчета дней в периоде, в том числе после отметки дня раньше первого</li>
+ *   <li>Поиска самой длинной серии и серии, заканчивающейся указанным днем</li>
+ *   <li>Выборки периода для пересечения карт</li>
+ * </ul>
+ */
+class DayBitmapTest {
+
+    private final LocalDate start = LocalDate.of(2025, 7, 1);
+
+    /**
+     * Проверяет подсчет дней в периоде.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Диапазон отмечает все дни включительно</li>
+     *   <li>Отметка дня раньше первого сдвигает карту без потери дней</li>
+     *   <li>Период вне карты дает 0</li>
+     * </ul>
+     */
+    @Test
+    void count_ShouldCountMarkedDaysInPeriod() {
+        DayBitmap bitmap = new DayBitmap();
+        bitmap.markRange(start.plusDays(10), start.plusDays(12));
+        bitmap.markRange(start, start);
+
+        assertEquals(4, bitmap.count(start, start.plusDays(30)));
+        assertEquals(2, bitmap.count(start.plusDays(11), start.plusDays(20)));
+        assertEquals(0, bitmap.count(start.minusDays(30), start.minusDays(1)));
+        assertEquals(0, new DayBitmap().count(start, start.plusDays(1)));
+    }
+
+    /**
+     * Проверяет поиск серий подряд идущих дней.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Самая длинная серия ограничивается границами периода</li>
+     *   <li>Серия, заканчивающаяся неотмеченным днем, равна 0</li>
+     * </ul>
+     */
+    @Test
+    void streaks_ShouldFindConsecutiveDays() {
+        DayBitmap bitmap = new DayBitmap();
+        bitmap.markRange(start, start.plusDays(1));
+        bitmap.markRange(start.plusDays(3), start.plusDays(7));
+
+        long[] longest = bitmap.longestStreak(start, start.plusDays(30));
+        assertEquals(5, longest[0]);
+        assertEquals(start.plusDays(3), LocalDate.ofEpochDay(longest[1]));
+        assertEquals(3, bitmap.longestStreak(start, start.plusDays(5))[0]);
+        assertEquals(3, bitmap.streakEndingAt(start.plusDays(5)));
+        assertEquals(0, bitmap.streakEndingAt(start.plusDays(2)));
+    }
+
+    /**
+     * Проверяет выборку периода и пересечение карт.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Бит 0 выборки соответствует первому дню периода, даже если карта начинается позже</li>
+     *   <li>Пересечение оставляет только общие дни</li>
+     * </ul>
+     */
+    @Test
+    void slice_ShouldAlignToPeriodStart() {
+        DayBitmap first = new DayBitmap();
+        first.markRange(start.plusDays(2), start.plusDays(5));
+        DayBitmap second = new DayBitmap();
+        second.markRange(start, start.plusDays(3));
+
+        BitSet common = first.slice(start, start.plusDays(10));
+        common.and(second.slice(start, start.plusDays(10)));
+
+        assertEquals(List.of(start.plusDays(2), start.plusDays(3)), DayBitmap.toDays(common, start));
+    }
+}
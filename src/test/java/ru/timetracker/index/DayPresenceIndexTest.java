@@ -0,0 +1,144 @@
+package ru.timetracker.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.UserService;
+import ru.timetracker.sql.SqlStatementCounter;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционные тесты индекса дней с трекингом на H2.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Построения карты по записям, в том числе записи через полночь</li>
+ *   <li>Отметки дня при остановке трекинга и сброса карты при удалении задачи</li>
+ *   <li>Чтения карт без запросов к БД после их построения при запуске</li>
+ * </ul>
+ */
+@SpringBootTest
+class DayPresenceIndexTest {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO time_entries (id, user_id, task_id, start_time, end_time, created_at) " +
+                    "VALUES (NEXT VALUE FOR time_entries_seq, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private DayPresenceIndex dayPresenceIndex;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long taskId;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.createUser(new UserCreateDTO("Presence Tester", "presence-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+        taskId = taskService.createTask(userId, new TaskCreateDTO("Daily work", "Day presence test"))
+                .getId();
+        today = LocalDate.now();
+    }
+
+    /**
+     * Проверяет построение карты по записям из БД.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Несколько записей за один день дают один день</li>
+     *   <li>Запись через полночь отмечает оба дня</li>
+     * </ul>
+     */
+    @Test
+    void countDays_ShouldLoadDaysFromEntries() {
+        LocalDateTime tenDaysAgo = today.minusDays(10)
+                .atTime(9, 0);
+        insert(tenDaysAgo, tenDaysAgo.plusHours(1));
+        insert(tenDaysAgo.plusHours(3), tenDaysAgo.plusHours(4));
+        LocalDateTime lateEvening = today.minusDays(5)
+                .atTime(23, 0);
+        insert(lateEvening, lateEvening.plusHours(2));
+        // Записи вставлены в обход сервисов, без событий: карта перестраивается, как после массовых изменений
+        dayPresenceIndex.onUserTrackingDataInvalidated(UserTrackingDataInvalidatedEvent.ofUser(userId));
+
+        assertEquals(3, dayPresenceIndex.countDays(userId, today.minusDays(30), today));
+        assertEquals(2, dayPresenceIndex.longestStreak(userId, today.minusDays(30), today)[0]);
+    }
+
+    /**
+     * Проверяет отметку дня при остановке трекинга и сброс карты при удалении задачи.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Старт без остановки день не отмечает</li>
+     *   <li>После остановки сегодняшний день отмечен без повторного построения карты</li>
+     *   <li>После удаления задачи с записями дней не остается</li>
+     * </ul>
+     */
+    @Test
+    void stop_ShouldMarkTodayAndTaskDeletionShouldEvict() {
+        assertEquals(0, dayPresenceIndex.countDays(userId, today, today));
+
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(taskId));
+        assertEquals(0, dayPresenceIndex.countDays(userId, today, today));
+        timeEntryService.stopTimeEntry(userId);
+        assertEquals(1, dayPresenceIndex.countDays(userId, today.minusDays(1), today));
+
+        taskService.deleteTask(taskId, userId);
+        assertEquals(0, dayPresenceIndex.countDays(userId, today.minusDays(1), today));
+    }
+
+    /**
+     * Проверяет, что после построения карт при запуске чтение не обращается к БД.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Для пользователя без завершенных записей возвращается пустая карта без запроса</li>
+     *   <li>Карта, перестроенная после удаления записей, читается без запроса</li>
+     * </ul>
+     */
+    @Test
+    void reads_ShouldNotQueryDatabaseAfterWarmUp() {
+        LocalDateTime yesterday = today.minusDays(1)
+                .atTime(10, 0);
+        insert(yesterday, yesterday.plusHours(1));
+        dayPresenceIndex.warmUp();
+        Long otherId = userService.createUser(new UserCreateDTO("Presence Tester", "presence-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open("day-presence")) {
+            assertEquals(1, dayPresenceIndex.countDays(userId, today.minusDays(7), today));
+            assertEquals(0, dayPresenceIndex.countDays(otherId, today.minusDays(7), today));
+            assertEquals(0, scope.getCount());
+        }
+
+        taskService.deleteTask(taskId, userId);
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open("day-presence")) {
+            assertEquals(0, dayPresenceIndex.countDays(userId, today.minusDays(7), today));
+            assertEquals(0, scope.getCount());
+        }
+    }
+
+    private void insert(LocalDateTime start, LocalDateTime end) {
+        jdbcTemplate.update(INSERT_SQL, userId, taskId, Timestamp.valueOf(start), Timestamp.valueOf(end), Timestamp.valueOf(start));
+    }
+}
@@ -0,0 +1,209 @@
+package ru.timetracker.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.timetracker.dto.task.TaskSuggestionDTO;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
+import ru.timetracker.model.Task;
+import ru.timetracker.model.User;
+import ru.timetracker.repository.TaskRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Тесты для {@link TaskTitleIndex}, проверяющие поиск задач по префиксу и инкрементальное обновление индекса.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Ленивой загрузки индекса пользователя одним запросом и отказа от сохранения пустого индекса</li>
+ *   <li>Поиска без учета регистра и фильтрации неактивных задач</li>
+ *   <li>Ранжирования по времени последнего трекинга и ограничения top-k</li>
+ *   <li>Обновления индекса при изменении, удалении задач и старте трекинга</li>
+ *   <li>Сохранения изменения, пришедшего во время загрузки индекса</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskTitleIndexTest {
+
+    private final Long userId = 1L;
+    private final LocalDateTime now = LocalDateTime.now();
+    @Mock
+    private TaskRepository taskRepository;
+    @InjectMocks
+    private TaskTitleIndex taskTitleIndex;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "Разработка API", true, now.minusDays(2)});
+        rows.add(new Object[]{2L, "Разбор почты", true, now.minusHours(1)});
+        rows.add(new Object[]{3L, "Разметка данных", false, now});
+        rows.add(new Object[]{4L, "Ревью кода", true, null});
+        lenient().when(taskRepository.findTitleIndexRowsByUserId(userId))
+                .thenReturn(rows);
+    }
+
+    /**
+     * Проверяет поиск по префиксу без учета регистра с сортировкой по времени последнего трекинга.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Возвращаются только активные задачи с подходящим префиксом</li>
+     *   <li>Недавно отслеживаемые задачи идут первыми</li>
+     *   <li>Индекс загружается из БД один раз</li>
+     * </ul>
+     */
+    @Test
+    void search_ShouldMatchPrefixCaseInsensitiveAndRankByRecentTracking() {
+        List<TaskSuggestionDTO> result = taskTitleIndex.search(userId, "РАЗ", 10, false);
+        taskTitleIndex.search(userId, "раз", 10, false);
+
+        assertEquals(List.of(2L, 1L), taskIds(result));
+        verify(taskRepository, times(1)).findTitleIndexRowsByUserId(userId);
+    }
+
+    /**
+     * Проверяет включение неактивных задач и ограничение количества результатов.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Неактивная задача попадает в результат при includeInactive = true</li>
+     *   <li>Возвращается не более limit самых недавних задач</li>
+     * </ul>
+     */
+    @Test
+    void search_ShouldReturnTopKIncludingInactive() {
+        List<TaskSuggestionDTO> result = taskTitleIndex.search(userId, "раз", 2, true);
+
+        assertEquals(List.of(3L, 2L), taskIds(result));
+    }
+
+    /**
+     * Проверяет, что пустой префикс возвращает задачи без трекинга в конце списка.
+     */
+    @Test
+    void search_ShouldPlaceNeverTrackedTasksLast_WhenPrefixEmpty() {
+        List<TaskSuggestionDTO> result = taskTitleIndex.search(userId, "", 10, false);
+
+        assertEquals(List.of(2L, 1L, 4L), taskIds(result));
+    }
+
+    /**
+     * Проверяет инкрементальное обновление индекса при переименовании и удалении задач.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Переименованная задача находится по новому префиксу и сохраняет время трекинга</li>
+     *   <li>Удаленная задача не возвращается</li>
+     * </ul>
+     */
+    @Test
+    void putAndRemove_ShouldUpdateLoadedIndex() {
+        taskTitleIndex.search(userId, "", 10, true);
+
+        taskTitleIndex.put(task(1L, "Документация API"));
+        taskTitleIndex.remove(userId, 2L);
+
+        List<TaskSuggestionDTO> renamed = taskTitleIndex.search(userId, "док", 10, false);
+        assertEquals(List.of(1L), taskIds(renamed));
+        assertEquals(now.minusDays(2), renamed.get(0)
+                .getLastTrackedAt());
+        assertTrue(taskTitleIndex.search(userId, "раз", 10, false)
+                .isEmpty());
+    }
+
+    /**
+     * Проверяет, что старт трекинга поднимает задачу в начало выдачи.
+     */
+    @Test
+    void onTimeEntryEvent_ShouldPromoteRecentlyStartedTask() {
+        taskTitleIndex.search(userId, "", 10, false);
+
+        taskTitleIndex.onTimeEntryEvent(new TimeEntryEvent(TimeEntryEvent.Type.STARTED, 10L, userId, 4L, now.plusMinutes(1), null));
+
+        assertEquals(4L, taskTitleIndex.search(userId, "", 10, false)
+                .get(0)
+                .getTaskId());
+    }
+
+    /**
+     * Проверяет, что сброс индекса пользователя приводит к повторной загрузке из БД.
+     */
+    @Test
+    void evict_ShouldReloadIndexOnNextSearch() {
+        taskTitleIndex.search(userId, "", 10, false);
+        taskTitleIndex.onUserTrackingDataInvalidated(UserTrackingDataInvalidatedEvent.ofUser(userId));
+        taskTitleIndex.search(userId, "", 10, false);
+
+        verify(taskRepository, times(2)).findTitleIndexRowsByUserId(userId);
+    }
+
+    /**
+     * Проверяет, что изменение задачи, зафиксированное между чтением строк индекса и его публикацией, не теряется.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Загрузка, во время которой пришло изменение, не сохраняется</li>
+     *   <li>Следующий поиск загружает индекс заново и находит новую задачу</li>
+     * </ul>
+     */
+    @Test
+    void put_DuringLoad_ShouldNotBeLostByPublishedIndex() {
+        List<Object[]> stale = List.<Object[]>of(new Object[]{1L, "Разработка API", true, null});
+        List<Object[]> fresh = List.of(new Object[]{1L, "Разработка API", true, null}, new Object[]{5L, "Разработка UI", true, null});
+        when(taskRepository.findTitleIndexRowsByUserId(userId)).thenAnswer(invocation -> {
+            taskTitleIndex.put(task(5L, "Разработка UI"));
+            return stale;
+        })
+                .thenReturn(fresh);
+
+        assertEquals(List.of(1L), taskIds(taskTitleIndex.search(userId, "раз", 10, false)));
+        List<TaskSuggestionDTO> result = taskTitleIndex.search(userId, "раз", 10, false);
+
+        assertEquals(List.of(1L, 5L), taskIds(result));
+        verify(taskRepository, times(2)).findTitleIndexRowsByUserId(userId);
+    }
+
+    private Task task(Long id, String title) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(title);
+        task.setActive(true);
+        task.setUser(User.builder()
+                .id(userId)
+                .build());
+        return task;
+    }
+
+    private static List<Long> taskIds(List<TaskSuggestionDTO> suggestions) {
+        return suggestions.stream()
+                .map(TaskSuggestionDTO::getTaskId)
+                .toList();
+    }
+
+    /**
+     * Проверяет, что пустой индекс (пользователь без задач или несуществующий) не сохраняется.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Поиск возвращает пустой список</li>
+     *   <li>Каждый поиск заново обращается к БД</li>
+     * </ul>
+     */
+    @Test
+    void search_ShouldNotCacheEmptyIndex() {
+        Long unknownUserId = 999L;
+        when(taskRepository.findTitleIndexRowsByUserId(unknownUserId)).thenReturn(List.of());
+
+        assertTrue(taskTitleIndex.search(unknownUserId, "", 10, true)
+                .isEmpty());
+        assertTrue(taskTitleIndex.search(unknownUserId, "", 10, true)
+                .isEmpty());
+
+        verify(taskRepository, times(2)).findTitleIndexRowsByUserId(unknownUserId);
+    }
+}
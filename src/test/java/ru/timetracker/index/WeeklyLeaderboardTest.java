@@ -0,0 +1,171 @@
+package ru.timetracker.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
+import ru.timetracker.service.LeaderboardService;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты недельного рейтинга по отработанному времени на H2.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Построения рейтинга из БД с учетом записей, начатых на прошлой неделе, только с понедельника</li>
+ *   <li>Обновления рейтинга при остановке трекинга и пересчета после очистки записей</li>
+ *   <li>Чтения рейтинга через API без запросов к БД</li>
+ * </ul>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class WeeklyLeaderboardTest {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO time_entries (id, user_id, task_id, start_time, end_time, active_user_id, created_at) " +
+                    "VALUES (NEXT VALUE FOR time_entries_seq, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private WeeklyLeaderboard weeklyLeaderboard;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MockMvc mockMvc;
+
+    private LocalDateTime now;
+    private LocalDateTime weekStart;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now()
+                .withNano(0);
+        weekStart = weeklyLeaderboard.weekStart()
+                .atStartOfDay();
+    }
+
+    /**
+     * Проверяет построение рейтинга из БД.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Итог пользователя равен сумме его завершенных записей текущей недели</li>
+     *   <li>Запись, начатая до понедельника, учитывается с начала недели; записи прошлой недели не учитываются</li>
+     *   <li>Пользователи упорядочены по убыванию итога</li>
+     * </ul>
+     */
+    @Test
+    void rebuild_ShouldRankUsersByTimeTrackedThisWeek() {
+        LocalDateTime boundaryEnd = min(now, weekStart.plusHours(1));
+        Long first = createUserWithTask();
+        insert(first, now.minusHours(3), now.minusHours(1));
+        insert(first, now.minusMinutes(30), now.minusMinutes(20));
+        Long second = createUserWithTask();
+        insert(second, weekStart.minusHours(2), boundaryEnd);
+        insert(second, weekStart.minusDays(3), weekStart.minusDays(3)
+                .plusHours(8));
+        Long third = createUserWithTask();
+        insert(third, now.minusMinutes(50), now.minusMinutes(10));
+
+        weeklyLeaderboard.onUserTrackingDataInvalidated(UserTrackingDataInvalidatedEvent.ofAllUsers());
+
+        assertEquals(within(now.minusHours(3), now.minusHours(1)) + within(now.minusMinutes(30), now.minusMinutes(20)),
+                weeklyLeaderboard.totalSeconds(first));
+        assertEquals(Duration.between(weekStart, boundaryEnd)
+                .getSeconds(), weeklyLeaderboard.totalSeconds(second));
+        assertEquals(within(now.minusMinutes(50), now.minusMinutes(10)), weeklyLeaderboard.totalSeconds(third));
+
+        List<Long> expected = new ArrayList<>(List.of(first, second, third));
+        expected.removeIf(userId -> weeklyLeaderboard.totalSeconds(userId) == 0);
+        expected.sort(Comparator.comparingLong((Long userId) -> weeklyLeaderboard.totalSeconds(userId))
+                .reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        List<Long> ranked = weeklyLeaderboard.top(LeaderboardService.MAX_LIMIT)
+                .stream()
+                .map(WeeklyLeaderboard.Standing::userId)
+                .filter(expected::contains)
+                .toList();
+        assertEquals(expected, ranked);
+    }
+
+    /**
+     * Проверяет обновление рейтинга при остановке трекинга и после очистки записей.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Остановка добавляет к итогу пользователя длительность записи в пределах недели</li>
+     *   <li>Рейтинг возвращается API без SQL-запросов (бюджет 0 в режиме fail)</li>
+     *   <li>После очистки записей пользователь исключается из рейтинга</li>
+     *   <li>Недопустимое количество мест отклоняется с 400 Bad Request</li>
+     * </ul>
+     */
+    @Test
+    void stopAndClear_ShouldUpdateLeaderboard() throws Exception {
+        Long userId = createUserWithTask();
+        long before = weeklyLeaderboard.totalSeconds(userId);
+        LocalDateTime startTime = now.minusMinutes(90);
+        insert(userId, startTime, null);
+
+        timeEntryService.stopTimeEntry(userId);
+
+        LocalDateTime endTime = jdbcTemplate.queryForObject("SELECT end_time FROM time_entries WHERE user_id = ?",
+                LocalDateTime.class, userId);
+        assertEquals(before + within(startTime, endTime), weeklyLeaderboard.totalSeconds(userId));
+        mockMvc.perform(get("/api/v1/leaderboard/weekly").param("limit", String.valueOf(LeaderboardService.MAX_LIMIT)))
+                .andExpect(status().isOk());
+
+        timeEntryService.clearUserTrackingData(userId);
+
+        assertEquals(0, weeklyLeaderboard.totalSeconds(userId));
+        assertTrue(weeklyLeaderboard.top(LeaderboardService.MAX_LIMIT)
+                .stream()
+                .noneMatch(standing -> standing.userId() == userId));
+        mockMvc.perform(get("/api/v1/leaderboard/weekly").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Long createUserWithTask() {
+        Long userId = userService.createUser(new UserCreateDTO("Leaderboard Tester", "leaderboard-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+        taskService.createTask(userId, new TaskCreateDTO("Weekly work", "Leaderboard test"));
+        return userId;
+    }
+
+    private void insert(Long userId, LocalDateTime start, LocalDateTime end) {
+        Long taskId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM tasks WHERE user_id = ?", Long.class, userId);
+        jdbcTemplate.update(INSERT_SQL, userId, taskId, Timestamp.valueOf(start), end != null ? Timestamp.valueOf(end) : null,
+                end == null ? userId : null, Timestamp.valueOf(now));
+    }
+
+    private long within(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime from = start.isBefore(weekStart) ? weekStart : start;
+        return end.isAfter(from) ? Duration.between(from, end)
+                .getSeconds() : 0;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,154 @@
+package ru.timetracker.jfr;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.jfr.config.JfrProperties;
+import ru.timetracker.metrics.SchedulerMetrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты для {@link JfrRecorder} и событий JDK Flight Recorder трекинга, отчетов и задач по расписанию.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Записи событий с ID пользователей, количеством строк и длительностями в скачиваемый файл</li>
+ *   <li>Ограничений старта записи и ошибок при отсутствии записи</li>
+ * </ul>
+ */
+class JfrRecorderTest {
+    private JfrProperties properties;
+    private JfrRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JfrProperties();
+        properties.setSettings("default");
+        recorder = new JfrRecorder(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recorder.close();
+    }
+
+    /**
+     * Проверяет запись событий трекинга, отчетов и задач по расписанию.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Остановка записи времени записывается с пользователем, задачей и длительностью сессии</li>
+     *   <li>Расчет отчета записывается с пользователем из параметра {@code userId} и размером результата</li>
+     *   <li>Выполнение задачи по расписанию записывается с суммой строк всех операций и результатом</li>
+     *   <li>Скачанный файл читается средствами JFR; после остановки запись остается доступной</li>
+     * </ul>
+     */
+    @Test
+    void dump_ShouldContainTrackingReportAndSchedulerEvents() throws IOException {
+        recorder.start(Duration.ofMinutes(1));
+
+        LocalDateTime start = LocalDateTime.of(2025, 7, 14, 9, 0);
+        new TimeEntryJfrListener().onTimeEntryEvent(new TimeEntryEvent(TimeEntryEvent.Type.STOPPED, 11L, 7L, 3L, start,
+                start.plusMinutes(90)));
+        ProxyFactory proxyFactory = new ProxyFactory(new Reports());
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(JfrReport.class),
+                new JfrReportInterceptor()));
+        assertEquals(3, ((Reports) proxyFactory.getProxy()).entries(7L)
+                .size());
+        SchedulerMetrics schedulerMetrics = new SchedulerMetrics(new SimpleMeterRegistry());
+        schedulerMetrics.recordRun("jfr-test", () -> {
+            schedulerMetrics.recordRows("jfr-test", "deleted", 4);
+            schedulerMetrics.recordRows("jfr-test", "updated", 2);
+        });
+
+        assertEquals("STOPPED", recorder.stop()
+                .getState()
+                .name());
+        Path file = recorder.dump();
+        Map<String, RecordedEvent> events;
+        try {
+            events = RecordingFile.readAllEvents(file)
+                    .stream()
+                    .filter(event -> event.getEventType()
+                            .getName()
+                            .startsWith("ru.timetracker."))
+                    .collect(Collectors.toMap(event -> event.getEventType()
+                            .getName(), Function.identity(), (first, second) -> first));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        RecordedEvent timeEntry = events.get("ru.timetracker.TimeEntry");
+        assertNotNull(timeEntry);
+        assertEquals("STOPPED", timeEntry.getString("type"));
+        assertEquals(7, timeEntry.getLong("userId"));
+        assertEquals(3, timeEntry.getLong("taskId"));
+        assertEquals(Duration.ofMinutes(90), timeEntry.getDuration("sessionSeconds"));
+
+        RecordedEvent report = events.get("ru.timetracker.Report");
+        assertNotNull(report);
+        assertEquals("entries", report.getString("report"));
+        assertEquals(7, report.getLong("userId"));
+        assertEquals(3, report.getLong("rows"));
+        assertFalse(report.getBoolean("failed"));
+
+        RecordedEvent schedulerRun = events.get("ru.timetracker.SchedulerRun");
+        assertNotNull(schedulerRun);
+        assertEquals("jfr-test", schedulerRun.getString("job"));
+        assertEquals("success", schedulerRun.getString("outcome"));
+        assertEquals(6, schedulerRun.getLong("rows"));
+    }
+
+    /**
+     * Проверяет ограничения записи.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Без записи состояние, остановка и скачивание отклоняются {@link ResourceNotFoundException}</li>
+     *   <li>Длительность больше максимальной отклоняется {@link IllegalArgumentException}</li>
+     *   <li>Повторный старт во время записи отклоняется {@link IllegalStateException}; после удаления запись недоступна</li>
+     * </ul>
+     */
+    @Test
+    void start_ShouldEnforceLimits() throws IOException {
+        assertThrows(ResourceNotFoundException.class, () -> recorder.current());
+        assertThrows(ResourceNotFoundException.class, () -> recorder.stop());
+        assertThrows(ResourceNotFoundException.class, () -> recorder.dump());
+        assertThrows(IllegalArgumentException.class, () -> recorder.start(properties.getMaxDuration()
+                .plusSeconds(1)));
+
+        recorder.start(null);
+
+        assertEquals(properties.getDefaultDuration(), recorder.current()
+                .getDuration());
+        assertThrows(IllegalStateException.class, () -> recorder.start(Duration.ofMinutes(1)));
+        recorder.delete();
+        assertThrows(ResourceNotFoundException.class, () -> recorder.current());
+    }
+
+    /**
+     * Сервис отчетов для проверки событий расчета отчетов.
+     */
+    static class Reports {
+        @JfrReport("entries")
+        List<Long> entries(Long userId) {
+            return List.of(userId, userId, userId);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package ru.timetracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочный тест REST API: поднимает приложение на случайном порту поверх H2 с миллионом записей времени и подает смешанную
+ * нагрузку из нескольких потоков. Не входит в обычный прогон тестов, запускается профилем {@code load}: {@code mvn test -Pload}.
+ * <p>Смесь запросов (доли):
+ * <ul>
+ *   <li>30% - старт/остановка трекинга (каждый поток работает со своими пользователями)</li>
+ *   <li>20% - {@code /time-entries}, 20% - {@code /task-durations}, 15% - {@code /time-intervals},
+ *   15% - {@code /total-work-duration} за последнюю неделю</li>
+ * </ul>
+ * <p>Параметры (системные свойства): {@code loadtest.users}, {@code loadtest.tasksPerUser}, {@code loadtest.entries},
+ * {@code loadtest.concurrency}, {@code loadtest.warmupSeconds}, {@code loadtest.durationSeconds}. Режим потоков сервера задается
+ * {@code spring.threads.virtual.enabled} и записывается в параметры прогона.
+ * <p>Результаты записываются в {@code target/loadtest/results.json}. Тест падает при ошибках ответов или при регрессии p50/p99
+ * относительно {@code src/test/resources/loadtest/baseline.json}. Сравнение выполняется, только если параметры прогона совпадают с
+ * параметрами baseline; для обновления baseline скопируйте файл результатов, добавив поля {@code tolerance} и {@code slackMs}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1", "spring.jpa.show-sql=false",
+                "logging.level.ru.timetracker=WARN", "logging.level.root=WARN"})
+class ApiLoadTest {
+    private static final Logger logger = LogManager.getLogger(ApiLoadTest.class);
+    private static final Path RESULTS_FILE = Path.of("target", "loadtest", "results.json");
+    private static final String BASELINE_RESOURCE = "loadtest/baseline.json";
+
+    private final int users = Integer.getInteger("loadtest.users", 1000);
+    private final int tasksPerUser = Integer.getInteger("loadtest.tasksPerUser", 10);
+    private final long entries = Long.getLong("loadtest.entries", 1_000_000L);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 10);
+    private final int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 60);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Environment environment;
+
+    private LoadTestDataSeeder.SeededData data;
+    private boolean[] tracking;
+
+    /**
+     * Прогревает приложение, измеряет задержки под нагрузкой и сравнивает перцентили с baseline.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Все запросы завершаются успешно</li>
+     *   <li>p50 и p99 каждого endpoint'а не превышают допустимых значений baseline</li>
+     * </ul>
+     * @throws Exception при ошибке нагрузки или записи результатов
+     */
+    @Test
+    void mixedTraffic_ShouldNotRegressAgainstBaseline() throws Exception {
+        data = new LoadTestDataSeeder(jdbcTemplate).seed(users, tasksPerUser, entries);
+        tracking = new boolean[users];
+
+        logger.warn("Warming up for {} s with {} threads", warmupSeconds, concurrency);
+        runPhase(warmupSeconds, new LoadTestReport());
+
+        logger.warn("Measuring for {} s with {} threads", durationSeconds, concurrency);
+        LoadTestReport report = new LoadTestReport();
+        runPhase(durationSeconds, report);
+
+        ObjectNode result = report.toJson(mapper, parameters(), durationSeconds);
+        Files.createDirectories(RESULTS_FILE.getParent());
+        mapper.writerWithDefaultPrettyPrinter()
+                .writeValue(RESULTS_FILE.toFile(), result);
+        logger.warn("Load test results written to {}:\n{}", RESULTS_FILE.toAbsolutePath(), mapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsString(result.get("endpoints")));
+
+        assertEquals(0, report.totalErrors(), "Unsuccessful responses under load");
+        JsonNode baseline = readBaseline();
+        if (!baseline.path("parameters")
+                .equals(result.get("parameters"))) {
+            logger.warn("Baseline parameters {} differ from run parameters {}, regression check skipped", baseline.path("parameters"),
+                    result.get("parameters"));
+            return;
+        }
+        List<String> regressions = LoadTestReport.findRegressions(result, baseline);
+        assertTrue(regressions.isEmpty(), "Latency regressions against baseline: " + regressions);
+    }
+
+    private void runPhase(int seconds, LoadTestReport report) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < concurrency; worker++) {
+                int workerIndex = worker;
+                workers.add(executor.submit(() -> {
+                    runWorker(workerIndex, deadline, report);
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void runWorker(int workerIndex, long deadline, LoadTestReport report) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Каждый поток стартует/останавливает трекинг только у своих пользователей, чтобы состояние трекинга было предсказуемым
+        int ownedUsers = Math.max(1, (users - workerIndex + concurrency - 1) / concurrency);
+        while (System.nanoTime() < deadline) {
+            int roll = random.nextInt(100);
+            if (roll < 30) {
+                int userIndex = Math.min(users - 1, workerIndex + random.nextInt(ownedUsers) * concurrency);
+                toggleTracking(userIndex, random, report);
+            } else {
+                long userId = data.userId(random.nextInt(users));
+                LoadTestReport.Endpoint endpoint = roll < 50 ? LoadTestReport.Endpoint.TIME_ENTRIES : roll < 70 ?
+                        LoadTestReport.Endpoint.TASK_DURATIONS : roll < 85 ? LoadTestReport.Endpoint.TIME_INTERVALS :
+                        LoadTestReport.Endpoint.TOTAL_WORK_DURATION;
+                send(endpoint, get(userId, endpoint.getKey()), report);
+            }
+        }
+    }
+
+    private void toggleTracking(int userIndex, ThreadLocalRandom random, LoadTestReport report) throws Exception {
+        long userId = data.userId(userIndex);
+        String base = "http://localhost:" + port + "/api/v1/users/" + userId + "/time-entries/";
+        HttpRequest request;
+        LoadTestReport.Endpoint endpoint;
+        if (tracking[userIndex]) {
+            endpoint = LoadTestReport.Endpoint.STOP;
+            request = HttpRequest.newBuilder(URI.create(base + "stop"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+        } else {
+            endpoint = LoadTestReport.Endpoint.START;
+            request = HttpRequest.newBuilder(URI.create(base + "start"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"taskId\":" + data.taskId(userIndex, random.nextInt(tasksPerUser)) + "}"))
+                    .build();
+        }
+        if (send(endpoint, request, report)) {
+            tracking[userIndex] = !tracking[userIndex];
+        }
+    }
+
+    private HttpRequest get(long userId, String path) {
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(7);
+        return HttpRequest.newBuilder(URI.create(
+                        "http://localhost:" + port + "/api/v1/users/" + userId + "/time-entries" + (path.equals("time-entries") ? "" : "/" + path) +
+                                "?from=" + from.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "&to=" +
+                                to.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)))
+                .GET()
+                .build();
+    }
+
+    private boolean send(LoadTestReport.Endpoint endpoint, HttpRequest request, LoadTestReport report) throws Exception {
+        long started = System.nanoTime();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        boolean success = response.statusCode() / 100 == 2;
+        report.record(endpoint, System.nanoTime() - started, success);
+        return success;
+    }
+
+    private ObjectNode parameters() {
+        ObjectNode parameters = mapper.createObjectNode();
+        parameters.put("users", users);
+        parameters.put("tasksPerUser", tasksPerUser);
+        parameters.put("entries", entries);
+        parameters.put("concurrency", concurrency);
+        parameters.put("durationSeconds", durationSeconds);
+        parameters.put("virtualThreads", Threading.VIRTUAL.isActive(environment));
+        return parameters;
+    }
+
+    private JsonNode readBaseline() throws Exception {
+        try (InputStream input = new ClassPathResource(BASELINE_RESOURCE).getInputStream()) {
+            return mapper.readTree(input);
+        }
+    }
+}
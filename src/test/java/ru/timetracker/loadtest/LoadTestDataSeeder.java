@@ -0,0 +1,103 @@
+package ru.timetracker.loadtest;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Заполняет H2 данными для нагрузочного теста напрямую через SQL ({@code INSERT ... SELECT FROM SYSTEM_RANGE}), минуя JPA, чтобы
+ * миллионы записей создавались за секунды.
+ * <p>Структура данных:
+ * <ul>
+ *   <li>{@code users} пользователей, у каждого {@code tasksPerUser} задач</li>
+ *   <li>{@code entries} завершенных записей времени, равномерно распределенных по пользователям и задачам за последние 28 дней</li>
+ * </ul>
+ */
+class LoadTestDataSeeder {
+    private static final Logger logger = LogManager.getLogger(LoadTestDataSeeder.class);
+
+    /**
+     * Глубина истории записей времени в днях
+     */
+    static final int HISTORY_DAYS = 28;
+
+    private static final long TASK_SEQUENCE_MARGIN = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    LoadTestDataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Создает пользователей, задачи и записи времени
+     * @param users        Количество пользователей
+     * @param tasksPerUser Количество задач у каждого пользователя
+     * @param entries      Общее количество записей времени
+     * @return Диапазоны идентификаторов созданных данных
+     */
+    SeededData seed(int users, int tasksPerUser, long entries) {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now()
+                .truncatedTo(ChronoUnit.MINUTES);
+        Timestamp base = Timestamp.valueOf(now);
+
+        jdbcTemplate.update("INSERT INTO users (name, email, created_at) " +
+                "SELECT 'Load user ' || X, 'load-' || X || '@example.com', ? FROM SYSTEM_RANGE(1, ?)", base, users);
+        long firstUserId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE email LIKE 'load-%'", Long.class);
+
+        // Task использует пул последовательности tasks_seq: задачи вставляются с явными ID выше текущего значения, после чего
+        // последовательность переносится за вставленный диапазон с запасом на размер пула Hibernate
+        long taskCount = (long) users * tasksPerUser;
+        long firstTaskId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR tasks_seq", Long.class) + TASK_SEQUENCE_MARGIN;
+        jdbcTemplate.update("INSERT INTO tasks (id, title, description, created_at, active, user_id) " +
+                        "SELECT ? + X, 'Load task ' || MOD(X, ?), NULL, ?, TRUE, ? + X / ? FROM SYSTEM_RANGE(0, ?)", firstTaskId, tasksPerUser,
+                base, firstUserId, tasksPerUser, taskCount - 1);
+        jdbcTemplate.execute("ALTER SEQUENCE tasks_seq RESTART WITH " + (firstTaskId + taskCount + TASK_SEQUENCE_MARGIN));
+
+        long entriesPerUser = Math.max(1, entries / users);
+        long spacingSeconds = Math.max(60, HISTORY_DAYS * 86_400L / entriesPerUser);
+        long durationSeconds = spacingSeconds * 3 / 5;
+        // Запись X принадлежит пользователю X mod users и начинается на (X / users + 1) интервалов раньше текущего момента
+        jdbcTemplate.update(String.format("INSERT INTO time_entries (id, start_time, end_time, user_id, task_id, created_at) " +
+                        "SELECT NEXT VALUE FOR time_entries_seq, DATEADD(SECOND, -(X / %1$d + 1) * %2$d, CAST(? AS TIMESTAMP)), " +
+                        "DATEADD(SECOND, -(X / %1$d + 1) * %2$d + %3$d, CAST(? AS TIMESTAMP)), " +
+                        "%4$d + MOD(X, %1$d), %5$d + MOD(X, %1$d) * %6$d + MOD(X / %1$d, %6$d), CAST(? AS TIMESTAMP) " +
+                        "FROM SYSTEM_RANGE(0, %7$d)", users, spacingSeconds, durationSeconds, firstUserId, firstTaskId, tasksPerUser,
+                entries - 1), base, base, base);
+
+        logger.info("Seeded {} users, {} tasks and {} time entries in {} ms", users, (long) users * tasksPerUser, entries,
+                (System.nanoTime() - started) / 1_000_000);
+        return new SeededData(firstUserId, users, firstTaskId, tasksPerUser);
+    }
+
+    /**
+     * Диапазоны идентификаторов созданных данных
+     * @param firstUserId  ID первого пользователя
+     * @param users        Количество пользователей
+     * @param firstTaskId  ID первой задачи
+     * @param tasksPerUser Количество задач у каждого пользователя
+     */
+    record SeededData(long firstUserId, int users, long firstTaskId, int tasksPerUser) {
+        /**
+         * @param userIndex Порядковый номер пользователя (0..users-1)
+         * @return ID пользователя
+         */
+        long userId(int userIndex) {
+            return firstUserId + userIndex;
+        }
+
+        /**
+         * @param userIndex Порядковый номер пользователя (0..users-1)
+         * @param taskIndex Порядковый номер задачи пользователя (0..tasksPerUser-1)
+         * @return ID задачи
+         */
+        long taskId(int userIndex, int taskIndex) {
+            return firstTaskId + (long) userIndex * tasksPerUser + taskIndex;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package ru.timetracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Результаты нагрузочного теста: HdrHistogram задержек и счетчики ошибок по каждому endpoint'у, сериализация в JSON и сравнение с
+ * сохраненным baseline.
+ * <p>Формат JSON (одинаковый для результатов и baseline):
+ * <pre>
+ * {
+ *   "parameters": {"users": 1000, ...},
+ *   "tolerance": 0.5, "slackMs": 5.0,        // только в baseline
+ *   "endpoints": {"start": {"count": ..., "errors": ..., "p50Ms": ..., "p90Ms": ..., "p99Ms": ..., "maxMs": ...,
+ *                           "throughputPerSecond": ...}, ...}
+ * }
+ * </pre>
+ */
+class LoadTestReport {
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, AtomicLong> errors = new EnumMap<>(Endpoint.class);
+
+    LoadTestReport() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            histograms.put(endpoint, new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3));
+            errors.put(endpoint, new AtomicLong());
+        }
+    }
+
+    /**
+     * Записывает результат одного запроса
+     * @param endpoint     Endpoint
+     * @param latencyNanos Задержка в наносекундах
+     * @param success      true, если получен успешный (2xx) ответ
+     */
+    void record(Endpoint endpoint, long latencyNanos, boolean success) {
+        histograms.get(endpoint)
+                .recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_TRACKABLE_MICROS));
+        if (!success) {
+            errors.get(endpoint)
+                    .incrementAndGet();
+        }
+    }
+
+    /**
+     * @return Общее количество неуспешных запросов
+     */
+    long totalErrors() {
+        return errors.values()
+                .stream()
+                .mapToLong(AtomicLong::get)
+                .sum();
+    }
+
+    /**
+     * Формирует JSON с перцентилями по endpoint'ам
+     * @param mapper          ObjectMapper
+     * @param parameters      Параметры прогона
+     * @param durationSeconds Длительность измерения (для расчета пропускной способности)
+     * @return JSON-документ результатов
+     */
+    ObjectNode toJson(ObjectMapper mapper, ObjectNode parameters, long durationSeconds) {
+        ObjectNode root = mapper.createObjectNode();
+        root.set("parameters", parameters);
+        ObjectNode endpoints = root.putObject("endpoints");
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = histograms.get(endpoint);
+            ObjectNode node = endpoints.putObject(endpoint.getKey());
+            node.put("count", histogram.getTotalCount());
+            node.put("errors", errors.get(endpoint)
+                    .get());
+            node.put("p50Ms", toMillis(histogram.getValueAtPercentile(50)));
+            node.put("p90Ms", toMillis(histogram.getValueAtPercentile(90)));
+            node.put("p99Ms", toMillis(histogram.getValueAtPercentile(99)));
+            node.put("maxMs", toMillis(histogram.getMaxValue()));
+            node.put("throughputPerSecond", Math.round(histogram.getTotalCount() * 10.0 / durationSeconds) / 10.0);
+        }
+        return root;
+    }
+
+    /**
+     * Сравнивает результаты с baseline. Перцентиль считается регрессией, если превышает значение baseline более чем на
+     * {@code tolerance} (доля) плюс {@code slackMs} (абсолютный запас для малых значений).
+     * @param result   Результаты текущего прогона
+     * @param baseline Сохраненный baseline
+     * @return Список описаний регрессий (пустой, если регрессий нет)
+     */
+    static List<String> findRegressions(JsonNode result, JsonNode baseline) {
+        double tolerance = baseline.path("tolerance")
+                .asDouble(0.5);
+        double slackMs = baseline.path("slackMs")
+                .asDouble(5.0);
+        List<String> regressions = new ArrayList<>();
+        baseline.path("endpoints")
+                .fields()
+                .forEachRemaining(entry -> {
+                    JsonNode current = result.path("endpoints")
+                            .path(entry.getKey());
+                    for (String percentile : new String[]{"p50Ms", "p99Ms"}) {
+                        double expected = entry.getValue()
+                                .path(percentile)
+                                .asDouble();
+                        double actual = current.path(percentile)
+                                .asDouble();
+                        double limit = expected * (1 + tolerance) + slackMs;
+                        if (actual > limit) {
+                            regressions.add(String.format("%s %s: %.2f ms > limit %.2f ms (baseline %.2f ms)", entry.getKey(), percentile,
+                                    actual, limit, expected));
+                        }
+                    }
+                });
+        return regressions;
+    }
+
+    private static double toMillis(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+
+    /**
+     * Endpoint'ы, участвующие в нагрузке
+     */
+    enum Endpoint {
+        START("start"),
+        STOP("stop"),
+        TIME_ENTRIES("time-entries"),
+        TASK_DURATIONS("task-durations"),
+        TIME_INTERVALS("time-intervals"),
+        TOTAL_WORK_DURATION("total-work-duration");
+
+        private final String key;
+
+        Endpoint(String key) {
+            this.key = key;
+        }
+
+        String getKey() {
+            return key;
+        }
+    }
+}
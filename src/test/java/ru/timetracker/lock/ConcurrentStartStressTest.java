@@ -0,0 +1,200 @@
+package ru.timetracker.lock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.UserService;
+import ru.timetracker.sql.BulkheadDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочные тесты параллельного старта трекинга на H2.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Тысячи параллельных стартов нескольких пользователей оставляют ровно одну активную запись на пользователя, а пропускная
+ *   способность не падает ниже последовательных стартов</li>
+ *   <li>Уникальный индекс активной записи отклоняет вторую активную запись пользователя в обход блокировок</li>
+ *   <li>Старт, ожидающий блокировку пользователя, не занимает соединение с БД</li>
+ * </ul>
+ */
+@SpringBootTest
+class ConcurrentStartStressTest {
+
+    private static final Logger logger = LogManager.getLogger(ConcurrentStartStressTest.class);
+    private static final int USERS = 8;
+    private static final int TASKS_PER_USER = 2;
+    private static final int THREADS = 16;
+    private static final int STARTS = 2000;
+    private static final int SEQUENTIAL_STARTS = 200;
+    private static final double MIN_THROUGHPUT_RATIO = 0.5;
+    private static final String OPEN_ENTRIES_SQL = "SELECT COUNT(*) FROM time_entries WHERE user_id = ? AND end_time IS NULL";
+    private static final String STARTED_ENTRIES_SQL = "SELECT COUNT(*) FROM time_entries WHERE user_id = ?";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserLockStripes userLockStripes;
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Проверяет инвариант одной активной записи при параллельных стартах.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Все старты завершаются успешно, без ошибок уникальности</li>
+     *   <li>У каждого пользователя ровно одна активная запись и по записи на каждый старт</li>
+     *   <li>Пропускная способность не ниже {@value #MIN_THROUGHPUT_RATIO} от последовательных стартов одного потока: блокировки
+     *   сериализуют только старты одного пользователя</li>
+     * </ul>
+     */
+    @Test
+    void startTimeEntry_ShouldKeepOneActiveEntryPerUser_UnderParallelStarts() throws Exception {
+        long[] userIds = new long[USERS];
+        long[][] taskIds = new long[USERS][TASKS_PER_USER];
+        for (int u = 0; u < USERS; u++) {
+            userIds[u] = createUser();
+            for (int t = 0; t < TASKS_PER_USER; t++) {
+                taskIds[u][t] = taskService.createTask(userIds[u], new TaskCreateDTO("Stress task " + t, "Concurrent starts"))
+                        .getId();
+            }
+        }
+
+        double sequential = sequentialThroughput(taskIds[0][0], userIds[0]);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(STARTS);
+        try {
+            for (int i = 0; i < STARTS; i++) {
+                int user = i % USERS;
+                long taskId = taskIds[user][(i / USERS) % TASKS_PER_USER];
+                futures.add(executor.submit(() -> {
+                    ready.await();
+                    return timeEntryService.startTimeEntry(userIds[user], new TimeEntryCreateDTO(taskId));
+                }));
+            }
+            long started = System.nanoTime();
+            ready.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            double throughput = STARTS / ((System.nanoTime() - started) / 1e9);
+            logger.info("{} parallel starts of {} users on {} threads: {} starts/s, sequential: {} starts/s", STARTS, USERS, THREADS,
+                    String.format("%.0f", throughput), String.format("%.0f", sequential));
+            assertTrue(throughput >= sequential * MIN_THROUGHPUT_RATIO,
+                    "Parallel throughput " + throughput + " starts/s, sequential " + sequential + " starts/s");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (long userId : userIds) {
+            assertEquals(1, jdbcTemplate.queryForObject(OPEN_ENTRIES_SQL, Integer.class, userId));
+        }
+        assertEquals(STARTS / USERS + SEQUENTIAL_STARTS, jdbcTemplate.queryForObject(STARTED_ENTRIES_SQL, Integer.class, userIds[0]));
+        assertEquals(STARTS / USERS, jdbcTemplate.queryForObject(STARTED_ENTRIES_SQL, Integer.class, userIds[USERS - 1]));
+    }
+
+    /**
+     * Проверяет уникальный индекс активной записи.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Вставка второй активной записи пользователя в обход сервиса отклоняется базой данных</li>
+     *   <li>После остановки активной записи новая активная запись вставляется</li>
+     * </ul>
+     */
+    @Test
+    void activeEntryIndex_ShouldRejectSecondActiveEntry() {
+        long userId = createUser();
+        long taskId = taskService.createTask(userId, new TaskCreateDTO("Guarded task", "Unique active entry"))
+                .getId();
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(taskId));
+        String insertSql = "INSERT INTO time_entries (id, user_id, task_id, start_time, end_time, active_user_id, created_at) " +
+                "VALUES (NEXT VALUE FOR time_entries_seq, ?, ?, ?, NULL, ?, ?)";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(insertSql, userId, taskId, now, userId, now));
+
+        timeEntryService.stopTimeEntry(userId);
+        jdbcTemplate.update(insertSql, userId, taskId, now, userId, now);
+        assertEquals(1, jdbcTemplate.queryForObject(OPEN_ENTRIES_SQL, Integer.class, userId));
+    }
+
+    /**
+     * Проверяет, что блокировка пользователя берется до начала транзакции.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Пока блокировка пользователя занята, старт не завершается</li>
+     *   <li>Во время ожидания все разрешения ограничителя соединений свободны: ожидающий старт не держит соединение</li>
+     *   <li>После освобождения блокировки старт завершается</li>
+     * </ul>
+     */
+    @Test
+    void startTimeEntry_ShouldWaitForUserLockWithoutConnection() throws Exception {
+        long userId = createUser();
+        long taskId = taskService.createTask(userId, new TaskCreateDTO("Waiting task", "Lock before transaction"))
+                .getId();
+        BulkheadDataSource bulkhead = dataSource.unwrap(BulkheadDataSource.class);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> start = userLockStripes.withLock(userId, () -> {
+                Future<?> pending = executor.submit(() -> timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(taskId)));
+                assertThrows(TimeoutException.class, () -> pending.get(300, TimeUnit.MILLISECONDS));
+                // Фоновые задачи могут ненадолго занять соединение, ожидающий старт держал бы его все время ожидания
+                boolean allFree = false;
+                for (int i = 0; i < 50 && !allFree; i++) {
+                    allFree = bulkhead.getAvailablePermits() == bulkhead.getMaxConcurrent();
+                    assertThrows(TimeoutException.class, () -> pending.get(10, TimeUnit.MILLISECONDS));
+                }
+                assertTrue(allFree, "Start waiting for the user lock holds a database connection");
+                return pending;
+            });
+
+            start.get(10, TimeUnit.SECONDS);
+            assertEquals(1, jdbcTemplate.queryForObject(OPEN_ENTRIES_SQL, Integer.class, userId));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double sequentialThroughput(long taskId, long userId) {
+        long started = System.nanoTime();
+        for (int i = 0; i < SEQUENTIAL_STARTS; i++) {
+            timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(taskId));
+        }
+        return SEQUENTIAL_STARTS / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private long createUser() {
+        return userService.createUser(new UserCreateDTO("Stress Tester", "stress-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+    }
+}
@@ -0,0 +1,108 @@
+package ru.timetracker.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.repository.TimeEntryRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для {@link TrackingMetrics} и {@link SchedulerMetrics} на {@link SimpleMeterRegistry}.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Gauge активных записей времени</li>
+ *   <li>Счетчиков стартов и остановок трекинга</li>
+ *   <li>Таймера выполнения и счетчика строк задач по расписанию</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+class TrackingMetricsTest {
+
+    @Mock
+    private TimeEntryRepository timeEntryRepository;
+
+    private SimpleMeterRegistry registry;
+    private TrackingMetrics trackingMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        trackingMetrics = new TrackingMetrics(registry, timeEntryRepository);
+    }
+
+    /**
+     * Проверяет, что gauge активных записей возвращает количество из репозитория.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Значение gauge равно результату countByEndTimeIsNull</li>
+     * </ul>
+     */
+    @Test
+    void activeEntriesGauge_ShouldReportRepositoryCount() {
+        when(timeEntryRepository.countByEndTimeIsNull()).thenReturn(7L);
+
+        assertEquals(7.0, registry.get(TrackingMetrics.ACTIVE_ENTRIES)
+                .gauge()
+                .value());
+    }
+
+    /**
+     * Проверяет подсчет событий трекинга по типам.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Старты и остановки учитываются в счетчиках с соответствующим тегом type</li>
+     * </ul>
+     */
+    @Test
+    void onTimeEntryEvent_ShouldCountEventsByType() {
+        LocalDateTime now = LocalDateTime.now();
+        trackingMetrics.onTimeEntryEvent(new TimeEntryEvent(TimeEntryEvent.Type.STARTED, 1L, 1L, 1L, now, null));
+        trackingMetrics.onTimeEntryEvent(new TimeEntryEvent(TimeEntryEvent.Type.STARTED, 2L, 1L, 1L, now, null));
+        trackingMetrics.onTimeEntryEvent(new TimeEntryEvent(TimeEntryEvent.Type.STOPPED, 2L, 1L, 1L, now, now));
+
+        assertEquals(2.0, registry.get(TrackingMetrics.TRACKING_EVENTS)
+                .tag("type", "started")
+                .counter()
+                .count());
+        assertEquals(1.0, registry.get(TrackingMetrics.TRACKING_EVENTS)
+                .tag("type", "stopped")
+                .counter()
+                .count());
+    }
+
+    /**
+     * Проверяет метрики задачи по расписанию.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Успешный запуск записывается в таймер с outcome=success</li>
+     *   <li>Количество строк суммируется по операции</li>
+     * </ul>
+     */
+    @Test
+    void schedulerMetrics_ShouldRecordRunAndRows() {
+        SchedulerMetrics schedulerMetrics = new SchedulerMetrics(registry);
+
+        schedulerMetrics.recordRun("cleanup", () -> {
+            schedulerMetrics.recordRows("cleanup", "deleted-tasks", 3);
+            schedulerMetrics.recordRows("cleanup", "deleted-tasks", 2);
+        });
+
+        assertEquals(1, registry.get(SchedulerMetrics.RUN_DURATION)
+                .tag("job", "cleanup")
+                .tag("outcome", "success")
+                .timer()
+                .count());
+        assertEquals(5.0, registry.get(SchedulerMetrics.ROWS_AFFECTED)
+                .tag("operation", "deleted-tasks")
+                .counter()
+                .count());
+    }
+}
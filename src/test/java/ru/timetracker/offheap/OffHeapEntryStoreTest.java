@@ -0,0 +1,202 @@
+package ru.timetracker.offheap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.task.TaskDurationDTO;
+import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.repository.TimeEntryRepository;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.UserService;
+import ru.timetracker.util.DurationFormatter;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционные тесты хранилища записей вне кучи на H2. Порог загрузки снижен, чтобы сегмент строился на небольшом наборе данных.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Совпадения отчетов по сегменту с отчетами, посчитанными в БД</li>
+ *   <li>Обновления сегмента по событиям трекинга и сброса при удалении задачи</li>
+ *   <li>Одной загрузки сегмента на одновременные отчеты пользователя</li>
+ * </ul>
+ */
+@SpringBootTest(properties = {"timetracker.offheap.enabled=true", "timetracker.offheap.min-entries=10"})
+class OffHeapEntryStoreTest {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO time_entries (id, user_id, task_id, start_time, end_time, created_at) " +
+                    "VALUES (NEXT VALUE FOR time_entries_seq, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+    @Autowired
+    private OffHeapEntryStore store;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long firstTaskId;
+    private Long secondTaskId;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.createUser(new UserCreateDTO("Off-heap Tester", "offheap-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+        firstTaskId = taskService.createTask(userId, new TaskCreateDTO("Reports", "Off-heap test"))
+                .getId();
+        secondTaskId = taskService.createTask(userId, new TaskCreateDTO("Meetings", "Off-heap test"))
+                .getId();
+        base = LocalDateTime.now()
+                .truncatedTo(ChronoUnit.DAYS)
+                .minusDays(10);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            LocalDateTime start = base.plusHours(i * 5L);
+            rows.add(new Object[]{userId, i % 3 == 0 ? secondTaskId : firstTaskId, Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusMinutes(17L + i)), Timestamp.valueOf(start)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Проверяет, что отчеты по сегменту совпадают с отчетами в БД.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Общая длительность за период совпадает с суммой из БД</li>
+     *   <li>Длительности и порядок задач совпадают с запросом в БД</li>
+     *   <li>Повторный отчет обслуживается уже загруженным сегментом</li>
+     * </ul>
+     */
+    @Test
+    void reports_ShouldMatchDatabase() {
+        LocalDateTime from = base.plusDays(2);
+        LocalDateTime to = base.plusDays(6);
+        long loadsBefore = store.getLoadCount();
+
+        assertEquals(timeEntryRepository.sumWorkDurationByUserAndPeriod(userId, from, to)
+                .longValue(), timeEntryService.getTotalWorkDuration(userId, from, to)
+                .getTotalSeconds());
+        List<Object[]> expected = timeEntryRepository.findTaskDurationsByUserAndPeriod(userId, from, to);
+        List<TaskDurationDTO> actual = timeEntryService.getUserTaskDurations(userId, from, to);
+
+        assertEquals(loadsBefore + 1, store.getLoadCount());
+        assertEquals(expected.size(), actual.size());
+        Map<Long, TaskDurationDTO> byTaskId = actual.stream()
+                .collect(Collectors.toMap(TaskDurationDTO::getTaskId, Function.identity()));
+        for (Object[] row : expected) {
+            TaskDurationDTO duration = byTaskId.get((Long) row[0]);
+            assertEquals(row[1], duration.getTaskTitle());
+            assertEquals(DurationFormatter.formatSeconds(((Number) row[2]).longValue()), duration.getDuration());
+        }
+        // Задачи упорядочены по самой ранней записи за все время, как и при расчете в БД
+        assertEquals(secondTaskId, actual.get(0)
+                .getTaskId());
+        assertEquals(base, actual.get(0)
+                .getFirstEntryTime());
+        assertEquals(base.plusHours(5), actual.get(1)
+                .getFirstEntryTime());
+    }
+
+    /**
+     * Проверяет обновление сегмента по событиям трекинга и его сброс при удалении задачи.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Старт и остановка после загрузки попадают в сегмент без повторной загрузки</li>
+     *   <li>После удаления задачи сегмент строится заново и не содержит ее записей</li>
+     * </ul>
+     */
+    @Test
+    void events_ShouldUpdateSegmentAndTaskDeletionShouldEvictIt() {
+        LocalDateTime from = base;
+        LocalDateTime to = LocalDateTime.now()
+                .plusMinutes(1);
+        timeEntryService.getTotalWorkDuration(userId, from, to);
+        long loads = store.getLoadCount();
+
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(firstTaskId));
+        timeEntryService.stopTimeEntry(userId);
+        assertEquals(2, timeEntryService.getUserTaskDurations(userId, from, to)
+                .size());
+        assertEquals(timeEntryRepository.sumWorkDurationByUserAndPeriod(userId, from, to)
+                .longValue(), timeEntryService.getTotalWorkDuration(userId, from, to)
+                .getTotalSeconds());
+        assertEquals(loads, store.getLoadCount());
+
+        taskService.deleteTask(secondTaskId, userId);
+        List<TaskDurationDTO> durations = timeEntryService.getUserTaskDurations(userId, from, to);
+
+        assertEquals(loads + 1, store.getLoadCount());
+        assertEquals(1, durations.size());
+        assertEquals(firstTaskId, durations.get(0)
+                .getTaskId());
+    }
+
+    /**
+     * Проверяет, что одновременные отчеты пользователя ждут одну общую загрузку сегмента.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Сегмент загружается из БД один раз</li>
+     *   <li>Все отчеты посчитаны по сегменту и совпадают с суммой из БД</li>
+     * </ul>
+     */
+    @Test
+    void concurrentReports_ShouldShareOneLoad() {
+        LocalDateTime from = base;
+        LocalDateTime to = base.plusDays(9);
+        long expected = timeEntryRepository.sumWorkDurationByUserAndPeriod(userId, from, to)
+                .longValue();
+        long loads = store.getLoadCount();
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<OptionalLong>> reports = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                reports.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        ready.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread()
+                                .interrupt();
+                    }
+                    return store.sumSeconds(userId, from, to);
+                }, executor));
+            }
+            ready.countDown();
+
+            for (CompletableFuture<OptionalLong> report : reports) {
+                assertEquals(OptionalLong.of(expected), report.join());
+            }
+            assertEquals(loads + 1, store.getLoadCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
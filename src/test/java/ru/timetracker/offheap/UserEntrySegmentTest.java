@@ -0,0 +1,94 @@
+package ru.timetracker.offheap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты сегмента записей вне кучи {@link UserEntrySegment}.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Суммирования по периоду с учетом границ и незавершенных записей</li>
+ *   <li>Группировки по задачам и поиска самой ранней записи задачи</li>
+ *   <li>Сохранения порядка при росте буфера и вставке не по порядку</li>
+ * </ul>
+ */
+class UserEntrySegmentTest {
+
+    /**
+     * Проверяет суммирование длительности записей, начатых в периоде.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Записи на границах периода учитываются</li>
+     *   <li>Незавершенная запись считается до текущего времени</li>
+     *   <li>Завершение записи фиксирует ее длительность</li>
+     * </ul>
+     */
+    @Test
+    void sumSeconds_ShouldCountEntriesStartedInPeriod() {
+        UserEntrySegment segment = new UserEntrySegment(4);
+        segment.add(100, 160, 1);
+        segment.add(200, 230, 2);
+        segment.add(300, UserEntrySegment.ACTIVE, 1);
+
+        assertEquals(60 + 30 + 50, segment.sumSeconds(100, 300, 350));
+        assertEquals(30, segment.sumSeconds(101, 299, 350));
+
+        assertTrue(segment.close(300, 1, 320));
+        assertFalse(segment.close(300, 2, 320));
+        assertEquals(110, segment.sumSeconds(0, 1_000, 10_000));
+    }
+
+    /**
+     * Проверяет группировку длительностей по задачам.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Задачи перечислены в порядке первой записи в периоде</li>
+     *   <li>Самая ранняя запись задачи берется за все время, а не только за период</li>
+     * </ul>
+     */
+    @Test
+    void sumByTask_ShouldGroupByTaskWithFirstStart() {
+        UserEntrySegment segment = new UserEntrySegment(4);
+        segment.add(10, 20, 7);
+        segment.add(100, 110, 8);
+        segment.add(200, 260, 7);
+        segment.add(300, 305, 8);
+
+        TaskTotals totals = new TaskTotals();
+        segment.sumByTask(100, 400, 400, totals);
+
+        assertEquals(2, totals.size());
+        assertEquals(8, totals.taskId(0));
+        assertEquals(15, totals.seconds(0));
+        assertEquals(100, totals.firstStart(0));
+        assertEquals(7, totals.taskId(1));
+        assertEquals(60, totals.seconds(1));
+        assertEquals(10, totals.firstStart(1));
+    }
+
+    /**
+     * Проверяет рост буфера и вставку записи не по порядку.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Все записи сохраняются после нескольких удвоений буфера</li>
+     *   <li>Запись с более ранним началом попадает в период бинарного поиска</li>
+     *   <li>Повторное добавление той же записи игнорируется</li>
+     * </ul>
+     */
+    @Test
+    void add_ShouldKeepOrderWhileGrowing() {
+        UserEntrySegment segment = new UserEntrySegment(1);
+        for (int i = 1; i <= 100; i++) {
+            segment.add(i * 10L, i * 10L + 1, i % 3);
+        }
+        long initialBytes = 16L * UserEntrySegment.RECORD_SIZE;
+        assertTrue(segment.bytes() > initialBytes);
+
+        segment.add(55, 60, 9);
+        segment.addIfAbsent(55, 60, 9);
+
+        assertEquals(101, segment.size());
+        assertEquals(1 + 5 + 1, segment.sumSeconds(50, 60, 0));
+    }
+}
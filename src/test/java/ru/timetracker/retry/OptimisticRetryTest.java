@@ -0,0 +1,138 @@
+package ru.timetracker.retry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.metrics.OptimisticLockMetrics;
+import ru.timetracker.model.Task;
+import ru.timetracker.repository.TaskRepository;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционные тесты оптимистической блокировки и повторов изменений задач на H2.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Отклонения изменения устаревшей версии задачи вместо перезаписи</li>
+ *   <li>Отсутствия потерянных обновлений при параллельных переключениях статуса</li>
+ * </ul>
+ */
+@SpringBootTest
+class OptimisticRetryTest {
+
+    private static final int THREADS = 8;
+    private static final int TOGGLES = 200;
+    private static final String OPERATION = "TaskService.toggleTaskStatus";
+    private static final String TASK_STATE_SQL = "SELECT version, active FROM tasks WHERE id = ?";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private OptimisticLockMetrics optimisticLockMetrics;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.createUser(new UserCreateDTO("Retry Tester", "retry-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+        taskId = taskService.createTask(userId, new TaskCreateDTO("Contended task", "Optimistic locking"))
+                .getId();
+    }
+
+    /**
+     * Проверяет отклонение изменения устаревшей версии.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Транзакция, прочитавшая задачу до параллельного переключения статуса, не перезаписывает его при фиксации</li>
+     *   <li>Статус задачи остается результатом параллельного переключения</li>
+     * </ul>
+     */
+    @Test
+    void staleTaskUpdate_ShouldBeRejected() {
+        assertThrows(OptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            Task stale = taskRepository.findByIdAndUserId(taskId, userId)
+                    .orElseThrow();
+            CompletableFuture.runAsync(() -> taskService.toggleTaskStatus(taskId, userId))
+                    .join();
+            stale.setDescription("Stale update");
+        }));
+
+        Map<String, Object> state = jdbcTemplate.queryForMap(TASK_STATE_SQL, taskId);
+        assertEquals(false, state.get("ACTIVE"));
+        assertEquals(1L, ((Number) state.get("VERSION")).longValue());
+    }
+
+    /**
+     * Проверяет отсутствие потерянных обновлений под параллельной нагрузкой.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Каждое успешное переключение увеличивает версию ровно на единицу</li>
+     *   <li>Итоговый статус соответствует четности количества успешных переключений</li>
+     *   <li>Каждый успешный вызов учтен в метриках попыток</li>
+     * </ul>
+     */
+    @Test
+    void toggleTaskStatus_ShouldNotLoseUpdates_UnderParallelLoad() throws Exception {
+        double successesBefore = optimisticLockMetrics.getAttempts(OPERATION, "success");
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>(TOGGLES);
+        try {
+            for (int i = 0; i < TOGGLES; i++) {
+                futures.add(executor.submit(() -> {
+                    ready.await();
+                    try {
+                        taskService.toggleTaskStatus(taskId, userId);
+                        return true;
+                    } catch (OptimisticLockingFailureException e) {
+                        return false;
+                    }
+                }));
+            }
+            ready.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get(60, TimeUnit.SECONDS)) {
+                    succeeded++;
+                }
+            }
+
+            Map<String, Object> state = jdbcTemplate.queryForMap(TASK_STATE_SQL, taskId);
+            assertTrue(succeeded > 0);
+            assertEquals(succeeded, ((Number) state.get("VERSION")).longValue());
+            assertEquals(succeeded % 2 == 0, state.get("ACTIVE"));
+            assertEquals(succeeded, optimisticLockMetrics.getAttempts(OPERATION, "success") - successesBefore);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ru.timetracker.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты колеса таймеров {@link HashedWheelTimer}.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Срабатывания таймеров, в том числе со сроком больше одного оборота колеса</li>
+ *   <li>Отмены таймера до срабатывания</li>
+ * </ul>
+ */
+class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    void setUp() {
+        timer = new HashedWheelTimer("test-timer", Duration.ofMillis(10), 8, Runnable::run);
+        timer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.close();
+    }
+
+    /**
+     * Проверяет срабатывание таймеров.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Размер колеса округляется до степени двойки</li>
+     *   <li>Таймер не срабатывает раньше срока</li>
+     *   <li>Таймер со сроком в несколько оборотов колеса и просроченный таймер срабатывают</li>
+     * </ul>
+     */
+    @Test
+    void schedule_ShouldRunTaskAfterDelay() throws InterruptedException {
+        assertEquals(8, new HashedWheelTimer("unused", Duration.ofMillis(10), 5, Runnable::run).getWheelSize());
+        CountDownLatch fired = new CountDownLatch(2);
+        long startNanos = System.nanoTime();
+        long[] firedAfterMillis = new long[1];
+
+        timer.schedule(() -> {
+            firedAfterMillis[0] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            fired.countDown();
+        }, Duration.ofMillis(250));
+        timer.schedule(fired::countDown, Duration.ofSeconds(-1));
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(firedAfterMillis[0] >= 250);
+        assertEquals(0, timer.getPendingCount());
+        assertEquals(2, timer.getExpiredCount());
+    }
+
+    /**
+     * Проверяет отмену таймера.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Отмененный таймер не срабатывает и не учитывается в ожидающих</li>
+     *   <li>Повторная отмена и отмена сработавшего таймера возвращают false</li>
+     * </ul>
+     */
+    @Test
+    void cancel_ShouldPreventExpiration() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch fired = new CountDownLatch(1);
+
+        HashedWheelTimer.Timeout cancelled = timer.schedule(runs::incrementAndGet, Duration.ofMillis(50));
+        HashedWheelTimer.Timeout kept = timer.schedule(fired::countDown, Duration.ofMillis(150));
+        assertEquals(2, timer.getPendingCount());
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+
+        assertEquals(0, runs.get());
+        assertTrue(cancelled.isCancelled());
+        assertTrue(kept.isExpired());
+        assertFalse(kept.cancel());
+        assertEquals(0, timer.getPendingCount());
+    }
+}
@@ -0,0 +1,121 @@
+package ru.timetracker.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционные тесты автозавершения записей по сроку на H2. Максимальная длительность записи и шаг колеса уменьшены, чтобы срок
+ * наступал во время теста.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Завершения записи временем срока и отмены таймера при остановке</li>
+ *   <li>Восстановления таймеров активных записей при запуске</li>
+ * </ul>
+ */
+@SpringBootTest(properties = {"timetracker.auto-stop.max-duration=1s", "timetracker.auto-stop.tick-duration=50ms"})
+class TimeEntryAutoCompleterTest {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO time_entries (id, user_id, task_id, start_time, end_time, created_at) " +
+                    "VALUES (NEXT VALUE FOR time_entries_seq, ?, ?, ?, NULL, ?)";
+    private static final String END_TIME_SQL = "SELECT end_time FROM time_entries WHERE id = ?";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private TimeEntryAutoCompleter autoCompleter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.createUser(new UserCreateDTO("Auto Stop Tester", "auto-stop-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+        taskId = taskService.createTask(userId, new TaskCreateDTO("Long task", "Auto-stop test"))
+                .getId();
+    }
+
+    /**
+     * Проверяет завершение записи по сроку.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Остановленная вручную запись не меняется по сроку</li>
+     *   <li>Незавершенная запись завершается временем начала плюс максимальная длительность</li>
+     * </ul>
+     */
+    @Test
+    void startedEntry_ShouldBeCompletedAtDeadline() throws InterruptedException {
+        TimeEntryDTO stopped = timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(taskId));
+        LocalDateTime stoppedAt = timeEntryService.stopTimeEntry(userId)
+                .getEndTime();
+        TimeEntryDTO started = timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(taskId));
+
+        LocalDateTime endTime = awaitEndTime(started.getId());
+        assertEquals(started.getStartTime()
+                .plusSeconds(1)
+                .truncatedTo(ChronoUnit.MILLIS), endTime.truncatedTo(ChronoUnit.MILLIS));
+        assertEquals(stoppedAt.truncatedTo(ChronoUnit.MILLIS), awaitEndTime(stopped.getId()).truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    /**
+     * Проверяет восстановление таймеров активных записей.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Просроченная запись, найденная в БД, завершается сразу</li>
+     *   <li>Время окончания равно сроку записи, а не времени восстановления</li>
+     *   <li>После завершения срок пользователя не остается в ожидающих</li>
+     * </ul>
+     */
+    @Test
+    void scheduleActiveEntries_ShouldCompleteOverdueEntries() throws InterruptedException {
+        LocalDateTime start = LocalDateTime.now()
+                .minusHours(2)
+                .truncatedTo(ChronoUnit.SECONDS);
+        jdbcTemplate.update(INSERT_SQL, userId, taskId, Timestamp.valueOf(start), Timestamp.valueOf(start));
+        Long entryId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM time_entries WHERE user_id = ?", Long.class, userId);
+
+        autoCompleter.scheduleActiveEntries();
+
+        assertEquals(autoCompleter.deadlineOf(start), awaitEndTime(entryId));
+        assertEquals(start.plusSeconds(1), awaitEndTime(entryId));
+        for (int i = 0; i < 100 && autoCompleter.isScheduled(userId); i++) {
+            Thread.sleep(50);
+        }
+        assertFalse(autoCompleter.isScheduled(userId));
+    }
+
+    private LocalDateTime awaitEndTime(Long entryId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            LocalDateTime endTime = jdbcTemplate.queryForObject(END_TIME_SQL, LocalDateTime.class, entryId);
+            if (endTime != null) {
+                return endTime;
+            }
+            Thread.sleep(50);
+        }
+        return fail("Time entry " + entryId + " was not completed");
+    }
+}
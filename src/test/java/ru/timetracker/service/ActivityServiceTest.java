@@ -0,0 +1,162 @@
+package ru.timetracker.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.timetracker.dto.activity.ActiveUsersDTO;
+import ru.timetracker.dto.activity.ActiveUsersPeriodDTO;
+import ru.timetracker.dto.activity.DaysWorkedDTO;
+import ru.timetracker.dto.activity.StreakDTO;
+import ru.timetracker.dto.activity.TeamDaysDTO;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.index.DayPresenceIndex;
+import ru.timetracker.model.User;
+import ru.timetracker.repository.UserRepository;
+import ru.timetracker.sketch.ActiveUserSketches;
+import ru.timetracker.sketch.HyperLogLog;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Тесты для {@link ActivityService}, проверяющие расчет статистики активности по индексу дней с трекингом.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Подсчета рабочих и календарных дней за период</li>
+ *   <li>Текущей серии, если в последний день периода трекинга еще не было</li>
+ *   <li>Пересечения дней команды и проверки участников</li>
+ *   <li>Оценки активных пользователей по месяцам и за весь период</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+class ActivityServiceTest {
+
+    private final Long userId = 1L;
+    private final LocalDate from = LocalDate.of(2025, 7, 1);
+    private final LocalDate to = LocalDate.of(2025, 7, 31);
+    @Mock
+    private DayPresenceIndex dayPresenceIndex;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ActiveUserSketches activeUserSketches;
+    @InjectMocks
+    private ActivityService activityService;
+
+    /**
+     * Проверяет подсчет дней с трекингом за период.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Количество рабочих дней берется из индекса</li>
+     *   <li>Количество календарных дней включает обе границы периода</li>
+     * </ul>
+     */
+    @Test
+    void getDaysWorked_ShouldCountDaysFromIndex() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
+        when(dayPresenceIndex.countDays(userId, from, to)).thenReturn(18);
+
+        DaysWorkedDTO result = activityService.getDaysWorked(userId, from, to);
+
+        assertEquals(18, result.getDaysWorked());
+        assertEquals(31, result.getCalendarDays());
+    }
+
+    /**
+     * Проверяет расчет серий, когда в последний день периода трекинга еще не было.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Самая длинная серия переводится в даты начала и окончания</li>
+     *   <li>Текущая серия считается до предыдущего дня</li>
+     * </ul>
+     */
+    @Test
+    void getStreaks_ShouldFallBackToPreviousDayForCurrentStreak() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
+        when(dayPresenceIndex.longestStreak(userId, from, to)).thenReturn(new long[]{5, from.plusDays(2)
+                .toEpochDay()});
+        when(dayPresenceIndex.streakEndingAt(userId, to)).thenReturn(0);
+        when(dayPresenceIndex.streakEndingAt(userId, to.minusDays(1))).thenReturn(3);
+
+        StreakDTO result = activityService.getStreaks(userId, from, to);
+
+        assertEquals(5, result.getLongestStreak());
+        assertEquals(from.plusDays(2), result.getLongestStreakStart());
+        assertEquals(from.plusDays(6), result.getLongestStreakEnd());
+        assertEquals(3, result.getCurrentStreak());
+    }
+
+    /**
+     * Проверяет пересечение дней команды.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Повторяющиеся ID участников учитываются один раз</li>
+     *   <li>Биты пересечения переводятся в даты периода</li>
+     *   <li>Несуществующий участник приводит к {@link ResourceNotFoundException}</li>
+     * </ul>
+     */
+    @Test
+    void getTeamDays_ShouldIntersectTeamBitmaps() {
+        BitSet common = new BitSet();
+        common.set(0);
+        common.set(4);
+        when(userRepository.findById(any())).thenReturn(Optional.of(new User()));
+        when(dayPresenceIndex.intersect(List.of(1L, 2L), from, to)).thenReturn(common);
+
+        TeamDaysDTO result = activityService.getTeamDays(List.of(1L, 2L, 1L), from, to);
+
+        assertEquals(List.of(1L, 2L), result.getUserIds());
+        assertEquals(List.of(from, from.plusDays(4)), result.getDays());
+
+        when(userRepository.findById(3L)).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> activityService.getTeamDays(List.of(3L), from, to));
+    }
+
+    /**
+     * Проверяет оценку активных пользователей с разбиением по месяцам.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Первый и последний месяцы ограничены периодом</li>
+     *   <li>Пользователь, активный в нескольких месяцах, учитывается в итоге периода один раз</li>
+     *   <li>Слишком длинный период отклоняется</li>
+     * </ul>
+     */
+    @Test
+    void getActiveUsers_ShouldMergeMonthlySketches() {
+        LocalDate start = LocalDate.of(2025, 7, 15);
+        LocalDate end = LocalDate.of(2025, 9, 10);
+        when(activeUserSketches.union(start, LocalDate.of(2025, 7, 31))).thenReturn(sketchOf(1, 2));
+        when(activeUserSketches.union(LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 31))).thenReturn(sketchOf(2, 3));
+        when(activeUserSketches.union(LocalDate.of(2025, 9, 1), end)).thenReturn(sketchOf(3));
+
+        ActiveUsersDTO result = activityService.getActiveUsers(start, end, ActiveUsersDTO.Granularity.MONTH);
+
+        assertEquals(3, result.getDistinctUsers());
+        assertEquals(List.of(2L, 2L, 1L), result.getPeriods()
+                .stream()
+                .map(ActiveUsersPeriodDTO::getDistinctUsers)
+                .toList());
+        assertEquals(start, result.getPeriods()
+                .get(0)
+                .getFrom());
+        assertTrue(result.getLowerBound() <= 3 && result.getUpperBound() >= 3);
+
+        assertThrows(IllegalArgumentException.class, () -> activityService.getActiveUsers(end.minusYears(20), end, null));
+    }
+
+    private static HyperLogLog sketchOf(long... userIds) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id : userIds) {
+            sketch.add(id);
+        }
+        return sketch;
+    }
+}
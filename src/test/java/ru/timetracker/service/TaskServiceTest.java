@@ -2,15 +2,20 @@ package ru.timetracker.service;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.timetracker.dto.mapper.TaskMapper;
 import ru.timetracker.dto.task.TaskCreateDTO;
 import ru.timetracker.dto.task.TaskDTO;
+import ru.timetracker.dto.task.TaskSuggestionDTO;
 import ru.timetracker.dto.task.TaskUpdateDTO;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
 import ru.timetracker.exception.ResourceNotFoundException;
 import ru.timetracker.exception.TaskAlreadyExistsException;
+import ru.timetracker.index.TaskTitleIndex;
 import ru.timetracker.model.Task;
 import ru.timetracker.model.User;
 import ru.timetracker.repository.TaskRepository;
@@ -48,6 +53,10 @@ class TaskServiceTest {
     private UserRepository userRepository;
     @Mock
     private TaskMapper taskMapper;
+    @Mock
+    private TaskTitleIndex taskTitleIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private TaskService taskService;
 
@@ -139,6 +148,7 @@ class TaskServiceTest {
 
         assertEquals(taskDTO, result);
         verify(taskRepository).save(task);
+        verify(taskTitleIndex).put(savedTask);
         assertEquals(user, task.getUser());
     }
 
@@ -265,6 +275,7 @@ class TaskServiceTest {
      * <ul>
      *   <li>Поиск задачи по ID пользователя и ID задачи</li>
      *   <li>Удаление найденной задачи</li>
+     *   <li>Публикация сброса данных трекинга пользователя</li>
      *   <li>Отсутствие исключений при успешном удалении</li>
      * </ul>
      */
@@ -276,6 +287,11 @@ class TaskServiceTest {
         taskService.deleteTask(taskId, userId);
 
         verify(taskRepository).delete(task);
+        verify(taskTitleIndex).remove(userId, taskId);
+        ArgumentCaptor<UserTrackingDataInvalidatedEvent> event = ArgumentCaptor.forClass(UserTrackingDataInvalidatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(userId, event.getValue()
+                .getUserId());
     }
 
     /**
@@ -337,4 +353,52 @@ class TaskServiceTest {
 
         assertEquals(originalDate, existingTask.getCreatedAt());
     }
-}
\ No newline at end of file
+
+    /**
+     * Проверяет поиск задач по префиксу названия.
+     * <p>Ожидается:
+     * <ul>
+     *   <li>Делегирование поиска индексу названий задач</li>
+     *   <li>Ограничение количества результатов максимальным значением</li>
+     * </ul>
+     */
+    @Test
+    void searchTasksByTitle_ShouldDelegateToIndexWithClampedLimit() {
+        TaskSuggestionDTO suggestion = new TaskSuggestionDTO(taskId, "Разработка API", true, null);
+        when(taskTitleIndex.search(userId, "раз", 50, false)).thenReturn(List.of(suggestion));
+
+        List<TaskSuggestionDTO> result = taskService.searchTasksByTitle(userId, "раз", 1000, false);
+
+        assertEquals(List.of(suggestion), result);
+        verify(taskRepository, never()).findByUserId(any(), anyBoolean());
+    }
+
+    /**
+     * Проверяет отклонение некорректного лимита результатов поиска.
+     * <p>Ожидается:
+     * <ul>
+     *   <li>Выброс IllegalArgumentException</li>
+     *   <li>Отсутствие обращения к индексу</li>
+     * </ul>
+     */
+    @Test
+    void searchTasksByTitle_ShouldThrowException_WhenLimitNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasksByTitle(userId, "раз", 0, false));
+        verifyNoInteractions(taskTitleIndex);
+    }
+
+    /**
+     * Проверяет поиск задач несуществующего пользователя.
+     * <p>Ожидается:
+     * <ul>
+     *   <li>Выброс ResourceNotFoundException, если подсказок нет и пользователь не найден</li>
+     * </ul>
+     */
+    @Test
+    void searchTasksByTitle_ShouldThrowException_WhenUserNotFound() {
+        when(taskTitleIndex.search(userId, "раз", 10, false)).thenReturn(List.of());
+        when(userRepository.existsById(userId)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.searchTasksByTitle(userId, "раз", 10, false));
+    }
+}
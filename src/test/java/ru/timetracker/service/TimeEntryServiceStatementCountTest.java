@@ -0,0 +1,142 @@
+package ru.timetracker.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.sql.SqlStatementCounter;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционные тесты быстрого пути старта/остановки трекинга на H2. Количество обменов с БД считается через JDBC-прокси
+ * ({@link SqlStatementCounter}), поэтому учитываются и запросы в обход Hibernate - пакетный INSERT событий журнала трекинга перед
+ * фиксацией транзакции.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Старта без активной записи: SELECT + INSERT + INSERT событий журнала</li>
+ *   <li>Старта с активной записью: SELECT + UPDATE + INSERT + INSERT событий журнала</li>
+ *   <li>Остановки: SELECT + UPDATE + INSERT события журнала</li>
+ *   <li>Отказа при старте по чужой задаче</li>
+ * </ul>
+ */
+@SpringBootTest
+class TimeEntryServiceStatementCountTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+
+    private Long userId;
+    private Long firstTaskId;
+    private Long secondTaskId;
+
+    @BeforeEach
+    void setUp() {
+        userId = createUser();
+        firstTaskId = taskService.createTask(userId, new TaskCreateDTO("First task", "Fast path"))
+                .getId();
+        secondTaskId = taskService.createTask(userId, new TaskCreateDTO("Second task", "Fast path"))
+                .getId();
+    }
+
+    /**
+     * Проверяет количество запросов при старте трекинга без активной записи.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Выполняется ровно три запроса: проверка задачи, вставка записи и пакетная вставка событий журнала</li>
+     *   <li>Возвращается активная запись с названием задачи</li>
+     * </ul>
+     */
+    @Test
+    void startTimeEntry_WithoutActiveEntry_ShouldExecuteThreeStatements() {
+        TimeEntryDTO result;
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open("start")) {
+            result = timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(firstTaskId));
+            assertEquals(3, scope.getCount());
+        }
+        assertTrue(result.isActive());
+        assertEquals("First task", result.getTaskTitle());
+        assertEquals(userId, result.getUserId());
+    }
+
+    /**
+     * Проверяет количество запросов при переключении трекинга на другую задачу.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Выполняется ровно четыре запроса: проверка задачи, завершение предыдущей записи, вставка новой и пакетная вставка
+     *   событий журнала (остановка предыдущей и старт новой)</li>
+     *   <li>Предыдущая запись завершена, активна только новая</li>
+     * </ul>
+     */
+    @Test
+    void startTimeEntry_WithActiveEntry_ShouldExecuteFourStatements() {
+        TimeEntryDTO previous = timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(firstTaskId));
+
+        TimeEntryDTO result;
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open("switch")) {
+            result = timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(secondTaskId));
+            assertEquals(4, scope.getCount());
+        }
+        assertEquals(secondTaskId, result.getTaskId());
+        assertEquals(result.getId(), timeEntryService.stopTimeEntry(userId)
+                .getId());
+        assertNotEquals(previous.getId(), result.getId());
+    }
+
+    /**
+     * Проверяет количество запросов при остановке трекинга.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Выполняется ровно три запроса: выборка активной записи с задачей, обновление и вставка события журнала</li>
+     *   <li>Возвращается завершенная запись</li>
+     * </ul>
+     */
+    @Test
+    void stopTimeEntry_ShouldExecuteThreeStatements() {
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(firstTaskId));
+
+        TimeEntryDTO result;
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open("stop")) {
+            result = timeEntryService.stopTimeEntry(userId);
+            assertEquals(3, scope.getCount());
+        }
+        assertFalse(result.isActive());
+        assertNotNull(result.getEndTime());
+        assertEquals("First task", result.getTaskTitle());
+    }
+
+    /**
+     * Проверяет, что старт трекинга по задаче другого пользователя отклоняется одним запросом.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Генерирует ResourceNotFoundException</li>
+     *   <li>Не выполняет запросов на изменение данных</li>
+     * </ul>
+     */
+    @Test
+    void startTimeEntry_ForForeignTask_ShouldFailWithSingleStatement() {
+        Long otherUserId = createUser();
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open("foreign-start")) {
+            assertThrows(ResourceNotFoundException.class,
+                    () -> timeEntryService.startTimeEntry(otherUserId, new TimeEntryCreateDTO(firstTaskId)));
+            assertEquals(1, scope.getCount());
+        }
+    }
+
+    private Long createUser() {
+        return userService.createUser(new UserCreateDTO("Fast Path", "fast-path-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+    }
+}
@@ -2,22 +2,31 @@ package ru.timetracker.service;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.timetracker.dto.mapper.TimeEntryMapper;
 import ru.timetracker.dto.task.TaskDurationDTO;
 import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
 import ru.timetracker.dto.timeentry.TimeEntryDTO;
 import ru.timetracker.dto.timeentry.TimeIntervalDTO;
 import ru.timetracker.dto.timeentry.TotalWorkDurationDTO;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
 import ru.timetracker.exception.ResourceNotFoundException;
+import ru.timetracker.index.DayPresenceIndex;
 import ru.timetracker.model.Task;
 import ru.timetracker.model.TimeEntry;
 import ru.timetracker.model.User;
+import ru.timetracker.offheap.OffHeapEntryStore;
 import ru.timetracker.repository.TaskRepository;
 import ru.timetracker.repository.TimeEntryRepository;
 import ru.timetracker.repository.UserRepository;
+import ru.timetracker.sketch.SessionLengthDigests;
+import ru.timetracker.tracking.TrackingEventStore;
+import ru.timetracker.writebehind.WriteBehindTracker;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,6 +34,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -56,6 +66,18 @@ class TimeEntryServiceTest {
     private TaskRepository taskRepository;
     @Mock
     private TimeEntryMapper timeEntryMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private TrackingEventStore trackingEventStore;
+    @Mock
+    private WriteBehindTracker writeBehindTracker;
+    @Mock
+    private OffHeapEntryStore offHeapEntryStore;
+    @Mock
+    private DayPresenceIndex dayPresenceIndex;
+    @Mock
+    private SessionLengthDigests sessionLengthDigests;
     @InjectMocks
     private TimeEntryService timeEntryService;
 
@@ -78,10 +100,10 @@ class TimeEntryServiceTest {
         task.setUser(user);
         TimeEntry entry = new TimeEntry();
         TimeEntryDTO entryDTO = new TimeEntryDTO();
+        List<Object[]> context = List.<Object[]>of(new Object[]{task, null, null, null});
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(timeEntryRepository.findByUserAndEndTimeIsNull(user)).thenReturn(Optional.empty());
+        when(timeEntryRepository.findStartContext(userId, taskId)).thenReturn(context);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
         when(timeEntryRepository.save(any(TimeEntry.class))).thenReturn(entry);
         when(timeEntryMapper.toDTO(entry)).thenReturn(entryDTO);
 
@@ -89,14 +111,22 @@ class TimeEntryServiceTest {
 
         assertNotNull(result);
         verify(timeEntryRepository).save(any(TimeEntry.class));
+        verify(timeEntryRepository, never()).closeActiveEntries(any(), any());
+        verify(userRepository, never()).findById(any());
+        ArgumentCaptor<TimeEntryEvent> event = ArgumentCaptor.forClass(TimeEntryEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(TimeEntryEvent.Type.STARTED, event.getValue()
+                .getType());
+        assertEquals(userId, event.getValue()
+                .getUserId());
     }
 
     /**
      * Проверяет автоматическую остановку активной записи при создании новой.
      * <p>Ожидаемое поведение:
      * <ul>
-     *   <li>Находит активную запись пользователя</li>
-     *   <li>Устанавливает время окончания для активной записи</li>
+     *   <li>Находит активную запись пользователя в том же запросе, что и задачу</li>
+     *   <li>Завершает активную запись одним UPDATE-запросом</li>
      *   <li>Создает новую запись</li>
      *   <li>Возвращает DTO новой записи</li>
      * </ul>
@@ -109,21 +139,28 @@ class TimeEntryServiceTest {
         Task task = new Task();
         task.setId(taskId);
         task.setUser(user);
-        TimeEntry activeEntry = new TimeEntry();
         TimeEntry newEntry = new TimeEntry();
         TimeEntryDTO entryDTO = new TimeEntryDTO();
+        List<Object[]> context = List.<Object[]>of(new Object[]{task, entryId, startTime, 2L});
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(timeEntryRepository.findByUserAndEndTimeIsNull(user)).thenReturn(Optional.of(activeEntry));
+        when(timeEntryRepository.findStartContext(userId, taskId)).thenReturn(context);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+        when(timeEntryRepository.closeActiveEntries(eq(userId), any(LocalDateTime.class))).thenReturn(1);
         when(timeEntryRepository.save(any(TimeEntry.class))).thenReturn(newEntry);
         when(timeEntryMapper.toDTO(newEntry)).thenReturn(entryDTO);
 
         TimeEntryDTO result = timeEntryService.startTimeEntry(userId, dto);
 
         assertNotNull(result);
-        assertNotNull(activeEntry.getEndTime());
-        verify(timeEntryRepository, times(2)).save(any(TimeEntry.class));
+        verify(timeEntryRepository).closeActiveEntries(eq(userId), any(LocalDateTime.class));
+        verify(timeEntryRepository).save(any(TimeEntry.class));
+        ArgumentCaptor<TimeEntryEvent> events = ArgumentCaptor.forClass(TimeEntryEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        TimeEntryEvent stopped = events.getAllValues()
+                .get(0);
+        assertEquals(TimeEntryEvent.Type.STOPPED, stopped.getType());
+        assertEquals(entryId, stopped.getEntryId());
+        assertEquals(2L, stopped.getTaskId());
     }
 
     /**
@@ -137,18 +174,12 @@ class TimeEntryServiceTest {
     @Test
     void startTimeEntry_ShouldThrowException_WhenTaskNotBelongsToUser() {
         TimeEntryCreateDTO dto = new TimeEntryCreateDTO(taskId);
-        User user = new User();
-        user.setId(userId);
-        Task task = new Task();
-        task.setId(taskId);
-        task.setUser(User.builder()
-                .id(2L)
-                .build()); // Другой пользователь
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        // Задача другого пользователя не попадает в выборку запроса
+        when(timeEntryRepository.findStartContext(userId, taskId)).thenReturn(List.of());
 
         assertThrows(ResourceNotFoundException.class, () -> timeEntryService.startTimeEntry(userId, dto));
+        verify(timeEntryRepository, never()).save(any(TimeEntry.class));
     }
 
     /**
@@ -162,12 +193,10 @@ class TimeEntryServiceTest {
      */
     @Test
     void stopTimeEntry_ShouldStopActiveEntry() {
-        User user = new User();
         TimeEntry activeEntry = new TimeEntry();
         TimeEntryDTO entryDTO = new TimeEntryDTO();
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(timeEntryRepository.findByUserAndEndTimeIsNull(user)).thenReturn(Optional.of(activeEntry));
+        when(timeEntryRepository.findActiveWithTaskByUserId(userId)).thenReturn(Optional.of(activeEntry));
         when(timeEntryRepository.save(activeEntry)).thenReturn(activeEntry);
         when(timeEntryMapper.toDTO(activeEntry)).thenReturn(entryDTO);
 
@@ -178,6 +207,37 @@ class TimeEntryServiceTest {
         verify(timeEntryRepository).save(activeEntry);
     }
 
+    /**
+     * Проверяет автозавершение активной временной записи по сроку.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Устанавливает время окончания, равное сроку</li>
+     *   <li>Публикует событие AUTO_COMPLETED, а не STOPPED</li>
+     *   <li>Не меняет запись, если активна уже другая запись</li>
+     * </ul>
+     */
+    @Test
+    void autoCompleteTimeEntry_ShouldCompleteAtDeadline_WhenEntryStillActive() {
+        TimeEntry activeEntry = new TimeEntry();
+        activeEntry.setId(7L);
+        activeEntry.setStartTime(startTime);
+        LocalDateTime deadline = startTime.plusHours(8);
+
+        when(timeEntryRepository.findActiveWithTaskByUserId(userId)).thenReturn(Optional.of(activeEntry));
+        when(timeEntryRepository.save(activeEntry)).thenReturn(activeEntry);
+
+        assertNull(timeEntryService.autoCompleteTimeEntry(userId, 8L, deadline));
+        verify(timeEntryRepository, never()).save(any());
+
+        timeEntryService.autoCompleteTimeEntry(userId, 7L, deadline);
+
+        ArgumentCaptor<TimeEntryEvent> captor = ArgumentCaptor.forClass(TimeEntryEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(TimeEntryEvent.Type.AUTO_COMPLETED, captor.getValue()
+                .getType());
+        assertEquals(deadline, activeEntry.getEndTime());
+    }
+
     /**
      * Проверяет обработку случая отсутствия активной записи при остановке.
      * <p>Ожидаемое поведение:
@@ -188,9 +248,7 @@ class TimeEntryServiceTest {
      */
     @Test
     void stopTimeEntry_ShouldThrowException_WhenNoActiveEntry() {
-        User user = new User();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(timeEntryRepository.findByUserAndEndTimeIsNull(user)).thenReturn(Optional.empty());
+        when(timeEntryRepository.findActiveWithTaskByUserId(userId)).thenReturn(Optional.empty());
 
         assertThrows(IllegalStateException.class, () -> timeEntryService.stopTimeEntry(userId));
     }
@@ -256,13 +314,16 @@ class TimeEntryServiceTest {
         TaskDurationDTO durationDTO = new TaskDurationDTO(taskId, "Task 1", "01:00", startTime);
 
         when(timeEntryRepository.findTaskDurationsByUserAndPeriod(userId, startTime, endTime)).thenReturn(List.<Object[]>of(dbRow));
-        when(timeEntryRepository.findFirstByUserIdAndTaskIdOrderByStartTimeAsc(userId, taskId)).thenReturn(Optional.of(new TimeEntry()));
+        when(timeEntryRepository.findFirstStartTimesByUserIdAndTaskIds(userId, List.of(taskId))).thenReturn(
+                List.<Object[]>of(new Object[]{taskId, startTime}));
 
         List<TaskDurationDTO> result = timeEntryService.getUserTaskDurations(userId, startTime, endTime);
 
         assertEquals(1, result.size());
         assertEquals("01:00", result.get(0)
                 .getDuration());
+        assertEquals(startTime, result.get(0)
+                .getFirstEntryTime());
     }
 
     /**
@@ -303,16 +364,19 @@ class TimeEntryServiceTest {
      *   <li>Суммирует продолжительность всех записей</li>
      *   <li>Форматирует результат в читаемый вид</li>
      *   <li>Возвращает DTO с общей продолжительностью</li>
+     *   <li>Берет количество рабочих дней из индекса дней с трекингом</li>
      * </ul>
      */
     @Test
     void getTotalWorkDuration_ShouldCalculateTotal() {
         when(timeEntryRepository.sumWorkDurationByUserAndPeriod(userId, startTime, endTime)).thenReturn(7200L); // 2 hours
+        when(dayPresenceIndex.countDays(userId, startTime.toLocalDate(), endTime.toLocalDate())).thenReturn(1);
 
         TotalWorkDurationDTO result = timeEntryService.getTotalWorkDuration(userId, startTime, endTime);
 
         assertEquals("02:00", result.getTotalDuration());
         assertEquals(7200L, result.getTotalSeconds());
+        assertEquals(1, result.getWorkedDays());
     }
 
     /**
@@ -321,6 +385,7 @@ class TimeEntryServiceTest {
      * <ul>
      *   <li>Удаляет все временные записи пользователя</li>
      *   <li>Проверяет наличие связанных задач</li>
+     *   <li>Публикует сброс данных трекинга пользователя</li>
      *   <li>Не генерирует исключений при успешном выполнении</li>
      * </ul>
      */
@@ -332,7 +397,12 @@ class TimeEntryServiceTest {
         timeEntryService.clearUserTrackingData(userId);
 
         verify(timeEntryRepository).deleteByUser(user);
+        verify(trackingEventStore).deleteUser(userId);
         verify(taskRepository).findByUser(user);
+        ArgumentCaptor<UserTrackingDataInvalidatedEvent> event = ArgumentCaptor.forClass(UserTrackingDataInvalidatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(userId, event.getValue()
+                .getUserId());
     }
 
     /**
@@ -369,6 +439,7 @@ class TimeEntryServiceTest {
 
         List<TaskDurationDTO> result = timeEntryService.getUserTaskDurations(userId, startTime, endTime);
         assertTrue(result.isEmpty());
+        verify(timeEntryRepository, never()).findFirstStartTimesByUserIdAndTaskIds(any(), any());
     }
 
     /**
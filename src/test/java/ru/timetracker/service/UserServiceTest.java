@@ -2,19 +2,24 @@ package ru.timetracker.service;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.timetracker.dto.mapper.UserMapper;
 import ru.timetracker.dto.user.UserCreateDTO;
 import ru.timetracker.dto.user.UserDTO;
 import ru.timetracker.dto.user.UserUpdateDTO;
 import ru.timetracker.exception.EmailAlreadyExistsException;
+import ru.timetracker.event.UserTrackingDataInvalidatedEvent;
 import ru.timetracker.exception.ResourceNotFoundException;
 import ru.timetracker.model.User;
 import ru.timetracker.repository.TaskRepository;
 import ru.timetracker.repository.TimeEntryRepository;
 import ru.timetracker.repository.UserRepository;
+import ru.timetracker.tracking.TrackingEventStore;
+import ru.timetracker.writebehind.WriteBehindTracker;
 
 import java.util.List;
 import java.util.Optional;
@@ -47,6 +52,12 @@ class UserServiceTest {
     private TaskRepository taskRepository;
     @Mock
     private TimeEntryRepository timeEntryRepository;
+    @Mock
+    private TrackingEventStore trackingEventStore;
+    @Mock
+    private WriteBehindTracker writeBehindTracker;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private UserService userService;
 
@@ -256,6 +267,7 @@ class UserServiceTest {
      *   <li>Удаляет все временные записи пользователя</li>
      *   <li>Удаляет все задачи пользователя</li>
      *   <li>Удаляет самого пользователя</li>
+     *   <li>Публикует сброс данных трекинга пользователя</li>
      * </ul>
      */
     @Test
@@ -268,6 +280,11 @@ class UserServiceTest {
         verify(timeEntryRepository).deleteByUser(user);
         verify(taskRepository).deleteByUser(user);
         verify(userRepository).delete(user);
+        verify(trackingEventStore).deleteUser(userId);
+        ArgumentCaptor<UserTrackingDataInvalidatedEvent> event = ArgumentCaptor.forClass(UserTrackingDataInvalidatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(userId, event.getValue()
+                .getUserId());
     }
 
     /**
@@ -0,0 +1,187 @@
+package ru.timetracker.singleflight;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import ru.timetracker.etag.UserDataVersions;
+import ru.timetracker.metrics.SingleFlightMetrics;
+import ru.timetracker.singleflight.config.SingleFlightProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты для {@link SingleFlightInterceptor}. Проверяют объединение одновременных вызовов с одинаковыми аргументами.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Одного расчета на группу одновременных одинаковых вызовов и учета объединенных вызовов в метриках</li>
+ *   <li>Раздельного расчета для разных аргументов и последовательных вызовов</li>
+ *   <li>Передачи исключения первого вызова ожидающим вызовам</li>
+ *   <li>Раздельного расчета до и после изменения данных пользователя</li>
+ * </ul>
+ */
+class SingleFlightTest {
+    private static final int CALLERS = 6;
+    private static final String OPERATION = "Reports.total";
+
+    private SingleFlightMetrics metrics;
+    private UserDataVersions versions;
+    private Reports target;
+    private Reports reports;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new SingleFlightMetrics(new SimpleMeterRegistry());
+        SingleFlightProperties properties = new SingleFlightProperties();
+        properties.setWaitTimeout(Duration.ofSeconds(10));
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("singleFlightProperties", properties);
+        beanFactory.registerSingleton("singleFlightMetrics", metrics);
+        versions = new UserDataVersions();
+        beanFactory.registerSingleton("userDataVersions", versions);
+        target = new Reports();
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(SingleFlight.class),
+                new SingleFlightInterceptor(beanFactory.getBeanProvider(SingleFlightProperties.class),
+                        beanFactory.getBeanProvider(SingleFlightMetrics.class), beanFactory.getBeanProvider(UserDataVersions.class))));
+        reports = (Reports) proxyFactory.getProxy();
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        target.release.countDown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Проверяет объединение одновременных одинаковых вызовов.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Пока первый вызов считает, остальные вызовы с теми же аргументами ждут и не вызывают метод</li>
+     *   <li>Все вызовы получают один и тот же результат</li>
+     *   <li>Метрики учитывают один расчет и {@value #CALLERS} - 1 объединенных вызовов</li>
+     *   <li>Следующий вызов после завершения считается заново: результаты не кэшируются</li>
+     * </ul>
+     */
+    @Test
+    void concurrentIdenticalCalls_ShouldShareOneComputation() throws Exception {
+        List<Future<List<Long>>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> reports.total(7L, "week")));
+        }
+        awaitCalls(SingleFlightMetrics.COALESCED, CALLERS - 1);
+        target.release.countDown();
+
+        List<Long> first = results.get(0)
+                .get(10, TimeUnit.SECONDS);
+        for (Future<List<Long>> result : results) {
+            assertSame(first, result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, target.invocations.get());
+        assertEquals(1, metrics.getCalls(OPERATION, SingleFlightMetrics.LEADER));
+        assertEquals(CALLERS - 1, metrics.getCalls(OPERATION, SingleFlightMetrics.COALESCED));
+
+        reports.total(7L, "week");
+        assertEquals(2, target.invocations.get());
+    }
+
+    /**
+     * Проверяет раздельный расчет для разных аргументов и передачу исключения.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Вызовы с разными аргументами (в том числе null) считаются независимо</li>
+     *   <li>Исключение первого вызова получают и ожидающие вызовы с теми же аргументами</li>
+     * </ul>
+     */
+    @Test
+    void differentArgumentsAndFailures_ShouldNotBeShared() throws Exception {
+        target.release.countDown();
+        reports.total(7L, "week");
+        reports.total(8L, "week");
+        reports.total(7L, null);
+        assertEquals(3, target.invocations.get());
+        assertEquals(0, metrics.getCalls(OPERATION, SingleFlightMetrics.COALESCED));
+
+        target.release = new CountDownLatch(1);
+        target.failure = new IllegalArgumentException("Invalid period");
+        Future<List<Long>> leader = executor.submit(() -> reports.total(9L, "month"));
+        Future<List<Long>> follower = executor.submit(() -> reports.total(9L, "month"));
+        awaitCalls(SingleFlightMetrics.COALESCED, 1);
+        target.release.countDown();
+
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(10, TimeUnit.SECONDS));
+        ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, leaderFailure.getCause());
+        assertInstanceOf(IllegalArgumentException.class, followerFailure.getCause());
+        assertEquals(4, target.invocations.get());
+    }
+
+    /**
+     * Проверяет, что вызов после изменения данных пользователя не присоединяется к расчету, начатому до изменения.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Вызов с теми же аргументами после увеличения версии пользователя начинает собственный расчет</li>
+     *   <li>Вызов для другого пользователя по-прежнему объединяется с расчетом при неизменной версии</li>
+     * </ul>
+     */
+    @Test
+    void callAfterUserDataChange_ShouldNotJoinEarlierComputation() throws Exception {
+        Future<List<Long>> before = executor.submit(() -> reports.total(7L, "week"));
+        Future<List<Long>> otherUser = executor.submit(() -> reports.total(8L, "week"));
+        awaitCalls(SingleFlightMetrics.LEADER, 2);
+        versions.bump(7L);
+        Future<List<Long>> after = executor.submit(() -> reports.total(7L, "week"));
+        Future<List<Long>> otherUserAgain = executor.submit(() -> reports.total(8L, "week"));
+        awaitCalls(SingleFlightMetrics.LEADER, 3);
+        awaitCalls(SingleFlightMetrics.COALESCED, 1);
+        target.release.countDown();
+
+        assertNotSame(before.get(10, TimeUnit.SECONDS), after.get(10, TimeUnit.SECONDS));
+        assertSame(otherUser.get(10, TimeUnit.SECONDS), otherUserAgain.get(10, TimeUnit.SECONDS));
+        assertEquals(3, target.invocations.get());
+    }
+
+    private void awaitCalls(String role, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (metrics.getCalls(OPERATION, role) < expected) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for " + expected + " " + role + " calls");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Сервис отчетов с управляемым завершением расчета.
+     */
+    static class Reports {
+        final AtomicInteger invocations = new AtomicInteger();
+        volatile CountDownLatch release = new CountDownLatch(1);
+        volatile RuntimeException failure;
+
+        @SingleFlight
+        public List<Long> total(Long userId, String period) throws InterruptedException {
+            invocations.incrementAndGet();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            if (failure != null) {
+                throw failure;
+            }
+            return List.of(userId);
+        }
+    }
+}
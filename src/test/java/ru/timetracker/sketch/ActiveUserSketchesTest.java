@@ -0,0 +1,123 @@
+package ru.timetracker.sketch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.metrics.SchedulerMetrics;
+import ru.timetracker.repository.ActiveUserSketchRepository;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.UserService;
+import ru.timetracker.sketch.config.ActiveUserSketchProperties;
+import ru.timetracker.writebehind.WriteBehindTracker;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты скетчей активных пользователей на H2.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Добавления пользователя в скетч дня при старте трекинга</li>
+ *   <li>Сохранения скетчей и их загрузки при запуске без сканирования записей времени</li>
+ *   <li>Оценки активных пользователей через API</li>
+ * </ul>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ActiveUserSketchesTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private ActiveUserSketches activeUserSketches;
+    @Autowired
+    private ActiveUserSketchRepository repository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private WriteBehindTracker writeBehindTracker;
+    @Autowired
+    private SchedulerMetrics schedulerMetrics;
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * Проверяет учет стартов, сохранение и загрузку скетчей.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Два пользователя, начавших трекинг (один из них дважды), увеличивают оценку дня на 2</li>
+     *   <li>Скетч дня сохраняется в БД</li>
+     *   <li>Новый экземпляр, загружающий только сохраненные скетчи, дает ту же оценку, что и сохранивший их</li>
+     *   <li>Endpoint возвращает оценку с границами интервала и разбиением по дням</li>
+     * </ul>
+     */
+    @Test
+    void startTimeEntry_ShouldBeCountedAndSurviveRestart() throws Exception {
+        LocalDate today = LocalDate.now();
+        long before = activeUserSketches.union(today, today)
+                .estimate();
+
+        Long first = createUserWithTask();
+        Long second = createUserWithTask();
+        start(first);
+        timeEntryService.stopTimeEntry(first);
+        start(first);
+        start(second);
+
+        long after = activeUserSketches.union(today, today)
+                .estimate();
+        assertEquals(before + 2, after, 1);
+
+        activeUserSketches.flush();
+        assertTrue(repository.findById(today)
+                .isPresent());
+        // При сохранении скетч объединяется с сохраненным другими экземплярами (здесь - другими контекстами тестов)
+        long saved = activeUserSketches.union(today, today)
+                .estimate();
+
+        ActiveUserSketchProperties properties = new ActiveUserSketchProperties();
+        properties.setRecoveryWindow(Duration.ZERO);
+        ActiveUserSketches restarted = new ActiveUserSketches(repository, jdbcTemplate, writeBehindTracker, schedulerMetrics, properties);
+        restarted.load();
+        assertEquals(saved, restarted.union(today, today)
+                .estimate());
+
+        mockMvc.perform(get("/api/v1/activity/active-users").param("from", today.toString())
+                        .param("to", today.toString())
+                        .param("granularity", "DAY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.distinctUsers").value(saved))
+                .andExpect(jsonPath("$.periods.length()").value(1));
+        mockMvc.perform(get("/api/v1/activity/active-users").param("granularity", "WEEKLY"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Long createUserWithTask() {
+        Long userId = userService.createUser(new UserCreateDTO("Sketch Tester", "sketch-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+        taskService.createTask(userId, new TaskCreateDTO("Daily work", "Active users test"));
+        return userId;
+    }
+
+    private void start(Long userId) {
+        Long taskId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM tasks WHERE user_id = ?", Long.class, userId);
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(taskId));
+    }
+}
@@ -0,0 +1,91 @@
+package ru.timetracker.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты скетча {@link HyperLogLog}.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Точности оценки для малых и больших количеств пользователей</li>
+ *   <li>Объединения скетчей с пересекающимися пользователями</li>
+ *   <li>Восстановления скетча из сохраненных регистров</li>
+ * </ul>
+ */
+class HyperLogLogTest {
+
+    /**
+     * Проверяет точность оценки.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Малые количества оцениваются точно (линейный подсчет)</li>
+     *   <li>Повторное добавление пользователя не меняет скетч</li>
+     *   <li>Оценка 100 000 пользователей отличается от точного значения не более чем на три стандартные ошибки</li>
+     * </ul>
+     */
+    @Test
+    void estimate_ShouldStayWithinStandardError() {
+        HyperLogLog small = new HyperLogLog();
+        for (long id = 1; id <= 50; id++) {
+            small.add(id);
+        }
+        assertFalse(small.add(7));
+        assertEquals(50, small.estimate());
+
+        HyperLogLog large = new HyperLogLog();
+        int users = 100_000;
+        for (long id = 1; id <= users; id++) {
+            large.add(id);
+        }
+        assertEquals(users, large.estimate(), 3 * HyperLogLog.RELATIVE_STANDARD_ERROR * users);
+    }
+
+    /**
+     * Проверяет объединение скетчей.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Оценка объединения равна количеству различных пользователей обоих скетчей в пределах ошибки</li>
+     *   <li>Пользователи, входящие в оба скетча, учитываются один раз</li>
+     * </ul>
+     */
+    @Test
+    void merge_ShouldCountSharedUsersOnce() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (long id = 1; id <= 30_000; id++) {
+            first.add(id);
+        }
+        for (long id = 20_001; id <= 50_000; id++) {
+            second.add(id);
+        }
+
+        first.merge(second);
+
+        assertEquals(50_000, first.estimate(), 3 * HyperLogLog.RELATIVE_STANDARD_ERROR * 50_000);
+    }
+
+    /**
+     * Проверяет восстановление скетча из регистров.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Восстановленный скетч дает ту же оценку и не зависит от исходного массива</li>
+     *   <li>Массив неверного размера отклоняется</li>
+     * </ul>
+     */
+    @Test
+    void fromBytes_ShouldRestoreRegisters() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 1; id <= 1000; id++) {
+            sketch.add(id);
+        }
+        byte[] registers = sketch.toBytes();
+
+        HyperLogLog restored = HyperLogLog.fromBytes(registers);
+        registers[0] = 0;
+        registers[1] = 0;
+
+        assertEquals(sketch.estimate(), restored.estimate());
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[16]));
+    }
+}
@@ -0,0 +1,149 @@
+package ru.timetracker.sketch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.timeentry.SessionStatsDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты квантилей длительности сессий на H2.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Построения скетчей пользователя по завершенным записям и квантилей пользователя, задачи и команды</li>
+ *   <li>Добавления длительности при остановке трекинга и сброса скетчей после очистки записей</li>
+ *   <li>Ответов API для корректных и некорректных запросов</li>
+ * </ul>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SessionLengthDigestsTest {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO time_entries (id, user_id, task_id, start_time, end_time, active_user_id, created_at) " +
+                    "VALUES (NEXT VALUE FOR time_entries_seq, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * Проверяет квантили пользователя, задачи и команды.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Медиана и максимум десяти сессий совпадают с точными значениями</li>
+     *   <li>Статистика задачи учитывает только ее сессии, статистика команды - сессии всех участников</li>
+     *   <li>Незавершенные записи и записи вне периода не учитываются</li>
+     * </ul>
+     */
+    @Test
+    void getSessionStats_ShouldMergeDigestsOfUserTaskAndTeam() {
+        LocalDateTime now = LocalDateTime.now()
+                .withNano(0);
+        Long userId = createUser();
+        Long firstTask = createTask(userId);
+        Long secondTask = createTask(userId);
+        for (int minutes = 10; minutes <= 100; minutes += 10) {
+            insert(userId, minutes <= 50 ? firstTask : secondTask, now.minusDays(1), minutes);
+        }
+        insert(userId, firstTask, now.minusDays(60), 600);
+        Long colleagueId = createUser();
+        Long colleagueTask = createTask(colleagueId);
+        insert(colleagueId, colleagueTask, now.minusDays(2), 200);
+
+        SessionStatsDTO user = timeEntryService.getSessionStats(userId, null, null, null, null);
+        SessionStatsDTO task = timeEntryService.getSessionStats(userId, firstTask, null, null, null);
+        SessionStatsDTO team = timeEntryService.getSessionStats(userId, null, List.of(colleagueId), null, null);
+
+        assertEquals(10, user.getSessionCount());
+        assertEquals(55 * 60, user.getMedianSeconds());
+        assertEquals(100 * 60, user.getMaxSeconds());
+        assertEquals(5, task.getSessionCount());
+        assertEquals(30 * 60, task.getMedianSeconds());
+        assertEquals(List.of(userId, colleagueId), team.getUserIds());
+        assertEquals(11, team.getSessionCount());
+        assertEquals(200 * 60, team.getMaxSeconds());
+    }
+
+    /**
+     * Проверяет обновление скетчей и API.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Остановка трекинга добавляет сессию в уже построенные скетчи</li>
+     *   <li>После очистки записей сессий нет, квантили не заполнены</li>
+     *   <li>API возвращает 400 для задачи вместе с командой и 404 для неизвестного пользователя</li>
+     * </ul>
+     */
+    @Test
+    void stopAndClear_ShouldUpdateDigests() throws Exception {
+        LocalDateTime now = LocalDateTime.now()
+                .withNano(0);
+        Long userId = createUser();
+        Long taskId = createTask(userId);
+        insert(userId, taskId, now.minusHours(5), 30);
+        assertEquals(1, timeEntryService.getSessionStats(userId, null, null, null, null)
+                .getSessionCount());
+        jdbcTemplate.update(INSERT_SQL, userId, taskId, Timestamp.valueOf(now.minusMinutes(90)), null, userId, Timestamp.valueOf(now));
+
+        timeEntryService.stopTimeEntry(userId);
+
+        SessionStatsDTO stats = timeEntryService.getSessionStats(userId, null, null, null, null);
+        assertEquals(2, stats.getSessionCount());
+        assertTrue(stats.getMaxSeconds() >= Duration.ofMinutes(90)
+                .getSeconds());
+        mockMvc.perform(get("/api/v1/users/{userId}/time-entries/session-stats", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessionCount").value(2));
+
+        timeEntryService.clearUserTrackingData(userId);
+
+        SessionStatsDTO cleared = timeEntryService.getSessionStats(userId, null, null, null, null);
+        assertEquals(0, cleared.getSessionCount());
+        assertNull(cleared.getMedianSeconds());
+        mockMvc.perform(get("/api/v1/users/{userId}/time-entries/session-stats", userId).param("taskId", String.valueOf(taskId))
+                        .param("teamUserIds", String.valueOf(userId)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/users/{userId}/time-entries/session-stats", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long createUser() {
+        return userService.createUser(new UserCreateDTO("Session Tester", "sessions-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+    }
+
+    private Long createTask(Long userId) {
+        return taskService.createTask(userId, new TaskCreateDTO("Session work " + UUID.randomUUID(), "Session stats test"))
+                .getId();
+    }
+
+    private void insert(Long userId, Long taskId, LocalDateTime start, int minutes) {
+        jdbcTemplate.update(INSERT_SQL, userId, taskId, Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(minutes)), null,
+                Timestamp.valueOf(start));
+    }
+}
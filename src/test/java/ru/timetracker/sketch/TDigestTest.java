@@ -0,0 +1,121 @@
+package ru.timetracker.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты скетча {@link TDigest}.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Точных квантилей при малом количестве значений</li>
+ *   <li>Точности медианы, p90 и p99 на большом скошенном распределении</li>
+ *   <li>Объединения скетчей, построенных по частям значений</li>
+ * </ul>
+ */
+class TDigestTest {
+
+    private static final double[] LEVELS = {0.5, 0.9, 0.99};
+
+    /**
+     * Проверяет квантили малого количества значений.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Медиана совпадает с интерполяцией по отсортированным значениям</li>
+     *   <li>Уровни 0 и 1 возвращают минимум и максимум</li>
+     *   <li>Пустой скетч возвращает NaN, недопустимый уровень отклоняется</li>
+     * </ul>
+     */
+    @Test
+    void quantile_ShouldBeExactForFewValues() {
+        TDigest digest = new TDigest();
+        for (int value = 10; value >= 1; value--) {
+            digest.add(value);
+        }
+
+        assertEquals(10, digest.size());
+        assertEquals(5.5, digest.quantile(0.5), 1e-9);
+        assertEquals(1, digest.quantile(0), 1e-9);
+        assertEquals(10, digest.quantile(1), 1e-9);
+        assertEquals(10, digest.max(), 1e-9);
+        assertTrue(Double.isNaN(new TDigest().quantile(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> digest.quantile(1.5));
+    }
+
+    /**
+     * Проверяет точность на 100 000 логнормально распределенных длительностей.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Доля значений не больше оценки отличается от уровня квантиля не более чем на 0.5% для медианы и p90</li>
+     *   <li>Для p99 отличие не превышает 0.1%</li>
+     * </ul>
+     */
+    @Test
+    void quantile_ShouldStayCloseToExactRank() {
+        double[] values = lognormal(new Random(42), 100_000);
+        TDigest digest = new TDigest();
+        for (double value : values) {
+            digest.add(value);
+        }
+
+        assertRanks(values, digest);
+    }
+
+    /**
+     * Проверяет объединение скетчей.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Размер объединения равен сумме размеров частей</li>
+     *   <li>Квантили объединения 20 скетчей остаются в тех же пределах, что и у одного скетча</li>
+     * </ul>
+     */
+    @Test
+    void merge_ShouldMatchSingleDigest() {
+        Random random = new Random(7);
+        double[] values = lognormal(random, 60_000);
+        List<TDigest> parts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            parts.add(new TDigest());
+        }
+        for (double value : values) {
+            parts.get(random.nextInt(parts.size()))
+                    .add(value);
+        }
+
+        TDigest union = new TDigest();
+        parts.forEach(union::merge);
+
+        assertEquals(values.length, union.size());
+        assertEquals(Arrays.stream(values)
+                .max()
+                .orElseThrow(), union.max(), 1e-9);
+        assertRanks(values, union);
+    }
+
+    private static double[] lognormal(Random random, int count) {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = Math.exp(7 + random.nextGaussian());
+        }
+        return values;
+    }
+
+    private static void assertRanks(double[] values, TDigest digest) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double level : LEVELS) {
+            double estimate = digest.quantile(level);
+            int rank = 0;
+            while (rank < sorted.length && sorted[rank] <= estimate) {
+                rank++;
+            }
+            double tolerance = level > 0.95 ? 0.001 : 0.005;
+            assertEquals(level, (double) rank / sorted.length, tolerance, "quantile " + level);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.timetracker.sql;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Тесты для {@link BulkheadDataSource}. Проверяют выдачу и возврат разрешений ограничителя.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Отказа при исчерпании разрешений</li>
+ *   <li>Возврата разрешения при закрытии соединения</li>
+ *   <li>Возврата разрешения при ошибке получения соединения</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkheadDataSourceTest {
+    @Mock
+    private DataSource targetDataSource;
+    @Mock
+    private Connection connection;
+
+    private BulkheadDataSource bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        bulkhead = new BulkheadDataSource(targetDataSource, 1, Duration.ofMillis(50));
+    }
+
+    /**
+     * Проверяет отказ при исчерпании разрешений.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Второе соединение не выдается, пока первое не закрыто</li>
+     *   <li>Выбрасывается {@link SQLTransientConnectionException}, отказ учитывается в счетчике</li>
+     * </ul>
+     */
+    @Test
+    void getConnection_ShouldRejectWhenPermitsExhausted() throws SQLException {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+
+        bulkhead.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> bulkhead.getConnection());
+        assertEquals(1, bulkhead.getRejectedCount());
+        verify(targetDataSource, times(1)).getConnection();
+    }
+
+    /**
+     * Проверяет возврат разрешения при закрытии соединения.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Закрытие передается соединению пула</li>
+     *   <li>Повторное закрытие не возвращает разрешение второй раз</li>
+     * </ul>
+     */
+    @Test
+    void close_ShouldReleasePermitOnce() throws SQLException {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+
+        Connection guarded = bulkhead.getConnection();
+        assertEquals(0, bulkhead.getAvailablePermits());
+        guarded.close();
+        guarded.close();
+
+        assertEquals(1, bulkhead.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    /**
+     * Проверяет возврат разрешения, если пул не выдал соединение.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Исключение пула пробрасывается вызывающему</li>
+     *   <li>Разрешение возвращается</li>
+     * </ul>
+     */
+    @Test
+    void getConnection_ShouldReleasePermitWhenPoolFails() throws SQLException {
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("Pool exhausted"));
+
+        assertThrows(SQLException.class, () -> bulkhead.getConnection());
+
+        assertEquals(1, bulkhead.getAvailablePermits());
+        assertEquals(0, bulkhead.getRejectedCount());
+    }
+}
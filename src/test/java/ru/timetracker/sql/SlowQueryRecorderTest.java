@@ -0,0 +1,124 @@
+package ru.timetracker.sql;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.timetracker.sql.config.SlowQueryProperties;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты для {@link SlowQueryRecorder} на источнике данных H2, обернутом {@link SlowQueryDataSourcePostProcessor}.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Записи запроса с параметрами, количеством прочитанных строк, вызывающим методом и планом выполнения</li>
+ *   <li>Скрытия строковых параметров и количества измененных строк</li>
+ *   <li>Вытеснения старых запросов из ограниченного буфера</li>
+ * </ul>
+ */
+class SlowQueryRecorderTest {
+    private SlowQueryProperties properties;
+    private SlowQueryRecorder recorder;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        properties = new SlowQueryProperties();
+        properties.setThreshold(Duration.ZERO);
+        properties.setCapacity(3);
+        properties.setExplain(true);
+        recorder = new SlowQueryRecorder(properties);
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slow-query-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource = (DataSource) new SlowQueryDataSourcePostProcessor(recorder, true).postProcessAfterInitialization(h2, "dataSource");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE notes (id BIGINT PRIMARY KEY, owner VARCHAR(100), body VARCHAR(1000))");
+            statement.execute("INSERT INTO notes VALUES (1, 'alice', 'first'), (2, 'alice', 'second'), (3, 'bob', 'third')");
+        }
+        recorder.clear();
+    }
+
+    /**
+     * Проверяет запись медленного запроса на чтение.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Сохраняются текст запроса и параметры; строковый параметр скрыт, числовой сохранен</li>
+     *   <li>Количество строк равно количеству строк, прочитанных из результата</li>
+     *   <li>Вызывающий метод - тестовый метод, а не прокси или слушатель</li>
+     *   <li>План выполнения снят для запроса с теми же параметрами</li>
+     * </ul>
+     */
+    @Test
+    void afterQuery_ShouldRecordParametersRowsCallerAndPlan() throws SQLException {
+        long recorded = recorder.getRecordedCount();
+        String sql = "SELECT id, body FROM notes WHERE owner = ? AND id > ?";
+        try (Connection connection = dataSource.getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, "alice");
+            statement.setLong(2, 0);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    assertNotNull(resultSet.getString("body"));
+                }
+            }
+        }
+
+        List<SlowQuery> queries = recorder.recent(10);
+        assertEquals(1, queries.size());
+        SlowQuery query = queries.get(0);
+        assertEquals(sql, query.getSql());
+        assertEquals(List.of("<String(5)>", "0"), query.getParameters());
+        assertEquals(2, query.getRows());
+        assertTrue(query.getCaller()
+                .startsWith("SlowQueryRecorderTest.afterQuery_ShouldRecordParametersRowsCallerAndPlan:"), query.getCaller());
+        assertNotNull(query.getPlan());
+        assertFalse(query.getPlan()
+                .startsWith("EXPLAIN failed"), query.getPlan());
+        assertNull(query.getError());
+        assertEquals(recorded + 1, recorder.getRecordedCount());
+    }
+
+    /**
+     * Проверяет запись изменений и ограничение размера буфера.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Для изменения сохраняется количество измененных строк, план не снимается</li>
+     *   <li>При полном сохранении параметров строка сохраняется в кавычках</li>
+     *   <li>В буфере остаются последние запросы, от последнего к первому; счетчик учитывает вытесненные</li>
+     * </ul>
+     */
+    @Test
+    void afterQuery_ShouldKeepMostRecentUpdates() throws SQLException {
+        properties.setParameters(SlowQueryProperties.ParameterCapture.FULL);
+        long recorded = recorder.getRecordedCount();
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("UPDATE notes SET body = ? WHERE owner = ?")) {
+            for (int i = 0; i < 4; i++) {
+                statement.setString(1, "edit " + i);
+                statement.setString(2, "alice");
+                assertEquals(2, statement.executeUpdate());
+            }
+        }
+
+        List<SlowQuery> queries = recorder.recent(10);
+        assertEquals(3, queries.size());
+        assertEquals(List.of("'edit 3'", "'alice'"), queries.get(0)
+                .getParameters());
+        assertEquals(List.of("'edit 1'", "'alice'"), queries.get(2)
+                .getParameters());
+        assertEquals(2, queries.get(0)
+                .getRows());
+        assertNull(queries.get(0)
+                .getPlan());
+        assertEquals(recorded + 4, recorder.getRecordedCount());
+    }
+}
@@ -0,0 +1,107 @@
+package ru.timetracker.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.timetracker.exception.SqlBudgetExceededException;
+import ru.timetracker.sql.config.SqlBudgetProperties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты для {@link SqlBudgetFilter}. Проверяют подсчет SQL-запросов за HTTP-запрос и реакцию на превышение бюджета.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Запроса в пределах бюджета</li>
+ *   <li>Исключения в режиме fail</li>
+ *   <li>Метрики нарушений в режиме log</li>
+ * </ul>
+ */
+class SqlBudgetFilterTest {
+    private static final String ENDPOINT = "GET /api/v1/users/{userId}/time-entries";
+
+    private SqlBudgetProperties properties;
+    private SimpleMeterRegistry registry;
+    private SqlBudgetFilter filter;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SqlBudgetProperties();
+        registry = new SimpleMeterRegistry();
+        filter = new SqlBudgetFilter(properties, registry);
+        request = new MockHttpServletRequest("GET", "/api/v1/users/1/time-entries");
+        request.setAttribute(SqlBudgetInterceptor.BUDGET_ATTRIBUTE, 2);
+        request.setAttribute(SqlBudgetInterceptor.ENDPOINT_ATTRIBUTE, ENDPOINT);
+    }
+
+    /**
+     * Проверяет, что запрос в пределах бюджета не считается нарушением.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Исключение не выбрасывается даже в режиме fail</li>
+     *   <li>Метрика нарушений не создается</li>
+     * </ul>
+     */
+    @Test
+    void doFilter_ShouldPassWhenWithinBudget() throws Exception {
+        properties.setMode(SqlBudgetProperties.Mode.FAIL);
+
+        filter.doFilter(request, new MockHttpServletResponse(), executing(2));
+
+        assertNull(registry.find(SqlBudgetFilter.BUDGET_EXCEEDED)
+                .counter());
+    }
+
+    /**
+     * Проверяет реакцию на превышение бюджета в режиме fail.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Выбрасывается {@link SqlBudgetExceededException} с бюджетом и фактическим количеством запросов</li>
+     * </ul>
+     */
+    @Test
+    void doFilter_ShouldThrowWhenBudgetExceededInFailMode() {
+        properties.setMode(SqlBudgetProperties.Mode.FAIL);
+
+        SqlBudgetExceededException exception = assertThrows(SqlBudgetExceededException.class,
+                () -> filter.doFilter(request, new MockHttpServletResponse(), executing(3)));
+
+        assertEquals(ENDPOINT, exception.getEndpoint());
+        assertEquals(2, exception.getBudget());
+        assertEquals(3, exception.getActual());
+    }
+
+    /**
+     * Проверяет реакцию на превышение бюджета в режиме log.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Исключение не выбрасывается</li>
+     *   <li>Нарушение учитывается в метрике с тегом endpoint</li>
+     * </ul>
+     */
+    @Test
+    void doFilter_ShouldCountViolationInLogMode() throws Exception {
+        properties.setMode(SqlBudgetProperties.Mode.LOG);
+
+        filter.doFilter(request, new MockHttpServletResponse(), executing(5));
+
+        Counter counter = registry.find(SqlBudgetFilter.BUDGET_EXCEEDED)
+                .tag("endpoint", ENDPOINT)
+                .counter();
+        assertNotNull(counter);
+        assertEquals(1.0, counter.count());
+    }
+
+    private static FilterChain executing(int statements) {
+        return (request, response) -> {
+            for (int i = 0; i < statements; i++) {
+                SqlStatementCounter.increment();
+            }
+        };
+    }
+}
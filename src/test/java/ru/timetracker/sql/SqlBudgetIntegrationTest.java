@@ -0,0 +1,130 @@
+package ru.timetracker.sql;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты бюджета SQL-запросов на H2. В тестах включен режим {@code timetracker.sql-budget.mode=fail}, поэтому превышение
+ * бюджета любым endpoint приводит к падению теста.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Соблюдения бюджетов endpoint трекинга и аналитики</li>
+ *   <li>Отсутствия N+1 при расчете продолжительности по задачам и получении записей времени</li>
+ * </ul>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlBudgetIntegrationTest {
+    private static final int TASK_COUNT = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+    private final List<Long> taskIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.createUser(new UserCreateDTO("Budget Tester", "budget-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+        taskIds.clear();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            taskIds.add(taskService.createTask(userId, new TaskCreateDTO("Budget task " + i, "SQL budget test"))
+                    .getId());
+        }
+    }
+
+    /**
+     * Проверяет, что endpoint трекинга и аналитики укладываются в объявленные бюджеты.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Старт трекинга по нескольким задачам возвращает 201 Created, остановка - 200 OK</li>
+     *   <li>Запросы аналитики при пустом кэше второго уровня возвращают 200 OK без превышения бюджета</li>
+     * </ul>
+     */
+    @Test
+    void trackingAndAnalyticsEndpoints_ShouldStayWithinBudget() throws Exception {
+        for (Long taskId : taskIds) {
+            mockMvc.perform(post("/api/v1/users/{userId}/time-entries/start", userId).contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"taskId\": " + taskId + "}"))
+                    .andExpect(status().isCreated());
+        }
+        mockMvc.perform(post("/api/v1/users/{userId}/time-entries/stop", userId))
+                .andExpect(status().isOk());
+        evictSecondLevelCache();
+
+        for (String path : List.of("", "/task-durations", "/time-intervals", "/total-work-duration")) {
+            mockMvc.perform(get("/api/v1/users/{userId}/time-entries" + path, userId))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/v1/users/{userId}/tasks", userId))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Проверяет, что расчет продолжительности по задачам и получение записей не зависят от количества задач по числу запросов.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Продолжительность по задачам: агрегирующий запрос и один запрос времени первых записей</li>
+     *   <li>Записи времени: пользователь и записи вместе с задачами</li>
+     * </ul>
+     */
+    @Test
+    void analyticsQueries_ShouldNotIssueQueryPerTask() {
+        LocalDateTime from = LocalDateTime.now()
+                .minusHours(1);
+        for (Long taskId : taskIds) {
+            timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(taskId));
+        }
+        timeEntryService.stopTimeEntry(userId);
+        LocalDateTime to = LocalDateTime.now()
+                .plusMinutes(1);
+        evictSecondLevelCache();
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open("task-durations")) {
+            assertEquals(TASK_COUNT, timeEntryService.getUserTaskDurations(userId, from, to)
+                    .size());
+            assertEquals(2, scope.getCount());
+        }
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open("time-entries")) {
+            assertEquals(TASK_COUNT, timeEntryService.getUserTimeEntries(userId, from, to)
+                    .size());
+            assertEquals(2, scope.getCount());
+        }
+    }
+
+    private void evictSecondLevelCache() {
+        entityManagerFactory.getCache()
+                .evictAll();
+    }
+}
@@ -0,0 +1,169 @@
+package ru.timetracker.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
+import ru.timetracker.dto.tracing.SpanDTO;
+import ru.timetracker.dto.tracing.TraceDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.TracingService;
+import ru.timetracker.service.UserService;
+import ru.timetracker.tracing.config.TracingProperties;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тесты трассировки запросов от контроллера до SQL.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Участков HTTP-запроса, контроллера, сервиса и репозитория с SQL-запросами в атрибутах</li>
+ *   <li>Отладочного API самых долгих трасс</li>
+ *   <li>Вложенности участков, привязки SQL к самому глубокому участку и ограничения размера трассы</li>
+ * </ul>
+ */
+@SpringBootTest(properties = {"timetracker.tracing.enabled=true", "timetracker.tracing.sample-rate=1.0"})
+@AutoConfigureMockMvc
+class TracingTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private TracingService tracingService;
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * Проверяет трассу запроса длительностей по задачам.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Корневой участок назван по шаблону пути и содержит статус ответа</li>
+     *   <li>Трасса содержит участки контроллера, сервиса и репозитория, вложенные друг в друга</li>
+     *   <li>SQL-запросы записаны в атрибуты участков и учтены в итогах трассы</li>
+     *   <li>Запросы к отладочному API не трассируются</li>
+     * </ul>
+     */
+    @Test
+    void taskDurations_ShouldBeTracedFromControllerToSql() throws Exception {
+        Long userId = userService.createUser(new UserCreateDTO("Trace Tester", "trace-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+        Long taskId = taskService.createTask(userId, new TaskCreateDTO("Traced work " + UUID.randomUUID(), "Tracing test"))
+                .getId();
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(taskId));
+        timeEntryService.stopTimeEntry(userId);
+        mockMvc.perform(delete("/api/v1/admin/traces"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/users/{userId}/time-entries/task-durations", userId))
+                .andExpect(status().isOk());
+
+        List<TraceDTO> traces = tracingService.getSlowestTraces(TracingService.MAX_LIMIT);
+        assertEquals(1, traces.size());
+        TraceDTO trace = traces.get(0);
+        assertEquals("GET /api/v1/users/{userId}/time-entries/task-durations", trace.getName());
+        SpanDTO root = trace.getSpans()
+                .get(0);
+        assertEquals("HTTP", root.getKind());
+        assertEquals(200, root.getAttributes()
+                .get("http.status_code"));
+        SpanDTO controller = span(trace, "TimeEntryController.getUserTaskDurations");
+        SpanDTO service = span(trace, "TimeEntryService.getUserTaskDurations");
+        assertEquals(root.getSpanId(), controller.getParentId());
+        assertEquals(controller.getSpanId(), service.getParentId());
+        assertTrue(trace.getSpans()
+                .stream()
+                .anyMatch(span -> span.getKind()
+                        .equals("REPOSITORY") && span.getParentId() != null));
+        assertTrue(trace.getSqlStatementCount() > 0);
+        assertTrue(trace.getSpans()
+                .stream()
+                .anyMatch(span -> span.getAttributes()
+                        .containsKey(Span.DB_STATEMENTS)));
+        assertTrue(root.getDurationMillis() >= controller.getDurationMillis());
+
+        mockMvc.perform(get("/api/v1/admin/traces/slowest").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/api/v1/admin/traces/slowest").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Проверяет трассировщик без HTTP-запроса.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Вне трассы вложенные участки не открываются, SQL не записывается</li>
+     *   <li>SQL-запрос привязывается к самому глубокому открытому участку</li>
+     *   <li>Участки сверх максимального размера трассы не записываются и учитываются как пропущенные</li>
+     *   <li>Закрытие корневого участка передает трассу экспортеру и освобождает поток</li>
+     * </ul>
+     */
+    @Test
+    void tracer_ShouldNestSpansAndLimitTraceSize() {
+        TracingProperties properties = new TracingProperties();
+        properties.setSampleRate(1.0);
+        properties.setMaxSpansPerTrace(3);
+        InMemorySpanExporter exporter = new InMemorySpanExporter(10);
+        Tracer tracer = new Tracer(properties, List.of(exporter));
+
+        assertNull(Tracer.startSpan("outside", Span.Kind.SERVICE));
+        Tracer.recordSql("select 1", 1);
+
+        try (Span root = tracer.startTrace("root", Span.Kind.HTTP)) {
+            try (Span service = Tracer.startSpan("service", Span.Kind.SERVICE)) {
+                Tracer.recordSql("select 2", 3);
+                Tracer.recordSql("select 3", 4);
+                assertNotNull(service);
+                assertSame(service, Tracer.currentSpan());
+            }
+            try (Span repository = Tracer.startSpan("repository", Span.Kind.REPOSITORY)) {
+                assertNotNull(repository);
+                assertNull(Tracer.startSpan("dropped", Span.Kind.MAPPER));
+            }
+            assertSame(root, Tracer.currentSpan());
+        }
+
+        assertNull(Tracer.currentSpan());
+        Trace trace = exporter.slowest(1)
+                .get(0);
+        assertEquals(3, trace.spans()
+                .size());
+        assertEquals(1, trace.droppedSpans());
+        Span service = trace.spans()
+                .get(1);
+        assertEquals(trace.spans()
+                .get(0)
+                .getSpanId(), service.getParentId());
+        assertEquals(List.of("select 2", "select 3"), service.getAttributes()
+                .get(Span.DB_STATEMENTS));
+        assertEquals(2, service.getAttributes()
+                .get(Span.DB_STATEMENT_COUNT));
+        assertEquals(7L, service.getAttributes()
+                .get(Span.DB_TIME_MS));
+    }
+
+    private static SpanDTO span(TraceDTO trace, String name) {
+        return trace.getSpans()
+                .stream()
+                .filter(span -> span.getName()
+                        .equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No span " + name + " in " + trace.getSpans()));
+    }
+}
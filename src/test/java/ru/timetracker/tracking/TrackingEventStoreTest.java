@@ -0,0 +1,198 @@
+package ru.timetracker.tracking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
+import ru.timetracker.dto.tracking.TrackingReplayResultDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.lock.UserLockStripes;
+import ru.timetracker.model.TrackingEvent;
+import ru.timetracker.repository.TrackingEventRepository;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.UserService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционные тесты журнала трекинга на H2.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Записи событий при старте и остановке трекинга</li>
+ *   <li>Отсутствия событий откаченной транзакции</li>
+ *   <li>Перестроения таблицы time_entries из журнала под блокировкой пользователя</li>
+ *   <li>Состояния по снимку и событиям после него</li>
+ * </ul>
+ */
+@SpringBootTest
+class TrackingEventStoreTest {
+
+    private static final String ENTRIES_SQL = "SELECT id, task_id, start_time, end_time FROM time_entries WHERE user_id = ? ORDER BY id";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private TrackingEventStore trackingEventStore;
+    @Autowired
+    private TrackingReplayService trackingReplayService;
+    @Autowired
+    private TrackingEventRepository trackingEventRepository;
+    @Autowired
+    private UserLockStripes userLockStripes;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+    private Long firstTaskId;
+    private Long secondTaskId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.createUser(new UserCreateDTO("Log Tester", "log-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+        firstTaskId = taskService.createTask(userId, new TaskCreateDTO("First logged task", "Event log test"))
+                .getId();
+        secondTaskId = taskService.createTask(userId, new TaskCreateDTO("Second logged task", "Event log test"))
+                .getId();
+    }
+
+    /**
+     * Проверяет, что старт, переключение задачи и остановка записываются в журнал по порядку.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Переключение задачи записывает STOPPED предыдущей записи и STARTED новой</li>
+     *   <li>События относятся к пользователю и задачам записей</li>
+     * </ul>
+     */
+    @Test
+    void startAndStop_ShouldAppendEvents() {
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(firstTaskId));
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(secondTaskId));
+        timeEntryService.stopTimeEntry(userId);
+
+        List<TrackingEvent> events = trackingEventRepository.findByUserIdOrderByIdAsc(userId);
+
+        assertEquals(List.of(TrackingEvent.Type.STARTED, TrackingEvent.Type.STOPPED, TrackingEvent.Type.STARTED, TrackingEvent.Type.STOPPED),
+                events.stream()
+                        .map(TrackingEvent::getType)
+                        .toList());
+        assertEquals(firstTaskId, events.get(1)
+                .getTaskId());
+        assertEquals(secondTaskId, events.get(3)
+                .getTaskId());
+    }
+
+    /**
+     * Проверяет, что откаченная транзакция не оставляет событий в журнале.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Журнал пользователя остается пустым</li>
+     * </ul>
+     */
+    @Test
+    void rolledBackTransaction_ShouldNotAppendEvents() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(firstTaskId));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(trackingEventRepository.findByUserIdOrderByIdAsc(userId)
+                .isEmpty());
+    }
+
+    /**
+     * Проверяет, что таблица time_entries восстанавливается из журнала.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>После удаления записей перестроение возвращает те же ID, задачи и время</li>
+     * </ul>
+     */
+    @Test
+    void replayUser_ShouldRebuildTimeEntriesFromEvents() {
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(firstTaskId));
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(secondTaskId));
+        timeEntryService.stopTimeEntry(userId);
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(firstTaskId));
+        List<Map<String, Object>> original = jdbcTemplate.queryForList(ENTRIES_SQL, userId);
+        jdbcTemplate.update("DELETE FROM time_entries WHERE user_id = ?", userId);
+
+        TrackingReplayResultDTO result = trackingReplayService.replayUser(TimeEntryRebuilder.NAME, userId);
+
+        assertEquals(3, result.getRows());
+        assertEquals(original, jdbcTemplate.queryForList(ENTRIES_SQL, userId));
+    }
+
+    /**
+     * Проверяет, что перестроение пользователя ждет его блокировку и читает события после ее захвата.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Пока транзакция со стартом держит блокировку пользователя, перестроение не завершается</li>
+     *   <li>После фиксации старта перестроение учитывает его событие и сохраняет активную запись</li>
+     * </ul>
+     */
+    @Test
+    void replayUser_ShouldWaitForUserLockAndReadEventsAfterIt() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<TrackingReplayResultDTO> replay = userLockStripes.withLock(userId,
+                    () -> new TransactionTemplate(transactionManager).execute(status -> {
+                        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(firstTaskId));
+                        Future<TrackingReplayResultDTO> pending = executor.submit(
+                                () -> trackingReplayService.replayUser(TimeEntryRebuilder.NAME, userId));
+                        assertThrows(TimeoutException.class, () -> pending.get(300, TimeUnit.MILLISECONDS));
+                        return pending;
+                    }));
+
+            assertEquals(1, replay.get(10, TimeUnit.SECONDS)
+                    .getRows());
+            assertEquals(firstTaskId, jdbcTemplate.queryForObject("SELECT task_id FROM time_entries WHERE active_user_id = ?", Long.class,
+                    userId));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Проверяет, что состояние по снимку и событиям после него учитывает все события.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Снимок создается для пользователя с новыми событиями</li>
+     *   <li>События после снимка применяются поверх него</li>
+     * </ul>
+     */
+    @Test
+    void loadState_ShouldApplyEventsAfterSnapshot() {
+        timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(firstTaskId));
+        timeEntryService.stopTimeEntry(userId);
+        assertTrue(trackingEventStore.takeSnapshots(2) >= 1);
+        Long entryId = timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(secondTaskId))
+                .getId();
+
+        TrackingState state = trackingEventStore.loadState(userId);
+
+        assertEquals(1, state.getCompletedEntries());
+        assertEquals(entryId, state.getActiveEntryId());
+        assertEquals(secondTaskId, state.getActiveTaskId());
+    }
+}
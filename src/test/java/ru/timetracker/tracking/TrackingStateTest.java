@@ -0,0 +1,124 @@
+package ru.timetracker.tracking;
+
+import org.junit.jupiter.api.Test;
+import ru.timetracker.model.TrackingEvent;
+import ru.timetracker.model.TrackingSnapshot;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты свертки журнала трекинга {@link TrackingState}.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Учета старта, остановки и автозавершения</li>
+ *   <li>Корректировки итога событием EDITED</li>
+ *   <li>Совпадения состояния из снимка плюс хвоста с полной сверткой</li>
+ * </ul>
+ */
+class TrackingStateTest {
+
+    private final Long userId = 1L;
+    private final LocalDateTime start = LocalDateTime.of(2025, 1, 10, 9, 0);
+
+    /**
+     * Проверяет свертку старта, остановки и автозавершения.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Завершенные записи суммируются</li>
+     *   <li>Последняя начатая запись остается активной</li>
+     * </ul>
+     */
+    @Test
+    void apply_ShouldTrackActiveEntryAndTotals() {
+        TrackingState state = TrackingState.empty(userId);
+
+        state.apply(event(1L, TrackingEvent.Type.STARTED, 10L, start, null))
+                .apply(event(2L, TrackingEvent.Type.STOPPED, 10L, start, start.plusHours(1)))
+                .apply(event(3L, TrackingEvent.Type.STARTED, 11L, start.plusHours(2), null))
+                .apply(event(4L, TrackingEvent.Type.AUTO_COMPLETED, 11L, start.plusHours(2), start.plusHours(2).plusMinutes(30)))
+                .apply(event(5L, TrackingEvent.Type.STARTED, 12L, start.plusHours(4), null));
+
+        assertEquals(2, state.getCompletedEntries());
+        assertEquals(5400, state.getTrackedSeconds());
+        assertEquals(12L, state.getActiveEntryId());
+        assertEquals(start.plusHours(4), state.getActiveStartTime());
+        assertEquals(5L, state.getLastEventId());
+    }
+
+    /**
+     * Проверяет корректировку итога при изменении завершенной записи.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Итог меняется на разницу новой и прежней продолжительности</li>
+     * </ul>
+     */
+    @Test
+    void apply_ShouldAdjustTotalsOnEdit() {
+        TrackingState state = TrackingState.empty(userId)
+                .apply(event(1L, TrackingEvent.Type.STARTED, 10L, start, null))
+                .apply(event(2L, TrackingEvent.Type.STOPPED, 10L, start, start.plusHours(1)));
+
+        state.apply(TrackingEvent.builder()
+                .id(3L)
+                .userId(userId)
+                .type(TrackingEvent.Type.EDITED)
+                .entryId(10L)
+                .startTime(start)
+                .endTime(start.plusHours(2))
+                .previousStartTime(start)
+                .previousEndTime(start.plusHours(1))
+                .recordedAt(start)
+                .build());
+
+        assertEquals(1, state.getCompletedEntries());
+        assertEquals(7200, state.getTrackedSeconds());
+    }
+
+    /**
+     * Проверяет, что состояние из снимка с последующими событиями совпадает с полной сверткой, а уже учтенные события пропускаются.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Снимок плюс хвост дают то же состояние, что и все события</li>
+     *   <li>Повторное применение события из снимка ничего не меняет</li>
+     * </ul>
+     */
+    @Test
+    void fromSnapshot_ShouldMatchFullReplay() {
+        TrackingEvent[] events = {
+                event(1L, TrackingEvent.Type.STARTED, 10L, start, null),
+                event(2L, TrackingEvent.Type.STOPPED, 10L, start, start.plusMinutes(45)),
+                event(3L, TrackingEvent.Type.STARTED, 11L, start.plusHours(1), null),
+                event(4L, TrackingEvent.Type.STOPPED, 11L, start.plusHours(1), start.plusHours(3))
+        };
+        TrackingState full = TrackingState.empty(userId);
+        for (TrackingEvent event : events) {
+            full.apply(event);
+        }
+
+        TrackingSnapshot snapshot = TrackingState.empty(userId)
+                .apply(events[0])
+                .apply(events[1])
+                .toSnapshot(start);
+        TrackingState restored = TrackingState.fromSnapshot(snapshot)
+                .apply(events[1])
+                .apply(events[2])
+                .apply(events[3]);
+
+        assertEquals(full.toSnapshot(start), restored.toSnapshot(start));
+    }
+
+    private TrackingEvent event(Long id, TrackingEvent.Type type, Long entryId, LocalDateTime startTime, LocalDateTime endTime) {
+        return TrackingEvent.builder()
+                .id(id)
+                .userId(userId)
+                .type(type)
+                .entryId(entryId)
+                .taskId(100L)
+                .startTime(startTime)
+                .endTime(endTime)
+                .recordedAt(startTime)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.timetracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Тесты для {@link DurationFormatter}, проверяющие формат {@code HH:MM}.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Форматирования секунд с отбрасыванием неполной минуты</li>
+ *   <li>Продолжительностей больше суток</li>
+ *   <li>Совпадения результатов для секунд и {@link Duration}</li>
+ * </ul>
+ */
+class DurationFormatterTest {
+
+    /**
+     * Проверяет форматирование количества секунд.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Ноль форматируется как 00:00</li>
+     *   <li>Неполная минута отбрасывается</li>
+     *   <li>Часы не ограничены 24</li>
+     * </ul>
+     */
+    @Test
+    void formatSeconds_ShouldFormatHoursAndMinutes() {
+        assertEquals("00:00", DurationFormatter.formatSeconds(0));
+        assertEquals("01:01", DurationFormatter.formatSeconds(3_719));
+        assertEquals("27:30", DurationFormatter.formatSeconds(27 * 3600 + 30 * 60));
+    }
+
+    /**
+     * Проверяет, что форматирование {@link Duration} совпадает с форматированием секунд.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Одинаковая строка для одинаковой продолжительности</li>
+     * </ul>
+     */
+    @Test
+    void format_ShouldMatchFormatSeconds() {
+        Duration duration = Duration.ofHours(26)
+                .plusMinutes(5)
+                .plusSeconds(59);
+
+        assertEquals(DurationFormatter.formatSeconds(duration.getSeconds()), DurationFormatter.format(duration));
+        assertEquals("26:05", DurationFormatter.format(duration));
+    }
+}
@@ -0,0 +1,122 @@
+package ru.timetracker.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.timetracker.event.TimeEntryEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты журнала отложенной записи {@link TrackingJournal}.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Восстановления несохраненных записей после повторного открытия</li>
+ *   <li>Повторного использования ячеек после отметки о сохранении</li>
+ *   <li>Отбрасывания поврежденной записи</li>
+ * </ul>
+ */
+class TrackingJournalTest {
+
+    private final LocalDateTime start = LocalDateTime.of(2025, 3, 3, 9, 15, 30, 123_456_000);
+
+    @TempDir
+    private Path directory;
+
+    /**
+     * Проверяет, что после повторного открытия восстанавливаются только записи после последней сохраненной.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Поля записей, включая наносекунды и пустое время окончания, сохраняются</li>
+     *   <li>Нумерация продолжается после восстановленных записей</li>
+     * </ul>
+     */
+    @Test
+    void recover_ShouldReturnUnflushedRecords() throws IOException {
+        Path file = directory.resolve("journal");
+        try (TrackingJournal journal = TrackingJournal.open(file, 8, false)) {
+            journal.recover();
+            journal.append(record(TimeEntryEvent.Type.STARTED, 10L, null));
+            journal.append(record(TimeEntryEvent.Type.STOPPED, 10L, start.plusMinutes(5)));
+            journal.markFlushed(1);
+            journal.append(record(TimeEntryEvent.Type.STARTED, 11L, null));
+        }
+
+        try (TrackingJournal journal = TrackingJournal.open(file, 8, false)) {
+            List<JournalRecord> recovered = journal.recover();
+
+            assertEquals(List.of(record(TimeEntryEvent.Type.STOPPED, 10L, start.plusMinutes(5)).withSequence(2),
+                    record(TimeEntryEvent.Type.STARTED, 11L, null).withSequence(3)), recovered);
+            assertEquals(4, journal.append(record(TimeEntryEvent.Type.STOPPED, 11L, start.plusHours(1)))
+                    .sequence());
+        }
+    }
+
+    /**
+     * Проверяет заполнение журнала и повторное использование ячеек.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>При заполнении несохраненными записями добавление отклоняется</li>
+     *   <li>После отметки о сохранении запись снова принимается, а восстановление видит только новый круг</li>
+     * </ul>
+     */
+    @Test
+    void append_ShouldRejectWhenFullAndReuseFlushedSlots() throws IOException {
+        Path file = directory.resolve("journal");
+        try (TrackingJournal journal = TrackingJournal.open(file, 2, false)) {
+            journal.recover();
+            journal.append(record(TimeEntryEvent.Type.STARTED, 1L, null));
+            journal.append(record(TimeEntryEvent.Type.STARTED, 2L, null));
+
+            assertThrows(IllegalStateException.class, () -> journal.append(record(TimeEntryEvent.Type.STARTED, 3L, null)));
+
+            journal.markFlushed(2);
+            journal.append(record(TimeEntryEvent.Type.STARTED, 3L, null));
+        }
+
+        try (TrackingJournal journal = TrackingJournal.open(file, 2, false)) {
+            List<JournalRecord> recovered = journal.recover();
+
+            assertEquals(1, recovered.size());
+            assertEquals(3L, recovered.get(0)
+                    .entryId());
+        }
+    }
+
+    /**
+     * Проверяет, что недописанная запись (неверная контрольная сумма) и все следующие за ней отбрасываются.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Восстанавливаются только записи до поврежденной</li>
+     * </ul>
+     */
+    @Test
+    void recover_ShouldStopAtCorruptedRecord() throws IOException {
+        Path file = directory.resolve("journal");
+        try (TrackingJournal journal = TrackingJournal.open(file, 8, false)) {
+            journal.recover();
+            journal.append(record(TimeEntryEvent.Type.STARTED, 1L, null));
+            journal.append(record(TimeEntryEvent.Type.STOPPED, 1L, start.plusMinutes(1)));
+            journal.append(record(TimeEntryEvent.Type.STARTED, 2L, null));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), TrackingJournal.HEADER_SIZE + TrackingJournal.RECORD_SIZE + 20);
+        }
+
+        try (TrackingJournal journal = TrackingJournal.open(file, 8, false)) {
+            assertEquals(1, journal.recover()
+                    .size());
+        }
+    }
+
+    private JournalRecord record(TimeEntryEvent.Type type, long entryId, LocalDateTime endTime) {
+        return new JournalRecord(0, type, 1L, entryId, 5L, start, endTime);
+    }
+}
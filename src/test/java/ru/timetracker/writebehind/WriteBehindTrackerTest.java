@@ -0,0 +1,262 @@
+package ru.timetracker.writebehind;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.timetracker.dto.task.TaskCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryCreateDTO;
+import ru.timetracker.dto.timeentry.TimeEntryDTO;
+import ru.timetracker.dto.user.UserCreateDTO;
+import ru.timetracker.event.TimeEntryEvent;
+import ru.timetracker.lock.UserLockStripes;
+import ru.timetracker.model.Task;
+import ru.timetracker.model.TimeEntry;
+import ru.timetracker.model.TrackingEvent;
+import ru.timetracker.repository.TaskRepository;
+import ru.timetracker.repository.TimeEntryRepository;
+import ru.timetracker.repository.TrackingEventRepository;
+import ru.timetracker.service.TaskService;
+import ru.timetracker.service.TimeEntryService;
+import ru.timetracker.service.UserService;
+import ru.timetracker.writebehind.config.WriteBehindProperties;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционные тесты режима отложенной записи на H2. Фоновая запись настроена с большим интервалом, чтобы тесты управляли ею
+ * явно через {@link WriteBehindTracker#drain()}.
+ * <p>Включает проверки:
+ * <ul>
+ *   <li>Ответа на старт/остановку без записи в БД и последующей пакетной записи</li>
+ *   <li>Восстановления несохраненных записей из журнала при запуске</li>
+ *   <li>Синхронной записи в БД при заполненном журнале</li>
+ *   <li>Непересекающихся блоков ID при параллельном резервировании и вставках через Hibernate</li>
+ * </ul>
+ */
+@SpringBootTest(properties = {"timetracker.write-behind.enabled=true", "timetracker.write-behind.flush-interval=1h",
+        "timetracker.write-behind.journal-file=target/write-behind/${random.uuid}.journal"})
+class WriteBehindTrackerTest {
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM time_entries WHERE user_id = ?";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TimeEntryService timeEntryService;
+    @Autowired
+    private WriteBehindTracker writeBehindTracker;
+    @Autowired
+    private TimeEntryBatchWriter batchWriter;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+    @Autowired
+    private TrackingEventRepository trackingEventRepository;
+    @Autowired
+    private UserLockStripes userLockStripes;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.createUser(new UserCreateDTO("Journal Tester", "journal-" + UUID.randomUUID() + "@example.com"))
+                .getId();
+        taskId = taskService.createTask(userId, new TaskCreateDTO("Journaled task", "Write-behind test"))
+                .getId();
+    }
+
+    /**
+     * Проверяет, что старт и остановка отвечают из памяти, а в БД попадают после записи журнала.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>До записи журнала строк в time_entries нет</li>
+     *   <li>После записи строки получают ID из ответов, а события попадают в журнал трекинга</li>
+     * </ul>
+     */
+    @Test
+    void startAndStop_ShouldBeWrittenOnDrain() {
+        TimeEntryDTO first = timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(taskId));
+        TimeEntryDTO second = timeEntryService.startTimeEntry(userId, new TimeEntryCreateDTO(taskId));
+        TimeEntryDTO stopped = timeEntryService.stopTimeEntry(userId);
+
+        assertEquals(second.getId(), stopped.getId());
+        assertFalse(stopped.isActive());
+        assertEquals(0, jdbcTemplate.queryForObject(COUNT_SQL, Integer.class, userId));
+
+        writeBehindTracker.drain();
+
+        assertEquals(2, jdbcTemplate.queryForObject(COUNT_SQL, Integer.class, userId));
+        assertNotNull(timeEntryRepository.findById(first.getId())
+                .orElseThrow()
+                .getEndTime());
+        assertEquals(stopped.getEndTime()
+                .withNano(0), timeEntryRepository.findById(second.getId())
+                .orElseThrow()
+                .getEndTime()
+                .withNano(0));
+        assertEquals(List.of(TrackingEvent.Type.STARTED, TrackingEvent.Type.STOPPED, TrackingEvent.Type.STARTED, TrackingEvent.Type.STOPPED),
+                trackingEventRepository.findByUserIdOrderByIdAsc(userId)
+                        .stream()
+                        .map(TrackingEvent::getType)
+                        .toList());
+    }
+
+    /**
+     * Проверяет, что заполненный журнал записывается в БД синхронно при старте.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Старты сверх емкости журнала не отклоняются: накопленное записывается в БД и место в журнале освобождается</li>
+     *   <li>Все записи, кроме активной, оказываются в БД завершенными</li>
+     * </ul>
+     */
+    @Test
+    void start_ShouldFlushSynchronouslyWhenJournalIsFull() {
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setJournalFile(Path.of("target", "write-behind", UUID.randomUUID() + ".journal"));
+        properties.setCapacity(4);
+        properties.setFlushInterval(Duration.ofHours(1));
+        WriteBehindTracker small = new WriteBehindTracker(properties, batchWriter, taskRepository, timeEntryRepository, userLockStripes);
+        small.start();
+        try {
+            for (int i = 0; i < 5; i++) {
+                small.start(userId, taskId);
+            }
+
+            assertTrue(small.getFlushedCount() > 0);
+            assertTrue(small.getPendingCount() <= 4);
+            small.drain();
+            assertEquals(5, jdbcTemplate.queryForObject(COUNT_SQL, Integer.class, userId));
+            assertEquals(4, jdbcTemplate.queryForObject(COUNT_SQL + " AND end_time IS NOT NULL", Integer.class, userId));
+        } finally {
+            small.stop();
+        }
+    }
+
+    /**
+     * Проверяет, что записи, оставшиеся в журнале после аварийного завершения, записываются в БД при запуске.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Восстановленная запись времени появляется в БД завершенной</li>
+     *   <li>Журнал после запуска не содержит несохраненных записей</li>
+     * </ul>
+     */
+    @Test
+    void start_ShouldReplayUnflushedRecords() throws IOException {
+        Path file = Path.of("target", "write-behind", UUID.randomUUID() + ".journal");
+        long entryId = batchWriter.reserveIdBlock();
+        LocalDateTime startTime = LocalDateTime.now()
+                .minusMinutes(30);
+        try (TrackingJournal journal = TrackingJournal.open(file, 16, false)) {
+            journal.recover();
+            journal.append(new JournalRecord(0, TimeEntryEvent.Type.STARTED, userId, entryId, taskId, startTime, null));
+            journal.append(new JournalRecord(0, TimeEntryEvent.Type.STOPPED, userId, entryId, taskId, startTime, startTime.plusMinutes(20)));
+        }
+
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setJournalFile(file);
+        properties.setFlushInterval(Duration.ofHours(1));
+        WriteBehindTracker recovering = new WriteBehindTracker(properties, batchWriter, taskRepository, timeEntryRepository,
+                userLockStripes);
+        recovering.start();
+        try {
+            assertEquals(0, recovering.getPendingCount());
+            assertEquals(Duration.ofMinutes(20), timeEntryRepository.findById(entryId)
+                    .orElseThrow()
+                    .getDuration());
+        } finally {
+            recovering.stop();
+        }
+    }
+
+    /**
+     * Проверяет, что параллельное резервирование блоков ID не выдает пересекающихся блоков и не пересекается с ID, которые
+     * одновременно выдает Hibernate.
+     * <p>Ожидаемое поведение:
+     * <ul>
+     *   <li>Блоки всех потоков не пересекаются</li>
+     *   <li>ID записей, сохраненных через Hibernate, не попадают ни в один зарезервированный блок</li>
+     * </ul>
+     */
+    @Test
+    void reserveIdBlock_ShouldReturnDisjointBlocksUnderConcurrency() throws Exception {
+        int threads = 8;
+        int blocksPerThread = 20;
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow();
+        LocalDateTime startTime = LocalDateTime.now()
+                .minusHours(1);
+        List<Callable<List<Long>>> reservations = new ArrayList<>();
+        List<Callable<Long>> saves = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            reservations.add(() -> {
+                List<Long> firstIds = new ArrayList<>();
+                for (int j = 0; j < blocksPerThread; j++) {
+                    firstIds.add(batchWriter.reserveIdBlock());
+                }
+                return firstIds;
+            });
+            saves.add(() -> timeEntryRepository.save(TimeEntry.builder()
+                            .user(task.getUser())
+                            .task(task)
+                            .startTime(startTime)
+                            .endTime(startTime.plusMinutes(1))
+                            .build())
+                    .getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+        List<Long> firstIds = new ArrayList<>();
+        List<Long> savedIds = new ArrayList<>();
+        try {
+            List<Future<List<Long>>> reserved = new ArrayList<>();
+            List<Future<Long>> saved = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                reserved.add(executor.submit(reservations.get(i)));
+                saved.add(executor.submit(saves.get(i)));
+            }
+            for (Future<List<Long>> future : reserved) {
+                firstIds.addAll(future.get());
+            }
+            for (Future<Long> future : saved) {
+                savedIds.add(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> sorted = firstIds.stream()
+                .sorted()
+                .toList();
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue(sorted.get(i) - sorted.get(i - 1) >= TimeEntry.ID_ALLOCATION_SIZE,
+                    "Blocks starting at " + sorted.get(i - 1) + " and " + sorted.get(i) + " overlap");
+        }
+        for (Long savedId : savedIds) {
+            assertTrue(sorted.stream()
+                    .noneMatch(firstId -> savedId >= firstId && savedId < firstId + TimeEntry.ID_ALLOCATION_SIZE),
+                    "Hibernate id " + savedId + " falls into a reserved block");
+        }
+    }
+}